@@ -0,0 +1,112 @@
+package com.vueloscolombia.backend.config;
+
+import org.slf4j.MDC;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.Map;
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+@EnableAsync
+@EnableScheduling
+public class AsyncConfig {
+
+    // Lleva el MDC (correlacion) del hilo que encola al que ejecuta, para seguir una peticion en el log
+    private static final TaskDecorator PROPAGAR_MDC = tarea -> {
+        Map<String, String> contexto = MDC.getCopyOfContextMap();
+        return () -> {
+            Map<String, String> anterior = MDC.getCopyOfContextMap();
+            if (contexto == null) MDC.clear(); else MDC.setContextMap(contexto);
+            try {
+                tarea.run();
+            } finally {
+                if (anterior == null) MDC.clear(); else MDC.setContextMap(anterior);
+            }
+        };
+    };
+
+    // Operaciones masivas de administracion: pocas a la vez, cada una recorre la tabla por lotes
+    @Bean(name = "operacionesExecutor")
+    public ThreadPoolTaskExecutor operacionesExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(20);
+        executor.setThreadNamePrefix("operacion-");
+        executor.setTaskDecorator(PROPAGAR_MDC);
+        executor.initialize();
+        return executor;
+    }
+
+    // Promotor de la lista de espera: no comparte hilos con las peticiones HTTP
+    @Bean(name = "listaEsperaExecutor")
+    public ThreadPoolTaskExecutor listaEsperaExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(1000);
+        executor.setThreadNamePrefix("lista-espera-");
+        executor.setTaskDecorator(PROPAGAR_MDC);
+        executor.initialize();
+        return executor;
+    }
+
+    // Lotes en paralelo de la reconstruccion de analitica
+    @Bean(name = "analiticaExecutor")
+    public ThreadPoolTaskExecutor analiticaExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(10000);
+        executor.setThreadNamePrefix("analitica-");
+        executor.setTaskDecorator(PROPAGAR_MDC);
+        executor.initialize();
+        return executor;
+    }
+
+    // Generacion de boletos PDF en lote; si la cola se llena genera el hilo que los pidio
+    @Bean(name = "documentosExecutor")
+    public ThreadPoolTaskExecutor documentosExecutor() {
+        int nucleos = Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(nucleos);
+        executor.setMaxPoolSize(nucleos);
+        executor.setQueueCapacity(1000);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("documentos-");
+        executor.setTaskDecorator(PROPAGAR_MDC);
+        executor.initialize();
+        return executor;
+    }
+
+    // Reconstruccion de las respuestas cacheadas del catalogo: un solo hilo, los cambios se agrupan
+    @Bean(name = "catalogoExecutor")
+    public ThreadPoolTaskExecutor catalogoExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(10);
+        executor.setThreadNamePrefix("catalogo-");
+        executor.setTaskDecorator(PROPAGAR_MDC);
+        executor.initialize();
+        return executor;
+    }
+
+    // Recargas completas de los indices en memoria, fuera del hilo que publico el cambio masivo
+    @Bean(name = "indicesExecutor")
+    public ThreadPoolTaskExecutor indicesExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(10);
+        executor.setThreadNamePrefix("indices-");
+        executor.setTaskDecorator(PROPAGAR_MDC);
+        executor.initialize();
+        return executor;
+    }
+}
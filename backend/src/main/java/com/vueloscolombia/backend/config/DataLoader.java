@@ -3,10 +3,11 @@ package com.vueloscolombia.backend.config;
 import com.vueloscolombia.backend.model.Rol;
 import com.vueloscolombia.backend.model.Usuario;
 import com.vueloscolombia.backend.model.Vuelo;
-import com.vueloscolombia.backend.repository.ReservaRepository;
 import com.vueloscolombia.backend.repository.UsuarioRepository;
 import com.vueloscolombia.backend.repository.VueloRepository;
+import com.vueloscolombia.backend.service.OperacionMasivaService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
@@ -24,15 +25,22 @@ public class DataLoader implements CommandLineRunner {
     private UsuarioRepository usuarioRepository;
 
     @Autowired
-    private ReservaRepository reservaRepository;
+    private OperacionMasivaService operacionMasivaService;
 
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    // Se lee en ejecucion (no como condicion) para que tambien aplique a la imagen nativa
+    @Value("${app.datos-iniciales.habilitado:true}")
+    private boolean habilitado;
+
     @Override
     public void run(String... args) {
+        if (!habilitado) {
+            return;
+        }
         // Limpiar todas las reservas al iniciar
-        reservaRepository.deleteAll();
+        operacionMasivaService.purgarReservas();
         
         // Cargar usuarios y roles de forma idempotente
         // Usuario Administrador
@@ -0,0 +1,88 @@
+package com.vueloscolombia.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Primaria mas replicas de lectura opcionales ({@code app.datasource.replicas.urls}, separadas por
+ * coma). Sin replicas configuradas todo sigue yendo a la primaria como antes.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Value("${app.datasource.replicas.urls:}")
+    private String urlsReplicas;
+
+    @Value("${app.datasource.replicas.username:${spring.datasource.username:}}")
+    private String usuarioReplicas;
+
+    @Value("${app.datasource.replicas.password:${spring.datasource.password:}}")
+    private String claveReplicas;
+
+    @Value("${app.datasource.replicas.tamano-pool:10}")
+    private int tamanoPoolReplicas;
+
+    @Value("${app.datasource.lectura-propia-ms:5000}")
+    private long ventanaLecturaPropiaMs;
+
+    private DataSourceEnrutado enrutado;
+
+    // Declaradas aqui porque con R2DBC en el classpath Spring Boot deja de autoconfigurar JDBC
+    @Bean
+    @ConfigurationProperties("spring.datasource")
+    public DataSourceProperties dataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSourcePrimaria(DataSourceProperties properties) {
+        HikariDataSource ds = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        ds.setPoolName("primaria");
+        return ds;
+    }
+
+    @Bean
+    public DataSourceEnrutado dataSourceEnrutado(@Qualifier("dataSourcePrimaria") DataSource primaria) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        int i = 0;
+        for (String url : urlsReplicas.split(",")) {
+            if (url.isBlank()) continue;
+            HikariDataSource ds = new HikariDataSource();
+            ds.setPoolName("replica-" + i);
+            ds.setJdbcUrl(url.trim());
+            ds.setUsername(usuarioReplicas);
+            ds.setPassword(claveReplicas);
+            ds.setMaximumPoolSize(tamanoPoolReplicas);
+            ds.setReadOnly(true);
+            replicas.put("replica-" + i++, ds);
+        }
+        enrutado = new DataSourceEnrutado(primaria, replicas, ventanaLecturaPropiaMs);
+        return enrutado;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceEnrutado enrutado) {
+        return new LazyConnectionDataSourceProxy(enrutado);
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replicas.verificacion-ms:5000}")
+    public void verificarReplicas() {
+        if (enrutado != null) {
+            enrutado.verificarReplicas();
+        }
+    }
+}
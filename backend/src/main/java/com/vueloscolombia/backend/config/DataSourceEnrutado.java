@@ -0,0 +1,140 @@
+package com.vueloscolombia.backend.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Envia las transacciones de solo lectura a las replicas (turno rotativo entre las que pasaron la
+ * ultima verificacion) y todo lo demas a la primaria. Un usuario que acaba de escribir queda fijado
+ * a la primaria durante una ventana corta para que lea sus propios cambios aunque la replica vaya
+ * atrasada. Debe envolverse en un {@code LazyConnectionDataSourceProxy}: la conexion se elige al
+ * primer uso, cuando ya se sabe si la transaccion es de solo lectura.
+ */
+public class DataSourceEnrutado extends AbstractRoutingDataSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataSourceEnrutado.class);
+
+    public static final String PRIMARIA = "primaria";
+
+    private final Map<String, DataSource> replicas;
+    private final Map<String, Boolean> sanas = new ConcurrentHashMap<>();
+    private final Map<String, Long> fijadosHasta = new ConcurrentHashMap<>();
+    private final AtomicInteger turno = new AtomicInteger();
+    private final long ventanaLecturaPropiaMs;
+
+    public DataSourceEnrutado(DataSource primaria, Map<String, DataSource> replicas, long ventanaLecturaPropiaMs) {
+        this.replicas = new LinkedHashMap<>(replicas);
+        this.ventanaLecturaPropiaMs = ventanaLecturaPropiaMs;
+        Map<Object, Object> destinos = new HashMap<>(replicas);
+        destinos.put(PRIMARIA, primaria);
+        setTargetDataSources(destinos);
+        setDefaultTargetDataSource(primaria);
+        replicas.keySet().forEach(r -> sanas.put(r, true));
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String usuario = usuarioActual();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (usuario != null && TransactionSynchronizationManager.isActualTransactionActive()) {
+                fijarAPrimaria(usuario);
+            }
+            return PRIMARIA;
+        }
+        if (usuario != null && estaFijado(usuario)) {
+            return PRIMARIA;
+        }
+        return siguienteReplica();
+    }
+
+    public void fijarAPrimaria(String usuario) {
+        long ahora = System.currentTimeMillis();
+        fijadosHasta.put(usuario, ahora + ventanaLecturaPropiaMs);
+        // Limpieza ocasional para que el mapa no crezca con usuarios que ya no escriben
+        if (fijadosHasta.size() > 10_000) {
+            fijadosHasta.values().removeIf(hasta -> hasta < ahora);
+        }
+    }
+
+    /** Comprueba cada replica con {@link Connection#isValid}; las caidas salen del turno hasta que respondan. */
+    public void verificarReplicas() {
+        replicas.forEach((nombre, ds) -> {
+            boolean sana;
+            try (Connection c = ds.getConnection()) {
+                sana = c.isValid(2);
+            } catch (Exception e) {
+                sana = false;
+            }
+            Boolean antes = sanas.put(nombre, sana);
+            if (antes != null && antes != sana) {
+                if (sana) {
+                    logger.info("Replica {} disponible de nuevo", nombre);
+                } else {
+                    logger.warn("Replica {} no responde; sus lecturas van a la primaria", nombre);
+                }
+            }
+        });
+    }
+
+    public Map<String, Boolean> estadoReplicas() {
+        return new LinkedHashMap<>(sanas);
+    }
+
+    /** Cierra los pools de las replicas; la primaria la cierra quien la creo. */
+    public void close() throws Exception {
+        for (DataSource ds : replicas.values()) {
+            if (ds instanceof AutoCloseable c) {
+                c.close();
+            }
+        }
+    }
+
+    private String siguienteReplica() {
+        List<String> disponibles = new ArrayList<>(replicas.size());
+        for (String nombre : replicas.keySet()) {
+            if (Boolean.TRUE.equals(sanas.get(nombre))) {
+                disponibles.add(nombre);
+            }
+        }
+        if (disponibles.isEmpty()) {
+            return PRIMARIA;
+        }
+        return disponibles.get(Math.floorMod(turno.getAndIncrement(), disponibles.size()));
+    }
+
+    private boolean estaFijado(String usuario) {
+        Long hasta = fijadosHasta.get(usuario);
+        if (hasta == null) {
+            return false;
+        }
+        if (hasta < System.currentTimeMillis()) {
+            fijadosHasta.remove(usuario, hasta);
+            return false;
+        }
+        return true;
+    }
+
+    private static String usuarioActual() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated() || auth instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return auth.getName();
+    }
+}
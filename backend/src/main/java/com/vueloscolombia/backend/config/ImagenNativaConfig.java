@@ -0,0 +1,83 @@
+package com.vueloscolombia.backend.config;
+
+import com.vueloscolombia.backend.log.EncoderLog;
+import com.vueloscolombia.backend.log.FormatoLogJson;
+import com.vueloscolombia.backend.log.MensajeRedactadoConverter;
+import com.vueloscolombia.backend.log.MuestreoLogFilter;
+import com.vueloscolombia.backend.model.CancelacionReserva;
+import com.vueloscolombia.backend.model.CotizacionUsada;
+import com.vueloscolombia.backend.model.EventoOutbox;
+import com.vueloscolombia.backend.model.ListaEspera;
+import com.vueloscolombia.backend.model.MapaAsientos;
+import com.vueloscolombia.backend.model.MensajeInvalidacion;
+import com.vueloscolombia.backend.model.Reserva;
+import com.vueloscolombia.backend.model.ReservaHistorica;
+import com.vueloscolombia.backend.model.Rol;
+import com.vueloscolombia.backend.model.Usuario;
+import com.vueloscolombia.backend.model.Vuelo;
+import com.vueloscolombia.backend.model.VueloHistorico;
+import com.vueloscolombia.backend.traza.ContadorSentencias;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import java.util.List;
+
+/**
+ * Pistas para la imagen nativa ({@code mvn -Pnative native:compile}): lo que se usa por reflexion o
+ * se lee del classpath sin que el analisis de AOT lo pueda ver. En la JVM no tiene efecto.
+ */
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(ImagenNativaConfig.Pistas.class)
+public class ImagenNativaConfig {
+
+    static class Pistas implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // Entidades: Hibernate las instancia y recorre sus campos; Jackson serializa Vuelo y Reserva tal cual
+            for (Class<?> entidad : List.of(Vuelo.class, Usuario.class, Reserva.class, Rol.class, ListaEspera.class,
+                    MapaAsientos.class, EventoOutbox.class, MensajeInvalidacion.class, ReservaHistorica.class,
+                    VueloHistorico.class, CancelacionReserva.class,
+                    CotizacionUsada.class)) {
+                hints.reflection().registerType(entidad, MemberCategory.values());
+            }
+            // Hibernate crea el inspector de sentencias a partir del nombre en application.properties
+            hints.reflection().registerType(ContadorSentencias.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+
+            // JJWT 0.11 carga su implementacion por nombre (Classes.newInstance) y el serializador con ServiceLoader
+            for (String clase : List.of("io.jsonwebtoken.impl.DefaultJwtBuilder",
+                    "io.jsonwebtoken.impl.DefaultJwtParserBuilder", "io.jsonwebtoken.impl.DefaultJwtParser",
+                    "io.jsonwebtoken.impl.DefaultClaims", "io.jsonwebtoken.impl.DefaultHeader",
+                    "io.jsonwebtoken.impl.DefaultJwsHeader", "io.jsonwebtoken.impl.compression.DefaultCompressionCodecResolver",
+                    "io.jsonwebtoken.impl.compression.DeflateCompressionCodec",
+                    "io.jsonwebtoken.impl.compression.GzipCompressionCodec",
+                    "io.jsonwebtoken.jackson.io.JacksonSerializer", "io.jsonwebtoken.jackson.io.JacksonDeserializer")) {
+                hints.reflection().registerTypeIfPresent(classLoader, clase,
+                        MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                        MemberCategory.INVOKE_PUBLIC_METHODS);
+            }
+            hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+
+            // PDFBox: metricas de las 14 fuentes estandar (Helvetica), glifos, fuente de respaldo y perfiles ICC
+            hints.resources().registerPattern("org/apache/pdfbox/resources/afm/*");
+            hints.resources().registerPattern("org/apache/pdfbox/resources/glyphlist/*");
+            hints.resources().registerPattern("org/apache/pdfbox/resources/ttf/*");
+            hints.resources().registerPattern("org/apache/pdfbox/resources/icc/*");
+            hints.resources().registerPattern("org/apache/pdfbox/resources/text/*");
+            hints.resources().registerPattern("org/apache/fontbox/cmap/*");
+            hints.resources().registerPattern("org/apache/fontbox/unicode/*");
+            hints.resources().registerPattern("pdf/*");
+
+            // Clases que logback crea y configura por reflexion desde logback-spring.xml
+            for (Class<?> clase : List.of(EncoderLog.class, MuestreoLogFilter.class, MensajeRedactadoConverter.class,
+                    FormatoLogJson.class)) {
+                hints.reflection().registerType(clase, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS,
+                        MemberCategory.INVOKE_PUBLIC_METHODS);
+            }
+            hints.resources().registerPattern("logback-spring.xml");
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.vueloscolombia.backend.controller;
+
+import org.springframework.web.bind.annotation.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import com.vueloscolombia.backend.dto.IndicadoresDTO;
+import com.vueloscolombia.backend.dto.ProgresoOperacion;
+import com.vueloscolombia.backend.service.AnaliticaService;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/analitica")
+@CrossOrigin(origins = "${app.cors.allowed-origins}")
+public class AdminAnaliticaController {
+
+    @Autowired
+    private AnaliticaService analiticaService;
+
+    @GetMapping("/resumen")
+    public IndicadoresDTO resumen() { return analiticaService.resumen(); }
+
+    @GetMapping("/vuelos/{vueloId}")
+    public IndicadoresDTO vuelo(@PathVariable Long vueloId) { return analiticaService.porVuelo(vueloId); }
+
+    @GetMapping("/rutas")
+    public List<IndicadoresDTO> rutas() { return analiticaService.porRuta(); }
+
+    @GetMapping("/aerolineas")
+    public List<IndicadoresDTO> aerolineas() { return analiticaService.porAerolinea(); }
+
+    @GetMapping("/dias")
+    public List<IndicadoresDTO> dias() { return analiticaService.porDia(); }
+
+    @PostMapping("/reconstruir")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ProgresoOperacion reconstruir() { return analiticaService.reconstruirAsync(); }
+}
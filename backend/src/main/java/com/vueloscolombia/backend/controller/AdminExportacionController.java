@@ -0,0 +1,88 @@
+package com.vueloscolombia.backend.controller;
+
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import com.vueloscolombia.backend.service.BoletoService;
+import com.vueloscolombia.backend.service.ExportacionService;
+import com.vueloscolombia.backend.service.ExportacionService.Formato;
+import java.io.OutputStream;
+import java.util.function.BiConsumer;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/api/admin/exportaciones")
+@CrossOrigin(origins = "${app.cors.allowed-origins}")
+public class AdminExportacionController {
+
+    @Autowired
+    private ExportacionService exportacionService;
+
+    @Autowired
+    private BoletoService boletoService;
+
+    @GetMapping("/vuelos/{vueloId}/pasajeros")
+    public ResponseEntity<StreamingResponseBody> pasajeros(@PathVariable Long vueloId,
+                                                           @RequestParam(defaultValue = "csv") String formato,
+                                                           @RequestParam(defaultValue = "0") long desde,
+                                                           @RequestHeader HttpHeaders cabeceras) {
+        return descargar("pasajeros_vuelo_" + vueloId, formato, cabeceras,
+                (f, out) -> exportacionService.exportarPasajeros(vueloId, desde, f, out));
+    }
+
+    @GetMapping("/vuelos/{vueloId}/boletos")
+    public ResponseEntity<StreamingResponseBody> boletos(@PathVariable Long vueloId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=boletos_vuelo_" + vueloId + ".zip");
+        StreamingResponseBody cuerpo = out -> boletoService.boletosDeVuelo(vueloId, out);
+        return ResponseEntity.ok()
+                .headers(headers)
+                .contentType(new MediaType("application", "zip"))
+                .body(cuerpo);
+    }
+
+    @GetMapping("/vuelos")
+    public ResponseEntity<StreamingResponseBody> vuelos(@RequestParam(defaultValue = "csv") String formato,
+                                                        @RequestParam(defaultValue = "0") long desde,
+                                                        @RequestHeader HttpHeaders cabeceras) {
+        return descargar("vuelos", formato, cabeceras, (f, out) -> exportacionService.exportarVuelos(desde, f, out));
+    }
+
+    @GetMapping("/reservas")
+    public ResponseEntity<StreamingResponseBody> reservas(@RequestParam(defaultValue = "csv") String formato,
+                                                          @RequestParam(defaultValue = "0") long desde,
+                                                          @RequestHeader HttpHeaders cabeceras) {
+        return descargar("reservas", formato, cabeceras, (f, out) -> exportacionService.exportarReservas(desde, f, out));
+    }
+
+    private ResponseEntity<StreamingResponseBody> descargar(String nombre, String formato, HttpHeaders cabeceras,
+                                                            BiConsumer<Formato, OutputStream> exportar) {
+        Formato f = "ndjson".equalsIgnoreCase(formato) ? Formato.NDJSON : Formato.CSV;
+        boolean gzip = Codificaciones.aceptaGzip(cabeceras);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=" + nombre + (f == Formato.CSV ? ".csv" : ".ndjson"));
+        if (gzip) {
+            headers.add(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        StreamingResponseBody cuerpo = out -> {
+            if (gzip) {
+                try (GZIPOutputStream gz = new GZIPOutputStream(out, 16 * 1024)) {
+                    exportar.accept(f, gz);
+                }
+            } else {
+                exportar.accept(f, out);
+            }
+        };
+        return ResponseEntity.ok()
+                .headers(headers)
+                .contentType(f == Formato.CSV ? new MediaType("text", "csv") : MediaType.APPLICATION_NDJSON)
+                .body(cuerpo);
+    }
+}
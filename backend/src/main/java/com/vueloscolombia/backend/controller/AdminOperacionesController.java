@@ -0,0 +1,70 @@
+package com.vueloscolombia.backend.controller;
+
+import org.springframework.web.bind.annotation.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import com.vueloscolombia.backend.dto.ConciliacionDTO;
+import com.vueloscolombia.backend.dto.ProgresoOperacion;
+import com.vueloscolombia.backend.service.ArchivoService;
+import com.vueloscolombia.backend.service.ConciliacionService;
+import com.vueloscolombia.backend.service.OperacionMasivaService;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/operaciones")
+@CrossOrigin(origins = "${app.cors.allowed-origins}")
+public class AdminOperacionesController {
+
+    @Autowired
+    private OperacionMasivaService operacionMasivaService;
+
+    @Autowired
+    private ConciliacionService conciliacionService;
+
+    @Autowired
+    private ArchivoService archivoService;
+
+    @GetMapping
+    public List<ProgresoOperacion> listar() { return operacionMasivaService.listar(); }
+
+    @GetMapping("/{id}")
+    public ProgresoOperacion progreso(@PathVariable String id) { return operacionMasivaService.obtener(id); }
+
+    @DeleteMapping("/reservas")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ProgresoOperacion purgarReservas() { return operacionMasivaService.purgarReservasAsync(); }
+
+    @PostMapping("/vuelos/{vueloId}/cancelar-reservas")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ProgresoOperacion cancelarReservasVuelo(@PathVariable Long vueloId) {
+        return operacionMasivaService.cancelarReservasVueloAsync(vueloId);
+    }
+
+    @DeleteMapping("/vuelos")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ProgresoOperacion eliminarVuelos(@RequestBody List<Long> vueloIds) {
+        return operacionMasivaService.eliminarVuelosAsync(vueloIds);
+    }
+
+    @PostMapping("/rutas/precio")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ProgresoOperacion reajustarPrecioRuta(@RequestParam String origen, @RequestParam String destino,
+                                                 @RequestParam double factor) {
+        return operacionMasivaService.reajustarPrecioRutaAsync(origen, destino, factor);
+    }
+
+    @PostMapping("/conciliacion")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ProgresoOperacion conciliar(@RequestParam(defaultValue = "false") boolean corregir) {
+        return conciliacionService.conciliarAsync(corregir);
+    }
+
+    @GetMapping("/conciliacion/ultima")
+    public ConciliacionDTO ultimaConciliacion() { return conciliacionService.ultima(); }
+
+    @PostMapping("/archivo")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ProgresoOperacion archivar(@RequestParam(defaultValue = "${app.archivo.dias-horizonte:30}") int dias) {
+        return archivoService.archivarAsync(dias);
+    }
+}
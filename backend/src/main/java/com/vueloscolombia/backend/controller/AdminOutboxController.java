@@ -0,0 +1,18 @@
+package com.vueloscolombia.backend.controller;
+
+import org.springframework.web.bind.annotation.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import com.vueloscolombia.backend.dto.EstadoOutboxDTO;
+import com.vueloscolombia.backend.service.OutboxService;
+
+@RestController
+@RequestMapping("/api/admin/outbox")
+@CrossOrigin(origins = "${app.cors.allowed-origins}")
+public class AdminOutboxController {
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @GetMapping
+    public EstadoOutboxDTO estado() { return outboxService.estado(); }
+}
@@ -0,0 +1,21 @@
+package com.vueloscolombia.backend.controller;
+
+import org.springframework.web.bind.annotation.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import com.vueloscolombia.backend.dto.TrazaDTO;
+import com.vueloscolombia.backend.service.TrazaService;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/trazas")
+@CrossOrigin(origins = "${app.cors.allowed-origins}")
+public class AdminTrazaController {
+
+    @Autowired
+    private TrazaService trazaService;
+
+    @GetMapping
+    public List<TrazaDTO> masLentas(@RequestParam(defaultValue = "50") int limite) {
+        return trazaService.masLentas(limite);
+    }
+}
@@ -0,0 +1,43 @@
+package com.vueloscolombia.backend.controller;
+
+import org.springframework.http.HttpHeaders;
+
+import java.util.List;
+import java.util.Locale;
+
+/** Negociacion de la codificacion de las respuestas, comun al catalogo y a las exportaciones. */
+final class Codificaciones {
+
+    private Codificaciones() {}
+
+    /** Accept-Encoding con pesos (RFC 9110): "gzip;q=0" lo rechaza y "*" lo acepta si gzip no aparece. */
+    static boolean aceptaGzip(HttpHeaders cabeceras) {
+        return aceptaGzip(cabeceras.getValuesAsList(HttpHeaders.ACCEPT_ENCODING));
+    }
+
+    static boolean aceptaGzip(List<String> codificaciones) {
+        Double gzip = null, comodin = null;
+        for (String valor : codificaciones) {
+            String[] partes = valor.split(";");
+            String nombre = partes[0].trim().toLowerCase(Locale.ROOT);
+            double q = 1.0;
+            for (int i = 1; i < partes.length; i++) {
+                String parametro = partes[i].trim();
+                if (parametro.length() > 2 && (parametro.startsWith("q=") || parametro.startsWith("Q="))) {
+                    try {
+                        q = Double.parseDouble(parametro.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        q = 0;
+                    }
+                }
+            }
+            if (nombre.equals("gzip") || nombre.equals("x-gzip")) {
+                gzip = q;
+            } else if (nombre.equals("*")) {
+                comodin = q;
+            }
+        }
+        double peso = gzip != null ? gzip : comodin != null ? comodin : 0;
+        return peso > 0;
+    }
+}
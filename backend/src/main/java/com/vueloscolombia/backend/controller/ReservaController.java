@@ -2,8 +2,18 @@ package com.vueloscolombia.backend.controller;
 
 import org.springframework.web.bind.annotation.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import com.vueloscolombia.backend.service.BoletoService;
+import com.vueloscolombia.backend.service.CotizacionService;
 import com.vueloscolombia.backend.service.ReservaService;
+import com.vueloscolombia.backend.service.ListaEsperaService;
+import com.vueloscolombia.backend.model.ListaEspera;
 import com.vueloscolombia.backend.model.Reserva;
+import com.vueloscolombia.backend.dto.CotizacionDTO;
+import com.vueloscolombia.backend.dto.ProgresoOperacion;
+import com.vueloscolombia.backend.dto.ReservaDTO;
 import java.security.Principal;
 import java.util.List;
 
@@ -15,15 +25,62 @@ public class ReservaController {
     @Autowired
     private ReservaService reservaService;
 
+    @Autowired
+    private ListaEsperaService listaEsperaService;
+
+    @Autowired
+    private BoletoService boletoService;
+
+    @Autowired
+    private CotizacionService cotizacionService;
+
     @PostMapping("/{vueloId}")
-    public Reserva reservar(@PathVariable Long vueloId, @RequestParam int cantidad, Principal principal) {
-        return reservaService.crearReserva(vueloId, principal.getName(), cantidad);
+    public Reserva reservar(@PathVariable Long vueloId, @RequestParam int cantidad,
+                            @RequestParam(required = false) List<String> asientos,
+                            @RequestParam(required = false) String cotizacion, Principal principal) {
+        return reservaService.crearReserva(vueloId, principal.getName(), cantidad, asientos, cotizacion);
+    }
+
+    // Fija la tarifa actual por unos minutos; el token se envia luego como ?cotizacion= al reservar
+    @PostMapping("/cotizacion/{vueloId}")
+    public CotizacionDTO cotizar(@PathVariable Long vueloId, @RequestParam int cantidad, Principal principal) {
+        return cotizacionService.cotizar(vueloId, principal.getName(), cantidad);
+    }
+
+    @PostMapping("/lote")
+    public List<Reserva> reservarLote(@RequestBody List<ReservaDTO> solicitudes, Principal principal) {
+        return reservaService.crearReservas(solicitudes, principal.getName());
+    }
+
+    @PostMapping("/{vueloId}/lista-espera")
+    public ListaEspera inscribirListaEspera(@PathVariable Long vueloId, @RequestParam int cantidad, Principal principal) {
+        return listaEsperaService.inscribir(vueloId, principal.getName(), cantidad);
+    }
+
+    @GetMapping("/lista-espera/me")
+    public List<ListaEspera> miListaEspera(Principal principal) {
+        return listaEsperaService.pendientesPorUsername(principal.getName());
+    }
+
+    @DeleteMapping("/lista-espera/{id}")
+    public void cancelarListaEspera(@PathVariable Long id, Principal principal) {
+        listaEsperaService.cancelar(id, principal.getName());
     }
 
     @GetMapping("/me")
-    public List<Reserva> misReservas(Principal principal) {
-        System.out.println("Obteniendo reservas para el usuario: " + principal.getName());
-        return reservaService.reservasPorUsername(principal.getName());
+    public List<Reserva> misReservas(@RequestParam(defaultValue = "false") boolean historial, Principal principal) {
+        return reservaService.reservasPorUsername(principal.getName(), historial);
+    }
+
+    @GetMapping(value = "/{id}/boleto", produces = MediaType.APPLICATION_PDF_VALUE)
+    public ResponseEntity<byte[]> boleto(@PathVariable Long id, Principal principal) {
+        byte[] pdf = boletoService.boletoDeReserva(id, principal.getName());
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=boleto_" + id + ".pdf");
+        return ResponseEntity.ok()
+                .headers(headers)
+                .contentType(MediaType.APPLICATION_PDF)
+                .body(pdf);
     }
 
     @GetMapping("/usuario/{usuarioId}")
@@ -32,8 +89,8 @@ public class ReservaController {
     }
 
     @DeleteMapping("/all")
-    public void eliminarTodasLasReservas() {
-        reservaService.eliminarTodasLasReservas();
+    public ProgresoOperacion eliminarTodasLasReservas() {
+        return reservaService.eliminarTodasLasReservas();
     }
 
     @DeleteMapping("/{id}")
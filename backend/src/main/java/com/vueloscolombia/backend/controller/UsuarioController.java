@@ -1,11 +1,12 @@
 package com.vueloscolombia.backend.controller;
 
+import com.vueloscolombia.backend.dto.PaginaDTO;
 import com.vueloscolombia.backend.dto.UsuarioDTO;
+import com.vueloscolombia.backend.dto.UsuarioResumenDTO;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import com.vueloscolombia.backend.service.UsuarioService;
 import com.vueloscolombia.backend.model.Usuario;
-import java.util.List;
 
 import java.security.Principal;
 
@@ -18,7 +19,14 @@ public class UsuarioController {
     private UsuarioService usuarioService;
 
     @GetMapping
-    public List<Usuario> listar() { return usuarioService.listar(); }
+    public PaginaDTO<UsuarioResumenDTO> listar(@RequestParam(required = false) String documento,
+                                               @RequestParam(required = false) String nombre,
+                                               @RequestParam(required = false) String username,
+                                               @RequestParam(defaultValue = "id") String orden,
+                                               @RequestParam(required = false) String despues,
+                                               @RequestParam(defaultValue = "50") int tamano) {
+        return usuarioService.listar(documento, nombre, username, orden, despues, tamano);
+    }
 
     @GetMapping("/me")
     public Usuario obtenerUsuarioActual(Principal principal) {
@@ -15,6 +15,19 @@ import com.vueloscolombia.backend.model.Reserva;
 import com.vueloscolombia.backend.model.Usuario;
 import com.vueloscolombia.backend.service.PdfService;
 import com.vueloscolombia.backend.service.ReservaService;
+import com.vueloscolombia.backend.service.RedRutasService;
+import com.vueloscolombia.backend.dto.ItinerarioDTO;
+import com.vueloscolombia.backend.dto.TarifaDiaDTO;
+import com.vueloscolombia.backend.service.CalendarioTarifasService;
+import com.vueloscolombia.backend.dto.MapaAsientosDTO;
+import com.vueloscolombia.backend.service.MapaAsientosService;
+import com.vueloscolombia.backend.service.CatalogoCacheService;
+import com.vueloscolombia.backend.dto.BusquedaFlexibleDTO;
+import com.vueloscolombia.backend.service.BusquedaFlexibleService;
+import com.vueloscolombia.backend.dto.DisponibilidadDTO;
+import com.vueloscolombia.backend.service.DisponibilidadService;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.stream.Collectors;
 
 @RestController
@@ -31,14 +44,82 @@ public class VueloController {
     @Autowired
     private PdfService pdfService;
 
+    @Autowired
+    private RedRutasService redRutasService;
+
+    @Autowired
+    private CalendarioTarifasService calendarioTarifasService;
+
+    @Autowired
+    private MapaAsientosService mapaAsientosService;
+
+    @Autowired
+    private CatalogoCacheService catalogoCacheService;
+
+    @Autowired
+    private BusquedaFlexibleService busquedaFlexibleService;
+
+    @Autowired
+    private DisponibilidadService disponibilidadService;
+
+    private static final MediaType SMILE = MediaType.valueOf("application/x-jackson-smile");
+
+    // JSON sale de la cache ya codificado; CBOR/Smile siguen por la serializacion normal
     @GetMapping
-    public List<Vuelo> listar() { return vueloService.listar(); }
+    public ResponseEntity<?> listar(@RequestHeader HttpHeaders cabeceras) {
+        if (!aceptaJson(cabeceras)) {
+            return ResponseEntity.ok(vueloService.listar());
+        }
+        return desdeCache(catalogoCacheService.catalogo(), cabeceras);
+    }
 
     @GetMapping("/buscar")
-    public List<Vuelo> buscar(@RequestParam String origen, @RequestParam String destino) {
-        return vueloService.buscar(origen, destino);
+    public ResponseEntity<?> buscar(@RequestParam String origen, @RequestParam String destino,
+                                    @RequestHeader HttpHeaders cabeceras) {
+        if (!aceptaJson(cabeceras)) {
+            return ResponseEntity.ok(vueloService.buscar(origen, destino));
+        }
+        return desdeCache(catalogoCacheService.busqueda(origen, destino), cabeceras);
+    }
+
+    @GetMapping("/buscar/flexible")
+    public BusquedaFlexibleDTO buscarFlexible(@RequestParam String origen, @RequestParam String destino,
+                                              @RequestParam String fecha,
+                                              @RequestParam(defaultValue = "3") int dias,
+                                              @RequestParam(defaultValue = "1") int pasajeros,
+                                              @RequestParam(defaultValue = "3") int porDia) {
+        return busquedaFlexibleService.buscar(origen, destino, fecha, dias, pasajeros, porDia);
+    }
+
+    @GetMapping("/itinerarios")
+    public List<ItinerarioDTO> itinerarios(@RequestParam String origen, @RequestParam String destino,
+                                           @RequestParam String fecha,
+                                           @RequestParam(defaultValue = "1") int pasajeros,
+                                           @RequestParam(defaultValue = "2") int escalas,
+                                           @RequestParam(defaultValue = "precio") String orden,
+                                           @RequestParam(defaultValue = "10") int limite) {
+        return redRutasService.buscar(origen, destino, fecha, pasajeros, escalas, orden, limite);
+    }
+
+    @GetMapping("/calendario")
+    public List<TarifaDiaDTO> calendario(@RequestParam String origen, @RequestParam String destino,
+                                         @RequestParam String mes,
+                                         @RequestParam(defaultValue = "1") int meses) {
+        return calendarioTarifasService.calendario(origen, destino, mes, meses);
     }
 
+    // Conteo de asientos desde el indice en memoria, para refrescar resultados ya mostrados
+    @GetMapping("/disponibilidad")
+    public List<DisponibilidadDTO> disponibilidad(@RequestParam List<Long> ids) {
+        if (ids.size() > 1000) {
+            throw new RuntimeException("Maximo 1000 vuelos por consulta");
+        }
+        return disponibilidadService.consultar(ids);
+    }
+
+    @GetMapping("/{id}/asientos")
+    public MapaAsientosDTO asientos(@PathVariable Long id) { return mapaAsientosService.consultar(id); }
+
     @PostMapping
     public Vuelo crear(@RequestBody Vuelo vuelo) { return vueloService.guardar(vuelo); }
 
@@ -84,4 +165,32 @@ public class VueloController {
             return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
+
+    private static ResponseEntity<byte[]> desdeCache(CatalogoCacheService.Respuesta r, HttpHeaders cabeceras) {
+        if (cabeceras.getIfNoneMatch().contains(r.getEtag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(r.getEtag()).build();
+        }
+        boolean gzip = Codificaciones.aceptaGzip(cabeceras);
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(r.getEtag())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            respuesta.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return respuesta.body(gzip ? r.getGzip() : r.getJson());
+    }
+
+    private static boolean aceptaJson(HttpHeaders cabeceras) {
+        List<MediaType> aceptados = new ArrayList<>(cabeceras.getAccept());
+        if (aceptados.isEmpty()) {
+            return true;
+        }
+        aceptados.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType m : aceptados) {
+            if (m.isCompatibleWith(MediaType.APPLICATION_JSON)) return true;
+            if (m.isCompatibleWith(MediaType.APPLICATION_CBOR) || m.isCompatibleWith(SMILE)) return false;
+        }
+        return false;
+    }
 }
@@ -0,0 +1,32 @@
+package com.vueloscolombia.backend.controller;
+
+import com.vueloscolombia.backend.model.Vuelo;
+import com.vueloscolombia.backend.service.VueloReactivoService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+/**
+ * Catalogo y busqueda sin bloqueo, junto a los controladores MVC. Con {@code Accept: application/x-ndjson}
+ * (por defecto) cada vuelo se escribe apenas llega de la base; con {@code application/json} se devuelve
+ * el arreglo completo, igual que {@code /api/vuelos}.
+ */
+@RestController
+@RequestMapping("/api/vuelos/flujo")
+@CrossOrigin(origins = "${app.cors.allowed-origins}")
+public class VueloReactivoController {
+
+    @Autowired
+    private VueloReactivoService vueloReactivoService;
+
+    @GetMapping(produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<Vuelo> listar() {
+        return vueloReactivoService.listar();
+    }
+
+    @GetMapping(value = "/buscar", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<Vuelo> buscar(@RequestParam String origen, @RequestParam String destino) {
+        return vueloReactivoService.buscar(origen, destino);
+    }
+}
@@ -0,0 +1,23 @@
+package com.vueloscolombia.backend.dto;
+
+import com.vueloscolombia.backend.model.Vuelo;
+
+import java.util.List;
+
+public class BusquedaFlexibleDTO {
+    private final String fechaSolicitada;
+    // Todos los dias de la ventana en orden de calendario, cada uno con sus opciones de menor precio
+    private final List<DiaFlexibleDTO> dias;
+    // Las mejores opciones de toda la ventana: precio, luego cercania a la fecha pedida
+    private final List<Vuelo> mejores;
+
+    public BusquedaFlexibleDTO(String fechaSolicitada, List<DiaFlexibleDTO> dias, List<Vuelo> mejores) {
+        this.fechaSolicitada = fechaSolicitada;
+        this.dias = dias;
+        this.mejores = mejores;
+    }
+
+    public String getFechaSolicitada() { return fechaSolicitada; }
+    public List<DiaFlexibleDTO> getDias() { return dias; }
+    public List<Vuelo> getMejores() { return mejores; }
+}
@@ -0,0 +1,37 @@
+package com.vueloscolombia.backend.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+public class ConciliacionDTO {
+    private final String operacionId;
+    private final boolean corregir;
+    private final Instant inicio;
+    private final Instant fin;
+    private final long vuelosRevisados;
+    private final long discrepancias;
+    private final long corregidos;
+    // Muestra limitada de discrepancias, ordenada por vuelo
+    private final List<DiscrepanciaInventarioDTO> detalle;
+
+    public ConciliacionDTO(String operacionId, boolean corregir, Instant inicio, Instant fin, long vuelosRevisados,
+                           long discrepancias, long corregidos, List<DiscrepanciaInventarioDTO> detalle) {
+        this.operacionId = operacionId;
+        this.corregir = corregir;
+        this.inicio = inicio;
+        this.fin = fin;
+        this.vuelosRevisados = vuelosRevisados;
+        this.discrepancias = discrepancias;
+        this.corregidos = corregidos;
+        this.detalle = detalle;
+    }
+
+    public String getOperacionId() { return operacionId; }
+    public boolean isCorregir() { return corregir; }
+    public Instant getInicio() { return inicio; }
+    public Instant getFin() { return fin; }
+    public long getVuelosRevisados() { return vuelosRevisados; }
+    public long getDiscrepancias() { return discrepancias; }
+    public long getCorregidos() { return corregidos; }
+    public List<DiscrepanciaInventarioDTO> getDetalle() { return detalle; }
+}
@@ -0,0 +1,28 @@
+package com.vueloscolombia.backend.dto;
+
+public class CotizacionDTO {
+    // Token firmado que fija el precio; se envia al reservar
+    private final String token;
+    private final Long vueloId;
+    private final int cantidad;
+    private final double precioUnitario;
+    private final double total;
+    // Epoch en milisegundos
+    private final long expira;
+
+    public CotizacionDTO(String token, Long vueloId, int cantidad, double precioUnitario, double total, long expira) {
+        this.token = token;
+        this.vueloId = vueloId;
+        this.cantidad = cantidad;
+        this.precioUnitario = precioUnitario;
+        this.total = total;
+        this.expira = expira;
+    }
+
+    public String getToken() { return token; }
+    public Long getVueloId() { return vueloId; }
+    public int getCantidad() { return cantidad; }
+    public double getPrecioUnitario() { return precioUnitario; }
+    public double getTotal() { return total; }
+    public long getExpira() { return expira; }
+}
@@ -0,0 +1,26 @@
+package com.vueloscolombia.backend.dto;
+
+import com.vueloscolombia.backend.model.Vuelo;
+
+import java.util.List;
+
+public class DiaFlexibleDTO {
+    private final String fecha;
+    // Dias respecto a la fecha pedida (negativo = antes)
+    private final int diferenciaDias;
+    // null cuando ese dia no hay vuelos con cupo para los pasajeros pedidos
+    private final Double precioMinimo;
+    private final List<Vuelo> opciones;
+
+    public DiaFlexibleDTO(String fecha, int diferenciaDias, Double precioMinimo, List<Vuelo> opciones) {
+        this.fecha = fecha;
+        this.diferenciaDias = diferenciaDias;
+        this.precioMinimo = precioMinimo;
+        this.opciones = opciones;
+    }
+
+    public String getFecha() { return fecha; }
+    public int getDiferenciaDias() { return diferenciaDias; }
+    public Double getPrecioMinimo() { return precioMinimo; }
+    public List<Vuelo> getOpciones() { return opciones; }
+}
@@ -0,0 +1,34 @@
+package com.vueloscolombia.backend.dto;
+
+public class DiscrepanciaInventarioDTO {
+
+    public enum Tipo { DESCUADRE, SOBREVENTA, CAPACIDAD_DESCONOCIDA }
+
+    private final Long vueloId;
+    private final Tipo tipo;
+    private final Integer capacidad;
+    private final int disponibles;
+    private final long reservados;
+    // Disponibles segun capacidad - reservados; nulo si no se conoce la capacidad
+    private final Integer esperado;
+    private volatile boolean corregido;
+
+    public DiscrepanciaInventarioDTO(Long vueloId, Tipo tipo, Integer capacidad, int disponibles, long reservados, Integer esperado) {
+        this.vueloId = vueloId;
+        this.tipo = tipo;
+        this.capacidad = capacidad;
+        this.disponibles = disponibles;
+        this.reservados = reservados;
+        this.esperado = esperado;
+    }
+
+    public void marcarCorregido() { this.corregido = true; }
+
+    public Long getVueloId() { return vueloId; }
+    public Tipo getTipo() { return tipo; }
+    public Integer getCapacidad() { return capacidad; }
+    public int getDisponibles() { return disponibles; }
+    public long getReservados() { return reservados; }
+    public Integer getEsperado() { return esperado; }
+    public boolean isCorregido() { return corregido; }
+}
@@ -0,0 +1,18 @@
+package com.vueloscolombia.backend.dto;
+
+public class DisponibilidadDTO {
+    private final Long vueloId;
+    private final int disponibles;
+    // null en vuelos creados antes de registrar la capacidad
+    private final Integer capacidad;
+
+    public DisponibilidadDTO(Long vueloId, int disponibles, Integer capacidad) {
+        this.vueloId = vueloId;
+        this.disponibles = disponibles;
+        this.capacidad = capacidad;
+    }
+
+    public Long getVueloId() { return vueloId; }
+    public int getDisponibles() { return disponibles; }
+    public Integer getCapacidad() { return capacidad; }
+}
@@ -0,0 +1,34 @@
+package com.vueloscolombia.backend.dto;
+
+import java.time.Instant;
+
+public class EstadoOutboxDTO {
+    private final long pendientes;
+    private final long descartados;
+    private final long despachados;
+    private final long fallos;
+    // Antiguedad del evento pendiente mas viejo
+    private final long retrasoPendienteMs;
+    // Tiempo entre la escritura y la entrega del ultimo evento despachado
+    private final long retrasoUltimoMs;
+    private final Instant ultimaEjecucion;
+
+    public EstadoOutboxDTO(long pendientes, long descartados, long despachados, long fallos,
+                           long retrasoPendienteMs, long retrasoUltimoMs, Instant ultimaEjecucion) {
+        this.pendientes = pendientes;
+        this.descartados = descartados;
+        this.despachados = despachados;
+        this.fallos = fallos;
+        this.retrasoPendienteMs = retrasoPendienteMs;
+        this.retrasoUltimoMs = retrasoUltimoMs;
+        this.ultimaEjecucion = ultimaEjecucion;
+    }
+
+    public long getPendientes() { return pendientes; }
+    public long getDescartados() { return descartados; }
+    public long getDespachados() { return despachados; }
+    public long getFallos() { return fallos; }
+    public long getRetrasoPendienteMs() { return retrasoPendienteMs; }
+    public long getRetrasoUltimoMs() { return retrasoUltimoMs; }
+    public Instant getUltimaEjecucion() { return ultimaEjecucion; }
+}
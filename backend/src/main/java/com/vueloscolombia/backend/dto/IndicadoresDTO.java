@@ -0,0 +1,31 @@
+package com.vueloscolombia.backend.dto;
+
+public class IndicadoresDTO {
+    private final String clave;
+    private final long reservas;
+    private final long asientosVendidos;
+    private final long cancelaciones;
+    private final long asientosCancelados;
+    private final double ingresos;
+    private final Double ocupacion;
+
+    public IndicadoresDTO(String clave, long reservas, long asientosVendidos, long cancelaciones,
+                          long asientosCancelados, double ingresos, Double ocupacion) {
+        this.clave = clave;
+        this.reservas = reservas;
+        this.asientosVendidos = asientosVendidos;
+        this.cancelaciones = cancelaciones;
+        this.asientosCancelados = asientosCancelados;
+        this.ingresos = ingresos;
+        this.ocupacion = ocupacion;
+    }
+
+    public String getClave() { return clave; }
+    public long getReservas() { return reservas; }
+    public long getAsientosVendidos() { return asientosVendidos; }
+    public long getCancelaciones() { return cancelaciones; }
+    public long getAsientosCancelados() { return asientosCancelados; }
+    public double getIngresos() { return ingresos; }
+    // Factor de ocupacion (0..1); solo aplica a vuelos individuales
+    public Double getOcupacion() { return ocupacion; }
+}
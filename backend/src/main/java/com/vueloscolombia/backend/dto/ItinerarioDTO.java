@@ -0,0 +1,24 @@
+package com.vueloscolombia.backend.dto;
+
+import java.util.List;
+
+public class ItinerarioDTO {
+    private final List<TramoVuelo> tramos;
+    // Tarifa de venta de cada tramo al momento de la busqueda, en el mismo orden que tramos
+    private final List<Double> tarifas;
+    private final double precioTotal;
+    private final long duracionMinutos;
+
+    public ItinerarioDTO(List<TramoVuelo> tramos, List<Double> tarifas, double precioTotal, long duracionMinutos) {
+        this.tramos = tramos;
+        this.tarifas = tarifas;
+        this.precioTotal = precioTotal;
+        this.duracionMinutos = duracionMinutos;
+    }
+
+    public List<TramoVuelo> getTramos() { return tramos; }
+    public List<Double> getTarifas() { return tarifas; }
+    public double getPrecioTotal() { return precioTotal; }
+    public long getDuracionMinutos() { return duracionMinutos; }
+    public int getEscalas() { return tramos.size() - 1; }
+}
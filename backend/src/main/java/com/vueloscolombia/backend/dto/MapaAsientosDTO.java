@@ -0,0 +1,28 @@
+package com.vueloscolombia.backend.dto;
+
+import java.util.List;
+
+public class MapaAsientosDTO {
+    private final Long vueloId;
+    private final int capacidad;
+    private final int filas;
+    private final String letras;
+    private final int libres;
+    private final List<String> ocupados;
+
+    public MapaAsientosDTO(Long vueloId, int capacidad, int filas, String letras, int libres, List<String> ocupados) {
+        this.vueloId = vueloId;
+        this.capacidad = capacidad;
+        this.filas = filas;
+        this.letras = letras;
+        this.libres = libres;
+        this.ocupados = ocupados;
+    }
+
+    public Long getVueloId() { return vueloId; }
+    public int getCapacidad() { return capacidad; }
+    public int getFilas() { return filas; }
+    public String getLetras() { return letras; }
+    public int getLibres() { return libres; }
+    public List<String> getOcupados() { return ocupados; }
+}
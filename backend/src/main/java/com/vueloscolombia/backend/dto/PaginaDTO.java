@@ -0,0 +1,17 @@
+package com.vueloscolombia.backend.dto;
+
+import java.util.List;
+
+public class PaginaDTO<T> {
+    private final List<T> items;
+    // Cursor para pedir la pagina siguiente; null cuando no hay mas resultados
+    private final String siguiente;
+
+    public PaginaDTO(List<T> items, String siguiente) {
+        this.items = items;
+        this.siguiente = siguiente;
+    }
+
+    public List<T> getItems() { return items; }
+    public String getSiguiente() { return siguiente; }
+}
@@ -0,0 +1,68 @@
+package com.vueloscolombia.backend.dto;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ProgresoOperacion {
+
+    public enum Estado { PENDIENTE, EN_CURSO, COMPLETADA, FALLIDA }
+
+    private final String id;
+    private final String tipo;
+    private final Instant creada = Instant.now();
+    private final AtomicLong lotesProcesados = new AtomicLong();
+    private final AtomicLong filasAfectadas = new AtomicLong();
+    private volatile long lotesTotales;
+    private volatile Estado estado = Estado.PENDIENTE;
+    private volatile Instant inicio;
+    private volatile Instant fin;
+    private volatile String error;
+
+    public ProgresoOperacion(String id, String tipo) {
+        this.id = id;
+        this.tipo = tipo;
+    }
+
+    public void iniciar(long lotesTotales) {
+        this.lotesTotales = lotesTotales;
+        this.inicio = Instant.now();
+        this.estado = Estado.EN_CURSO;
+    }
+
+    public void loteCompletado(long filas) {
+        filasAfectadas.addAndGet(filas);
+        lotesProcesados.incrementAndGet();
+    }
+
+    public void completar() {
+        this.fin = Instant.now();
+        this.estado = Estado.COMPLETADA;
+    }
+
+    public void fallar(String error) {
+        this.fin = Instant.now();
+        this.error = error;
+        this.estado = Estado.FALLIDA;
+    }
+
+    public boolean isTerminada() {
+        return estado == Estado.COMPLETADA || estado == Estado.FALLIDA;
+    }
+
+    public double getPorcentaje() {
+        if (estado == Estado.COMPLETADA) return 100.0;
+        long total = lotesTotales;
+        return total == 0 ? 0.0 : Math.min(100.0, lotesProcesados.get() * 100.0 / total);
+    }
+
+    public String getId() { return id; }
+    public String getTipo() { return tipo; }
+    public Instant getCreada() { return creada; }
+    public long getLotesProcesados() { return lotesProcesados.get(); }
+    public long getLotesTotales() { return lotesTotales; }
+    public long getFilasAfectadas() { return filasAfectadas.get(); }
+    public Estado getEstado() { return estado; }
+    public Instant getInicio() { return inicio; }
+    public Instant getFin() { return fin; }
+    public String getError() { return error; }
+}
@@ -5,6 +5,8 @@ public class ReservaDTO {
     private Long usuarioId;
     private Long vueloId;
     private int cantidad;
+    // Token de cotizacion opcional; si viene, se cobra el precio cotizado
+    private String cotizacion;
 
     public ReservaDTO() {}
 
@@ -39,4 +41,10 @@ public class ReservaDTO {
     public void setCantidad(int cantidad) {
         this.cantidad = cantidad;
     }
+    public String getCotizacion() {
+        return cotizacion;
+    }
+    public void setCotizacion(String cotizacion) {
+        this.cotizacion = cotizacion;
+    }
 }
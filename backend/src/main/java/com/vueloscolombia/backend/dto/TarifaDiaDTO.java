@@ -0,0 +1,15 @@
+package com.vueloscolombia.backend.dto;
+
+public class TarifaDiaDTO {
+    private final String fecha;
+    private final Double precioMinimo;
+
+    public TarifaDiaDTO(String fecha, Double precioMinimo) {
+        this.fecha = fecha;
+        this.precioMinimo = precioMinimo;
+    }
+
+    public String getFecha() { return fecha; }
+    // null cuando ese dia no hay vuelos con asientos en la ruta
+    public Double getPrecioMinimo() { return precioMinimo; }
+}
@@ -0,0 +1,82 @@
+package com.vueloscolombia.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.vueloscolombia.backend.model.Vuelo;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Copia inmutable de un vuelo dentro del grafo de rutas en memoria. Solo los asientos
+ * disponibles cambian, y se actualizan en sitio con cada reserva o cancelacion.
+ */
+public class TramoVuelo {
+
+    private final Long id;
+    private final String origen;
+    private final String destino;
+    private final String fecha;
+    private final String horaSalida;
+    private final String horaLlegada;
+    private final String aerolinea;
+    private final double precio;
+    private final Integer capacidad;
+    // Minutos desde la epoca, para comparar conexiones sin volver a parsear fechas
+    private final long salida;
+    private final long llegada;
+    private final AtomicInteger disponibles;
+
+    private TramoVuelo(Vuelo v, long salida, long llegada) {
+        this.id = v.getId();
+        this.origen = v.getOrigen();
+        this.destino = v.getDestino();
+        this.fecha = v.getFecha();
+        this.horaSalida = v.getHoraSalida();
+        this.horaLlegada = v.getHoraLlegada();
+        this.aerolinea = v.getAerolinea();
+        this.precio = v.getPrecio();
+        this.capacidad = v.getCapacidad();
+        this.salida = salida;
+        this.llegada = llegada;
+        this.disponibles = new AtomicInteger(v.getDisponibles());
+    }
+
+    /** Devuelve null si el vuelo no tiene fecha u horas validas. */
+    public static TramoVuelo desde(Vuelo v) {
+        try {
+            LocalDate dia = LocalDate.parse(v.getFecha());
+            long base = dia.toEpochDay() * 1440;
+            long salida = base + LocalTime.parse(v.getHoraSalida()).toSecondOfDay() / 60;
+            long llegada = base + LocalTime.parse(v.getHoraLlegada()).toSecondOfDay() / 60;
+            if (llegada < salida) {
+                llegada += 1440; // llega al dia siguiente
+            }
+            return new TramoVuelo(v, salida, llegada);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    public int ajustarDisponibles(int delta) {
+        return disponibles.addAndGet(delta);
+    }
+
+    public Long getId() { return id; }
+    public String getOrigen() { return origen; }
+    public String getDestino() { return destino; }
+    public String getFecha() { return fecha; }
+    public String getHoraSalida() { return horaSalida; }
+    public String getHoraLlegada() { return horaLlegada; }
+    public String getAerolinea() { return aerolinea; }
+    public double getPrecio() { return precio; }
+    public Integer getCapacidad() { return capacidad; }
+    public int getDisponibles() { return disponibles.get(); }
+    // Dias desde la epoca del dia de salida, para tarifar sin parsear la fecha
+    @JsonIgnore
+    public long getDiaSalida() { return Math.floorDiv(salida, 1440); }
+    @JsonIgnore
+    public long getSalida() { return salida; }
+    @JsonIgnore
+    public long getLlegada() { return llegada; }
+}
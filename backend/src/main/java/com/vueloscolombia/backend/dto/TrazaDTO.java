@@ -0,0 +1,35 @@
+package com.vueloscolombia.backend.dto;
+
+import java.time.Instant;
+import java.util.Map;
+
+public class TrazaDTO {
+    private final Instant fecha;
+    private final String metodo;
+    private final String ruta;
+    private final int estado;
+    private final double totalMs;
+    // Tiempo exclusivo por fase, en milisegundos
+    private final Map<String, Double> fasesMs;
+    // Sentencias SQL por fase; las de "serializacion" son cargas perezosas
+    private final Map<String, Integer> sentencias;
+
+    public TrazaDTO(Instant fecha, String metodo, String ruta, int estado, double totalMs,
+                    Map<String, Double> fasesMs, Map<String, Integer> sentencias) {
+        this.fecha = fecha;
+        this.metodo = metodo;
+        this.ruta = ruta;
+        this.estado = estado;
+        this.totalMs = totalMs;
+        this.fasesMs = fasesMs;
+        this.sentencias = sentencias;
+    }
+
+    public Instant getFecha() { return fecha; }
+    public String getMetodo() { return metodo; }
+    public String getRuta() { return ruta; }
+    public int getEstado() { return estado; }
+    public double getTotalMs() { return totalMs; }
+    public Map<String, Double> getFasesMs() { return fasesMs; }
+    public Map<String, Integer> getSentencias() { return sentencias; }
+}
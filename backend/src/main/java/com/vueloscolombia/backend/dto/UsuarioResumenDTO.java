@@ -0,0 +1,30 @@
+package com.vueloscolombia.backend.dto;
+
+public class UsuarioResumenDTO {
+    private final Long id;
+    private final String username;
+    private final String tipoDocumento;
+    private final String numeroDocumento;
+    private final String primerNombre;
+    private final String primerApellido;
+    private final String numeroCelular;
+
+    public UsuarioResumenDTO(Long id, String username, String tipoDocumento, String numeroDocumento,
+                             String primerNombre, String primerApellido, String numeroCelular) {
+        this.id = id;
+        this.username = username;
+        this.tipoDocumento = tipoDocumento;
+        this.numeroDocumento = numeroDocumento;
+        this.primerNombre = primerNombre;
+        this.primerApellido = primerApellido;
+        this.numeroCelular = numeroCelular;
+    }
+
+    public Long getId() { return id; }
+    public String getUsername() { return username; }
+    public String getTipoDocumento() { return tipoDocumento; }
+    public String getNumeroDocumento() { return numeroDocumento; }
+    public String getPrimerNombre() { return primerNombre; }
+    public String getPrimerApellido() { return primerApellido; }
+    public String getNumeroCelular() { return numeroCelular; }
+}
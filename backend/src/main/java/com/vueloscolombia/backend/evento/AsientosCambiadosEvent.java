@@ -0,0 +1,19 @@
+package com.vueloscolombia.backend.evento;
+
+/**
+ * Se publica cuando cambia el numero de asientos disponibles de un vuelo.
+ * delta es positivo cuando se liberan asientos y negativo cuando se reservan.
+ */
+public class AsientosCambiadosEvent {
+
+    private final Long vueloId;
+    private final int delta;
+
+    public AsientosCambiadosEvent(Long vueloId, int delta) {
+        this.vueloId = vueloId;
+        this.delta = delta;
+    }
+
+    public Long getVueloId() { return vueloId; }
+    public int getDelta() { return delta; }
+}
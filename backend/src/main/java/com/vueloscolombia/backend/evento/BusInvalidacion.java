@@ -0,0 +1,15 @@
+package com.vueloscolombia.backend.evento;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Transporte de invalidaciones entre nodos. Cada nodo se suscribe con su identificador y recibe los
+ * lotes publicados por los demas, nunca los propios. Se elige con {@code app.invalidacion.bus}.
+ */
+public interface BusInvalidacion {
+
+    void publicar(String nodo, List<Invalidacion> lote);
+
+    void suscribir(String nodo, Consumer<List<Invalidacion>> receptor);
+}
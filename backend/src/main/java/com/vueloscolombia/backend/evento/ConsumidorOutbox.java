@@ -0,0 +1,19 @@
+package com.vueloscolombia.backend.evento;
+
+import com.vueloscolombia.backend.model.EventoOutbox;
+
+/**
+ * Efecto secundario que se ejecuta fuera de la peticion a partir de la tabla evento_outbox.
+ * La entrega es al menos una vez: si un consumidor falla el evento se reintenta completo,
+ * asi que cada implementacion debe tolerar recibir el mismo evento mas de una vez.
+ */
+public interface ConsumidorOutbox {
+
+    String getNombre();
+
+    default boolean acepta(String tipo) {
+        return true;
+    }
+
+    void procesar(EventoOutbox evento) throws Exception;
+}
@@ -0,0 +1,81 @@
+package com.vueloscolombia.backend.evento;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Mensaje del bus de invalidacion entre nodos: que cambio, no como. Quien lo recibe vuelve a leer
+ * el dato de la base de datos, asi los mensajes se pueden repetir o reordenar sin dejar las caches mal.
+ * Se codifica en una linea corta: {@code V12} (vuelo 12), {@code C} (todo el catalogo) o {@code Uusuario}.
+ */
+public final class Invalidacion {
+
+    public enum Tipo { VUELO, CATALOGO, USUARIO }
+
+    private static final Invalidacion CATALOGO = new Invalidacion(Tipo.CATALOGO, "");
+
+    private final Tipo tipo;
+    private final String clave;
+
+    private Invalidacion(Tipo tipo, String clave) {
+        this.tipo = tipo;
+        this.clave = clave;
+    }
+
+    public static Invalidacion vuelo(Long vueloId) {
+        return new Invalidacion(Tipo.VUELO, String.valueOf(vueloId));
+    }
+
+    public static Invalidacion catalogo() {
+        return CATALOGO;
+    }
+
+    public static Invalidacion usuario(String username) {
+        return new Invalidacion(Tipo.USUARIO, username);
+    }
+
+    public Tipo getTipo() { return tipo; }
+    public String getClave() { return clave; }
+    public Long getVueloId() { return Long.valueOf(clave); }
+
+    public static String codificar(Collection<Invalidacion> lote) {
+        StringBuilder sb = new StringBuilder();
+        for (Invalidacion i : lote) {
+            if (sb.length() > 0) sb.append('\n');
+            sb.append(i.tipo.name().charAt(0)).append(i.clave);
+        }
+        return sb.toString();
+    }
+
+    public static List<Invalidacion> decodificar(String contenido) {
+        List<Invalidacion> lote = new ArrayList<>();
+        for (String linea : contenido.split("\n")) {
+            if (linea.isEmpty()) continue;
+            String clave = linea.substring(1);
+            switch (linea.charAt(0)) {
+                case 'V' -> lote.add(new Invalidacion(Tipo.VUELO, clave));
+                case 'C' -> lote.add(CATALOGO);
+                case 'U' -> lote.add(new Invalidacion(Tipo.USUARIO, clave));
+                default -> { } // tipo de una version mas nueva: se ignora
+            }
+        }
+        return lote;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Invalidacion i && tipo == i.tipo && clave.equals(i.clave);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(tipo, clave);
+    }
+
+    @Override
+    public String toString() {
+        return tipo.name().charAt(0) + clave;
+    }
+}
@@ -0,0 +1,71 @@
+package com.vueloscolombia.backend.evento;
+
+import com.vueloscolombia.backend.model.Reserva;
+import com.vueloscolombia.backend.model.Vuelo;
+
+/**
+ * Se publica cuando se crean o cancelan reservas. Lleva los datos del vuelo para que los
+ * oyentes (analitica, etc.) no tengan que volver a consultarlo. Una cancelacion masiva se
+ * publica como un solo evento con el total de reservas, asientos e importe del lote.
+ */
+public class ReservaCambiadaEvent {
+
+    public enum Tipo { CREADA, CANCELADA }
+
+    private final Tipo tipo;
+    private final Long vueloId;
+    private final String origen;
+    private final String destino;
+    private final String aerolinea;
+    private final String fecha;
+    private final int reservas;
+    private final int asientos;
+    private final double importe;
+    // Solo en eventos de una reserva individual
+    private Long reservaId;
+    private String username;
+
+    public ReservaCambiadaEvent(Tipo tipo, Vuelo vuelo, int reservas, int asientos, double importe) {
+        this.tipo = tipo;
+        this.vueloId = vuelo.getId();
+        this.origen = vuelo.getOrigen();
+        this.destino = vuelo.getDestino();
+        this.aerolinea = vuelo.getAerolinea();
+        this.fecha = vuelo.getFecha();
+        this.reservas = reservas;
+        this.asientos = asientos;
+        this.importe = importe;
+    }
+
+    public static ReservaCambiadaEvent creada(Reserva r) {
+        return individual(Tipo.CREADA, r);
+    }
+
+    public static ReservaCambiadaEvent cancelada(Reserva r) {
+        return individual(Tipo.CANCELADA, r);
+    }
+
+    private static ReservaCambiadaEvent individual(Tipo tipo, Reserva r) {
+        ReservaCambiadaEvent e = new ReservaCambiadaEvent(tipo, r.getVuelo(), 1, r.getCantidad(), importe(r));
+        e.reservaId = r.getId();
+        e.username = r.getUsuario() != null ? r.getUsuario().getUsername() : null;
+        return e;
+    }
+
+    public static double importe(Reserva r) {
+        double precio = r.getPrecioUnitario() != null ? r.getPrecioUnitario() : r.getVuelo().getPrecio();
+        return precio * r.getCantidad();
+    }
+
+    public Tipo getTipo() { return tipo; }
+    public Long getVueloId() { return vueloId; }
+    public String getOrigen() { return origen; }
+    public String getDestino() { return destino; }
+    public String getAerolinea() { return aerolinea; }
+    public String getFecha() { return fecha; }
+    public int getReservas() { return reservas; }
+    public int getAsientos() { return asientos; }
+    public double getImporte() { return importe; }
+    public Long getReservaId() { return reservaId; }
+    public String getUsername() { return username; }
+}
@@ -0,0 +1,19 @@
+package com.vueloscolombia.backend.evento;
+
+/**
+ * Se publica cuando se modifican los datos de un usuario. Con {@code remoto} viene de otro nodo por
+ * el bus de invalidacion; cualquier cache local de usuarios debe descartar su copia.
+ */
+public class UsuarioCambiadoEvent {
+
+    private final String username;
+    private final boolean remoto;
+
+    public UsuarioCambiadoEvent(String username, boolean remoto) {
+        this.username = username;
+        this.remoto = remoto;
+    }
+
+    public String getUsername() { return username; }
+    public boolean isRemoto() { return remoto; }
+}
@@ -0,0 +1,45 @@
+package com.vueloscolombia.backend.evento;
+
+import com.vueloscolombia.backend.model.Vuelo;
+
+/**
+ * Se publica cuando se crea, modifica o elimina un vuelo. Con vueloId nulo indica un cambio
+ * masivo del catalogo (por ejemplo un reajuste de precios por ruta) y los oyentes deben recargar todo.
+ * Los marcados como remotos vienen de otro nodo por el bus de invalidacion: solo deben refrescar
+ * caches locales, no repetir efectos como escribir en el outbox.
+ */
+public class VueloCambiadoEvent {
+
+    private final Long vueloId;
+    private final Vuelo vuelo;
+    private final boolean remoto;
+
+    private VueloCambiadoEvent(Long vueloId, Vuelo vuelo, boolean remoto) {
+        this.vueloId = vueloId;
+        this.vuelo = vuelo;
+        this.remoto = remoto;
+    }
+
+    public static VueloCambiadoEvent guardado(Vuelo vuelo) {
+        return new VueloCambiadoEvent(vuelo.getId(), vuelo, false);
+    }
+
+    public static VueloCambiadoEvent eliminado(Long vueloId) {
+        return new VueloCambiadoEvent(vueloId, null, false);
+    }
+
+    public static VueloCambiadoEvent catalogoCompleto() {
+        return new VueloCambiadoEvent(null, null, false);
+    }
+
+    /** Copia del evento marcada como recibida de otro nodo. */
+    public VueloCambiadoEvent remoto() {
+        return new VueloCambiadoEvent(vueloId, vuelo, true);
+    }
+
+    public Long getVueloId() { return vueloId; }
+    public Vuelo getVuelo() { return vuelo; }
+    public boolean isEliminado() { return vueloId != null && vuelo == null; }
+    public boolean isCatalogoCompleto() { return vueloId == null; }
+    public boolean isRemoto() { return remoto; }
+}
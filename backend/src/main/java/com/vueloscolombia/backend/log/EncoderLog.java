@@ -0,0 +1,69 @@
+package com.vueloscolombia.backend.log;
+
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.encoder.Encoder;
+import ch.qos.logback.core.encoder.EncoderBase;
+import org.springframework.boot.logging.logback.StructuredLogEncoder;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Elige la codificacion segun {@code app.log.formato}: {@code json} con {@link FormatoLogJson} o
+ * {@code texto} con el patron indicado. Un solo appender para los dos casos, sin condicionales en el XML.
+ */
+public class EncoderLog extends EncoderBase<ILoggingEvent> {
+
+    private String formato = "json";
+    private String patron;
+    private Encoder<ILoggingEvent> delegado;
+
+    public void setFormato(String formato) {
+        this.formato = formato;
+    }
+
+    public void setPatron(String patron) {
+        this.patron = patron;
+    }
+
+    @Override
+    public void start() {
+        if ("texto".equalsIgnoreCase(formato)) {
+            PatternLayoutEncoder texto = new PatternLayoutEncoder();
+            texto.setPattern(patron);
+            texto.setCharset(StandardCharsets.UTF_8);
+            delegado = texto;
+        } else {
+            StructuredLogEncoder json = new StructuredLogEncoder();
+            json.setFormat(FormatoLogJson.class.getName());
+            json.setCharset(StandardCharsets.UTF_8);
+            delegado = json;
+        }
+        delegado.setContext(getContext());
+        delegado.start();
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        if (delegado != null) {
+            delegado.stop();
+        }
+        super.stop();
+    }
+
+    @Override
+    public byte[] headerBytes() {
+        return delegado.headerBytes();
+    }
+
+    @Override
+    public byte[] encode(ILoggingEvent evento) {
+        return delegado.encode(evento);
+    }
+
+    @Override
+    public byte[] footerBytes() {
+        return delegado.footerBytes();
+    }
+}
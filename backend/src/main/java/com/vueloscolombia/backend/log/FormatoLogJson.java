@@ -0,0 +1,28 @@
+package com.vueloscolombia.backend.log;
+
+import ch.qos.logback.classic.pattern.ThrowableProxyConverter;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import org.springframework.boot.logging.structured.JsonWriterStructuredLogFormatter;
+
+import java.util.Map;
+
+/**
+ * Una linea JSON por evento: instante, nivel, hilo, logger, mensaje redactado, el MDC (donde viaja
+ * {@code correlacion}) y la traza de la excepcion si la hay. Lo instancia {@link EncoderLog}
+ * con {@code app.log.formato=json}.
+ */
+public class FormatoLogJson extends JsonWriterStructuredLogFormatter<ILoggingEvent> {
+
+    public FormatoLogJson(ThrowableProxyConverter excepciones) {
+        super(miembros -> {
+            miembros.add("@timestamp", (ILoggingEvent e) -> e.getInstant().toString());
+            miembros.add("nivel", (ILoggingEvent e) -> e.getLevel().toString());
+            miembros.add("hilo", ILoggingEvent::getThreadName);
+            miembros.add("logger", ILoggingEvent::getLoggerName);
+            miembros.add("mensaje", RedaccionLog::mensaje);
+            miembros.from(ILoggingEvent::getMDCPropertyMap).whenNotEmpty().usingPairs(Map::forEach);
+            miembros.add("excepcion", (ILoggingEvent e) -> e.getThrowableProxy() == null ? null
+                    : RedaccionLog.texto(excepciones.convert(e))).whenHasLength();
+        }, null);
+    }
+}
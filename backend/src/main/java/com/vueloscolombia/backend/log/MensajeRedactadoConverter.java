@@ -0,0 +1,13 @@
+package com.vueloscolombia.backend.log;
+
+import ch.qos.logback.classic.pattern.ClassicConverter;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+/** {@code %msgr} en los patrones de texto: el mensaje con la misma redaccion que el formato JSON. */
+public class MensajeRedactadoConverter extends ClassicConverter {
+
+    @Override
+    public String convert(ILoggingEvent evento) {
+        return RedaccionLog.mensaje(evento);
+    }
+}
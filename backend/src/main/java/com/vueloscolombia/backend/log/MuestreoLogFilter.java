@@ -0,0 +1,76 @@
+package com.vueloscolombia.backend.log;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.filter.Filter;
+import ch.qos.logback.core.spi.FilterReply;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Muestreo por logger para eventos frecuentes: con la regla {@code logger=N} se deja pasar uno de
+ * cada N eventos INFO o inferiores de ese logger (o de sus hijos; gana el prefijo mas largo). WARN y
+ * ERROR pasan siempre. Corre en el hilo que registra, antes de encolar, asi lo descartado no ocupa cola.
+ */
+public class MuestreoLogFilter extends Filter<ILoggingEvent> {
+
+    private static final Muestra SIN_REGLA = new Muestra(1);
+
+    /** Contador propio de cada logger concreto que cae bajo una regla. */
+    private static final class Muestra {
+        final long cadaN;
+        final AtomicLong contador = new AtomicLong();
+
+        Muestra(long cadaN) {
+            this.cadaN = cadaN;
+        }
+    }
+
+    private String reglas = "";
+    private final Map<String, Long> cadaN = new ConcurrentHashMap<>();
+    private final Map<String, Muestra> muestras = new ConcurrentHashMap<>();
+
+    public void setReglas(String reglas) {
+        this.reglas = reglas == null ? "" : reglas;
+    }
+
+    @Override
+    public void start() {
+        for (String regla : reglas.split(",")) {
+            if (regla.isBlank()) continue;
+            String[] p = regla.trim().split("=");
+            try {
+                long n = Long.parseLong(p[1].trim());
+                if (n > 1) cadaN.put(p[0].trim(), n);
+            } catch (RuntimeException e) {
+                addError("Regla de muestreo invalida, use logger=N: " + regla);
+            }
+        }
+        super.start();
+    }
+
+    @Override
+    public FilterReply decide(ILoggingEvent evento) {
+        if (cadaN.isEmpty() || evento.getLevel().isGreaterOrEqual(Level.WARN)) {
+            return FilterReply.NEUTRAL;
+        }
+        Muestra m = muestras.computeIfAbsent(evento.getLoggerName(), this::muestra);
+        if (m == SIN_REGLA) {
+            return FilterReply.NEUTRAL;
+        }
+        return m.contador.getAndIncrement() % m.cadaN == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private Muestra muestra(String logger) {
+        String mejor = null;
+        for (String prefijo : cadaN.keySet()) {
+            boolean aplica = logger.equals(prefijo) || logger.startsWith(prefijo + ".");
+            if (aplica && (mejor == null || prefijo.length() > mejor.length())) {
+                mejor = prefijo;
+            }
+        }
+        return mejor == null ? SIN_REGLA : new Muestra(cadaN.get(mejor));
+    }
+}
@@ -0,0 +1,69 @@
+package com.vueloscolombia.backend.log;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import com.vueloscolombia.backend.dto.LoginRequest;
+import com.vueloscolombia.backend.dto.RegisterRequest;
+import com.vueloscolombia.backend.dto.UsuarioDTO;
+import com.vueloscolombia.backend.dto.UsuarioResumenDTO;
+import com.vueloscolombia.backend.model.Usuario;
+import org.slf4j.helpers.MessageFormatter;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Redaccion de datos personales al codificar cada evento, en el hilo del appender: los objetos de
+ * usuario pasados como argumento se reemplazan antes de armar el mensaje, y en el texto resultante
+ * se enmascaran correos y tokens JWT. Asi ningun campo de {@link Usuario} llega al log aunque un
+ * llamador lo pase completo.
+ */
+public final class RedaccionLog {
+
+    private static final Pattern CORREO = Pattern.compile("([A-Za-z0-9._%+-])[A-Za-z0-9._%+-]*@([A-Za-z0-9.-]+\\.[A-Za-z]{2,})");
+    private static final Pattern JWT = Pattern.compile("eyJ[\\w-]+\\.[\\w-]+\\.[\\w-]*");
+
+    private RedaccionLog() {
+    }
+
+    public static String mensaje(ILoggingEvent evento) {
+        String mensaje = evento.getFormattedMessage();
+        Object[] argumentos = evento.getArgumentArray();
+        if (argumentos != null) {
+            Object[] redactados = null;
+            for (int i = 0; i < argumentos.length; i++) {
+                Object reemplazo = redactar(argumentos[i]);
+                if (reemplazo != argumentos[i]) {
+                    if (redactados == null) redactados = argumentos.clone();
+                    redactados[i] = reemplazo;
+                }
+            }
+            // Solo se vuelve a formatear si habia algo que quitar; lo normal es reutilizar el mensaje ya armado
+            if (redactados != null) {
+                mensaje = MessageFormatter.basicArrayFormat(evento.getMessage(), redactados);
+            }
+        }
+        return texto(mensaje);
+    }
+
+    /** Enmascara correos (p***@dominio) y tokens en un texto libre. */
+    public static String texto(String texto) {
+        if (texto == null || (texto.indexOf('@') < 0 && !texto.contains("eyJ"))) {
+            return texto;
+        }
+        Matcher m = CORREO.matcher(texto);
+        String resultado = m.find() ? m.replaceAll("$1***@$2") : texto;
+        return JWT.matcher(resultado).replaceAll("[token]");
+    }
+
+    private static Object redactar(Object argumento) {
+        if (argumento instanceof Usuario u) {
+            return "Usuario[id=" + u.getId() + "]";
+        }
+        if (argumento instanceof UserDetails || argumento instanceof RegisterRequest || argumento instanceof LoginRequest
+                || argumento instanceof UsuarioDTO || argumento instanceof UsuarioResumenDTO) {
+            return argumento.getClass().getSimpleName() + "[redactado]";
+        }
+        return argumento;
+    }
+}
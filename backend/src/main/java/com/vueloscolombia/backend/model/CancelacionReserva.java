@@ -0,0 +1,47 @@
+package com.vueloscolombia.backend.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Registro de cancelaciones: las reservas se borran, asi que los contadores de la analitica salen de aqui.
+// Copia los datos del vuelo para sobrevivir a su borrado o archivo
+@Entity
+@Table(name = "cancelacion_reserva")
+public class CancelacionReserva {
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long vueloId;
+    private String origen;
+    private String destino;
+    private String aerolinea;
+    private String fecha;
+    private Integer reservas;
+    private Integer asientos;
+    private Double importe;
+    private LocalDateTime registrada;
+
+    public CancelacionReserva() {}
+
+    // getters y setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getVueloId() { return vueloId; }
+    public void setVueloId(Long vueloId) { this.vueloId = vueloId; }
+    public String getOrigen() { return origen; }
+    public void setOrigen(String origen) { this.origen = origen; }
+    public String getDestino() { return destino; }
+    public void setDestino(String destino) { this.destino = destino; }
+    public String getAerolinea() { return aerolinea; }
+    public void setAerolinea(String aerolinea) { this.aerolinea = aerolinea; }
+    public String getFecha() { return fecha; }
+    public void setFecha(String fecha) { this.fecha = fecha; }
+    public Integer getReservas() { return reservas; }
+    public void setReservas(Integer reservas) { this.reservas = reservas; }
+    public Integer getAsientos() { return asientos; }
+    public void setAsientos(Integer asientos) { this.asientos = asientos; }
+    public Double getImporte() { return importe; }
+    public void setImporte(Double importe) { this.importe = importe; }
+    public LocalDateTime getRegistrada() { return registrada; }
+    public void setRegistrada(LocalDateTime registrada) { this.registrada = registrada; }
+}
@@ -0,0 +1,25 @@
+package com.vueloscolombia.backend.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Cotizaciones ya cobradas: la llave primaria impide que el mismo token pague dos reservas
+@Entity
+@Table(name = "cotizacion_usada", indexes = {
+        @Index(name = "idx_cotizacion_usada_expira", columnList = "expira")
+})
+public class CotizacionUsada {
+    @Id
+    @Column(length = 36)
+    private String jti;
+
+    private LocalDateTime expira;
+
+    public CotizacionUsada() {}
+
+    // getters y setters
+    public String getJti() { return jti; }
+    public void setJti(String jti) { this.jti = jti; }
+    public LocalDateTime getExpira() { return expira; }
+    public void setExpira(LocalDateTime expira) { this.expira = expira; }
+}
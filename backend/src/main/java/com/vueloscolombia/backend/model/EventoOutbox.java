@@ -0,0 +1,64 @@
+package com.vueloscolombia.backend.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "evento_outbox", indexes = {
+        @Index(name = "idx_evento_outbox_estado", columnList = "estado, id")
+})
+public class EventoOutbox {
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String tipo;
+    // Clave de orden: los eventos de un mismo vuelo se entregan en el orden en que se escribieron
+    private Long vueloId;
+
+    @Column(columnDefinition = "TEXT")
+    private String payload;
+
+    private String estado;
+    private Integer intentos;
+    private LocalDateTime creado;
+    private LocalDateTime procesado;
+
+    @Column(length = 500)
+    private String error;
+
+    // Tras un fallo no se reintenta antes de esta hora (espera exponencial)
+    private LocalDateTime siguienteIntento;
+
+    // Nodo que lo esta entregando y hasta cuando; vencido el plazo otro nodo lo puede reclamar
+    @Column(length = 36)
+    private String reclamadoPor;
+    private LocalDateTime reclamadoHasta;
+
+    public EventoOutbox() {}
+
+    // getters y setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getTipo() { return tipo; }
+    public void setTipo(String tipo) { this.tipo = tipo; }
+    public Long getVueloId() { return vueloId; }
+    public void setVueloId(Long vueloId) { this.vueloId = vueloId; }
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+    public String getEstado() { return estado; }
+    public void setEstado(String estado) { this.estado = estado; }
+    public Integer getIntentos() { return intentos; }
+    public void setIntentos(Integer intentos) { this.intentos = intentos; }
+    public LocalDateTime getCreado() { return creado; }
+    public void setCreado(LocalDateTime creado) { this.creado = creado; }
+    public LocalDateTime getProcesado() { return procesado; }
+    public void setProcesado(LocalDateTime procesado) { this.procesado = procesado; }
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+    public LocalDateTime getSiguienteIntento() { return siguienteIntento; }
+    public void setSiguienteIntento(LocalDateTime siguienteIntento) { this.siguienteIntento = siguienteIntento; }
+    public String getReclamadoPor() { return reclamadoPor; }
+    public void setReclamadoPor(String reclamadoPor) { this.reclamadoPor = reclamadoPor; }
+    public LocalDateTime getReclamadoHasta() { return reclamadoHasta; }
+    public void setReclamadoHasta(LocalDateTime reclamadoHasta) { this.reclamadoHasta = reclamadoHasta; }
+}
@@ -0,0 +1,47 @@
+package com.vueloscolombia.backend.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "lista_espera", indexes = {
+        @Index(name = "idx_lista_espera_vuelo_estado", columnList = "vuelo_id, estado, id"),
+        @Index(name = "idx_lista_espera_usuario", columnList = "usuario_id")
+})
+public class ListaEspera {
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "usuario_id")
+    private Usuario usuario;
+
+    @ManyToOne
+    @JoinColumn(name = "vuelo_id")
+    private Vuelo vuelo;
+
+    private Integer cantidad;
+    private String estado;
+    private LocalDateTime fechaSolicitud;
+    private Long reservaId;
+
+    public ListaEspera() {}
+
+    // getters y setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Usuario getUsuario() { return usuario; }
+    public void setUsuario(Usuario usuario) { this.usuario = usuario; }
+    public Vuelo getVuelo() { return vuelo; }
+    public void setVuelo(Vuelo vuelo) { this.vuelo = vuelo; }
+    public Integer getCantidad() { return cantidad; }
+    public void setCantidad(Integer cantidad) { this.cantidad = cantidad; }
+    public String getEstado() { return estado; }
+    public void setEstado(String estado) { this.estado = estado; }
+    public LocalDateTime getFechaSolicitud() { return fechaSolicitud; }
+    public void setFechaSolicitud(LocalDateTime fechaSolicitud) { this.fechaSolicitud = fechaSolicitud; }
+    public Long getReservaId() { return reservaId; }
+    public void setReservaId(Long reservaId) { this.reservaId = reservaId; }
+}
@@ -0,0 +1,37 @@
+package com.vueloscolombia.backend.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Ocupacion de los asientos de un vuelo como mapa de bits: el bit i corresponde al asiento
+ * i (fila i / asientosPorFila, letra i % asientosPorFila). Un avion de 180 sillas ocupa 23 bytes.
+ */
+@Entity
+@Table(name = "mapa_asientos")
+public class MapaAsientos {
+    @Id
+    private Long vueloId;
+
+    private Integer capacidad;
+    private Integer asientosPorFila;
+
+    @Column(length = 256)
+    private byte[] ocupados;
+
+    @Version
+    private Long version;
+
+    public MapaAsientos() {}
+
+    // getters y setters
+    public Long getVueloId() { return vueloId; }
+    public void setVueloId(Long vueloId) { this.vueloId = vueloId; }
+    public Integer getCapacidad() { return capacidad; }
+    public void setCapacidad(Integer capacidad) { this.capacidad = capacidad; }
+    public Integer getAsientosPorFila() { return asientosPorFila; }
+    public void setAsientosPorFila(Integer asientosPorFila) { this.asientosPorFila = asientosPorFila; }
+    public byte[] getOcupados() { return ocupados; }
+    public void setOcupados(byte[] ocupados) { this.ocupados = ocupados; }
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+}
@@ -0,0 +1,35 @@
+package com.vueloscolombia.backend.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "invalidacion", indexes = {
+        @Index(name = "idx_invalidacion_creado", columnList = "creado")
+})
+public class MensajeInvalidacion {
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Nodo que lo publico; no se lo entrega a si mismo
+    @Column(length = 64)
+    private String nodo;
+
+    @Column(columnDefinition = "TEXT")
+    private String contenido;
+
+    private LocalDateTime creado;
+
+    public MensajeInvalidacion() {}
+
+    public MensajeInvalidacion(String nodo, String contenido, LocalDateTime creado) {
+        this.nodo = nodo;
+        this.contenido = contenido;
+        this.creado = creado;
+    }
+
+    public Long getId() { return id; }
+    public String getNodo() { return nodo; }
+    public String getContenido() { return contenido; }
+    public LocalDateTime getCreado() { return creado; }
+}
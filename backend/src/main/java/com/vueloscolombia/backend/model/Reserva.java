@@ -18,6 +18,11 @@ public class Reserva {
 
     private Integer cantidad;
     private String estado;
+    // Precio por asiento al momento de reservar
+    private Double precioUnitario;
+    // Codigos de asiento asignados, separados por coma (p. ej. "12A,12B")
+    @Column(length = 1000)
+    private String asientos;
 
     public Reserva() {}
 
@@ -32,4 +37,8 @@ public class Reserva {
     public void setCantidad(Integer cantidad) { this.cantidad = cantidad; }
     public String getEstado() { return estado; }
     public void setEstado(String estado) { this.estado = estado; }
+    public Double getPrecioUnitario() { return precioUnitario; }
+    public void setPrecioUnitario(Double precioUnitario) { this.precioUnitario = precioUnitario; }
+    public String getAsientos() { return asientos; }
+    public void setAsientos(String asientos) { this.asientos = asientos; }
 }
@@ -0,0 +1,63 @@
+package com.vueloscolombia.backend.model;
+
+import jakarta.persistence.*;
+
+// Reservas de vuelos archivados; las llaves se guardan como columnas simples para copiarlas con INSERT ... SELECT
+@Entity
+@Table(name = "reservas_historico", indexes = {
+        @Index(name = "idx_reservas_historico_usuario", columnList = "usuario_id"),
+        @Index(name = "idx_reservas_historico_vuelo", columnList = "vuelo_id")
+})
+public class ReservaHistorica {
+    @Id
+    private Long id;
+
+    @Column(name = "usuario_id")
+    private Long usuarioId;
+
+    @Column(name = "vuelo_id")
+    private Long vueloId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "vuelo_id", insertable = false, updatable = false)
+    private VueloHistorico vuelo;
+
+    private Integer cantidad;
+    private String estado;
+    private Double precioUnitario;
+
+    @Column(length = 1000)
+    private String asientos;
+
+    public ReservaHistorica() {}
+
+    /** Copia de solo lectura con la forma de una reserva vigente; requiere el vuelo cargado. */
+    public Reserva aReserva(Usuario usuario) {
+        Reserva r = new Reserva();
+        r.setId(id);
+        r.setUsuario(usuario);
+        r.setVuelo(vuelo.aVuelo());
+        r.setCantidad(cantidad);
+        r.setEstado(estado);
+        r.setPrecioUnitario(precioUnitario);
+        r.setAsientos(asientos);
+        return r;
+    }
+
+    // getters y setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getUsuarioId() { return usuarioId; }
+    public void setUsuarioId(Long usuarioId) { this.usuarioId = usuarioId; }
+    public Long getVueloId() { return vueloId; }
+    public void setVueloId(Long vueloId) { this.vueloId = vueloId; }
+    public VueloHistorico getVuelo() { return vuelo; }
+    public Integer getCantidad() { return cantidad; }
+    public void setCantidad(Integer cantidad) { this.cantidad = cantidad; }
+    public String getEstado() { return estado; }
+    public void setEstado(String estado) { this.estado = estado; }
+    public Double getPrecioUnitario() { return precioUnitario; }
+    public void setPrecioUnitario(Double precioUnitario) { this.precioUnitario = precioUnitario; }
+    public String getAsientos() { return asientos; }
+    public void setAsientos(String asientos) { this.asientos = asientos; }
+}
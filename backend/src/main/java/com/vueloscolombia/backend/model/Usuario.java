@@ -4,7 +4,11 @@ import jakarta.persistence.*;
 import java.util.Set;
 
 @Entity
-@Table(name = "usuarios")
+@Table(name = "usuarios", indexes = {
+        @Index(name = "idx_usuarios_documento_id", columnList = "numero_documento, id"),
+        @Index(name = "idx_usuarios_apellido_id", columnList = "primer_apellido, id"),
+        @Index(name = "idx_usuarios_nombre_id", columnList = "primer_nombre, id")
+})
 public class Usuario {
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -1,8 +1,16 @@
 package com.vueloscolombia.backend.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
 
+// Solo se escriben las columnas modificadas, asi una edicion no pisa los asientos descontados en paralelo
 @Entity
+@DynamicUpdate
+@Table(indexes = {
+        // Busqueda por ruta y rango de fechas (busqueda flexible)
+        @Index(name = "idx_vuelo_ruta_fecha", columnList = "origen, destino, fecha")
+})
 public class Vuelo {
 
     @Id
@@ -10,6 +18,8 @@ public class Vuelo {
     private Long id;
 
     private int disponibles;
+    // Cupo total del vuelo; puede ser nulo en vuelos creados antes de registrar la capacidad
+    private Integer capacidad;
     private String origen;
     private String destino;
     private double precio;
@@ -17,13 +27,17 @@ public class Vuelo {
     private String horaLlegada;
     private String fecha;  
     private String aerolinea;
-
+    // Tarifa de venta del momento (ocupacion y anticipacion); no se guarda, precio sigue siendo la base
+    @Transient
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double tarifa;
 
     public Vuelo() {
     }
 
     public Vuelo(String origen, String destino, double precio, String horaSalida, String horaLlegada, int disponibles, String fecha, String aerolinea) {
         this.disponibles=disponibles;
+        this.capacidad=disponibles;
         this.fecha=fecha;
         this.origen = origen;
         this.destino = destino;
@@ -50,6 +64,14 @@ public class Vuelo {
         this.disponibles = disponibles;
     }
 
+    public Integer getCapacidad() {
+        return capacidad;
+    }
+
+    public void setCapacidad(Integer capacidad) {
+        this.capacidad = capacidad;
+    }
+
     public String getFecha() {
         return fecha;
     }
@@ -63,6 +85,10 @@ public class Vuelo {
         return id;
     }
 
+    public void setId(Long id) {
+        this.id = id;
+    }
+
     public String getOrigen() {
         return origen;
     }
@@ -102,4 +128,12 @@ public class Vuelo {
     public void setHoraLlegada(String horaLlegada) {
         this.horaLlegada = horaLlegada;
     }
+
+    public Double getTarifa() {
+        return tarifa;
+    }
+
+    public void setTarifa(Double tarifa) {
+        this.tarifa = tarifa;
+    }
 }
@@ -0,0 +1,59 @@
+package com.vueloscolombia.backend.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Vuelos ya pasados, movidos fuera de la tabla vuelo por el archivador; conservan su id original
+@Entity
+@Table(name = "vuelo_historico", indexes = {
+        @Index(name = "idx_vuelo_historico_fecha", columnList = "fecha")
+})
+public class VueloHistorico {
+    @Id
+    private Long id;
+
+    private int disponibles;
+    private Integer capacidad;
+    private String origen;
+    private String destino;
+    private double precio;
+    private String horaSalida;
+    private String horaLlegada;
+    private String fecha;
+    private String aerolinea;
+    private LocalDateTime archivado;
+
+    public VueloHistorico() {}
+
+    /** Copia de solo lectura con la forma de un vuelo vigente, para las respuestas de la API. */
+    public Vuelo aVuelo() {
+        Vuelo v = new Vuelo(origen, destino, precio, horaSalida, horaLlegada, disponibles, fecha, aerolinea);
+        v.setId(id);
+        v.setCapacidad(capacidad);
+        return v;
+    }
+
+    // getters y setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public int getDisponibles() { return disponibles; }
+    public void setDisponibles(int disponibles) { this.disponibles = disponibles; }
+    public Integer getCapacidad() { return capacidad; }
+    public void setCapacidad(Integer capacidad) { this.capacidad = capacidad; }
+    public String getOrigen() { return origen; }
+    public void setOrigen(String origen) { this.origen = origen; }
+    public String getDestino() { return destino; }
+    public void setDestino(String destino) { this.destino = destino; }
+    public double getPrecio() { return precio; }
+    public void setPrecio(double precio) { this.precio = precio; }
+    public String getHoraSalida() { return horaSalida; }
+    public void setHoraSalida(String horaSalida) { this.horaSalida = horaSalida; }
+    public String getHoraLlegada() { return horaLlegada; }
+    public void setHoraLlegada(String horaLlegada) { this.horaLlegada = horaLlegada; }
+    public String getFecha() { return fecha; }
+    public void setFecha(String fecha) { this.fecha = fecha; }
+    public String getAerolinea() { return aerolinea; }
+    public void setAerolinea(String aerolinea) { this.aerolinea = aerolinea; }
+    public LocalDateTime getArchivado() { return archivado; }
+    public void setArchivado(LocalDateTime archivado) { this.archivado = archivado; }
+}
@@ -0,0 +1,14 @@
+package com.vueloscolombia.backend.repository;
+
+import com.vueloscolombia.backend.model.CancelacionReserva;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import java.util.List;
+
+public interface CancelacionReservaRepository extends JpaRepository<CancelacionReserva, Long> {
+
+    // [vueloId, origen, destino, aerolinea, fecha, reservas, asientos] acumulado por vuelo
+    @Query("SELECT c.vueloId, c.origen, c.destino, c.aerolinea, c.fecha, SUM(c.reservas), SUM(c.asientos) " +
+           "FROM CancelacionReserva c GROUP BY c.vueloId, c.origen, c.destino, c.aerolinea, c.fecha")
+    List<Object[]> totalesPorVuelo();
+}
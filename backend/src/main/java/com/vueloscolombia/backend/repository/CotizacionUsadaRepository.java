@@ -0,0 +1,21 @@
+package com.vueloscolombia.backend.repository;
+
+import com.vueloscolombia.backend.model.CotizacionUsada;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
+
+public interface CotizacionUsadaRepository extends JpaRepository<CotizacionUsada, String> {
+
+    // INSERT directo (sin leer antes): si otra reserva ya uso el token falla por llave duplicada
+    @Modifying
+    @Query(value = "INSERT INTO cotizacion_usada (jti, expira) VALUES (:jti, :expira)", nativeQuery = true)
+    int registrar(@Param("jti") String jti, @Param("expira") LocalDateTime expira);
+
+    // Vencida la cotizacion el token ya no se acepta, asi que su registro sobra
+    @Modifying
+    @Query("DELETE FROM CotizacionUsada c WHERE c.expira < :limite")
+    int purgar(@Param("limite") LocalDateTime limite);
+}
@@ -0,0 +1,50 @@
+package com.vueloscolombia.backend.repository;
+
+import com.vueloscolombia.backend.model.EventoOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface EventoOutboxRepository extends JpaRepository<EventoOutbox, Long> {
+    @Query("SELECT MAX(e.id) FROM EventoOutbox e")
+    Long maxId();
+
+    // Candidatos del relevo en orden de escritura (indice estado, id): vencidos para reintento y sin reclamo vigente. Las filas que otro nodo
+    // esta reclamando en este mismo momento se saltan en vez de esperar su bloqueo
+    @Query(value = "SELECT * FROM evento_outbox WHERE estado = :estado " +
+            "AND (siguiente_intento IS NULL OR siguiente_intento <= :ahora) " +
+            "AND (reclamado_hasta IS NULL OR reclamado_hasta < :ahora) " +
+            "ORDER BY id LIMIT :limite FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<EventoOutbox> candidatos(@Param("estado") String estado, @Param("ahora") LocalDateTime ahora,
+                                  @Param("limite") int limite);
+
+    // [id, vueloId] de los pendientes de esos vuelos (0 = sin vuelo) hasta un id, en orden
+    @Query("SELECT e.id, e.vueloId FROM EventoOutbox e WHERE e.estado = :estado AND e.id <= :hasta " +
+            "AND COALESCE(e.vueloId, 0L) IN :claves ORDER BY e.id")
+    List<Object[]> pendientesHasta(@Param("estado") String estado, @Param("claves") Collection<Long> claves,
+                                   @Param("hasta") Long hasta);
+
+    @Modifying
+    @Query("UPDATE EventoOutbox e SET e.reclamadoPor = :nodo, e.reclamadoHasta = :hasta WHERE e.id IN :ids")
+    int reclamar(@Param("ids") Collection<Long> ids, @Param("nodo") String nodo, @Param("hasta") LocalDateTime hasta);
+
+    @Modifying
+    @Query("UPDATE EventoOutbox e SET e.reclamadoPor = NULL, e.reclamadoHasta = NULL WHERE e.id IN :ids")
+    int liberar(@Param("ids") Collection<Long> ids);
+    long countByEstado(String estado);
+
+    @Query("SELECT MIN(e.creado) FROM EventoOutbox e WHERE e.estado = :estado")
+    LocalDateTime masAntiguo(@Param("estado") String estado);
+
+    @Modifying
+    @Query("UPDATE EventoOutbox e SET e.estado = :estado, e.procesado = :fecha WHERE e.id IN :ids")
+    int marcar(@Param("ids") Collection<Long> ids, @Param("estado") String estado, @Param("fecha") LocalDateTime fecha);
+
+    @Modifying
+    @Query("DELETE FROM EventoOutbox e WHERE e.estado = :estado AND e.procesado < :limite")
+    int purgar(@Param("estado") String estado, @Param("limite") LocalDateTime limite);
+}
@@ -0,0 +1,29 @@
+package com.vueloscolombia.backend.repository;
+
+import com.vueloscolombia.backend.model.ListaEspera;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
+import java.util.List;
+
+public interface ListaEsperaRepository extends JpaRepository<ListaEspera, Long> {
+    List<ListaEspera> findByUsuarioIdAndEstado(Long usuarioId, String estado);
+    long countByVueloIdAndEstado(Long vueloId, String estado);
+
+    // Cabeza de la cola FIFO de un vuelo; usa el indice (vuelo_id, estado, id)
+    @Query("SELECT e FROM ListaEspera e JOIN FETCH e.usuario WHERE e.vuelo.id = :vueloId AND e.estado = :estado ORDER BY e.id")
+    List<ListaEspera> primerosEnEspera(@Param("vueloId") Long vueloId, @Param("estado") String estado, Pageable pageable);
+
+    // La lista de espera de un vuelo ya pasado no tiene uso; se descarta al archivarlo
+    @Modifying
+    @Query("DELETE FROM ListaEspera e WHERE e.vuelo.id IN (SELECT v.id FROM Vuelo v WHERE v.id BETWEEN :desde AND :hasta AND v.fecha < :limite)")
+    int eliminarDeVuelosAntesDe(@Param("desde") Long desde, @Param("hasta") Long hasta, @Param("limite") String limite);
+
+    // Al eliminar vuelos su lista de espera se va con ellos; si no, la llave foranea impide el borrado
+    @Modifying
+    @Query("DELETE FROM ListaEspera e WHERE e.vuelo.id IN :vueloIds")
+    int eliminarPorVuelos(@Param("vueloIds") Collection<Long> vueloIds);
+}
@@ -0,0 +1,27 @@
+package com.vueloscolombia.backend.repository;
+
+import com.vueloscolombia.backend.model.MapaAsientos;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
+import java.util.Optional;
+
+public interface MapaAsientosRepository extends JpaRepository<MapaAsientos, Long> {
+
+    // Lectura con bloqueo: ve la ultima version confirmada aunque la transaccion ya tenga una instantanea
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT m FROM MapaAsientos m WHERE m.vueloId = :vueloId")
+    Optional<MapaAsientos> bloquear(@Param("vueloId") Long vueloId);
+
+    @Modifying
+    @Query("DELETE FROM MapaAsientos m WHERE m.vueloId IN :vueloIds")
+    int eliminarPorVuelos(@Param("vueloIds") Collection<Long> vueloIds);
+
+    @Modifying
+    @Query("DELETE FROM MapaAsientos m WHERE m.vueloId IN (SELECT v.id FROM Vuelo v WHERE v.id BETWEEN :desde AND :hasta AND v.fecha < :limite)")
+    int eliminarDeVuelosAntesDe(@Param("desde") Long desde, @Param("hasta") Long hasta, @Param("limite") String limite);
+}
@@ -0,0 +1,21 @@
+package com.vueloscolombia.backend.repository;
+
+import com.vueloscolombia.backend.model.MensajeInvalidacion;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface MensajeInvalidacionRepository extends JpaRepository<MensajeInvalidacion, Long> {
+    List<MensajeInvalidacion> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @Query("SELECT MAX(m.id) FROM MensajeInvalidacion m")
+    Long maxId();
+
+    @Modifying
+    @Query("DELETE FROM MensajeInvalidacion m WHERE m.creado < :limite")
+    int purgar(@Param("limite") LocalDateTime limite);
+}
@@ -0,0 +1,27 @@
+package com.vueloscolombia.backend.repository;
+
+import com.vueloscolombia.backend.model.ReservaHistorica;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.List;
+
+public interface ReservaHistoricaRepository extends JpaRepository<ReservaHistorica, Long> {
+
+    @Query("SELECT r FROM ReservaHistorica r JOIN FETCH r.vuelo WHERE r.usuarioId = :usuarioId ORDER BY r.id")
+    List<ReservaHistorica> findByUsuarioId(@Param("usuarioId") Long usuarioId);
+
+    // Copia al historico las reservas de los vuelos que se archivan en el mismo lote
+    @Modifying
+    @Query("INSERT INTO ReservaHistorica (id, usuarioId, vueloId, cantidad, estado, precioUnitario, asientos) " +
+           "SELECT r.id, r.usuario.id, r.vuelo.id, r.cantidad, r.estado, r.precioUnitario, r.asientos " +
+           "FROM Reserva r WHERE r.vuelo.id BETWEEN :desde AND :hasta AND r.vuelo.fecha < :limite")
+    int archivarRango(@Param("desde") Long desde, @Param("hasta") Long hasta, @Param("limite") String limite);
+
+    // [vueloId, origen, destino, aerolinea, fecha, capacidad, disponibles, reservas, asientos, importe] por vuelo archivado
+    @Query("SELECT v.id, v.origen, v.destino, v.aerolinea, v.fecha, v.capacidad, v.disponibles, COUNT(r), SUM(r.cantidad), " +
+           "SUM(r.cantidad * COALESCE(r.precioUnitario, v.precio)) FROM ReservaHistorica r JOIN r.vuelo v " +
+           "GROUP BY v.id, v.origen, v.destino, v.aerolinea, v.fecha, v.capacidad, v.disponibles")
+    List<Object[]> totalesPorVuelo();
+}
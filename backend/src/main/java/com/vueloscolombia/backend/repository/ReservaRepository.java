@@ -2,9 +2,80 @@ package com.vueloscolombia.backend.repository;
 
 import com.vueloscolombia.backend.model.Reserva;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
 import java.util.List;
 
 public interface ReservaRepository extends JpaRepository<Reserva, Long> {
     List<Reserva> findByUsuarioId(Long usuarioId);
     List<Reserva> findByVueloId(Long vueloId);
-}
\ No newline at end of file
+
+    // Limites de id para recorrer la tabla por lotes
+    @Query("SELECT MIN(r.id) FROM Reserva r")
+    Long minId();
+
+    @Query("SELECT MAX(r.id) FROM Reserva r")
+    Long maxId();
+
+    @Query("SELECT MIN(r.id) FROM Reserva r WHERE r.vuelo.id IN :vueloIds")
+    Long minIdPorVuelos(@Param("vueloIds") Collection<Long> vueloIds);
+
+    @Query("SELECT MAX(r.id) FROM Reserva r WHERE r.vuelo.id IN :vueloIds")
+    Long maxIdPorVuelos(@Param("vueloIds") Collection<Long> vueloIds);
+
+    @Modifying
+    @Query("DELETE FROM Reserva r WHERE r.id BETWEEN :desde AND :hasta")
+    int eliminarRango(@Param("desde") Long desde, @Param("hasta") Long hasta);
+
+    // [reservas, asientos, importe] de un rango de reservas de un vuelo
+    @Query("SELECT COUNT(r), COALESCE(SUM(r.cantidad), 0), COALESCE(SUM(r.cantidad * COALESCE(r.precioUnitario, v.precio)), 0) " +
+           "FROM Reserva r JOIN r.vuelo v WHERE v.id = :vueloId AND r.id BETWEEN :desde AND :hasta")
+    List<Object[]> totalesVueloRango(@Param("vueloId") Long vueloId, @Param("desde") Long desde, @Param("hasta") Long hasta);
+
+    // [vueloId, reservas, asientos, importe] por vuelo de un rango de reservas
+    @Query("SELECT v.id, COUNT(r), SUM(r.cantidad), SUM(r.cantidad * COALESCE(r.precioUnitario, v.precio)) " +
+           "FROM Reserva r JOIN r.vuelo v WHERE r.id BETWEEN :desde AND :hasta GROUP BY v.id")
+    List<Object[]> totalesPorVueloRango(@Param("desde") Long desde, @Param("hasta") Long hasta);
+
+    @Query("SELECT v.id, COUNT(r), SUM(r.cantidad), SUM(r.cantidad * COALESCE(r.precioUnitario, v.precio)) " +
+           "FROM Reserva r JOIN r.vuelo v WHERE v.id IN :vueloIds AND r.id BETWEEN :desde AND :hasta GROUP BY v.id")
+    List<Object[]> totalesDeVuelosRango(@Param("vueloIds") Collection<Long> vueloIds, @Param("desde") Long desde,
+                                        @Param("hasta") Long hasta);
+
+    // [vueloId, asientos] de las reservas con asientos asignados de un rango
+    @Query("SELECT r.vuelo.id, r.asientos FROM Reserva r WHERE r.id BETWEEN :desde AND :hasta AND r.asientos IS NOT NULL")
+    List<Object[]> asientosRango(@Param("desde") Long desde, @Param("hasta") Long hasta);
+
+    // [id, vueloId, asientos, importe] por reserva de un rango; la reconstruccion de analitica necesita saber que ids vio
+    @Query("SELECT r.id, v.id, r.cantidad, r.cantidad * COALESCE(r.precioUnitario, v.precio) " +
+           "FROM Reserva r JOIN r.vuelo v WHERE r.id BETWEEN :desde AND :hasta")
+    List<Object[]> importesRango(@Param("desde") Long desde, @Param("hasta") Long hasta);
+
+    // Asientos ocupados por reservas anteriores al mapa de asientos (sin codigos asignados)
+    @Query("SELECT COALESCE(SUM(r.cantidad), 0) FROM Reserva r WHERE r.vuelo.id = :vueloId AND r.asientos IS NULL")
+    long asientosSinAsignar(@Param("vueloId") Long vueloId);
+
+    // [id, cantidad] de esas reservas, en el orden en que se les asignan asientos al crear el mapa
+    @Query("SELECT r.id, r.cantidad FROM Reserva r WHERE r.vuelo.id = :vueloId AND r.asientos IS NULL ORDER BY r.id")
+    List<Object[]> reservasSinAsientos(@Param("vueloId") Long vueloId);
+
+    @Modifying
+    @Query("UPDATE Reserva r SET r.asientos = :asientos WHERE r.id = :id AND r.asientos IS NULL")
+    int asignarAsientos(@Param("id") Long id, @Param("asientos") String asientos);
+
+    @Query("SELECT COALESCE(SUM(r.cantidad), 0) FROM Reserva r WHERE r.vuelo.id = :vueloId")
+    long asientosReservados(@Param("vueloId") Long vueloId);
+
+    @Query("SELECT r.asientos FROM Reserva r WHERE r.vuelo.id = :vueloId AND r.id BETWEEN :desde AND :hasta AND r.asientos IS NOT NULL")
+    List<String> asientosVueloRango(@Param("vueloId") Long vueloId, @Param("desde") Long desde, @Param("hasta") Long hasta);
+
+    @Modifying
+    @Query("DELETE FROM Reserva r WHERE r.vuelo.id IN (SELECT v.id FROM Vuelo v WHERE v.id BETWEEN :desde AND :hasta AND v.fecha < :limite)")
+    int eliminarDeVuelosAntesDe(@Param("desde") Long desde, @Param("hasta") Long hasta, @Param("limite") String limite);
+
+    @Modifying
+    @Query("DELETE FROM Reserva r WHERE r.vuelo.id IN :vueloIds AND r.id BETWEEN :desde AND :hasta")
+    int eliminarPorVuelosRango(@Param("vueloIds") Collection<Long> vueloIds, @Param("desde") Long desde, @Param("hasta") Long hasta);
+}
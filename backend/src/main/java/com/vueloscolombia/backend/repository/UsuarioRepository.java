@@ -1,10 +1,38 @@
 package com.vueloscolombia.backend.repository;
 
+import com.vueloscolombia.backend.dto.UsuarioResumenDTO;
 import com.vueloscolombia.backend.model.Usuario;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.List;
 import java.util.Optional;
 
 public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
     Optional<Usuario> findByUsername(String username);
     boolean existsByUsername(String username);
+
+    // Directorio: proyeccion sin contrasena ni roles, paginada por llave (keyset) en vez de OFFSET
+    String RESUMEN = "SELECT new com.vueloscolombia.backend.dto.UsuarioResumenDTO(u.id, u.username, u.tipoDocumento, " +
+            "u.numeroDocumento, u.primerNombre, u.primerApellido, u.numeroCelular) FROM Usuario u ";
+
+    @Query(RESUMEN + "WHERE u.id > :despues ORDER BY u.id")
+    List<UsuarioResumenDTO> directorioPorId(@Param("despues") Long despues, Pageable pageable);
+
+    @Query(RESUMEN + "WHERE u.username > :despues ORDER BY u.username")
+    List<UsuarioResumenDTO> directorioPorUsername(@Param("despues") String despues, Pageable pageable);
+
+    @Query(RESUMEN + "WHERE u.numeroDocumento = :documento AND u.id > :despues ORDER BY u.id")
+    List<UsuarioResumenDTO> directorioPorDocumento(@Param("documento") String documento, @Param("despues") Long despues, Pageable pageable);
+
+    @Query(RESUMEN + "WHERE u.username LIKE :prefijo AND u.username > :despues ORDER BY u.username")
+    List<UsuarioResumenDTO> directorioPorPrefijoUsername(@Param("prefijo") String prefijo, @Param("despues") String despues, Pageable pageable);
+
+    // Una consulta por columna, cada una sobre su indice (columna, id); el servicio las mezcla por id
+    @Query(RESUMEN + "WHERE u.primerApellido LIKE :prefijo AND u.id > :despues ORDER BY u.id")
+    List<UsuarioResumenDTO> directorioPorPrefijoApellido(@Param("prefijo") String prefijo, @Param("despues") Long despues, Pageable pageable);
+
+    @Query(RESUMEN + "WHERE u.primerNombre LIKE :prefijo AND u.id > :despues ORDER BY u.id")
+    List<UsuarioResumenDTO> directorioPorPrefijoPrimerNombre(@Param("prefijo") String prefijo, @Param("despues") Long despues, Pageable pageable);
 }
@@ -0,0 +1,17 @@
+package com.vueloscolombia.backend.repository;
+
+import com.vueloscolombia.backend.model.VueloHistorico;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface VueloHistoricoRepository extends JpaRepository<VueloHistorico, Long> {
+
+    // Copia al historico los vuelos del rango anteriores a la fecha limite
+    @Modifying
+    @Query("INSERT INTO VueloHistorico (id, disponibles, capacidad, origen, destino, precio, horaSalida, horaLlegada, fecha, aerolinea, archivado) " +
+           "SELECT v.id, v.disponibles, v.capacidad, v.origen, v.destino, v.precio, v.horaSalida, v.horaLlegada, v.fecha, v.aerolinea, LOCAL DATETIME " +
+           "FROM Vuelo v WHERE v.id BETWEEN :desde AND :hasta AND v.fecha < :limite")
+    int archivarRango(@Param("desde") Long desde, @Param("hasta") Long hasta, @Param("limite") String limite);
+}
@@ -2,8 +2,79 @@ package com.vueloscolombia.backend.repository;
 
 import com.vueloscolombia.backend.model.Vuelo;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
 import java.util.List;
 
 public interface VueloRepository extends JpaRepository<Vuelo, Long> {
     List<Vuelo> findByOrigenAndDestino(String origen, String destino);
+
+    @Query("SELECT MIN(v.id) FROM Vuelo v")
+    Long minId();
+
+    @Query("SELECT MAX(v.id) FROM Vuelo v")
+    Long maxId();
+
+    List<Vuelo> findByIdBetween(Long desde, Long hasta);
+
+    // Huella barata del catalogo: cantidad, ultimo id y sumas de asientos y precios, en una sola fila
+    @Query("SELECT COUNT(v), MAX(v.id), SUM(v.disponibles), SUM(COALESCE(v.capacidad, 0)), SUM(v.precio) FROM Vuelo v")
+    List<Object[]> huella();
+
+    // Fechas yyyy-MM-dd: el orden de texto coincide con el de calendario, asi el rango usa el indice
+    @Query("SELECT v FROM Vuelo v WHERE v.origen = :origen AND v.destino = :destino AND v.fecha BETWEEN :desde AND :hasta " +
+           "AND v.disponibles >= :pasajeros ORDER BY v.fecha, v.precio")
+    List<Vuelo> buscarEnFechas(@Param("origen") String origen, @Param("destino") String destino,
+                               @Param("desde") String desde, @Param("hasta") String hasta, @Param("pasajeros") int pasajeros);
+
+    @Query("SELECT MIN(v.id) FROM Vuelo v WHERE v.origen = :origen AND v.destino = :destino")
+    Long minIdRuta(@Param("origen") String origen, @Param("destino") String destino);
+
+    @Query("SELECT MAX(v.id) FROM Vuelo v WHERE v.origen = :origen AND v.destino = :destino")
+    Long maxIdRuta(@Param("origen") String origen, @Param("destino") String destino);
+
+    // Descuento atomico: solo afecta la fila si quedan asientos suficientes
+    @Modifying
+    @Query("UPDATE Vuelo v SET v.disponibles = v.disponibles - :cantidad WHERE v.id = :id AND v.disponibles >= :cantidad")
+    int reservarAsientos(@Param("id") Long id, @Param("cantidad") int cantidad);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Vuelo v SET v.disponibles = v.disponibles + :delta, v.capacidad = v.capacidad + :delta WHERE v.id = :id AND v.disponibles + :delta >= 0")
+    int ajustarAsientos(@Param("id") Long id, @Param("delta") int delta);
+
+    @Modifying
+    @Query("UPDATE Vuelo v SET v.disponibles = v.disponibles + :cantidad WHERE v.id = :id")
+    int liberarAsientos(@Param("id") Long id, @Param("cantidad") int cantidad);
+
+    @Modifying
+    @Query("UPDATE Vuelo v SET v.precio = ROUND(v.precio * :factor, 0) WHERE v.origen = :origen AND v.destino = :destino AND v.id BETWEEN :desde AND :hasta")
+    int reajustarPrecioRutaRango(@Param("origen") String origen, @Param("destino") String destino,
+                                 @Param("factor") double factor, @Param("desde") Long desde, @Param("hasta") Long hasta);
+
+    // [vueloId, capacidad, disponibles, asientos reservados] de un rango de vuelos, en una sola consulta
+    @Query("SELECT v.id, v.capacidad, v.disponibles, COALESCE(SUM(r.cantidad), 0) FROM Vuelo v LEFT JOIN Reserva r ON r.vuelo = v " +
+           "WHERE v.id BETWEEN :desde AND :hasta GROUP BY v.id, v.capacidad, v.disponibles")
+    List<Object[]> inventarioRango(@Param("desde") Long desde, @Param("hasta") Long hasta);
+
+    // Solo corrige si nadie reservo desde la lectura; si no, queda para la siguiente conciliacion
+    @Modifying
+    @Query("UPDATE Vuelo v SET v.disponibles = :esperado WHERE v.id = :id AND v.disponibles = :observado")
+    int corregirDisponibles(@Param("id") Long id, @Param("observado") int observado, @Param("esperado") int esperado);
+
+    // Limites de id de los vuelos anteriores a una fecha (yyyy-MM-dd), para archivarlos por lotes
+    @Query("SELECT MIN(v.id) FROM Vuelo v WHERE v.fecha < :limite")
+    Long minIdAntesDe(@Param("limite") String limite);
+
+    @Query("SELECT MAX(v.id) FROM Vuelo v WHERE v.fecha < :limite")
+    Long maxIdAntesDe(@Param("limite") String limite);
+
+    @Modifying
+    @Query("DELETE FROM Vuelo v WHERE v.id BETWEEN :desde AND :hasta AND v.fecha < :limite")
+    int eliminarAntesDe(@Param("desde") Long desde, @Param("hasta") Long hasta, @Param("limite") String limite);
+
+    @Modifying
+    @Query("DELETE FROM Vuelo v WHERE v.id IN :ids")
+    int eliminarPorIds(@Param("ids") Collection<Long> ids);
 }
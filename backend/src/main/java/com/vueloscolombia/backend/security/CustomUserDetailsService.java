@@ -5,6 +5,7 @@ import com.vueloscolombia.backend.repository.UsuarioRepository;
 import com.vueloscolombia.backend.model.Usuario;
 import org.springframework.security.core.userdetails.*;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import java.util.stream.Collectors;
 
@@ -14,7 +15,9 @@ public class CustomUserDetailsService implements UserDetailsService {
     @Autowired
     private UsuarioRepository usuarioRepository;
 
+    // Credenciales y roles siempre desde la primaria: un usuario recien registrado debe poder entrar
     @Override
+    @Transactional
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         Usuario u = usuarioRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado: " + username));
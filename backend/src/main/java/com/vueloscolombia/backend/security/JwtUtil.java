@@ -75,4 +75,19 @@ public class JwtUtil {
             return false;
         }
     }
+
+    /** Si el token es valido y trae el rol indicado (por ejemplo ROLE_ADMIN) en el claim roles. */
+    public boolean tieneRol(String token, String rol) {
+        try {
+            Claims claims = Jwts.parserBuilder()
+                    .setSigningKey(key)
+                    .build()
+                    .parseClaimsJws(token)
+                    .getBody();
+            Object roles = claims.get("roles");
+            return roles instanceof Collection<?> c && c.contains(rol);
+        } catch (JwtException | IllegalArgumentException e) {
+            return false;
+        }
+    }
 }
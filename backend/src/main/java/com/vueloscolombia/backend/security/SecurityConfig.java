@@ -1,6 +1,7 @@
 package com.vueloscolombia.backend.security;
 
 import org.springframework.context.annotation.*;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.authentication.*;
@@ -46,6 +47,8 @@ public class SecurityConfig {
 
         http.authorizeHttpRequests()
                 .requestMatchers("/api/auth/**").permitAll()
+                // Borrar un vuelo arrastra sus reservas, lista de espera y mapa de asientos
+                .requestMatchers(HttpMethod.DELETE, "/api/vuelos/**").hasRole("ADMIN")
                 .requestMatchers("/api/vuelos/**").permitAll()
                 .requestMatchers("/api/admin/**").hasRole("ADMIN")
                 .anyRequest().authenticated();
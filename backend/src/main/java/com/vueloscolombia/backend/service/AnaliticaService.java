@@ -0,0 +1,441 @@
+package com.vueloscolombia.backend.service;
+
+import com.vueloscolombia.backend.dto.IndicadoresDTO;
+import com.vueloscolombia.backend.dto.ProgresoOperacion;
+import com.vueloscolombia.backend.evento.AsientosCambiadosEvent;
+import com.vueloscolombia.backend.evento.ReservaCambiadaEvent;
+import com.vueloscolombia.backend.evento.VueloCambiadoEvent;
+import com.vueloscolombia.backend.model.CancelacionReserva;
+import com.vueloscolombia.backend.model.Vuelo;
+import com.vueloscolombia.backend.repository.CancelacionReservaRepository;
+import com.vueloscolombia.backend.repository.ReservaHistoricaRepository;
+import com.vueloscolombia.backend.repository.ReservaRepository;
+import com.vueloscolombia.backend.repository.VueloHistoricoRepository;
+import com.vueloscolombia.backend.repository.VueloRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Agregados de ocupacion e ingresos por vuelo, ruta, aerolinea y dia. Se actualizan con los
+ * eventos de reservas y se consultan sin tocar la base de datos. La reconstruccion recorre las
+ * tablas (vigentes e historicas) por rangos de id en paralelo; los eventos que llegan mientras
+ * tanto se guardan y se reaplican sobre el resultado antes de reemplazar los agregados.
+ * Las reservas se borran al cancelarse, asi que las cancelaciones se registran en
+ * cancelacion_reserva dentro de la misma transaccion y los contadores se cargan de ahi al arrancar.
+ */
+@Service
+public class AnaliticaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnaliticaService.class);
+    private static final int MAX_INTENTOS_RECONSTRUCCION = 3;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private VueloRepository vueloRepository;
+
+    @Autowired
+    private ReservaHistoricaRepository reservaHistoricaRepository;
+
+    @Autowired
+    private VueloHistoricoRepository vueloHistoricoRepository;
+
+    @Autowired
+    private CancelacionReservaRepository cancelacionReservaRepository;
+
+    @Autowired
+    private OperacionMasivaService operacionMasivaService;
+
+    @Autowired
+    @Qualifier("analiticaExecutor")
+    private TaskExecutor analiticaExecutor;
+
+    @Value("${app.analitica.tamano-lote:10000}")
+    private int tamanoLote;
+
+    static class Acumulado {
+        final LongAdder reservas = new LongAdder();
+        final LongAdder asientos = new LongAdder();
+        final LongAdder cancelaciones = new LongAdder();
+        final LongAdder asientosCancelados = new LongAdder();
+        final DoubleAdder ingresos = new DoubleAdder();
+    }
+
+    static class DatosVuelo {
+        final String origen;
+        final String destino;
+        final String aerolinea;
+        final String fecha;
+        final Integer capacidad;
+        volatile int disponibles;
+
+        DatosVuelo(Vuelo v) {
+            this(v.getOrigen(), v.getDestino(), v.getAerolinea(), v.getFecha(), v.getCapacidad(), v.getDisponibles());
+        }
+
+        DatosVuelo(String origen, String destino, String aerolinea, String fecha, Integer capacidad, int disponibles) {
+            this.origen = origen;
+            this.destino = destino;
+            this.aerolinea = aerolinea;
+            this.fecha = fecha;
+            this.capacidad = capacidad;
+            this.disponibles = disponibles;
+        }
+    }
+
+    static class Agregados {
+        final Acumulado total = new Acumulado();
+        final Map<Long, Acumulado> porVuelo = new ConcurrentHashMap<>();
+        final Map<String, Acumulado> porRuta = new ConcurrentHashMap<>();
+        final Map<String, Acumulado> porAerolinea = new ConcurrentHashMap<>();
+        final Map<String, Acumulado> porDia = new ConcurrentHashMap<>();
+        final Map<Long, DatosVuelo> vuelos = new ConcurrentHashMap<>();
+
+        /** Con valores negativos descuenta (una reserva cancelada deja de sumar). */
+        void sumar(Long vueloId, String origen, String destino, String aerolinea, String fecha,
+                   long reservas, long asientos, double ingresos) {
+            for (Acumulado a : acumulados(vueloId, origen, destino, aerolinea, fecha)) {
+                a.reservas.add(reservas);
+                a.asientos.add(asientos);
+                a.ingresos.add(ingresos);
+            }
+        }
+
+        void contarCancelacion(Long vueloId, String origen, String destino, String aerolinea, String fecha,
+                               long reservas, long asientos) {
+            for (Acumulado a : acumulados(vueloId, origen, destino, aerolinea, fecha)) {
+                a.cancelaciones.add(reservas);
+                a.asientosCancelados.add(asientos);
+            }
+        }
+
+        void sumar(ReservaCambiadaEvent e, int signo) {
+            sumar(e.getVueloId(), e.getOrigen(), e.getDestino(), e.getAerolinea(), e.getFecha(),
+                    signo * (long) e.getReservas(), signo * (long) e.getAsientos(), signo * e.getImporte());
+        }
+
+        void aplicar(VueloCambiadoEvent e) {
+            if (e.isEliminado()) {
+                vuelos.remove(e.getVueloId());
+            } else {
+                vuelos.put(e.getVueloId(), new DatosVuelo(e.getVuelo()));
+            }
+        }
+
+        private Acumulado[] acumulados(Long vueloId, String origen, String destino, String aerolinea, String fecha) {
+            return new Acumulado[] {
+                    total,
+                    porVuelo.computeIfAbsent(vueloId, k -> new Acumulado()),
+                    porRuta.computeIfAbsent(origen + "-" + destino, k -> new Acumulado()),
+                    porAerolinea.computeIfAbsent(String.valueOf(aerolinea), k -> new Acumulado()),
+                    porDia.computeIfAbsent(String.valueOf(fecha), k -> new Acumulado())
+            };
+        }
+    }
+
+    private volatile Agregados actual = new Agregados();
+
+    // Los eventos se aplican y se guardan bajo este candado; la reconstruccion lo toma para reaplicarlos y publicar
+    private final Object candado = new Object();
+    private List<Object> pendientes;
+
+    /** Contadores de cancelaciones registrados; antes de aceptar peticiones, asi ningun evento queda fuera. */
+    @PostConstruct
+    public void cargarCancelaciones() {
+        Agregados a = actual;
+        for (Object[] f : cancelacionReservaRepository.totalesPorVuelo()) {
+            a.contarCancelacion(((Number) f[0]).longValue(), (String) f[1], (String) f[2], (String) f[3], (String) f[4],
+                    ((Number) f[5]).longValue(), ((Number) f[6]).longValue());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializar() {
+        reconstruirAsync();
+    }
+
+    public ProgresoOperacion reconstruirAsync() {
+        return operacionMasivaService.lanzar("RECONSTRUIR_ANALITICA", this::reconstruir);
+    }
+
+    // En la transaccion que borra las reservas: la cancelacion queda registrada o no pasa nada
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void registrarCancelacion(ReservaCambiadaEvent e) {
+        if (e.getTipo() != ReservaCambiadaEvent.Tipo.CANCELADA) {
+            return;
+        }
+        CancelacionReserva c = new CancelacionReserva();
+        c.setVueloId(e.getVueloId());
+        c.setOrigen(e.getOrigen());
+        c.setDestino(e.getDestino());
+        c.setAerolinea(e.getAerolinea());
+        c.setFecha(e.getFecha());
+        c.setReservas(e.getReservas());
+        c.setAsientos(e.getAsientos());
+        c.setImporte(e.getImporte());
+        c.setRegistrada(LocalDateTime.now());
+        cancelacionReservaRepository.save(c);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservaCambiada(ReservaCambiadaEvent e) {
+        synchronized (candado) {
+            Agregados a = actual;
+            if (e.getTipo() == ReservaCambiadaEvent.Tipo.CREADA) {
+                a.sumar(e, 1);
+            } else {
+                a.sumar(e, -1);
+                a.contarCancelacion(e.getVueloId(), e.getOrigen(), e.getDestino(), e.getAerolinea(), e.getFecha(),
+                        e.getReservas(), e.getAsientos());
+            }
+            if (pendientes != null) {
+                pendientes.add(e);
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVueloCambiado(VueloCambiadoEvent e) {
+        // Un cambio masivo del catalogo (precios, archivo) no cambia reservas; las operaciones que si las
+        // borran publican ReservaCambiadaEvent
+        if (e.isCatalogoCompleto()) {
+            return;
+        }
+        synchronized (candado) {
+            actual.aplicar(e);
+            if (pendientes != null) {
+                pendientes.add(e);
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAsientosCambiados(AsientosCambiadosEvent e) {
+        synchronized (candado) {
+            DatosVuelo d = actual.vuelos.get(e.getVueloId());
+            if (d != null) {
+                d.disponibles += e.getDelta();
+            }
+            if (pendientes != null) {
+                pendientes.add(e);
+            }
+        }
+    }
+
+    // ---------- Consultas ----------
+
+    public IndicadoresDTO resumen() {
+        return indicadores("total", actual.total, null);
+    }
+
+    public IndicadoresDTO porVuelo(Long vueloId) {
+        Agregados a = actual;
+        Acumulado acc = a.porVuelo.getOrDefault(vueloId, new Acumulado());
+        return indicadores(String.valueOf(vueloId), acc, ocupacion(a.vuelos.get(vueloId), acc.asientos.sum()));
+    }
+
+    public List<IndicadoresDTO> porRuta() { return listar(actual.porRuta); }
+
+    public List<IndicadoresDTO> porAerolinea() { return listar(actual.porAerolinea); }
+
+    public List<IndicadoresDTO> porDia() { return listar(actual.porDia); }
+
+    private List<IndicadoresDTO> listar(Map<String, Acumulado> mapa) {
+        List<IndicadoresDTO> lista = new ArrayList<>();
+        new TreeMap<>(mapa).forEach((k, acc) -> lista.add(indicadores(k, acc, null)));
+        return lista;
+    }
+
+    private static IndicadoresDTO indicadores(String clave, Acumulado a, Double ocupacion) {
+        return new IndicadoresDTO(clave, a.reservas.sum(), a.asientos.sum(), a.cancelaciones.sum(),
+                a.asientosCancelados.sum(), a.ingresos.sum(), ocupacion);
+    }
+
+    private static Double ocupacion(DatosVuelo d, long vendidos) {
+        if (d == null) return null;
+        long cupo = d.capacidad != null ? d.capacidad : vendidos + d.disponibles;
+        return cupo <= 0 ? null : (double) vendidos / cupo;
+    }
+
+    // ---------- Reconstruccion ----------
+
+    /**
+     * Si durante el recorrido llega una cancelacion masiva (sin id de reserva) o se archivan vuelos no
+     * hay forma de saber que parte vio el recorrido: se repite, hasta {@value #MAX_INTENTOS_RECONSTRUCCION} veces.
+     */
+    public synchronized void reconstruir(ProgresoOperacion progreso) {
+        for (int intento = 1; ; intento++) {
+            if (reconstruirUnaVez(progreso)) {
+                return;
+            }
+            if (intento == MAX_INTENTOS_RECONSTRUCCION) {
+                logger.warn("Analitica sin reconstruir: hubo cambios masivos en cada uno de {} intentos; se conservan los agregados actuales", intento);
+                return;
+            }
+            logger.info("Cambios masivos durante la reconstruccion de analitica; se repite");
+        }
+    }
+
+    private boolean reconstruirUnaVez(ProgresoOperacion progreso) {
+        synchronized (candado) {
+            pendientes = new ArrayList<>();
+        }
+        try {
+            long archivadosAntes = vueloHistoricoRepository.count();
+            Agregados nuevo = new Agregados();
+            Long minVuelo = vueloRepository.minId(), maxVuelo = vueloRepository.maxId();
+            Long minReserva = reservaRepository.minId(), maxReserva = reservaRepository.maxId();
+            long lotesVuelos = minVuelo == null ? 0 : (maxVuelo - minVuelo) / tamanoLote + 1;
+            long lotesReservas = minReserva == null ? 0 : (maxReserva - minReserva) / tamanoLote + 1;
+            progreso.iniciar(lotesVuelos + lotesReservas + 1);
+
+            // Primero los datos de los vuelos, que las reservas necesitan para agrupar por ruta/aerolinea/dia
+            List<CompletableFuture<Void>> tareas = new ArrayList<>();
+            for (long i = 0; i < lotesVuelos; i++) {
+                long d = minVuelo + i * tamanoLote, h = Math.min(d + tamanoLote - 1, maxVuelo);
+                tareas.add(CompletableFuture.runAsync(() -> {
+                    List<Vuelo> vuelos = vueloRepository.findByIdBetween(d, h);
+                    vuelos.forEach(v -> nuevo.vuelos.put(v.getId(), new DatosVuelo(v)));
+                    progreso.loteCompletado(vuelos.size());
+                }, analiticaExecutor));
+            }
+            CompletableFuture.allOf(tareas.toArray(new CompletableFuture[0])).join();
+
+            // Cada lote anota los ids que vio, para decidir despues que eventos ya estaban incluidos
+            BitSet[] vistas = new BitSet[(int) lotesReservas];
+            tareas.clear();
+            for (int i = 0; i < lotesReservas; i++) {
+                int lote = i;
+                long d = minReserva + i * (long) tamanoLote, h = Math.min(d + tamanoLote - 1, maxReserva);
+                tareas.add(CompletableFuture.runAsync(() -> {
+                    BitSet vistasLote = new BitSet(tamanoLote);
+                    List<Object[]> filas = reservaRepository.importesRango(d, h);
+                    for (Object[] f : filas) {
+                        long id = ((Number) f[0]).longValue();
+                        vistasLote.set((int) (id - d));
+                        DatosVuelo v = nuevo.vuelos.get(((Number) f[1]).longValue());
+                        if (v == null) continue;
+                        nuevo.sumar(((Number) f[1]).longValue(), v.origen, v.destino, v.aerolinea, v.fecha,
+                                1, ((Number) f[2]).longValue(), ((Number) f[3]).doubleValue());
+                    }
+                    vistas[lote] = vistasLote;
+                    progreso.loteCompletado(filas.size());
+                }, analiticaExecutor));
+            }
+            CompletableFuture.allOf(tareas.toArray(new CompletableFuture[0])).join();
+
+            // Vuelos archivados: sus reservas ya no estan en la tabla vigente y no cambian mas
+            List<Object[]> historicos = reservaHistoricaRepository.totalesPorVuelo();
+            for (Object[] f : historicos) {
+                Long vueloId = ((Number) f[0]).longValue();
+                String origen = (String) f[1], destino = (String) f[2], aerolinea = (String) f[3], fecha = (String) f[4];
+                nuevo.vuelos.putIfAbsent(vueloId, new DatosVuelo(origen, destino, aerolinea, fecha,
+                        (Integer) f[5], ((Number) f[6]).intValue()));
+                nuevo.sumar(vueloId, origen, destino, aerolinea, fecha, ((Number) f[7]).longValue(),
+                        ((Number) f[8]).longValue(), ((Number) f[9]).doubleValue());
+            }
+            progreso.loteCompletado(historicos.size());
+
+            if (vueloHistoricoRepository.count() != archivadosAntes) {
+                return false; // se archivo durante el recorrido: una reserva pudo contarse en las dos tablas o en ninguna
+            }
+            synchronized (candado) {
+                if (!reaplicar(pendientes, nuevo, minReserva, vistas)) {
+                    return false;
+                }
+                // Las cancelaciones no se recorren: los contadores vigentes estan completos (carga inicial + eventos)
+                Agregados anterior = actual;
+                copiarCancelaciones(anterior.total, nuevo.total);
+                anterior.porVuelo.forEach((k, a) -> copiarCancelaciones(a, nuevo.porVuelo.computeIfAbsent(k, x -> new Acumulado())));
+                anterior.porRuta.forEach((k, a) -> copiarCancelaciones(a, nuevo.porRuta.computeIfAbsent(k, x -> new Acumulado())));
+                anterior.porAerolinea.forEach((k, a) -> copiarCancelaciones(a, nuevo.porAerolinea.computeIfAbsent(k, x -> new Acumulado())));
+                anterior.porDia.forEach((k, a) -> copiarCancelaciones(a, nuevo.porDia.computeIfAbsent(k, x -> new Acumulado())));
+                actual = nuevo;
+                return true;
+            }
+        } finally {
+            synchronized (candado) {
+                pendientes = null;
+            }
+        }
+    }
+
+    /**
+     * Lleva el resultado del recorrido al estado que dejan los eventos recibidos mientras corria. Una
+     * reserva cuenta si su ultimo evento fue la creacion; si el recorrido ya la vio (o ya no la vio) no se
+     * toca. Los cupos que cambiaron se releen: no hay forma de saber si el recorrido ya vio cada delta.
+     * Devuelve false si hubo un evento masivo, que no se puede conciliar por id.
+     */
+    private boolean reaplicar(List<Object> eventos, Agregados nuevo, Long minReserva, BitSet[] vistas) {
+        Map<Long, Boolean> contadas = new HashMap<>();
+        Set<Long> cupos = new HashSet<>();
+        for (Object evento : eventos) {
+            if (evento instanceof VueloCambiadoEvent v) {
+                nuevo.aplicar(v);
+                continue;
+            }
+            if (evento instanceof AsientosCambiadosEvent a) {
+                cupos.add(a.getVueloId());
+                continue;
+            }
+            ReservaCambiadaEvent e = (ReservaCambiadaEvent) evento;
+            Long id = e.getReservaId();
+            if (id == null) {
+                return false;
+            }
+            boolean contada = contadas.computeIfAbsent(id, k -> vista(k, minReserva, vistas));
+            boolean creada = e.getTipo() == ReservaCambiadaEvent.Tipo.CREADA;
+            if (creada != contada) {
+                nuevo.sumar(e, creada ? 1 : -1);
+                contadas.put(id, creada);
+            }
+        }
+        if (!cupos.isEmpty()) {
+            for (Vuelo v : vueloRepository.findAllById(cupos)) {
+                DatosVuelo d = nuevo.vuelos.get(v.getId());
+                if (d != null) {
+                    d.disponibles = v.getDisponibles();
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean vista(long id, Long minReserva, BitSet[] vistas) {
+        if (minReserva == null || id < minReserva) {
+            return false;
+        }
+        long lote = (id - minReserva) / tamanoLote;
+        return lote < vistas.length && vistas[(int) lote].get((int) ((id - minReserva) % tamanoLote));
+    }
+
+    private static void copiarCancelaciones(Acumulado desde, Acumulado hacia) {
+        hacia.cancelaciones.add(desde.cancelaciones.sum());
+        hacia.asientosCancelados.add(desde.asientosCancelados.sum());
+    }
+}
@@ -0,0 +1,96 @@
+package com.vueloscolombia.backend.service;
+
+import com.vueloscolombia.backend.dto.ProgresoOperacion;
+import com.vueloscolombia.backend.evento.VueloCambiadoEvent;
+import com.vueloscolombia.backend.repository.ListaEsperaRepository;
+import com.vueloscolombia.backend.repository.ReservaHistoricaRepository;
+import com.vueloscolombia.backend.repository.ReservaRepository;
+import com.vueloscolombia.backend.repository.VueloHistoricoRepository;
+import com.vueloscolombia.backend.repository.VueloRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+
+/**
+ * Mueve los vuelos anteriores al horizonte configurado, junto con sus reservas, a las tablas
+ * vuelo_historico y reservas_historico. Cada lote de ids se copia y se borra en una sola
+ * transaccion con INSERT ... SELECT y DELETE, sin cargar entidades.
+ */
+@Service
+public class ArchivoService {
+
+    @Autowired
+    private VueloRepository vueloRepository;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private ListaEsperaRepository listaEsperaRepository;
+
+    @Autowired
+    private VueloHistoricoRepository vueloHistoricoRepository;
+
+    @Autowired
+    private ReservaHistoricaRepository reservaHistoricaRepository;
+
+    @Autowired
+    private MapaAsientosService mapaAsientosService;
+
+    @Autowired
+    private OperacionMasivaService operacionMasivaService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.archivo.dias-horizonte:30}")
+    private int diasHorizonte;
+
+    @Value("${app.archivo.tamano-lote:200}")
+    private int tamanoLote;
+
+    @Scheduled(cron = "${app.archivo.cron:0 0 4 * * *}")
+    public void programado() {
+        archivarAsync(diasHorizonte);
+    }
+
+    public ProgresoOperacion archivarAsync(int dias) {
+        if (dias < 1) {
+            throw new RuntimeException("El horizonte de archivo debe ser de al menos un dia");
+        }
+        return operacionMasivaService.lanzar("ARCHIVAR_VUELOS", p -> archivar(dias, p));
+    }
+
+    public void archivar(int dias, ProgresoOperacion progreso) {
+        // Las fechas se guardan como yyyy-MM-dd, asi que la comparacion de texto respeta el orden
+        String limite = LocalDate.now().minusDays(dias).toString();
+        Long min = vueloRepository.minIdAntesDe(limite);
+        Long max = vueloRepository.maxIdAntesDe(limite);
+        if (min == null) {
+            progreso.iniciar(0);
+            return;
+        }
+        progreso.iniciar((max - min) / tamanoLote + 1);
+        for (long desde = min; desde <= max; desde += tamanoLote) {
+            long d = desde, h = Math.min(desde + tamanoLote - 1, max);
+            Integer vuelos = transactionTemplate.execute(s -> {
+                vueloHistoricoRepository.archivarRango(d, h, limite);
+                reservaHistoricaRepository.archivarRango(d, h, limite);
+                reservaRepository.eliminarDeVuelosAntesDe(d, h, limite);
+                listaEsperaRepository.eliminarDeVuelosAntesDe(d, h, limite);
+                mapaAsientosService.eliminarDeVuelosAntesDe(d, h, limite);
+                return vueloRepository.eliminarAntesDe(d, h, limite);
+            });
+            progreso.loteCompletado(vuelos);
+        }
+        eventPublisher.publishEvent(VueloCambiadoEvent.catalogoCompleto());
+    }
+}
@@ -34,10 +34,8 @@ public class AuthService {
             String fechaNacimiento,
             String rol
     ) {
-        logger.info("Intentando registrar nuevo usuario con correo: {}", correo);
-
         if (usuarioRepository.existsByUsername(correo)) {
-            logger.warn("El usuario con correo {} ya existe.", correo);
+            logger.warn("Registro rechazado: el usuario ya existe");
             throw new RuntimeException("Usuario ya existe");
         }
 
@@ -60,9 +58,8 @@ public class AuthService {
             u.setRoles(Set.of(Rol.ROLE_USER));
         }
 
-        logger.info("Guardando nuevo usuario: {}", u);
         Usuario usuarioGuardado = usuarioRepository.save(u);
-        logger.info("Usuario guardado con exito: {}", usuarioGuardado);
+        logger.info("Usuario {} registrado", usuarioGuardado.getId());
 
         return usuarioGuardado;
     }
@@ -0,0 +1,256 @@
+package com.vueloscolombia.backend.service;
+
+import com.vueloscolombia.backend.model.Reserva;
+import com.vueloscolombia.backend.model.Usuario;
+import com.vueloscolombia.backend.model.Vuelo;
+import com.vueloscolombia.backend.repository.ReservaRepository;
+import jakarta.annotation.PostConstruct;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.PDPageContentStream.AppendMode;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.graphics.image.LosslessFactory;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Boletos electronicos por reserva. La parte fija (logo, franjas y etiquetas) se dibuja una sola vez
+ * al arrancar y se guarda como PDF serializado; cada boleto carga esa plantilla en memoria y solo
+ * agrega un flujo de contenido con los datos de la reserva. Se usan las fuentes estandar de PDF,
+ * que no se incrustan, asi que no hay costo de carga de fuentes por boleto.
+ */
+@Service
+public class BoletoService {
+
+    private static final PDRectangle TAMANO = new PDRectangle(PDRectangle.A5.getHeight(), PDRectangle.A5.getWidth());
+    private static final PDFont NEGRITA = PDType1Font.HELVETICA_BOLD;
+    private static final PDFont NORMAL = PDType1Font.HELVETICA;
+    private static final Color AZUL = new Color(0, 61, 122);
+
+    // Posicion de cada campo: la etiqueta va en la plantilla y el valor se escribe debajo
+    private enum Campo {
+        LOCALIZADOR("Localizador", 40, 300),
+        ESTADO("Estado", 220, 300),
+        VUELO("Vuelo No.", 400, 300),
+        PASAJERO("Pasajero", 40, 250),
+        DOCUMENTO("Documento", 400, 250),
+        ORIGEN("Origen", 40, 200),
+        DESTINO("Destino", 220, 200),
+        AEROLINEA("Aerolinea", 400, 200),
+        FECHA("Fecha", 40, 150),
+        SALIDA("Salida", 220, 150),
+        LLEGADA("Llegada", 400, 150),
+        ASIENTOS("Asientos", 40, 100),
+        PRECIO("Precio unitario", 220, 100),
+        TOTAL("Total", 400, 100);
+
+        final String etiqueta;
+        final float x;
+        final float y;
+
+        Campo(String etiqueta, float x, float y) {
+            this.etiqueta = etiqueta;
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    @Qualifier("documentosExecutor")
+    private TaskExecutor documentosExecutor;
+
+    private byte[] plantilla;
+
+    @PostConstruct
+    public void compilarPlantilla() throws IOException {
+        try (PDDocument doc = new PDDocument()) {
+            PDPage page = new PDPage(TAMANO);
+            doc.addPage(page);
+            float altoLogo = 50;
+            PDImageXObject logo = LosslessFactory.createFromImage(doc, logoReducido(2 * altoLogo));
+            try (PDPageContentStream cs = new PDPageContentStream(doc, page)) {
+                float ancho = TAMANO.getWidth();
+                float alto = TAMANO.getHeight();
+
+                float anchoLogo = altoLogo * logo.getWidth() / logo.getHeight();
+                cs.drawImage(logo, 30, alto - 60, anchoLogo, altoLogo);
+                cs.setNonStrokingColor(AZUL);
+                cs.addRect(50 + anchoLogo, alto - 70, ancho - 50 - anchoLogo, 70);
+                cs.fill();
+
+                cs.setNonStrokingColor(Color.WHITE);
+                cs.beginText();
+                cs.setFont(NEGRITA, 18);
+                cs.newLineAtOffset(ancho - 220, alto - 42);
+                cs.showText("Pase de abordar");
+                cs.endText();
+
+                cs.setNonStrokingColor(Color.GRAY);
+                cs.setFont(NORMAL, 9);
+                for (Campo c : Campo.values()) {
+                    cs.beginText();
+                    cs.newLineAtOffset(c.x, c.y);
+                    cs.showText(c.etiqueta.toUpperCase());
+                    cs.endText();
+                }
+
+                cs.setStrokingColor(AZUL);
+                cs.moveTo(30, 60);
+                cs.lineTo(ancho - 30, 60);
+                cs.stroke();
+                cs.beginText();
+                cs.newLineAtOffset(30, 40);
+                cs.showText("Presente este documento y su identificacion en el mostrador. Puertas cierran 20 minutos antes de la salida.");
+                cs.endText();
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            doc.save(out);
+            plantilla = out.toByteArray();
+        }
+    }
+
+    // El logo original es mucho mas grande de lo que se imprime; se reduce una vez a ~2x la resolucion de pantalla
+    private static BufferedImage logoReducido(float alto) throws IOException {
+        BufferedImage original;
+        try (InputStream in = new ClassPathResource("pdf/logo_header.png").getInputStream()) {
+            original = ImageIO.read(in);
+        }
+        int h = Math.round(alto);
+        int w = Math.round(alto * original.getWidth() / original.getHeight());
+        BufferedImage reducido = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = reducido.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+        g.drawImage(original, 0, 0, w, h, null);
+        g.dispose();
+        return reducido;
+    }
+
+    /** Boleto de una reserva del usuario autenticado. */
+    public byte[] boletoDeReserva(Long reservaId, String username) {
+        Reserva reserva = reservaRepository.findById(reservaId)
+                .orElseThrow(() -> new RuntimeException("Reserva no encontrada"));
+        if (!reserva.getUsuario().getUsername().equals(username)) {
+            throw new RuntimeException("No autorizado para ver esta reserva");
+        }
+        return generar(reserva);
+    }
+
+    public byte[] generar(Reserva reserva) {
+        try (PDDocument doc = PDDocument.load(plantilla)) {
+            PDPage page = doc.getPage(0);
+            try (PDPageContentStream cs = new PDPageContentStream(doc, page, AppendMode.APPEND, true, true)) {
+                cs.setNonStrokingColor(Color.BLACK);
+                cs.setFont(NEGRITA, 13);
+                for (Campo c : Campo.values()) {
+                    cs.beginText();
+                    cs.newLineAtOffset(c.x, c.y - 16);
+                    cs.showText(texto(valor(c, reserva)));
+                    cs.endText();
+                }
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream(plantilla.length + 2048);
+            doc.save(out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo generar el boleto de la reserva " + reserva.getId(), e);
+        }
+    }
+
+    /**
+     * Boletos de todas las reservas de un vuelo en un ZIP. Se generan en paralelo en el pool de
+     * documentos y se escriben en el orden de las reservas.
+     */
+    public void boletosDeVuelo(Long vueloId, OutputStream destino) throws IOException {
+        List<Reserva> reservas = reservaRepository.findByVueloId(vueloId);
+        List<CompletableFuture<byte[]>> boletos = new ArrayList<>(reservas.size());
+        for (Reserva r : reservas) {
+            boletos.add(CompletableFuture.supplyAsync(() -> generar(r), documentosExecutor));
+        }
+        ZipOutputStream zip = new ZipOutputStream(destino);
+        // Los PDF ya vienen comprimidos; no vale la pena gastar CPU en recomprimirlos
+        zip.setLevel(Deflater.BEST_SPEED);
+        for (int i = 0; i < reservas.size(); i++) {
+            byte[] pdf;
+            try {
+                pdf = boletos.get(i).join();
+            } catch (CompletionException e) {
+                boletos.forEach(f -> f.cancel(false));
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+            zip.putNextEntry(new ZipEntry("boleto_" + reservas.get(i).getId() + ".pdf"));
+            zip.write(pdf);
+            zip.closeEntry();
+        }
+        zip.finish();
+    }
+
+    private static String valor(Campo campo, Reserva r) {
+        Vuelo v = r.getVuelo();
+        Usuario u = r.getUsuario();
+        double precio = r.getPrecioUnitario() != null ? r.getPrecioUnitario() : v.getPrecio();
+        switch (campo) {
+            case LOCALIZADOR: return String.format("VC-%06d", r.getId());
+            case ESTADO: return r.getEstado();
+            case VUELO: return String.valueOf(v.getId());
+            case PASAJERO: return nombre(u);
+            case DOCUMENTO: return (u.getTipoDocumento() != null ? u.getTipoDocumento() + " " : "")
+                    + (u.getNumeroDocumento() != null ? u.getNumeroDocumento() : "");
+            case ORIGEN: return v.getOrigen();
+            case DESTINO: return v.getDestino();
+            case AEROLINEA: return v.getAerolinea();
+            case FECHA: return v.getFecha();
+            case SALIDA: return v.getHoraSalida();
+            case LLEGADA: return v.getHoraLlegada();
+            case ASIENTOS: return r.getAsientos() != null ? r.getAsientos().replace(",", ", ") : String.valueOf(r.getCantidad());
+            case PRECIO: return String.format("$ %,.0f", precio);
+            case TOTAL: return String.format("$ %,.0f", precio * r.getCantidad());
+            default: return "";
+        }
+    }
+
+    private static String nombre(Usuario u) {
+        String n = (u.getPrimerNombre() != null ? u.getPrimerNombre() : "") + " "
+                + (u.getPrimerApellido() != null ? u.getPrimerApellido() : "");
+        return n.isBlank() ? u.getUsername() : n.trim();
+    }
+
+    // Las fuentes estandar solo cubren WinAnsi; fuera de ese rango se quitan tildes y simbolos
+    private static String texto(String s) {
+        if (s == null) return "";
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) > 0xFF) {
+                return Normalizer.normalize(s, Normalizer.Form.NFD).replaceAll("[^\\x20-\\x7E]", "");
+            }
+        }
+        return s;
+    }
+}
@@ -0,0 +1,108 @@
+package com.vueloscolombia.backend.service;
+
+import com.vueloscolombia.backend.evento.BusInvalidacion;
+import com.vueloscolombia.backend.evento.Invalidacion;
+import com.vueloscolombia.backend.model.MensajeInvalidacion;
+import com.vueloscolombia.backend.repository.MensajeInvalidacionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Bus de invalidacion sobre la tabla {@code invalidacion} de la base compartida: no necesita otra
+ * infraestructura. Cada nodo sondea los mensajes con id mayor a su cursor. Como los id IDENTITY se
+ * asignan antes del commit, una transaccion lenta puede confirmar un id menor al ya leido; por eso cada
+ * sondeo vuelve a mirar una holgura de ids hacia atras y descarta los que ya aplico.
+ */
+@Service
+@ConditionalOnProperty(name = "app.invalidacion.bus", havingValue = "base-datos")
+public class BusInvalidacionBaseDatos implements BusInvalidacion {
+
+    private static final Logger logger = LoggerFactory.getLogger(BusInvalidacionBaseDatos.class);
+
+    private static final int TAMANO_PAGINA = 500;
+
+    @Autowired
+    private MensajeInvalidacionRepository mensajeInvalidacionRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.invalidacion.holgura:100}")
+    private int holgura;
+
+    @Value("${app.invalidacion.retencion-min:60}")
+    private int retencionMin;
+
+    private volatile String nodo;
+    private volatile Consumer<List<Invalidacion>> receptor;
+    private long cursor;
+
+    // Ids ya aplicados dentro de la holgura; acotado para no crecer sin limite
+    private final Map<Long, Boolean> aplicados = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Boolean> e) {
+            return size() > holgura * 4 + TAMANO_PAGINA;
+        }
+    };
+
+    @Override
+    public void publicar(String nodo, List<Invalidacion> lote) {
+        MensajeInvalidacion m = new MensajeInvalidacion(nodo, Invalidacion.codificar(lote), LocalDateTime.now());
+        transactionTemplate.executeWithoutResult(s -> mensajeInvalidacionRepository.save(m));
+    }
+
+    @Override
+    public synchronized void suscribir(String nodo, Consumer<List<Invalidacion>> receptor) {
+        // Lo anterior al arranque no interesa: las caches del nodo se cargan despues desde la base
+        Long max = transactionTemplate.execute(s -> mensajeInvalidacionRepository.maxId());
+        this.cursor = max != null ? max : 0;
+        this.nodo = nodo;
+        this.receptor = receptor;
+    }
+
+    @Scheduled(fixedDelayString = "${app.invalidacion.intervalo-ms:200}")
+    public synchronized void sondear() {
+        if (receptor == null) {
+            return;
+        }
+        List<MensajeInvalidacion> mensajes;
+        long antes;
+        do {
+            antes = cursor;
+            long desde = Math.max(cursor - holgura, 0);
+            mensajes = transactionTemplate.execute(s -> mensajeInvalidacionRepository
+                    .findByIdGreaterThanOrderByIdAsc(desde, PageRequest.of(0, TAMANO_PAGINA)));
+            for (MensajeInvalidacion m : mensajes) {
+                cursor = Math.max(cursor, m.getId());
+                if (aplicados.put(m.getId(), Boolean.TRUE) != null || nodo.equals(m.getNodo())) {
+                    continue;
+                }
+                try {
+                    receptor.accept(Invalidacion.decodificar(m.getContenido()));
+                } catch (Exception e) {
+                    logger.warn("No se pudo aplicar la invalidacion {}: {}", m.getId(), e.getMessage());
+                }
+            }
+            // Otra pagina solo si esta llego llena y el cursor avanzo
+        } while (mensajes.size() == TAMANO_PAGINA && cursor > antes);
+    }
+
+    @Scheduled(fixedDelayString = "${app.invalidacion.purga-ms:600000}")
+    public void purgar() {
+        LocalDateTime limite = LocalDateTime.now().minusMinutes(retencionMin);
+        transactionTemplate.executeWithoutResult(s -> mensajeInvalidacionRepository.purgar(limite));
+    }
+}
@@ -0,0 +1,57 @@
+package com.vueloscolombia.backend.service;
+
+import com.vueloscolombia.backend.evento.BusInvalidacion;
+import com.vueloscolombia.backend.evento.Invalidacion;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Bus en memoria compartido por todos los contextos de Spring de la misma JVM: permite levantar
+ * varios "nodos" en un proceso (pruebas, desarrollo) y verlos invalidarse entre si. La entrega es
+ * sincrona en el hilo que publica.
+ */
+@Service
+@ConditionalOnProperty(name = "app.invalidacion.bus", havingValue = "local")
+public class BusInvalidacionLocal implements BusInvalidacion {
+
+    private static final Logger logger = LoggerFactory.getLogger(BusInvalidacionLocal.class);
+
+    private static final Map<String, Consumer<List<Invalidacion>>> NODOS = new ConcurrentHashMap<>();
+
+    private volatile String nodo;
+
+    @Override
+    public void publicar(String nodo, List<Invalidacion> lote) {
+        NODOS.forEach((destino, receptor) -> {
+            if (destino.equals(nodo)) return;
+            try {
+                receptor.accept(lote);
+            } catch (Exception e) {
+                logger.warn("El nodo {} no pudo aplicar la invalidacion: {}", destino, e.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public void suscribir(String nodo, Consumer<List<Invalidacion>> receptor) {
+        if (NODOS.putIfAbsent(nodo, receptor) != null) {
+            throw new RuntimeException("Ya hay un nodo " + nodo + " en el bus local");
+        }
+        this.nodo = nodo;
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        if (nodo != null) {
+            NODOS.remove(nodo);
+        }
+    }
+}
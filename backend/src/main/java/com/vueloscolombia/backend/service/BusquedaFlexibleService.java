@@ -0,0 +1,85 @@
+package com.vueloscolombia.backend.service;
+
+import com.vueloscolombia.backend.dto.BusquedaFlexibleDTO;
+import com.vueloscolombia.backend.dto.DiaFlexibleDTO;
+import com.vueloscolombia.backend.model.Vuelo;
+import com.vueloscolombia.backend.repository.VueloRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Busqueda de fechas flexibles: toda la ventana de +-N dias sale de una sola consulta por rango sobre
+ * el indice (origen, destino, fecha), y se reparte por dia en memoria. Las opciones se ordenan por la
+ * tarifa de venta del momento, que se calcula en memoria sobre los vuelos ya leidos.
+ */
+@Service
+public class BusquedaFlexibleService {
+
+    @Autowired
+    private VueloRepository vueloRepository;
+
+    @Autowired
+    private TarifaService tarifaService;
+
+    @Value("${app.busqueda-flexible.max-dias:7}")
+    private int maxDias;
+
+    @Value("${app.busqueda-flexible.max-opciones:10}")
+    private int maxOpciones;
+
+    @Transactional(readOnly = true)
+    public BusquedaFlexibleDTO buscar(String origen, String destino, String fecha, int dias, int pasajeros, int porDia) {
+        LocalDate centro;
+        try {
+            centro = LocalDate.parse(fecha);
+        } catch (DateTimeParseException e) {
+            throw new RuntimeException("Fecha invalida, use el formato AAAA-MM-DD: " + fecha);
+        }
+        if (dias < 0 || dias > maxDias) {
+            throw new RuntimeException("La ventana debe estar entre 0 y " + maxDias + " dias");
+        }
+        if (pasajeros < 1) {
+            throw new RuntimeException("Debe haber al menos un pasajero");
+        }
+        int opciones = Math.max(1, Math.min(porDia, maxOpciones));
+
+        List<Vuelo> vuelos = vueloRepository.buscarEnFechas(origen, destino,
+                centro.minusDays(dias).toString(), centro.plusDays(dias).toString(), pasajeros);
+
+        // La tarifa depende de la ocupacion de cada vuelo, asi que el orden por precio base no basta
+        Comparator<Vuelo> porTarifa = Comparator.comparingDouble(Vuelo::getTarifa);
+        Map<String, List<Vuelo>> porFecha = new HashMap<>();
+        for (Vuelo v : vuelos) {
+            porFecha.computeIfAbsent(v.getFecha(), k -> new ArrayList<>()).add(tarifaService.aplicar(v));
+        }
+        for (Map.Entry<String, List<Vuelo>> e : porFecha.entrySet()) {
+            List<Vuelo> delDia = e.getValue();
+            delDia.sort(porTarifa.thenComparing(Vuelo::getHoraSalida, Comparator.nullsLast(Comparator.naturalOrder())));
+            e.setValue(new ArrayList<>(delDia.subList(0, Math.min(opciones, delDia.size()))));
+        }
+
+        List<DiaFlexibleDTO> resultado = new ArrayList<>(2 * dias + 1);
+        List<Vuelo> candidatos = new ArrayList<>();
+        for (int d = -dias; d <= dias; d++) {
+            String dia = centro.plusDays(d).toString();
+            List<Vuelo> delDia = porFecha.getOrDefault(dia, List.of());
+            resultado.add(new DiaFlexibleDTO(dia, d, delDia.isEmpty() ? null : delDia.get(0).getTarifa(), delDia));
+            candidatos.addAll(delDia);
+        }
+        candidatos.sort(porTarifa
+                .thenComparingLong(v -> Math.abs(LocalDate.parse(v.getFecha()).toEpochDay() - centro.toEpochDay()))
+                .thenComparing(Vuelo::getFecha)
+                .thenComparing(Vuelo::getHoraSalida, Comparator.nullsLast(Comparator.naturalOrder())));
+        return new BusquedaFlexibleDTO(fecha, resultado, candidatos.subList(0, Math.min(opciones, candidatos.size())));
+    }
+}
@@ -0,0 +1,262 @@
+package com.vueloscolombia.backend.service;
+
+import com.vueloscolombia.backend.dto.TarifaDiaDTO;
+import com.vueloscolombia.backend.evento.AsientosCambiadosEvent;
+import com.vueloscolombia.backend.evento.VueloCambiadoEvent;
+import com.vueloscolombia.backend.model.Vuelo;
+import com.vueloscolombia.backend.repository.VueloRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Calendario de tarifas: tarifa de venta minima con asientos disponibles por ruta y dia. Se mantiene
+ * incrementalmente con los eventos de vuelos y asientos; una consulta solo copia los arreglos
+ * precalculados de los meses pedidos. Al cambiar de dia se recalculan todos, porque se mueve la anticipacion.
+ */
+@Service
+public class CalendarioTarifasService {
+
+    private static final int MAX_MESES = 12;
+
+    @Autowired
+    private VueloRepository vueloRepository;
+
+    @Autowired
+    private TarifaService tarifaService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    @Qualifier("indicesExecutor")
+    private TaskExecutor indicesExecutor;
+
+    /** Lo minimo de cada vuelo que hace falta para recalcular el dia al que pertenece. */
+    private static class Entrada {
+        final String ruta;
+        final LocalDate dia;
+        final double precio;
+        final Integer capacidad;
+        int disponibles;
+
+        Entrada(String ruta, LocalDate dia, double precio, Integer capacidad, int disponibles) {
+            this.ruta = ruta;
+            this.dia = dia;
+            this.precio = precio;
+            this.capacidad = capacidad;
+            this.disponibles = disponibles;
+        }
+    }
+
+    /** Indices del calendario; una recarga arma uno nuevo aparte y lo publica de una vez. */
+    private static class Calendario {
+        final Map<Long, Entrada> porVuelo = new HashMap<>();
+        // ruta|dia -> vuelos de ese dia (pocos por dia, recalcular el minimo es trivial)
+        final Map<String, Map<Long, Entrada>> porDia = new HashMap<>();
+        // ruta|mes -> minimo por dia del mes (NaN = sin vuelos); se reemplaza completo en cada cambio
+        final Map<String, double[]> meses = new ConcurrentHashMap<>();
+    }
+
+    // Las consultas leen sin candado; los cambios se aplican bajo el monitor del servicio
+    private volatile Calendario calendario = new Calendario();
+
+    private final CambiosDuranteRecarga cambios = new CambiosDuranteRecarga();
+    private final Object recargando = new Object();
+    private final AtomicBoolean recargaPendiente = new AtomicBoolean();
+
+    /**
+     * Lee todos los vuelos y arma un calendario nuevo sin tomar el monitor; los eventos siguen
+     * aplicandose al actual y anotan sus vuelos, que se releen de la base antes de reemplazarlo.
+     */
+    public void recargar() {
+        synchronized (recargando) {
+            cambios.iniciarLectura();
+            try {
+                // Sin readOnly: la recarga completa sigue a un cambio masivo y debe leer de la primaria, no de una replica atrasada
+                Calendario nuevo = construir(transactionTemplate.execute(s -> vueloRepository.findAll()));
+                synchronized (this) {
+                    List<Long> ids = new ArrayList<>(cambios.terminarLectura());
+                    if (!ids.isEmpty()) {
+                        List<Vuelo> actuales = transactionTemplate.execute(s -> vueloRepository.findAllById(ids));
+                        ids.forEach(id -> quitar(nuevo, id));
+                        actuales.forEach(v -> agregar(nuevo, v));
+                    }
+                    cambios.indicePublicado();
+                    this.calendario = nuevo;
+                }
+            } finally {
+                cambios.terminarLectura();
+            }
+        }
+    }
+
+    /** Reemplaza el calendario completo con vuelos ya leidos; lo usa el arranque desde la instantanea. */
+    public void cargar(Iterable<Vuelo> vuelos) {
+        Calendario nuevo = construir(vuelos);
+        synchronized (this) {
+            this.calendario = nuevo;
+        }
+    }
+
+    private Calendario construir(Iterable<Vuelo> vuelos) {
+        Calendario nuevo = new Calendario();
+        for (Vuelo v : vuelos) {
+            agregar(nuevo, v);
+        }
+        return nuevo;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onVueloCambiado(VueloCambiadoEvent evento) {
+        if (evento.isCatalogoCompleto()) {
+            // Fuera del hilo del evento y sin el monitor, y una sola recarga encolada por muchos cambios masivos seguidos
+            if (recargaPendiente.compareAndSet(false, true)) {
+                indicesExecutor.execute(() -> {
+                    recargaPendiente.set(false);
+                    recargar();
+                });
+            }
+            return;
+        }
+        cambios.anotar(evento.getVueloId());
+        Calendario c = calendario;
+        quitar(c, evento.getVueloId());
+        if (!evento.isEliminado()) {
+            agregar(c, evento.getVuelo());
+        }
+    }
+
+    @EventListener
+    public void onAsientosPublicados(AsientosCambiadosEvent evento) {
+        cambios.publicado(evento.getVueloId());
+    }
+
+    @Order(CambiosDuranteRecarga.ORDEN_APLICAR)
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onAsientosCambiados(AsientosCambiadosEvent evento) {
+        cambios.anotar(evento.getVueloId());
+        Calendario c = calendario;
+        if (cambios.dudoso(evento.getVueloId())) {
+            // La recarga pudo ver ya este cambio: se toma el vuelo tal como quedo en vez de sumar el delta
+            vueloRepository.findById(evento.getVueloId()).ifPresent(v -> {
+                quitar(c, v.getId());
+                agregar(c, v);
+            });
+            return;
+        }
+        Entrada e = c.porVuelo.get(evento.getVueloId());
+        if (e == null) return;
+        boolean antes = e.disponibles > 0;
+        int cubetaAntes = tarifaService.cubetaOcupacion(e.capacidad, e.disponibles);
+        e.disponibles += evento.getDelta();
+        // Solo cambia el minimo del dia si el vuelo se agoto, volvio a tener asientos o cambio de cubeta de ocupacion
+        if (antes != e.disponibles > 0 || cubetaAntes != tarifaService.cubetaOcupacion(e.capacidad, e.disponibles)) {
+            recalcularDia(c, e.ruta, e.dia);
+        }
+    }
+
+    @Scheduled(cron = "${app.tarifas.cambio-dia-cron:0 0 0 * * *}", zone = "${app.tarifas.zona:America/Bogota}")
+    public synchronized void onCambioDeDia() {
+        Calendario c = calendario;
+        for (Map<Long, Entrada> delDia : c.porDia.values()) {
+            Entrada e = delDia.values().iterator().next();
+            recalcularDia(c, e.ruta, e.dia);
+        }
+    }
+
+    public List<TarifaDiaDTO> calendario(String origen, String destino, String mes, int cantidadMeses) {
+        YearMonth inicio;
+        try {
+            inicio = YearMonth.parse(mes);
+        } catch (DateTimeParseException e) {
+            throw new RuntimeException("Mes invalido, use el formato AAAA-MM: " + mes);
+        }
+        String ruta = ruta(origen, destino);
+        Map<String, double[]> meses = calendario.meses;
+        List<TarifaDiaDTO> dias = new ArrayList<>();
+        for (int m = 0; m < Math.max(1, Math.min(MAX_MESES, cantidadMeses)); m++) {
+            YearMonth ym = inicio.plusMonths(m);
+            double[] minimos = meses.get(ruta + "|" + ym);
+            for (int d = 1; d <= ym.lengthOfMonth(); d++) {
+                double precio = minimos == null ? Double.NaN : minimos[d - 1];
+                dias.add(new TarifaDiaDTO(ym.atDay(d).toString(), Double.isNaN(precio) ? null : precio));
+            }
+        }
+        return dias;
+    }
+
+    private void agregar(Calendario c, Vuelo v) {
+        LocalDate dia;
+        try {
+            dia = LocalDate.parse(v.getFecha());
+        } catch (RuntimeException e) {
+            return;
+        }
+        Entrada e = new Entrada(ruta(v.getOrigen(), v.getDestino()), dia, v.getPrecio(), v.getCapacidad(),
+                v.getDisponibles());
+        c.porVuelo.put(v.getId(), e);
+        c.porDia.computeIfAbsent(e.ruta + "|" + dia, k -> new HashMap<>()).put(v.getId(), e);
+        recalcularDia(c, e.ruta, dia);
+    }
+
+    private void quitar(Calendario c, Long vueloId) {
+        Entrada e = c.porVuelo.remove(vueloId);
+        if (e == null) return;
+        String clave = e.ruta + "|" + e.dia;
+        Map<Long, Entrada> delDia = c.porDia.get(clave);
+        if (delDia != null) {
+            delDia.remove(vueloId);
+            if (delDia.isEmpty()) c.porDia.remove(clave);
+        }
+        recalcularDia(c, e.ruta, e.dia);
+    }
+
+    private void recalcularDia(Calendario c, String ruta, LocalDate dia) {
+        double minimo = Double.NaN;
+        Map<Long, Entrada> delDia = c.porDia.get(ruta + "|" + dia);
+        if (delDia != null) {
+            long diaSalida = dia.toEpochDay();
+            for (Entrada e : delDia.values()) {
+                if (e.disponibles <= 0) continue;
+                double tarifa = tarifaService.tarifa(e.precio, e.capacidad, e.disponibles, diaSalida);
+                if (Double.isNaN(minimo) || tarifa < minimo) {
+                    minimo = tarifa;
+                }
+            }
+        }
+        YearMonth ym = YearMonth.from(dia);
+        String clave = ruta + "|" + ym;
+        double[] actual = c.meses.get(clave);
+        double[] nuevo;
+        if (actual == null) {
+            nuevo = new double[ym.lengthOfMonth()];
+            Arrays.fill(nuevo, Double.NaN);
+        } else {
+            nuevo = actual.clone();
+        }
+        nuevo[dia.getDayOfMonth() - 1] = minimo;
+        c.meses.put(clave, nuevo);
+    }
+
+    private static String ruta(String origen, String destino) {
+        return origen + "-" + destino;
+    }
+}
@@ -0,0 +1,89 @@
+package com.vueloscolombia.backend.service;
+
+import org.springframework.core.Ordered;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Vuelos que cambian mientras un indice en memoria se reconstruye aparte con una lectura completa.
+ * Los que cambian durante la lectura se anotan y se releen antes de publicar el indice nuevo. Ademas,
+ * un cambio se confirma en la base antes de que su evento llegue al indice: si la lectura lo alcanzo a
+ * ver y el evento llega ya publicado el indice nuevo, sumar su delta lo contaria dos veces. Por eso se
+ * llevan los vuelos con transacciones en curso, y los que lo estaban al publicar quedan dudosos: su
+ * siguiente evento relee el vuelo en vez de sumar el delta, hasta que esas transacciones terminan.
+ */
+final class CambiosDuranteRecarga {
+
+    /**
+     * Orden del listener que aplica el evento al indice. Spring invoca los AFTER_COMMIT desde
+     * afterCompletion, igual que el cierre de la transaccion de aqui: el listener tiene que ir antes, o
+     * el vuelo dejaria de ser dudoso justo antes de aplicar su propio delta.
+     */
+    static final int ORDEN_APLICAR = Ordered.LOWEST_PRECEDENCE - 1;
+
+    // Transacciones sin terminar que publicaron un cambio de cada vuelo
+    private final Map<Long, Integer> enCurso = new HashMap<>();
+    private final Set<Long> dudosos = new HashSet<>();
+    private Set<Long> tocados;
+
+    /** Al publicarse el evento, todavia dentro de la transaccion que hizo el cambio. */
+    void publicado(Long vueloId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        synchronized (this) {
+            enCurso.merge(vueloId, 1, Integer::sum);
+            anotar(vueloId);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public int getOrder() {
+                return Ordered.LOWEST_PRECEDENCE;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                terminado(vueloId);
+            }
+        });
+    }
+
+    synchronized void anotar(Long vueloId) {
+        if (tocados != null) {
+            tocados.add(vueloId);
+        }
+    }
+
+    /** Empieza a anotar; los vuelos con transacciones en curso ya cuentan como tocados. */
+    synchronized void iniciarLectura() {
+        tocados = new HashSet<>(enCurso.keySet());
+    }
+
+    /** Deja de anotar y devuelve los vuelos a releer; no falla si la lectura ya termino. */
+    synchronized Set<Long> terminarLectura() {
+        Set<Long> t = tocados == null ? Set.of() : tocados;
+        tocados = null;
+        return t;
+    }
+
+    /** Justo antes de publicar el indice nuevo, despues de releer los tocados. */
+    synchronized void indicePublicado() {
+        dudosos.addAll(enCurso.keySet());
+    }
+
+    /** Si el evento de este vuelo debe releerlo en vez de aplicar su delta. */
+    synchronized boolean dudoso(Long vueloId) {
+        return dudosos.contains(vueloId);
+    }
+
+    private synchronized void terminado(Long vueloId) {
+        if (enCurso.computeIfPresent(vueloId, (k, n) -> n > 1 ? n - 1 : null) == null) {
+            dudosos.remove(vueloId);
+        }
+    }
+}
@@ -0,0 +1,336 @@
+package com.vueloscolombia.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vueloscolombia.backend.evento.AsientosCambiadosEvent;
+import com.vueloscolombia.backend.evento.VueloCambiadoEvent;
+import com.vueloscolombia.backend.model.Vuelo;
+import com.vueloscolombia.backend.repository.VueloRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Respuestas ya codificadas del catalogo publico ({@code GET /api/vuelos} y las busquedas por ruta):
+ * JSON, su version gzip y un ETag por contenido. Un cambio de un vuelo o de sus asientos marca como
+ * sucia solo la busqueda de su ruta, que se reconstruye en segundo plano tras una espera breve; el
+ * catalogo completo se marca tambien, pero se reconstruye a lo sumo una vez por intervalo, porque
+ * cuesta un {@code findAll}. Mientras tanto se siguen sirviendo los bytes anteriores, de modo que
+ * ninguna lectura espera a la base de datos salvo la primera de una ruta.
+ */
+@Service
+public class CatalogoCacheService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogoCacheService.class);
+    private static final String CATALOGO = "catalogo";
+    private static final String BUSCAR = "buscar|";
+
+    @Autowired
+    private VueloRepository vueloRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TarifaService tarifaService;
+
+    @Autowired
+    @Qualifier("catalogoExecutor")
+    private TaskExecutor catalogoExecutor;
+
+    @Value("${app.catalogo-cache.max-busquedas:1000}")
+    private int maxBusquedas;
+
+    @Value("${app.catalogo-cache.inactividad-min:30}")
+    private long inactividadMin;
+
+    @Value("${app.catalogo-cache.retardo-ms:200}")
+    private long retardoMs;
+
+    @Value("${app.catalogo-cache.intervalo-catalogo-ms:5000}")
+    private long intervaloCatalogoMs;
+
+    /** Cuerpo listo para escribir en la respuesta. */
+    public static class Respuesta {
+        private final long version;
+        private final byte[] json;
+        private final byte[] gzip;
+        private final String etag;
+        private volatile long ultimoAcceso;
+
+        Respuesta(long version, byte[] json, byte[] gzip, String etag, long ultimoAcceso) {
+            this.version = version;
+            this.json = json;
+            this.gzip = gzip;
+            this.etag = etag;
+            this.ultimoAcceso = ultimoAcceso;
+        }
+
+        public long getVersion() { return version; }
+        public byte[] getJson() { return json; }
+        public byte[] getGzip() { return gzip; }
+        public String getEtag() { return etag; }
+    }
+
+    // Cuenta las invalidaciones; sirve para detectar las que llegan mientras se construye una respuesta
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicBoolean reconstruyendo = new AtomicBoolean();
+    private final Map<String, Respuesta> respuestas = new ConcurrentHashMap<>();
+    private final Set<String> sucias = ConcurrentHashMap.newKeySet();
+    // Ruta "origen|destino" de cada vuelo codificado, para saber que busqueda invalida un cambio de asientos
+    private final Map<Long, String> rutaPorVuelo = new ConcurrentHashMap<>();
+    private volatile long catalogoConstruido;
+
+    public void inicializar() {
+        respuestas.put(CATALOGO, construir(CATALOGO, version.get(), System.currentTimeMillis()));
+    }
+
+    /**
+     * Arranque desde la instantanea: codifica el catalogo y las busquedas indicadas a partir de los
+     * vuelos ya leidos, sin ir a la base de datos.
+     */
+    public void precalentar(List<Vuelo> vuelos, List<String[]> rutas) {
+        long v = version.get(), ahora = System.currentTimeMillis();
+        Set<Long> conocidos = Set.copyOf(rutaPorVuelo.keySet());
+        respuestas.put(CATALOGO, codificar(vuelos, v, ahora));
+        podarRutas(conocidos, vuelos);
+        catalogoConstruido = ahora;
+        for (String[] ruta : rutas) {
+            if (respuestas.size() > maxBusquedas) break;
+            List<Vuelo> deRuta = vuelos.stream()
+                    .filter(x -> ruta[0].equals(x.getOrigen()) && ruta[1].equals(x.getDestino()))
+                    .toList();
+            respuestas.put(BUSCAR + ruta[0] + "|" + ruta[1], codificar(deRuta, v, ahora));
+        }
+        if (version.get() != v) {
+            invalidarTodo();
+        }
+    }
+
+    /** Rutas (origen, destino) con respuesta en cache, de la consultada mas recientemente a la mas antigua. */
+    public List<String[]> busquedasRecientes(int maximo) {
+        return respuestas.entrySet().stream()
+                .filter(e -> e.getKey().startsWith(BUSCAR))
+                .sorted((a, b) -> Long.compare(b.getValue().ultimoAcceso, a.getValue().ultimoAcceso))
+                .limit(maximo)
+                .map(e -> e.getKey().substring(BUSCAR.length()).split("\\|", 2))
+                .toList();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVueloCambiado(VueloCambiadoEvent evento) {
+        if (evento.isCatalogoCompleto()) {
+            invalidarTodo();
+            return;
+        }
+        // Un vuelo editado puede cambiar de ruta: se invalidan la anterior y la nueva
+        String anterior = evento.isEliminado()
+                ? rutaPorVuelo.remove(evento.getVueloId())
+                : rutaPorVuelo.get(evento.getVueloId());
+        String nueva = null;
+        if (!evento.isEliminado()) {
+            nueva = ruta(evento.getVuelo());
+            rutaPorVuelo.put(evento.getVueloId(), nueva);
+        }
+        invalidar(anterior, nueva);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAsientosCambiados(AsientosCambiadosEvent evento) {
+        // Sin ruta conocida el vuelo no esta en ninguna busqueda en cache, solo en el catalogo
+        invalidar(rutaPorVuelo.get(evento.getVueloId()), null);
+    }
+
+    // Al cambiar el dia se mueve la anticipacion de todos los vuelos, y con ella su tarifa
+    @Scheduled(cron = "${app.tarifas.cambio-dia-cron:0 0 0 * * *}", zone = "${app.tarifas.zona:America/Bogota}")
+    public void onCambioDeDia() {
+        invalidarTodo();
+    }
+
+    // El catalogo completo se reconstruye aqui, agrupando todos los cambios del intervalo
+    @Scheduled(fixedDelayString = "${app.catalogo-cache.intervalo-catalogo-ms:5000}")
+    public void refrescarCatalogo() {
+        if (sucias.contains(CATALOGO)) {
+            programar();
+        }
+    }
+
+    public Respuesta catalogo() {
+        return obtener(CATALOGO);
+    }
+
+    public Respuesta busqueda(String origen, String destino) {
+        return obtener(BUSCAR + origen + "|" + destino);
+    }
+
+    private Respuesta obtener(String clave) {
+        long ahora = System.currentTimeMillis();
+        Respuesta r = respuestas.get(clave);
+        if (r == null) {
+            // Se lee ahora mismo: una marca anterior de esta clave ya no hace falta
+            sucias.remove(clave);
+            r = construir(clave, version.get(), ahora);
+            if (CATALOGO.equals(clave) || respuestas.size() <= maxBusquedas) {
+                respuestas.putIfAbsent(clave, r);
+            }
+            // Un cambio que llego mientras se construia pudo no verse: se reconstruye por si acaso
+            if (r.version != version.get()) {
+                sucias.add(clave);
+                programar();
+            }
+        }
+        r.ultimoAcceso = ahora;
+        return r;
+    }
+
+    private void invalidar(String rutaAnterior, String rutaNueva) {
+        version.incrementAndGet();
+        sucias.add(CATALOGO);
+        if (rutaAnterior != null) sucias.add(BUSCAR + rutaAnterior);
+        if (rutaNueva != null) sucias.add(BUSCAR + rutaNueva);
+        programar();
+    }
+
+    private void invalidarTodo() {
+        version.incrementAndGet();
+        sucias.addAll(respuestas.keySet());
+        sucias.add(CATALOGO);
+        programar();
+    }
+
+    private void programar() {
+        if (reconstruyendo.compareAndSet(false, true)) {
+            catalogoExecutor.execute(this::reconstruir);
+        }
+    }
+
+    private void reconstruir() {
+        boolean ok = false;
+        try {
+            do {
+                // Espera breve para agrupar rafagas de reservas de una ruta en una sola reconstruccion
+                Thread.sleep(retardoMs);
+                reconstruirSucias();
+            } while (hayBusquedasSucias());
+            ok = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            logger.error("No se pudo reconstruir la cache del catalogo; se sigue sirviendo la anterior", e);
+        } finally {
+            reconstruyendo.set(false);
+        }
+        // Un cambio que llego entre la ultima comprobacion y la bandera
+        if (ok && hayBusquedasSucias()) {
+            programar();
+        }
+    }
+
+    private void reconstruirSucias() {
+        long ahora = System.currentTimeMillis();
+        long limite = ahora - inactividadMin * 60_000;
+        for (String clave : List.copyOf(sucias)) {
+            boolean catalogo = CATALOGO.equals(clave);
+            if (catalogo && ahora - catalogoConstruido < intervaloCatalogoMs) continue;
+            // Se desmarca antes de leer: un cambio confirmado durante la lectura la vuelve a marcar. Si ya no
+            // estaba marcada, una lectura la construyo de cero despues de la copia
+            if (!sucias.remove(clave)) continue;
+            Respuesta anterior = respuestas.get(clave);
+            if (anterior == null) continue;
+            if (!catalogo && anterior.ultimoAcceso < limite) {
+                respuestas.remove(clave, anterior);
+                continue;
+            }
+            respuestas.replace(clave, anterior, construir(clave, version.get(), anterior.ultimoAcceso));
+        }
+        // Las busquedas inactivas que no cambiaron tambien se descartan
+        respuestas.entrySet().removeIf(e -> !CATALOGO.equals(e.getKey()) && e.getValue().ultimoAcceso < limite);
+    }
+
+    private boolean hayBusquedasSucias() {
+        return sucias.stream().anyMatch(c -> !CATALOGO.equals(c));
+    }
+
+    private Respuesta construir(String clave, long v, long ultimoAcceso) {
+        if (CATALOGO.equals(clave)) {
+            catalogoConstruido = System.currentTimeMillis();
+        }
+        // Vuelos con ruta conocida antes de leer el catalogo completo; los que no aparezcan ya no existen
+        Set<Long> conocidos = CATALOGO.equals(clave) ? Set.copyOf(rutaPorVuelo.keySet()) : null;
+        // Sin readOnly: se lee de la primaria, que es donde ya se confirmo el cambio que disparo esto
+        List<Vuelo> vuelos = transactionTemplate.execute(s -> {
+            if (CATALOGO.equals(clave)) {
+                return vueloRepository.findAll();
+            }
+            String[] ruta = clave.substring(BUSCAR.length()).split("\\|", 2);
+            return vueloRepository.findByOrigenAndDestino(ruta[0], ruta[1]);
+        });
+        Respuesta r = codificar(vuelos, v, ultimoAcceso);
+        if (conocidos != null) {
+            podarRutas(conocidos, vuelos);
+        }
+        return r;
+    }
+
+    /**
+     * Olvida la ruta de los vuelos borrados o archivados sin evento propio (cambios masivos). Solo se
+     * consideran los que ya se conocian antes de leer: uno creado durante la lectura conserva su ruta.
+     */
+    private void podarRutas(Set<Long> conocidos, List<Vuelo> vigentes) {
+        Set<Long> ids = new HashSet<>(vigentes.size() * 2);
+        for (Vuelo v : vigentes) {
+            ids.add(v.getId());
+        }
+        for (Long id : conocidos) {
+            if (!ids.contains(id)) {
+                rutaPorVuelo.remove(id);
+            }
+        }
+    }
+
+    private Respuesta codificar(List<Vuelo> vuelos, long v, long ultimoAcceso) {
+        for (Vuelo vuelo : vuelos) {
+            rutaPorVuelo.put(vuelo.getId(), ruta(vuelo));
+        }
+        tarifaService.aplicar(vuelos);
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(vuelos);
+            ByteArrayOutputStream comprimido = new ByteArrayOutputStream(json.length / 4 + 64);
+            try (GZIPOutputStream gz = new GZIPOutputStream(comprimido)) {
+                gz.write(json);
+            }
+            CRC32 crc = new CRC32();
+            crc.update(json);
+            // ETag por contenido: una ruta que no cambio conserva su ETag aunque se reconstruya
+            String etag = "\"" + Long.toHexString(crc.getValue()) + "-" + json.length + "\"";
+            return new Respuesta(v, json, comprimido.toByteArray(), etag, ultimoAcceso);
+        } catch (IOException e) {
+            throw new RuntimeException("Error al codificar el catalogo", e);
+        }
+    }
+
+    private static String ruta(Vuelo vuelo) {
+        return vuelo.getOrigen() + "|" + vuelo.getDestino();
+    }
+}
@@ -0,0 +1,156 @@
+package com.vueloscolombia.backend.service;
+
+import com.vueloscolombia.backend.dto.ConciliacionDTO;
+import com.vueloscolombia.backend.dto.DiscrepanciaInventarioDTO;
+import com.vueloscolombia.backend.dto.DiscrepanciaInventarioDTO.Tipo;
+import com.vueloscolombia.backend.dto.ProgresoOperacion;
+import com.vueloscolombia.backend.evento.AsientosCambiadosEvent;
+import com.vueloscolombia.backend.repository.VueloRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Conciliacion del inventario: compara {@code disponibles} de cada vuelo con capacidad menos los
+ * asientos reservados. Recorre los vuelos por rangos de id en paralelo con una consulta agregada por
+ * lote (lecturas sin bloqueo) y, si se pide, corrige cada vuelo con un UPDATE condicionado al valor
+ * leido, de modo que una reserva concurrente nunca se pisa.
+ */
+@Service
+public class ConciliacionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConciliacionService.class);
+
+    @Autowired
+    private VueloRepository vueloRepository;
+
+    @Autowired
+    private OperacionMasivaService operacionMasivaService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    @Qualifier("analiticaExecutor")
+    private TaskExecutor analiticaExecutor;
+
+    @Value("${app.conciliacion.tamano-lote:5000}")
+    private int tamanoLote;
+
+    @Value("${app.conciliacion.max-reportadas:1000}")
+    private int maxReportadas;
+
+    @Value("${app.conciliacion.corregir-automatico:false}")
+    private boolean corregirAutomatico;
+
+    private volatile ConciliacionDTO ultima;
+
+    @Scheduled(cron = "${app.conciliacion.cron:0 30 3 * * *}")
+    public void programada() {
+        conciliarAsync(corregirAutomatico);
+    }
+
+    public ProgresoOperacion conciliarAsync(boolean corregir) {
+        return operacionMasivaService.lanzar(corregir ? "CONCILIAR_Y_CORREGIR_INVENTARIO" : "CONCILIAR_INVENTARIO",
+                p -> conciliar(corregir, p));
+    }
+
+    public ConciliacionDTO ultima() {
+        if (ultima == null) {
+            throw new RuntimeException("Aun no se ha ejecutado ninguna conciliacion");
+        }
+        return ultima;
+    }
+
+    public void conciliar(boolean corregir, ProgresoOperacion progreso) {
+        Instant inicio = Instant.now();
+        Long min = vueloRepository.minId(), max = vueloRepository.maxId();
+        long lotes = min == null ? 0 : (max - min) / tamanoLote + 1;
+        progreso.iniciar(lotes);
+
+        AtomicLong revisados = new AtomicLong();
+        AtomicLong encontradas = new AtomicLong();
+        AtomicLong corregidos = new AtomicLong();
+        ConcurrentLinkedQueue<DiscrepanciaInventarioDTO> detalle = new ConcurrentLinkedQueue<>();
+
+        List<CompletableFuture<Void>> tareas = new ArrayList<>();
+        for (long i = 0; i < lotes; i++) {
+            long d = min + i * tamanoLote, h = Math.min(d + tamanoLote - 1, max);
+            tareas.add(CompletableFuture.runAsync(() -> {
+                List<Object[]> filas = vueloRepository.inventarioRango(d, h);
+                for (Object[] f : filas) {
+                    DiscrepanciaInventarioDTO x = revisar(f);
+                    if (x == null) continue;
+                    encontradas.incrementAndGet();
+                    if (corregir && corregir(x)) {
+                        corregidos.incrementAndGet();
+                    }
+                    if (detalle.size() < maxReportadas) {
+                        detalle.add(x);
+                    }
+                }
+                revisados.addAndGet(filas.size());
+                progreso.loteCompletado(filas.size());
+            }, analiticaExecutor));
+        }
+        CompletableFuture.allOf(tareas.toArray(new CompletableFuture[0])).join();
+
+        List<DiscrepanciaInventarioDTO> lista = new ArrayList<>(detalle);
+        lista.sort(Comparator.comparing(DiscrepanciaInventarioDTO::getVueloId));
+        ultima = new ConciliacionDTO(progreso.getId(), corregir, inicio, Instant.now(), revisados.get(),
+                encontradas.get(), corregidos.get(), lista);
+        if (encontradas.get() > 0) {
+            logger.warn("Conciliacion de inventario: {} vuelos con descuadre de {} revisados, {} corregidos",
+                    encontradas.get(), revisados.get(), corregidos.get());
+        }
+    }
+
+    private static DiscrepanciaInventarioDTO revisar(Object[] f) {
+        Long vueloId = ((Number) f[0]).longValue();
+        Integer capacidad = f[1] != null ? ((Number) f[1]).intValue() : null;
+        int disponibles = ((Number) f[2]).intValue();
+        long reservados = ((Number) f[3]).longValue();
+        if (capacidad == null) {
+            return new DiscrepanciaInventarioDTO(vueloId, Tipo.CAPACIDAD_DESCONOCIDA, null, disponibles, reservados, null);
+        }
+        long esperado = capacidad - reservados;
+        if (esperado == disponibles) {
+            return null;
+        }
+        Tipo tipo = esperado < 0 ? Tipo.SOBREVENTA : Tipo.DESCUADRE;
+        return new DiscrepanciaInventarioDTO(vueloId, tipo, capacidad, disponibles, reservados, (int) Math.max(esperado, 0));
+    }
+
+    private boolean corregir(DiscrepanciaInventarioDTO x) {
+        if (x.getEsperado() == null || x.getEsperado() == x.getDisponibles()) {
+            return false;
+        }
+        Integer filas = transactionTemplate.execute(s ->
+                vueloRepository.corregirDisponibles(x.getVueloId(), x.getDisponibles(), x.getEsperado()));
+        if (filas == null || filas == 0) {
+            return false;
+        }
+        x.marcarCorregido();
+        // Indices en memoria y lista de espera se enteran del cambio como de cualquier otro ajuste
+        eventPublisher.publishEvent(new AsientosCambiadosEvent(x.getVueloId(), x.getEsperado() - x.getDisponibles()));
+        return true;
+    }
+}
@@ -0,0 +1,43 @@
+package com.vueloscolombia.backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vueloscolombia.backend.evento.ConsumidorOutbox;
+import com.vueloscolombia.backend.model.EventoOutbox;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Aviso de confirmacion de reservas individuales. Por ahora solo deja constancia en el log;
+ * aqui se conectaria el envio del correo de confirmacion.
+ */
+@Component
+public class ConfirmacionReservaConsumidor implements ConsumidorOutbox {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConfirmacionReservaConsumidor.class);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    public String getNombre() { return "confirmacion-reserva"; }
+
+    @Override
+    public boolean acepta(String tipo) {
+        return "RESERVA_CREADA".equals(tipo);
+    }
+
+    @Override
+    public void procesar(EventoOutbox evento) throws Exception {
+        JsonNode datos = objectMapper.readTree(evento.getPayload());
+        if (datos.path("reservaId").isNull() || datos.path("username").isNull()) {
+            return; // evento agregado de una operacion masiva
+        }
+        logger.info("Confirmacion de reserva {} para {}: vuelo {} {}-{} el {}, {} asiento(s)",
+                datos.path("reservaId").asLong(), datos.path("username").asText(), evento.getVueloId(),
+                datos.path("origen").asText(), datos.path("destino").asText(), datos.path("fecha").asText(),
+                datos.path("asientos").asInt());
+    }
+}
@@ -0,0 +1,118 @@
+package com.vueloscolombia.backend.service;
+
+import com.vueloscolombia.backend.dto.CotizacionDTO;
+import com.vueloscolombia.backend.model.Vuelo;
+import com.vueloscolombia.backend.repository.CotizacionUsadaRepository;
+import com.vueloscolombia.backend.repository.VueloRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Cotizaciones de corta vida: fijan la tarifa del momento para un usuario, vuelo y cantidad en un
+ * token firmado, de modo que la reserva cobra lo que se mostro aunque la ocupacion cambie mientras
+ * tanto. La clave es distinta a la de sesion, asi un token de cotizacion nunca sirve para autenticarse.
+ * Cada token sirve para una sola reserva: su id (jti) se registra en la misma transaccion que la crea.
+ */
+@Service
+public class CotizacionService {
+
+    private static final String VENCIDA = "La cotizacion vencio o no es valida; vuelva a cotizar";
+    private static final String USADA = "La cotizacion ya se uso en otra reserva; vuelva a cotizar";
+
+    @Autowired
+    private VueloRepository vueloRepository;
+
+    @Autowired
+    private TarifaService tarifaService;
+
+    @Autowired
+    private CotizacionUsadaRepository cotizacionUsadaRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.cotizacion.vigencia-min:15}")
+    private long vigenciaMin;
+
+    private final Key key;
+
+    public CotizacionService(@Value("${app.cotizacion.secreto:${jwt.secret}-cotizacion}") String secreto) {
+        this.key = Keys.hmacShaKeyFor(secreto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Transactional(readOnly = true)
+    public CotizacionDTO cotizar(Long vueloId, String username, int cantidad) {
+        if (cantidad <= 0) {
+            throw new RuntimeException("La cantidad debe ser mayor a cero");
+        }
+        Vuelo vuelo = vueloRepository.findById(vueloId)
+                .orElseThrow(() -> new RuntimeException("Vuelo no encontrado"));
+        if (vuelo.getDisponibles() < cantidad) {
+            throw new RuntimeException("No hay suficientes asientos");
+        }
+        double precio = tarifaService.tarifa(vuelo);
+        long expira = System.currentTimeMillis() + vigenciaMin * 60_000;
+        String token = Jwts.builder()
+                .setId(UUID.randomUUID().toString())
+                .setSubject(username)
+                .claim("vuelo", vueloId)
+                .claim("cantidad", cantidad)
+                .claim("precio", precio)
+                .setExpiration(new Date(expira))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+        return new CotizacionDTO(token, vueloId, cantidad, precio, precio * cantidad, expira);
+    }
+
+    /**
+     * Precio unitario cotizado; la reserva puede ser por menos asientos que los cotizados, no por mas.
+     * Marca el token como usado dentro de la transaccion de la reserva: si la reserva se revierte, el
+     * token sigue valido; si dos reservas lo usan a la vez, la segunda falla por llave duplicada.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public double precioCotizado(String token, Long vueloId, String username, int cantidad) {
+        Claims claims;
+        try {
+            claims = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new RuntimeException(VENCIDA);
+        }
+        Long vuelo = claims.get("vuelo", Long.class);
+        Integer cotizados = claims.get("cantidad", Integer.class);
+        Double precio = claims.get("precio", Double.class);
+        if (!username.equals(claims.getSubject()) || !vueloId.equals(vuelo) || claims.getId() == null
+                || cotizados == null || cantidad > cotizados || precio == null) {
+            throw new RuntimeException(VENCIDA);
+        }
+        try {
+            cotizacionUsadaRepository.registrar(claims.getId(),
+                    LocalDateTime.ofInstant(claims.getExpiration().toInstant(), ZoneId.systemDefault()));
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException(USADA);
+        }
+        return precio;
+    }
+
+    @Scheduled(fixedDelayString = "${app.cotizacion.purga-ms:600000}")
+    public void purgarUsadas() {
+        transactionTemplate.execute(s -> cotizacionUsadaRepository.purgar(LocalDateTime.now()));
+    }
+}
@@ -0,0 +1,240 @@
+package com.vueloscolombia.backend.service;
+
+import com.vueloscolombia.backend.dto.DisponibilidadDTO;
+import com.vueloscolombia.backend.evento.AsientosCambiadosEvent;
+import com.vueloscolombia.backend.evento.VueloCambiadoEvent;
+import com.vueloscolombia.backend.model.Vuelo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Indice de disponibilidad en memoria: dos arreglos paralelos de enteros indexados por id de vuelo
+ * (id - base), con los asientos disponibles y la capacidad. Son 8 bytes por posicion, sin objetos
+ * por vuelo. Se llena con un solo recorrido en streaming al
+ * arrancar y despues lo mantienen los eventos de vuelos y asientos, igual que los demas indices.
+ * Es una vista aproximada para filtrar resultados (con varios nodos va atrasada hasta el siguiente
+ * ciclo del bus): nunca rechaza una reserva, eso lo decide el descuento condicional en la base de datos.
+ */
+@Service
+public class DisponibilidadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DisponibilidadService.class);
+    private static final int SIN_VUELO = -1;
+    private static final String SQL_VUELOS = "SELECT id, disponibles, capacidad FROM vuelo";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    @Qualifier("indicesExecutor")
+    private TaskExecutor indicesExecutor;
+
+    @Value("${app.disponibilidad.filas-por-lectura:1000}")
+    private int filasPorLectura;
+
+    /** Arreglos de un mismo tamano; al crecer se reemplazan todos juntos. */
+    private static final class Indice {
+        final long base;
+        final int[] disponibles;
+        final int[] capacidad;
+        int vuelos;
+
+        Indice(long base, int tamano) {
+            this.base = base;
+            disponibles = new int[tamano];
+            capacidad = new int[tamano];
+            Arrays.fill(disponibles, SIN_VUELO);
+        }
+
+        int posicion(long id) {
+            long p = id - base;
+            return p >= 0 && p < disponibles.length ? (int) p : -1;
+        }
+    }
+
+    private volatile Indice indice = new Indice(1, 0);
+
+    // Vuelos que cambiaron mientras se recorria la tabla; se releen antes de publicar el indice nuevo
+    private Set<Long> tocados;
+    private final AtomicBoolean recargaPendiente = new AtomicBoolean();
+
+    /**
+     * Recorre la tabla y arma un indice nuevo aparte; los eventos siguen aplicandose al actual, que se
+     * reemplaza de una vez al terminar. Las lecturas nunca ven un indice a medio llenar.
+     */
+    public void recargar() {
+        long inicio = System.nanoTime();
+        synchronized (this) {
+            tocados = new HashSet<>();
+        }
+        try {
+            Map<String, Object> limites = jdbcTemplate.queryForMap("SELECT MIN(id) AS minimo, MAX(id) AS maximo FROM vuelo");
+            Number min = (Number) limites.get("minimo"), max = (Number) limites.get("maximo");
+            Indice[] nuevo = {min == null ? new Indice(1, 0)
+                    : new Indice(min.longValue(), (int) (max.longValue() - min.longValue() + 1))};
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(SQL_VUELOS, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                boolean mysql = con.getMetaData().getDatabaseProductName().toLowerCase().contains("mysql");
+                ps.setFetchSize(mysql ? Integer.MIN_VALUE : filasPorLectura);
+                return ps;
+            }, (RowCallbackHandler) rs -> {
+                Integer capacidad = (Integer) rs.getObject(3);
+                nuevo[0] = poner(nuevo[0], rs.getLong(1), rs.getInt(2), capacidad);
+            });
+            synchronized (this) {
+                // Lo que cambio durante el recorrido se toma de la base tal como esta ahora
+                if (!tocados.isEmpty()) {
+                    Indice i = nuevo[0];
+                    for (Long id : tocados) {
+                        int p = i.posicion(id);
+                        if (p >= 0 && i.disponibles[p] != SIN_VUELO) {
+                            i.disponibles[p] = SIN_VUELO;
+                            i.vuelos--;
+                        }
+                    }
+                    List<Long> ids = new ArrayList<>(tocados);
+                    for (int desde = 0; desde < ids.size(); desde += filasPorLectura) {
+                        namedParameterJdbcTemplate.query(SQL_VUELOS + " WHERE id IN (:ids)",
+                                Map.of("ids", ids.subList(desde, Math.min(desde + filasPorLectura, ids.size()))),
+                                (RowCallbackHandler) rs -> nuevo[0] = poner(nuevo[0], rs.getLong(1), rs.getInt(2), (Integer) rs.getObject(3)));
+                    }
+                }
+                this.indice = nuevo[0];
+            }
+            Indice i = nuevo[0];
+            logger.info("Indice de disponibilidad: {} vuelos, {} KB ({} ms)", i.vuelos,
+                    (long) i.disponibles.length * 8 / 1024, (System.nanoTime() - inicio) / 1_000_000);
+        } finally {
+            synchronized (this) {
+                tocados = null;
+            }
+        }
+    }
+
+    /** Reemplaza el indice con vuelos ya leidos (arranque desde la instantanea). */
+    public void cargar(Collection<Vuelo> vuelos) {
+        long min = vuelos.stream().mapToLong(Vuelo::getId).min().orElse(1);
+        long max = vuelos.stream().mapToLong(Vuelo::getId).max().orElse(0);
+        Indice nuevo = new Indice(min, (int) (max - min + 1));
+        for (Vuelo v : vuelos) {
+            nuevo = poner(nuevo, v.getId(), v.getDisponibles(), v.getCapacidad());
+        }
+        this.indice = nuevo;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVueloCambiado(VueloCambiadoEvent evento) {
+        if (evento.isCatalogoCompleto()) {
+            // Fuera del hilo del evento, y una sola recarga encolada por muchos cambios masivos seguidos
+            if (recargaPendiente.compareAndSet(false, true)) {
+                indicesExecutor.execute(() -> {
+                    recargaPendiente.set(false);
+                    recargar();
+                });
+            }
+            return;
+        }
+        synchronized (this) {
+            anotar(evento.getVueloId());
+            if (evento.isEliminado()) {
+                Indice i = indice;
+                int p = i.posicion(evento.getVueloId());
+                if (p >= 0 && i.disponibles[p] != SIN_VUELO) {
+                    i.disponibles[p] = SIN_VUELO;
+                    i.vuelos--;
+                }
+            } else {
+                Vuelo v = evento.getVuelo();
+                indice = poner(indice, v.getId(), v.getDisponibles(), v.getCapacidad());
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onAsientosCambiados(AsientosCambiadosEvent evento) {
+        anotar(evento.getVueloId());
+        Indice i = indice;
+        int p = i.posicion(evento.getVueloId());
+        if (p >= 0 && i.disponibles[p] != SIN_VUELO) {
+            i.disponibles[p] = Math.max(0, i.disponibles[p] + evento.getDelta());
+        }
+    }
+
+    private void anotar(Long vueloId) {
+        if (tocados != null) {
+            tocados.add(vueloId);
+        }
+    }
+
+    /** Asientos disponibles, o -1 si el vuelo no esta en el indice. */
+    public int disponibles(Long vueloId) {
+        Indice i = indice;
+        int p = i.posicion(vueloId);
+        return p < 0 ? SIN_VUELO : i.disponibles[p];
+    }
+
+    /** Disponibles y capacidad (null si no se conoce) de los vuelos pedidos que estan en el indice. */
+    public List<DisponibilidadDTO> consultar(Collection<Long> vueloIds) {
+        Indice i = indice;
+        List<DisponibilidadDTO> resultado = new ArrayList<>(vueloIds.size());
+        for (Long id : vueloIds) {
+            int p = i.posicion(id);
+            if (p >= 0 && i.disponibles[p] != SIN_VUELO) {
+                int capacidad = i.capacidad[p];
+                resultado.add(new DisponibilidadDTO(id, i.disponibles[p], capacidad == SIN_VUELO ? null : capacidad));
+            }
+        }
+        return resultado;
+    }
+
+    /** Devuelve el indice donde quedo el vuelo: si no cabia es uno mas grande, con lo anterior copiado. */
+    private static Indice poner(Indice i, long id, int disponibles, Integer capacidad) {
+        int p = i.posicion(id);
+        if (p < 0) {
+            i = crecer(i, id);
+            p = i.posicion(id);
+        }
+        if (i.disponibles[p] == SIN_VUELO) {
+            i.vuelos++;
+        }
+        i.disponibles[p] = Math.max(0, disponibles);
+        i.capacidad[p] = capacidad == null ? SIN_VUELO : capacidad;
+        return i;
+    }
+
+    private static Indice crecer(Indice actual, long id) {
+        long base = Math.min(actual.base, id);
+        long fin = Math.max(actual.base + actual.disponibles.length, id + 1);
+        // Crece con holgura para que una serie de altas no copie los arreglos en cada vuelo
+        int tamano = (int) Math.min(Integer.MAX_VALUE - 8, (fin - base) + (fin - base) / 2 + 16);
+        Indice nuevo = new Indice(base, tamano);
+        int desplazamiento = (int) (actual.base - base);
+        System.arraycopy(actual.disponibles, 0, nuevo.disponibles, desplazamiento, actual.disponibles.length);
+        System.arraycopy(actual.capacidad, 0, nuevo.capacidad, desplazamiento, actual.capacidad.length);
+        nuevo.vuelos = actual.vuelos;
+        return nuevo;
+    }
+}
@@ -0,0 +1,170 @@
+package com.vueloscolombia.backend.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Exportaciones en CSV o NDJSON que leen la base con un cursor de solo avance y escriben cada
+ * fila directamente en la respuesta. La memoria usada no depende del numero de filas.
+ * Todas se ordenan por id y aceptan "desde" (id exclusivo) para reanudar una descarga cortada.
+ */
+@Service
+public class ExportacionService {
+
+    public enum Formato { CSV, NDJSON }
+
+    private static final String SQL_PASAJEROS =
+            "SELECT r.id, r.cantidad, r.estado, u.tipo_documento, u.numero_documento, u.primer_nombre, " +
+            "u.segundo_nombre, u.primer_apellido, u.segundo_apellido, u.username, u.numero_celular, u.fecha_nacimiento " +
+            "FROM reservas r JOIN usuarios u ON u.id = r.usuario_id WHERE r.vuelo_id = ? AND r.id > ? ORDER BY r.id";
+    private static final String[] COLUMNAS_PASAJEROS = {"reservaId", "cantidad", "estado", "tipoDocumento",
+            "numeroDocumento", "primerNombre", "segundoNombre", "primerApellido", "segundoApellido", "email",
+            "numeroCelular", "fechaNacimiento"};
+
+    private static final String SQL_VUELOS =
+            "SELECT id, origen, destino, fecha, hora_salida, hora_llegada, aerolinea, precio, disponibles, capacidad " +
+            "FROM vuelo WHERE id > ? ORDER BY id";
+    private static final String[] COLUMNAS_VUELOS = {"id", "origen", "destino", "fecha", "horaSalida",
+            "horaLlegada", "aerolinea", "precio", "disponibles", "capacidad"};
+
+    private static final String SQL_RESERVAS =
+            "SELECT r.id, r.usuario_id, u.username, r.vuelo_id, v.origen, v.destino, v.fecha, v.aerolinea, " +
+            "r.cantidad, r.precio_unitario, r.estado " +
+            "FROM reservas r JOIN usuarios u ON u.id = r.usuario_id JOIN vuelo v ON v.id = r.vuelo_id " +
+            "WHERE r.id > ? ORDER BY r.id";
+    private static final String[] COLUMNAS_RESERVAS = {"id", "usuarioId", "username", "vueloId", "origen",
+            "destino", "fecha", "aerolinea", "cantidad", "precioUnitario", "estado"};
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.exportaciones.filas-por-lectura:1000}")
+    private int filasPorLectura;
+
+    public void exportarPasajeros(Long vueloId, long desde, Formato formato, OutputStream out) {
+        exportar(SQL_PASAJEROS, COLUMNAS_PASAJEROS, formato, out, vueloId, desde);
+    }
+
+    public void exportarVuelos(long desde, Formato formato, OutputStream out) {
+        exportar(SQL_VUELOS, COLUMNAS_VUELOS, formato, out, desde);
+    }
+
+    public void exportarReservas(long desde, Formato formato, OutputStream out) {
+        exportar(SQL_RESERVAS, COLUMNAS_RESERVAS, formato, out, desde);
+    }
+
+    private void exportar(String sql, String[] columnas, Formato formato, OutputStream out, Object... params) {
+        try {
+            EscritorFilas escritor = formato == Formato.CSV ? new EscritorCsv(out, columnas) : new EscritorNdjson(out, columnas);
+            jdbcTemplate.query(con -> preparar(con, sql, params), (RowCallbackHandler) rs -> escritor.escribir(rs));
+            escritor.terminar();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private PreparedStatement preparar(Connection con, String sql, Object[] params) throws SQLException {
+        PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        // Con MySQL solo Integer.MIN_VALUE hace que el driver entregue las filas una a una en vez de cargarlas todas
+        boolean mysql = con.getMetaData().getDatabaseProductName().toLowerCase().contains("mysql");
+        ps.setFetchSize(mysql ? Integer.MIN_VALUE : filasPorLectura);
+        for (int i = 0; i < params.length; i++) {
+            ps.setObject(i + 1, params[i]);
+        }
+        return ps;
+    }
+
+    private interface EscritorFilas {
+        void escribir(ResultSet rs) throws SQLException;
+        void terminar() throws IOException;
+    }
+
+    private static class EscritorCsv implements EscritorFilas {
+        private final Writer writer;
+        private final int columnas;
+
+        EscritorCsv(OutputStream out, String[] encabezados) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 16 * 1024);
+            this.columnas = encabezados.length;
+            writer.write(String.join(",", encabezados));
+            writer.write('\n');
+        }
+
+        @Override
+        public void escribir(ResultSet rs) throws SQLException {
+            try {
+                for (int i = 1; i <= columnas; i++) {
+                    if (i > 1) writer.write(',');
+                    Object valor = rs.getObject(i);
+                    if (valor != null) writer.write(escapar(valor.toString()));
+                }
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void terminar() throws IOException {
+            writer.flush();
+        }
+
+        private static String escapar(String valor) {
+            if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+                return valor;
+            }
+            return '"' + valor.replace("\"", "\"\"") + '"';
+        }
+    }
+
+    private class EscritorNdjson implements EscritorFilas {
+        private final JsonGenerator gen;
+        private final String[] columnas;
+
+        EscritorNdjson(OutputStream out, String[] columnas) throws IOException {
+            this.gen = objectMapper.createGenerator(out);
+            this.gen.setRootValueSeparator(null);
+            this.columnas = columnas;
+        }
+
+        @Override
+        public void escribir(ResultSet rs) throws SQLException {
+            try {
+                gen.writeStartObject();
+                for (int i = 0; i < columnas.length; i++) {
+                    gen.writeFieldName(columnas[i]);
+                    gen.writeObject(rs.getObject(i + 1));
+                }
+                gen.writeEndObject();
+                gen.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void terminar() throws IOException {
+            gen.flush();
+        }
+    }
+}
@@ -0,0 +1,364 @@
+package com.vueloscolombia.backend.service;
+
+import com.vueloscolombia.backend.model.Vuelo;
+import com.vueloscolombia.backend.repository.EventoOutboxRepository;
+import com.vueloscolombia.backend.repository.VueloRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Arranque en caliente de los indices en memoria (disponibilidad, red de rutas, calendario de tarifas
+ * y cache del catalogo con sus busquedas mas recientes). Al apagar, y cada cierto tiempo si el catalogo
+ * cambio, se guarda en disco una instantanea binaria de los vuelos junto con la huella del catalogo leida
+ * en la misma transaccion. Al arrancar se mapea el archivo en memoria y, si su huella coincide con la
+ * actual, todo se llena desde ahi sin leer la tabla de vuelos; si no, se reconstruye desde la base en
+ * segundo plano como antes. La restauracion corre antes de que el servidor web acepte peticiones: un
+ * cambio hecho entre la lectura de la huella y la carga de los indices se perderia.
+ *
+ * Formato: cabecera, tabla de textos (aeropuertos, aerolineas, fechas y horas se repiten mucho y van
+ * una sola vez), vuelos con referencias a esa tabla, rutas buscadas y un CRC32 de todo lo anterior.
+ */
+@Service
+public class InstantaneaService implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(InstantaneaService.class);
+
+    private static final int MAGIA = 0x56435349; // "VCSI"
+    private static final int FORMATO = 1;
+
+    @Autowired
+    private VueloRepository vueloRepository;
+
+    @Autowired
+    private EventoOutboxRepository eventoOutboxRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private DisponibilidadService disponibilidadService;
+
+    @Autowired
+    private RedRutasService redRutasService;
+
+    @Autowired
+    private CalendarioTarifasService calendarioTarifasService;
+
+    @Autowired
+    private CatalogoCacheService catalogoCacheService;
+
+    @Autowired
+    private OperacionMasivaService operacionMasivaService;
+
+    @Value("${app.instantanea.habilitada:true}")
+    private boolean habilitada;
+
+    @Value("${app.instantanea.ruta:datos/instantanea-catalogo.bin}")
+    private String archivo;
+
+    @Value("${app.instantanea.max-busquedas:200}")
+    private int maxBusquedas;
+
+    static final class Instantanea {
+        long[] huella;
+        long creada;
+        List<Vuelo> vuelos;
+        List<String[]> rutas;
+    }
+
+    // Huella de la ultima instantanea escrita o cargada; si no cambio no se vuelve a escribir
+    private volatile long[] huellaGuardada;
+    private volatile boolean listo;
+    private volatile boolean corriendo;
+    // Instantanea vieja leida al arrancar: sus rutas sirven para calentar la cache al reconstruir
+    private Instantanea previa;
+
+    /** Antes de que el servidor web empiece a aceptar peticiones. */
+    @Override
+    public int getPhase() {
+        return WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 2048;
+    }
+
+    @Override
+    public void start() {
+        corriendo = true;
+        previa = habilitada ? leer(Path.of(archivo)) : null;
+        if (previa != null) {
+            long[] actual = transactionTemplate.execute(s -> huella());
+            if (Arrays.equals(previa.huella, actual)) {
+                restaurar(previa);
+                previa = null;
+                listo = true;
+                return;
+            }
+            logger.info("Instantanea de {} desactualizada; se reconstruye desde la base de datos", archivo);
+        }
+    }
+
+    @Override
+    public void stop() {
+        corriendo = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return corriendo;
+    }
+
+    // La reconstruccion desde la base sigue en segundo plano, despues de la carga inicial de datos
+    @EventListener(ApplicationReadyEvent.class)
+    public void arrancar() {
+        if (listo) return;
+        Instantanea previa = this.previa;
+        this.previa = null;
+        operacionMasivaService.lanzar("CALENTAR_CACHES", p -> {
+            p.iniciar(4);
+            disponibilidadService.recargar();
+            p.loteCompletado(1);
+            redRutasService.recargar();
+            p.loteCompletado(1);
+            calendarioTarifasService.recargar();
+            p.loteCompletado(1);
+            catalogoCacheService.inicializar();
+            // Los datos estaban viejos, pero las rutas mas buscadas siguen sirviendo para calentar
+            if (previa != null) {
+                previa.rutas.forEach(r -> catalogoCacheService.busqueda(r[0], r[1]));
+            }
+            p.loteCompletado(1);
+            listo = true;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.instantanea.intervalo-ms:600000}",
+            initialDelayString = "${app.instantanea.intervalo-ms:600000}")
+    public void periodica() {
+        guardar();
+    }
+
+    @PreDestroy
+    public void alApagar() {
+        guardar();
+    }
+
+    /** Escribe la instantanea si el catalogo cambio desde la ultima; devuelve si se escribio. */
+    public synchronized boolean guardar() {
+        // Sin caches calientes no hay busquedas que conservar, y la base puede estar a medio arrancar
+        if (!habilitada || !listo) return false;
+        try {
+            long[] actual = transactionTemplate.execute(s -> huella());
+            if (Arrays.equals(actual, huellaGuardada)) return false;
+            long inicio = System.nanoTime();
+            // Vuelos y huella en la misma transaccion (de la primaria) para que correspondan entre si
+            Instantanea i = transactionTemplate.execute(s -> {
+                Instantanea x = new Instantanea();
+                x.huella = huella();
+                x.vuelos = vueloRepository.findAll();
+                return x;
+            });
+            i.creada = System.currentTimeMillis();
+            i.rutas = catalogoCacheService.busquedasRecientes(maxBusquedas);
+            long bytes = escribir(i, Path.of(archivo));
+            huellaGuardada = i.huella;
+            logger.info("Instantanea guardada en {}: {} vuelos, {} rutas, {} KB ({} ms)", archivo, i.vuelos.size(),
+                    i.rutas.size(), bytes / 1024, (System.nanoTime() - inicio) / 1_000_000);
+            return true;
+        } catch (Exception e) {
+            logger.warn("No se pudo guardar la instantanea en {}: {}", archivo, e.getMessage());
+            return false;
+        }
+    }
+
+    private void restaurar(Instantanea i) {
+        long inicio = System.nanoTime();
+        disponibilidadService.cargar(i.vuelos);
+        redRutasService.cargar(i.vuelos);
+        calendarioTarifasService.cargar(i.vuelos);
+        catalogoCacheService.precalentar(i.vuelos, i.rutas);
+        huellaGuardada = i.huella;
+        logger.info("Caches restauradas desde la instantanea de {} ({} vuelos, {} rutas, {} s de antiguedad) en {} ms",
+                archivo, i.vuelos.size(), i.rutas.size(), (System.currentTimeMillis() - i.creada) / 1000,
+                (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    /**
+     * Cualquier cambio por los servicios deja fila en el outbox; los ajustes directos de asientos o
+     * precios mueven las sumas. Debe leerse dentro de una transaccion de escritura (primaria).
+     */
+    private long[] huella() {
+        Object[] f = vueloRepository.huella().get(0);
+        Long outbox = eventoOutboxRepository.maxId();
+        return new long[] {
+                numero(f[0]), numero(f[1]), numero(f[2]), numero(f[3]),
+                Math.round(f[4] == null ? 0 : ((Number) f[4]).doubleValue() * 100),
+                outbox == null ? 0 : outbox
+        };
+    }
+
+    private static long numero(Object o) {
+        return o == null ? 0 : ((Number) o).longValue();
+    }
+
+    // ---------- Archivo ----------
+
+    static long escribir(Instantanea i, Path ruta) throws IOException {
+        Map<String, Integer> indices = new HashMap<>();
+        List<String> textos = new ArrayList<>();
+        for (Vuelo v : i.vuelos) {
+            for (String t : new String[] {v.getOrigen(), v.getDestino(), v.getFecha(),
+                    v.getHoraSalida(), v.getHoraLlegada(), v.getAerolinea()}) {
+                if (t != null && indices.putIfAbsent(t, textos.size()) == null) textos.add(t);
+            }
+        }
+        for (String[] r : i.rutas) {
+            for (String t : r) {
+                if (indices.putIfAbsent(t, textos.size()) == null) textos.add(t);
+            }
+        }
+
+        Path absoluta = ruta.toAbsolutePath();
+        Files.createDirectories(absoluta.getParent());
+        // Se escribe aparte y se reemplaza de una vez: un apagado a medias no deja un archivo roto
+        Path temporal = Files.createTempFile(absoluta.getParent(), "instantanea", ".tmp");
+        try {
+            CRC32 crc = new CRC32();
+            try (OutputStream archivo = Files.newOutputStream(temporal);
+                 CheckedOutputStream conCrc = new CheckedOutputStream(new BufferedOutputStream(archivo, 64 * 1024), crc);
+                 DataOutputStream out = new DataOutputStream(conCrc)) {
+                out.writeInt(MAGIA);
+                out.writeInt(FORMATO);
+                out.writeLong(i.creada);
+                out.writeInt(i.huella.length);
+                for (long h : i.huella) out.writeLong(h);
+
+                out.writeInt(textos.size());
+                for (String t : textos) {
+                    byte[] b = t.getBytes(StandardCharsets.UTF_8);
+                    out.writeShort(b.length);
+                    out.write(b);
+                }
+
+                out.writeInt(i.vuelos.size());
+                for (Vuelo v : i.vuelos) {
+                    out.writeLong(v.getId());
+                    out.writeInt(texto(indices, v.getOrigen()));
+                    out.writeInt(texto(indices, v.getDestino()));
+                    out.writeInt(texto(indices, v.getFecha()));
+                    out.writeInt(texto(indices, v.getHoraSalida()));
+                    out.writeInt(texto(indices, v.getHoraLlegada()));
+                    out.writeInt(texto(indices, v.getAerolinea()));
+                    out.writeDouble(v.getPrecio());
+                    out.writeInt(v.getDisponibles());
+                    out.writeInt(v.getCapacidad() == null ? -1 : v.getCapacidad());
+                }
+
+                out.writeInt(i.rutas.size());
+                for (String[] r : i.rutas) {
+                    out.writeInt(texto(indices, r[0]));
+                    out.writeInt(texto(indices, r[1]));
+                }
+                out.flush();
+                // El CRC cubre todo lo anterior; se escribe por fuera del flujo que lo calcula
+                archivo.write(ByteBuffer.allocate(8).putLong(crc.getValue()).array());
+            }
+            Files.move(temporal, absoluta, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporal);
+        }
+        return Files.size(absoluta);
+    }
+
+    private static int texto(Map<String, Integer> indices, String t) {
+        return t == null ? -1 : indices.get(t);
+    }
+
+    /** Null si no hay archivo o no es valido. */
+    static Instantanea leer(Path ruta) {
+        if (!Files.isReadable(ruta)) return null;
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.READ)) {
+            long tamano = canal.size();
+            if (tamano < 16 || tamano > Integer.MAX_VALUE) return null;
+            MappedByteBuffer buf = canal.map(FileChannel.MapMode.READ_ONLY, 0, tamano);
+
+            CRC32 crc = new CRC32();
+            crc.update(buf.slice(0, (int) tamano - 8));
+            if (buf.getLong((int) tamano - 8) != crc.getValue() || buf.getInt() != MAGIA || buf.getInt() != FORMATO) {
+                logger.warn("Instantanea {} corrupta o de otro formato; se ignora", ruta);
+                return null;
+            }
+            Instantanea i = new Instantanea();
+            i.creada = buf.getLong();
+            i.huella = new long[buf.getInt()];
+            for (int k = 0; k < i.huella.length; k++) i.huella[k] = buf.getLong();
+
+            String[] textos = new String[buf.getInt()];
+            for (int k = 0; k < textos.length; k++) {
+                byte[] b = new byte[buf.getShort() & 0xFFFF];
+                buf.get(b);
+                textos[k] = new String(b, StandardCharsets.UTF_8);
+            }
+
+            int n = buf.getInt();
+            i.vuelos = new ArrayList<>(n);
+            for (int k = 0; k < n; k++) {
+                Vuelo v = new Vuelo();
+                v.setId(buf.getLong());
+                v.setOrigen(texto(textos, buf.getInt()));
+                v.setDestino(texto(textos, buf.getInt()));
+                v.setFecha(texto(textos, buf.getInt()));
+                v.setHoraSalida(texto(textos, buf.getInt()));
+                v.setHoraLlegada(texto(textos, buf.getInt()));
+                v.setAerolinea(texto(textos, buf.getInt()));
+                v.setPrecio(buf.getDouble());
+                v.setDisponibles(buf.getInt());
+                int capacidad = buf.getInt();
+                v.setCapacidad(capacidad < 0 ? null : capacidad);
+                i.vuelos.add(v);
+            }
+
+            int r = buf.getInt();
+            i.rutas = new ArrayList<>(r);
+            for (int k = 0; k < r; k++) {
+                i.rutas.add(new String[] {textos[buf.getInt()], textos[buf.getInt()]});
+            }
+            return i;
+        } catch (IOException | BufferUnderflowException | IndexOutOfBoundsException e) {
+            logger.warn("No se pudo leer la instantanea {}: {}", ruta, e.getMessage());
+            return null;
+        }
+    }
+
+    private static String texto(String[] textos, int i) {
+        return i < 0 ? null : textos[i];
+    }
+}
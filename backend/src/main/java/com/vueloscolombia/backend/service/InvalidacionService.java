@@ -0,0 +1,152 @@
+package com.vueloscolombia.backend.service;
+
+import com.vueloscolombia.backend.evento.AsientosCambiadosEvent;
+import com.vueloscolombia.backend.evento.BusInvalidacion;
+import com.vueloscolombia.backend.evento.Invalidacion;
+import com.vueloscolombia.backend.evento.UsuarioCambiadoEvent;
+import com.vueloscolombia.backend.evento.VueloCambiadoEvent;
+import com.vueloscolombia.backend.model.Vuelo;
+import com.vueloscolombia.backend.repository.VueloRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ClassUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Mantiene coherentes las caches en memoria de varios nodos detras del balanceador. Los cambios
+ * locales confirmados (vuelos, asientos, usuarios) se acumulan y se publican en lotes compactos por el
+ * {@link BusInvalidacion} configurado; al recibir un lote de otro nodo se releen los vuelos de la
+ * primaria y se republican como eventos remotos, que los indices y caches aplican como cualquier otro
+ * cambio. Sin bus ({@code app.invalidacion.bus=ninguno}) no hace nada.
+ */
+@Service
+public class InvalidacionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(InvalidacionService.class);
+
+    @Autowired(required = false)
+    private BusInvalidacion bus;
+
+    @Autowired
+    private VueloRepository vueloRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.invalidacion.nodo:}")
+    private String nodo;
+
+    @Value("${app.invalidacion.max-vuelos-por-lote:1000}")
+    private int maxVuelosPorLote;
+
+    private final Set<Invalidacion> pendientes = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void iniciar() {
+        if (nodo == null || nodo.isBlank()) {
+            nodo = UUID.randomUUID().toString().substring(0, 8);
+        }
+        if (bus != null) {
+            bus.suscribir(nodo, this::aplicar);
+            logger.info("Nodo {} suscrito al bus de invalidacion {}", nodo, ClassUtils.getUserClass(bus).getSimpleName());
+        }
+    }
+
+    public String getNodo() {
+        return nodo;
+    }
+
+    // ---------- Cambios locales ----------
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVueloCambiado(VueloCambiadoEvent evento) {
+        if (bus == null || evento.isRemoto()) return;
+        pendientes.add(evento.isCatalogoCompleto() ? Invalidacion.catalogo() : Invalidacion.vuelo(evento.getVueloId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAsientosCambiados(AsientosCambiadosEvent evento) {
+        if (bus == null) return;
+        pendientes.add(Invalidacion.vuelo(evento.getVueloId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsuarioCambiado(UsuarioCambiadoEvent evento) {
+        if (bus == null || evento.isRemoto()) return;
+        pendientes.add(Invalidacion.usuario(evento.getUsername()));
+    }
+
+    /** Publica lo acumulado desde el ultimo ciclo; si el envio falla se reintenta en el siguiente. */
+    @Scheduled(fixedDelayString = "${app.invalidacion.intervalo-ms:200}")
+    public void enviar() {
+        if (bus == null || pendientes.isEmpty()) return;
+        List<Invalidacion> lote = new ArrayList<>(pendientes);
+        pendientes.removeAll(lote);
+        List<Invalidacion> compacto = compactar(lote);
+        try {
+            bus.publicar(nodo, compacto);
+        } catch (Exception e) {
+            pendientes.addAll(compacto);
+            logger.warn("No se pudo publicar el lote de invalidacion ({} entradas): {}", compacto.size(), e.getMessage());
+        }
+    }
+
+    // Con un cambio de catalogo, o demasiados vuelos, basta con recargar todo: los vuelos sobran
+    private List<Invalidacion> compactar(List<Invalidacion> lote) {
+        long vuelos = lote.stream().filter(i -> i.getTipo() == Invalidacion.Tipo.VUELO).count();
+        if (vuelos <= maxVuelosPorLote && !lote.contains(Invalidacion.catalogo())) {
+            return lote;
+        }
+        List<Invalidacion> compacto = new ArrayList<>();
+        compacto.add(Invalidacion.catalogo());
+        lote.stream().filter(i -> i.getTipo() == Invalidacion.Tipo.USUARIO).forEach(compacto::add);
+        return compacto;
+    }
+
+    // ---------- Cambios de otros nodos ----------
+
+    void aplicar(List<Invalidacion> lote) {
+        Set<Long> vueloIds = new LinkedHashSet<>();
+        boolean catalogo = false;
+        for (Invalidacion i : lote) {
+            switch (i.getTipo()) {
+                case CATALOGO -> catalogo = true;
+                case VUELO -> vueloIds.add(i.getVueloId());
+                case USUARIO -> eventPublisher.publishEvent(new UsuarioCambiadoEvent(i.getClave(), true));
+            }
+        }
+        if (catalogo) {
+            eventPublisher.publishEvent(VueloCambiadoEvent.catalogoCompleto().remoto());
+            return;
+        }
+        if (vueloIds.isEmpty()) return;
+        // Se lee de la primaria (transaccion de escritura): una replica atrasada devolveria el valor viejo
+        List<Vuelo> vuelos = transactionTemplate.execute(s -> vueloRepository.findAllById(vueloIds));
+        Map<Long, Vuelo> porId = new HashMap<>();
+        vuelos.forEach(v -> porId.put(v.getId(), v));
+        Set<Long> eliminados = new HashSet<>(vueloIds);
+        eliminados.removeAll(porId.keySet());
+        porId.values().forEach(v -> eventPublisher.publishEvent(VueloCambiadoEvent.guardado(v).remoto()));
+        eliminados.forEach(id -> eventPublisher.publishEvent(VueloCambiadoEvent.eliminado(id).remoto()));
+    }
+}
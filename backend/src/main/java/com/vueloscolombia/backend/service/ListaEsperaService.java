@@ -0,0 +1,201 @@
+package com.vueloscolombia.backend.service;
+
+import com.vueloscolombia.backend.evento.AsientosCambiadosEvent;
+import com.vueloscolombia.backend.evento.ReservaCambiadaEvent;
+import com.vueloscolombia.backend.model.ListaEspera;
+import com.vueloscolombia.backend.model.Reserva;
+import com.vueloscolombia.backend.model.Usuario;
+import com.vueloscolombia.backend.model.Vuelo;
+import com.vueloscolombia.backend.repository.ListaEsperaRepository;
+import com.vueloscolombia.backend.repository.ReservaRepository;
+import com.vueloscolombia.backend.repository.UsuarioRepository;
+import com.vueloscolombia.backend.repository.VueloRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lista de espera FIFO por vuelo. Cuando se liberan asientos (cancelacion o aumento de cupo)
+ * un promotor en segundo plano los asigna a los primeros en la cola, por lotes.
+ */
+@Service
+public class ListaEsperaService {
+
+    public static final String EN_ESPERA = "EN_ESPERA";
+    public static final String PROMOVIDA = "PROMOVIDA";
+    public static final String CANCELADA = "CANCELADA";
+
+    private static final Logger logger = LoggerFactory.getLogger(ListaEsperaService.class);
+
+    @Autowired
+    private ListaEsperaRepository listaEsperaRepository;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private VueloRepository vueloRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MapaAsientosService mapaAsientosService;
+
+    @Autowired
+    private TarifaService tarifaService;
+
+    @Value("${app.lista-espera.tamano-lote:100}")
+    private int tamanoLote;
+
+    // Solicitudes de promocion pendientes por vuelo; un solo hilo drena cada vuelo a la vez
+    private final Map<Long, AtomicInteger> solicitudes = new ConcurrentHashMap<>();
+
+    public ListaEspera inscribir(Long vueloId, String username, int cantidad) {
+        if (cantidad <= 0) {
+            throw new RuntimeException("La cantidad debe ser mayor a cero");
+        }
+        Usuario usuario = usuarioRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("Usuario no encontrado: " + username));
+        Vuelo vuelo = vueloRepository.findById(vueloId)
+                .orElseThrow(() -> new RuntimeException("Vuelo no encontrado"));
+        if (vuelo.getDisponibles() >= cantidad) {
+            throw new RuntimeException("El vuelo tiene asientos disponibles, realice la reserva directamente");
+        }
+
+        ListaEspera e = new ListaEspera();
+        e.setUsuario(usuario);
+        e.setVuelo(vuelo);
+        e.setCantidad(cantidad);
+        e.setEstado(EN_ESPERA);
+        e.setFechaSolicitud(LocalDateTime.now());
+        return listaEsperaRepository.save(e);
+    }
+
+    public List<ListaEspera> pendientesPorUsername(String username) {
+        Usuario usuario = usuarioRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("Usuario no encontrado: " + username));
+        return listaEsperaRepository.findByUsuarioIdAndEstado(usuario.getId(), EN_ESPERA);
+    }
+
+    @Transactional
+    public void cancelar(Long id, String username) {
+        ListaEspera e = listaEsperaRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Solicitud de lista de espera no encontrada"));
+        if (!e.getUsuario().getUsername().equals(username)) {
+            throw new RuntimeException("No autorizado para cancelar esta solicitud");
+        }
+        if (EN_ESPERA.equals(e.getEstado())) {
+            e.setEstado(CANCELADA);
+        }
+    }
+
+    public long enEspera(Long vueloId) {
+        return listaEsperaRepository.countByVueloIdAndEstado(vueloId, EN_ESPERA);
+    }
+
+    // Se ejecuta despues del commit que libero los asientos, fuera del hilo de la peticion
+    @Async("listaEsperaExecutor")
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAsientosCambiados(AsientosCambiadosEvent evento) {
+        if (evento.getDelta() > 0) {
+            promover(evento.getVueloId());
+        }
+    }
+
+    public void promover(Long vueloId) {
+        AtomicInteger pendientes = solicitudes.computeIfAbsent(vueloId, k -> new AtomicInteger());
+        if (pendientes.getAndIncrement() > 0) {
+            return; // otro hilo ya esta promoviendo este vuelo y volvera a revisar la cola
+        }
+        int atendidas;
+        do {
+            atendidas = pendientes.get();
+            try {
+                while (promoverLote(vueloId)) {
+                    // siguiente lote
+                }
+            } catch (RuntimeException ex) {
+                logger.error("Error promoviendo la lista de espera del vuelo {}", vueloId, ex);
+            }
+        } while (pendientes.addAndGet(-atendidas) > 0);
+    }
+
+    /**
+     * Promueve en una sola transaccion los primeros de la cola que caben en los asientos libres.
+     * Devuelve true si el lote se lleno completo y puede haber mas por promover.
+     */
+    private boolean promoverLote(Long vueloId) {
+        Boolean continuar = transactionTemplate.execute(status -> {
+            Vuelo vuelo = vueloRepository.findById(vueloId).orElse(null);
+            if (vuelo == null || vuelo.getDisponibles() <= 0) {
+                return false;
+            }
+            List<ListaEspera> cola = listaEsperaRepository.primerosEnEspera(vueloId, EN_ESPERA, PageRequest.of(0, tamanoLote));
+
+            // Orden estricto FIFO: se detiene en el primero que no cabe
+            int libres = vuelo.getDisponibles();
+            int asientos = 0;
+            List<ListaEspera> promovidas = new ArrayList<>();
+            for (ListaEspera e : cola) {
+                if (asientos + e.getCantidad() > libres) break;
+                asientos += e.getCantidad();
+                promovidas.add(e);
+            }
+            if (promovidas.isEmpty()) {
+                return false;
+            }
+            // Un solo descuento atomico para todo el lote; si alguien reservo antes, se reintenta
+            if (vueloRepository.reservarAsientos(vueloId, asientos) == 0) {
+                return true;
+            }
+
+            // Cada promocion se cobra con la tarifa de la ocupacion que encuentra, como una reserva normal
+            List<Reserva> reservas = new ArrayList<>();
+            int restantes = libres;
+            for (ListaEspera e : promovidas) {
+                Reserva r = new Reserva();
+                r.setUsuario(e.getUsuario());
+                r.setVuelo(vuelo);
+                r.setCantidad(e.getCantidad());
+                r.setEstado("CONFIRMADA");
+                r.setPrecioUnitario(tarifaService.tarifa(vuelo.getPrecio(), vuelo.getCapacidad(), restantes, vuelo.getFecha()));
+                r.setAsientos(String.join(",", mapaAsientosService.asignar(vuelo, e.getCantidad(), null)));
+                reservas.add(r);
+                restantes -= e.getCantidad();
+            }
+            reservaRepository.saveAll(reservas);
+            eventPublisher.publishEvent(new AsientosCambiadosEvent(vueloId, -asientos));
+            reservas.forEach(r -> eventPublisher.publishEvent(ReservaCambiadaEvent.creada(r)));
+            for (int i = 0; i < promovidas.size(); i++) {
+                promovidas.get(i).setEstado(PROMOVIDA);
+                promovidas.get(i).setReservaId(reservas.get(i).getId());
+            }
+            logger.info("Vuelo {}: {} solicitudes promovidas desde la lista de espera ({} asientos)",
+                    vueloId, promovidas.size(), asientos);
+            return promovidas.size() == cola.size() && cola.size() == tamanoLote;
+        });
+        return Boolean.TRUE.equals(continuar);
+    }
+}
@@ -0,0 +1,338 @@
+package com.vueloscolombia.backend.service;
+
+import com.vueloscolombia.backend.dto.MapaAsientosDTO;
+import com.vueloscolombia.backend.evento.VueloCambiadoEvent;
+import com.vueloscolombia.backend.model.MapaAsientos;
+import com.vueloscolombia.backend.model.Vuelo;
+import com.vueloscolombia.backend.repository.MapaAsientosRepository;
+import com.vueloscolombia.backend.repository.ReservaRepository;
+import com.vueloscolombia.backend.repository.VueloRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Asignacion de asientos sobre el mapa de bits de cada vuelo. El conteo de {@code disponibles}
+ * sigue siendo la fuente de verdad del cupo: el mapa solo se toca despues de que el descuento
+ * condicional tuvo exito, dentro de la misma transaccion, asi que siempre hay bits libres suficientes.
+ *
+ * Las escrituras bloquean la fila del mapa (despues de la fila del vuelo, siempre en ese orden).
+ * Las lecturas para mostrar el plano salen de una copia en memoria que se reemplaza al confirmar.
+ */
+@Service
+public class MapaAsientosService {
+
+    private static final String LETRAS = "ABCDEFGHJK";
+    // Limite de la columna ocupados (256 bytes)
+    private static final int CAPACIDAD_MAXIMA = 256 * 8;
+
+    @Autowired
+    private MapaAsientosRepository mapaAsientosRepository;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private VueloRepository vueloRepository;
+
+    @Value("${app.asientos.por-fila:6}")
+    private int asientosPorFila;
+
+    // Copia confirmada por vuelo; se reemplaza entera despues de cada commit
+    private final Map<Long, Plano> planos = new ConcurrentHashMap<>();
+
+    private static final class Plano {
+        final int capacidad;
+        final int porFila;
+        final BitSet ocupados;
+        final long version;
+
+        Plano(int capacidad, int porFila, BitSet ocupados, long version) {
+            this.capacidad = capacidad;
+            this.porFila = porFila;
+            this.ocupados = ocupados;
+            this.version = version;
+        }
+    }
+
+    public MapaAsientosDTO consultar(Long vueloId) {
+        Plano plano = planos.computeIfAbsent(vueloId, this::cargar);
+        List<String> ocupados = new ArrayList<>();
+        for (int i = plano.ocupados.nextSetBit(0); i >= 0 && i < plano.capacidad; i = plano.ocupados.nextSetBit(i + 1)) {
+            ocupados.add(codigo(i, plano.porFila));
+        }
+        int filas = (plano.capacidad + plano.porFila - 1) / plano.porFila;
+        return new MapaAsientosDTO(vueloId, plano.capacidad, filas, LETRAS.substring(0, plano.porFila),
+                plano.capacidad - ocupados.size(), ocupados);
+    }
+
+    /**
+     * Asigna {@code cantidad} asientos del vuelo: los indicados en {@code seleccion} si vienen,
+     * o si no el primer bloque contiguo en una misma fila, luego contiguo entre filas, y por
+     * ultimo los primeros libres. Debe llamarse despues de descontar {@code disponibles}.
+     */
+    @Transactional
+    public List<String> asignar(Vuelo vuelo, int cantidad, List<String> seleccion) {
+        MapaAsientos mapa = bloquear(vuelo);
+        int capacidad = mapa.getCapacidad();
+        int porFila = mapa.getAsientosPorFila();
+        BitSet ocupados = BitSet.valueOf(mapa.getOcupados());
+
+        int[] elegidos;
+        if (seleccion != null && !seleccion.isEmpty()) {
+            if (seleccion.size() != cantidad) {
+                throw new RuntimeException("Debe seleccionar exactamente " + cantidad + " asiento(s)");
+            }
+            elegidos = new int[cantidad];
+            for (int k = 0; k < cantidad; k++) {
+                int i = indice(seleccion.get(k), porFila, capacidad);
+                if (ocupados.get(i) || Arrays.stream(elegidos, 0, k).anyMatch(e -> e == i)) {
+                    throw new RuntimeException("El asiento " + seleccion.get(k).trim().toUpperCase() + " no esta disponible");
+                }
+                elegidos[k] = i;
+            }
+        } else {
+            elegidos = elegir(ocupados, capacidad, porFila, cantidad);
+        }
+
+        List<String> codigos = new ArrayList<>(cantidad);
+        for (int i : elegidos) {
+            ocupados.set(i);
+            codigos.add(codigo(i, porFila));
+        }
+        guardar(mapa, ocupados);
+        return codigos;
+    }
+
+    @Transactional
+    public void liberar(Long vueloId, Collection<String> asientos) {
+        if (asientos == null || asientos.isEmpty()) {
+            return;
+        }
+        MapaAsientos mapa = mapaAsientosRepository.bloquear(vueloId).orElse(null);
+        if (mapa == null) {
+            return;
+        }
+        BitSet ocupados = BitSet.valueOf(mapa.getOcupados());
+        for (String lista : asientos) {
+            if (lista == null || lista.isBlank()) continue;
+            for (String c : lista.split(",")) {
+                ocupados.clear(indice(c, mapa.getAsientosPorFila(), Integer.MAX_VALUE));
+            }
+        }
+        guardar(mapa, ocupados);
+    }
+
+    /** Ajusta la capacidad del mapa cuando cambia el cupo del vuelo. */
+    @Transactional
+    public void redimensionar(Long vueloId, int capacidad) {
+        MapaAsientos mapa = mapaAsientosRepository.bloquear(vueloId).orElse(null);
+        if (mapa == null) {
+            return;
+        }
+        validarCapacidad(capacidad);
+        mapa.setCapacidad(capacidad);
+        guardar(mapa, BitSet.valueOf(mapa.getOcupados()));
+    }
+
+    @Transactional
+    public void eliminar(Collection<Long> vueloIds) {
+        mapaAsientosRepository.eliminarPorVuelos(vueloIds);
+        alConfirmar(() -> vueloIds.forEach(planos::remove));
+    }
+
+    /** Borra los mapas de los vuelos del rango que se archivan; las copias en memoria del rango se recargan. */
+    @Transactional
+    public void eliminarDeVuelosAntesDe(long desde, long hasta, String limite) {
+        mapaAsientosRepository.eliminarDeVuelosAntesDe(desde, hasta, limite);
+        alConfirmar(() -> planos.keySet().removeIf(id -> id >= desde && id <= hasta));
+    }
+
+    /** Cambios hechos en otro nodo: la copia en memoria se descarta y se recarga de la base al usarla. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVueloCambiado(VueloCambiadoEvent evento) {
+        if (!evento.isRemoto()) {
+            return;
+        }
+        if (evento.isCatalogoCompleto()) {
+            planos.clear();
+        } else {
+            planos.remove(evento.getVueloId());
+        }
+    }
+
+    // ---------- Internos ----------
+
+    private MapaAsientos bloquear(Vuelo vuelo) {
+        return mapaAsientosRepository.bloquear(vuelo.getId()).map(m -> {
+            int capacidad = capacidadDe(vuelo);
+            if (capacidad > m.getCapacidad()) {
+                m.setCapacidad(capacidad);
+            }
+            return m;
+        }).orElseGet(() -> {
+            // Primer uso del mapa: los asientos de reservas anteriores se marcan ocupados desde el fondo
+            MapaAsientos m = nuevo(vuelo.getId(), capacidadDe(vuelo));
+            asignarPrevias(vuelo.getId(), m.getCapacidad(), m.getAsientosPorFila());
+            return mapaAsientosRepository.save(m);
+        });
+    }
+
+    /**
+     * Da codigos a las reservas anteriores al mapa, en los mismos asientos del fondo que {@link #nuevo}
+     * marca ocupados; asi la cancelacion, individual o masiva, los libera como los de cualquier reserva.
+     */
+    private void asignarPrevias(Long vueloId, int capacidad, int porFila) {
+        List<Object[]> previas = reservaRepository.reservasSinAsientos(vueloId);
+        long total = 0;
+        for (Object[] p : previas) {
+            total += ((Number) p[1]).intValue();
+        }
+        int i = (int) (capacidad - Math.min(total, capacidad));
+        for (Object[] p : previas) {
+            int cantidad = ((Number) p[1]).intValue();
+            List<String> codigos = new ArrayList<>(cantidad);
+            for (int k = 0; k < cantidad && i < capacidad; k++, i++) {
+                codigos.add(codigo(i, porFila));
+            }
+            if (!codigos.isEmpty()) {
+                reservaRepository.asignarAsientos((Long) p[0], String.join(",", codigos));
+            }
+        }
+    }
+
+    private MapaAsientos nuevo(Long vueloId, int capacidad) {
+        validarCapacidad(capacidad);
+        long previos = Math.min(reservaRepository.asientosSinAsignar(vueloId), capacidad);
+        BitSet ocupados = new BitSet(capacidad);
+        ocupados.set((int) (capacidad - previos), capacidad);
+        MapaAsientos m = new MapaAsientos();
+        m.setVueloId(vueloId);
+        m.setCapacidad(capacidad);
+        m.setAsientosPorFila(asientosPorFila);
+        m.setOcupados(ocupados.toByteArray());
+        return m;
+    }
+
+    private Plano cargar(Long vueloId) {
+        MapaAsientos m = mapaAsientosRepository.findById(vueloId).orElseGet(() -> {
+            Vuelo vuelo = vueloRepository.findById(vueloId)
+                    .orElseThrow(() -> new RuntimeException("Vuelo no encontrado"));
+            return nuevo(vueloId, capacidadDe(vuelo));
+        });
+        long version = m.getVersion() != null ? m.getVersion() : -1;
+        return new Plano(m.getCapacidad(), m.getAsientosPorFila(), BitSet.valueOf(m.getOcupados()), version);
+    }
+
+    private void guardar(MapaAsientos mapa, BitSet ocupados) {
+        mapa.setOcupados(ocupados.toByteArray());
+        MapaAsientos guardado = mapaAsientosRepository.saveAndFlush(mapa);
+        Plano plano = new Plano(guardado.getCapacidad(), guardado.getAsientosPorFila(),
+                (BitSet) ocupados.clone(), guardado.getVersion());
+        alConfirmar(() -> planos.merge(guardado.getVueloId(), plano,
+                (actual, nuevo) -> nuevo.version >= actual.version ? nuevo : actual));
+    }
+
+    private int capacidadDe(Vuelo vuelo) {
+        if (vuelo.getCapacidad() != null) {
+            return vuelo.getCapacidad();
+        }
+        // Vuelos anteriores al registro de capacidad: lo libre mas lo ya reservado
+        return (int) (vuelo.getDisponibles() + reservaRepository.asientosReservados(vuelo.getId()));
+    }
+
+    private static void validarCapacidad(int capacidad) {
+        if (capacidad > CAPACIDAD_MAXIMA) {
+            throw new RuntimeException("El mapa de asientos admite hasta " + CAPACIDAD_MAXIMA + " sillas");
+        }
+    }
+
+    private static void alConfirmar(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.run();
+                }
+            });
+        } else {
+            accion.run();
+        }
+    }
+
+    static int[] elegir(BitSet ocupados, int capacidad, int porFila, int cantidad) {
+        // 1) Todos juntos en una misma fila
+        if (cantidad <= porFila) {
+            for (int inicio = 0; inicio < capacidad; inicio += porFila) {
+                int desde = bloqueLibre(ocupados, inicio, Math.min(inicio + porFila, capacidad), cantidad);
+                if (desde >= 0) return rango(desde, cantidad);
+            }
+        }
+        // 2) Contiguos aunque pasen a la fila siguiente
+        int desde = bloqueLibre(ocupados, 0, capacidad, cantidad);
+        if (desde >= 0) return rango(desde, cantidad);
+
+        // 3) Los primeros libres
+        int[] elegidos = new int[cantidad];
+        int i = ocupados.nextClearBit(0);
+        for (int k = 0; k < cantidad; k++) {
+            if (i >= capacidad) {
+                throw new RuntimeException("No hay suficientes asientos libres en el mapa del vuelo");
+            }
+            elegidos[k] = i;
+            i = ocupados.nextClearBit(i + 1);
+        }
+        return elegidos;
+    }
+
+    // Primer indice de un tramo de n bits libres dentro de [inicio, fin), o -1
+    private static int bloqueLibre(BitSet ocupados, int inicio, int fin, int n) {
+        int libre = ocupados.nextClearBit(inicio);
+        while (libre + n <= fin) {
+            int ocupado = ocupados.nextSetBit(libre);
+            if (ocupado < 0 || ocupado >= fin || ocupado - libre >= n) {
+                return libre;
+            }
+            libre = ocupados.nextClearBit(ocupado);
+        }
+        return -1;
+    }
+
+    private static int[] rango(int desde, int n) {
+        int[] r = new int[n];
+        for (int k = 0; k < n; k++) r[k] = desde + k;
+        return r;
+    }
+
+    private static String codigo(int indice, int porFila) {
+        return (indice / porFila + 1) + String.valueOf(LETRAS.charAt(indice % porFila));
+    }
+
+    private static int indice(String codigo, int porFila, int capacidad) {
+        String c = codigo.trim().toUpperCase();
+        int letra = c.isEmpty() ? -1 : LETRAS.indexOf(c.charAt(c.length() - 1));
+        int fila;
+        try {
+            fila = Integer.parseInt(c.substring(0, Math.max(0, c.length() - 1)));
+        } catch (NumberFormatException e) {
+            fila = 0;
+        }
+        int i = (fila - 1) * porFila + letra;
+        if (letra < 0 || letra >= porFila || fila < 1 || i >= capacidad) {
+            throw new RuntimeException("Asiento invalido: " + codigo);
+        }
+        return i;
+    }
+}
@@ -0,0 +1,294 @@
+package com.vueloscolombia.backend.service;
+
+import com.vueloscolombia.backend.dto.ProgresoOperacion;
+import com.vueloscolombia.backend.evento.AsientosCambiadosEvent;
+import com.vueloscolombia.backend.evento.ReservaCambiadaEvent;
+import com.vueloscolombia.backend.evento.VueloCambiadoEvent;
+import com.vueloscolombia.backend.model.Vuelo;
+import com.vueloscolombia.backend.repository.ListaEsperaRepository;
+import com.vueloscolombia.backend.repository.ReservaRepository;
+import com.vueloscolombia.backend.repository.VueloRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Operaciones de administracion sobre muchas filas (purgar reservas, cancelar un vuelo completo,
+ * eliminar vuelos, reajustar precios de una ruta). Cada una recorre la tabla por rangos de id y
+ * ejecuta sentencias UPDATE/DELETE sobre el rango, con una transaccion por lote, sin cargar
+ * entidades en el contexto de persistencia.
+ */
+@Service
+public class OperacionMasivaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OperacionMasivaService.class);
+    private static final int MAX_OPERACIONES_REGISTRADAS = 100;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private VueloRepository vueloRepository;
+
+    @Autowired
+    private ListaEsperaRepository listaEsperaRepository;
+
+    @Autowired
+    private MapaAsientosService mapaAsientosService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    @Qualifier("operacionesExecutor")
+    private TaskExecutor operacionesExecutor;
+
+    @Value("${app.operaciones.tamano-lote:5000}")
+    private int tamanoLote;
+
+    private final Map<String, ProgresoOperacion> operaciones = new ConcurrentHashMap<>();
+
+    // ---------- Lanzamiento en segundo plano ----------
+
+    public ProgresoOperacion purgarReservasAsync() {
+        return lanzar("PURGAR_RESERVAS", this::purgarReservas);
+    }
+
+    public ProgresoOperacion cancelarReservasVueloAsync(Long vueloId) {
+        return lanzar("CANCELAR_RESERVAS_VUELO", p -> cancelarReservasVuelo(vueloId, p));
+    }
+
+    public ProgresoOperacion eliminarVuelosAsync(List<Long> vueloIds) {
+        return lanzar("ELIMINAR_VUELOS", p -> eliminarVuelos(vueloIds, p));
+    }
+
+    public ProgresoOperacion reajustarPrecioRutaAsync(String origen, String destino, double factor) {
+        if (factor <= 0) {
+            throw new RuntimeException("El factor de precio debe ser positivo");
+        }
+        return lanzar("REAJUSTAR_PRECIO_RUTA", p -> reajustarPrecioRuta(origen, destino, factor, p));
+    }
+
+    public ProgresoOperacion obtener(String id) {
+        ProgresoOperacion p = operaciones.get(id);
+        if (p == null) {
+            throw new RuntimeException("Operacion no encontrada: " + id);
+        }
+        return p;
+    }
+
+    public List<ProgresoOperacion> listar() {
+        List<ProgresoOperacion> lista = new ArrayList<>(operaciones.values());
+        lista.sort(Comparator.comparing(ProgresoOperacion::getCreada).reversed());
+        return lista;
+    }
+
+    // ---------- Ejecucion por lotes (tambien usable de forma sincrona) ----------
+
+    public long purgarReservas() {
+        ProgresoOperacion progreso = new ProgresoOperacion(UUID.randomUUID().toString(), "PURGAR_RESERVAS");
+        purgarReservas(progreso);
+        progreso.completar();
+        return progreso.getFilasAfectadas();
+    }
+
+    public void purgarReservas(ProgresoOperacion progreso) {
+        Long min = reservaRepository.minId();
+        Long max = reservaRepository.maxId();
+        if (min == null) {
+            progreso.iniciar(0);
+            return;
+        }
+        progreso.iniciar(numeroLotes(min, max));
+        for (long desde = min; desde <= max; desde += tamanoLote) {
+            long d = desde, h = Math.min(desde + tamanoLote - 1, max);
+            // Los asientos vuelven a cada vuelo y la cancelacion se publica en la transaccion del borrado
+            Integer filas = transactionTemplate.execute(s -> {
+                List<Object[]> totales = reservaRepository.totalesPorVueloRango(d, h);
+                Map<Long, List<String>> codigos = new HashMap<>();
+                for (Object[] a : reservaRepository.asientosRango(d, h)) {
+                    codigos.computeIfAbsent((Long) a[0], k -> new ArrayList<>()).add((String) a[1]);
+                }
+                int borradas = reservaRepository.eliminarRango(d, h);
+                publicarCancelaciones(totales, codigos);
+                return borradas;
+            });
+            progreso.loteCompletado(filas);
+        }
+    }
+
+    public void cancelarReservasVuelo(Long vueloId, ProgresoOperacion progreso) {
+        Vuelo vuelo = vueloRepository.findById(vueloId)
+                .orElseThrow(() -> new RuntimeException("Vuelo no encontrado"));
+        List<Long> ids = List.of(vueloId);
+        Long min = reservaRepository.minIdPorVuelos(ids);
+        Long max = reservaRepository.maxIdPorVuelos(ids);
+        if (min == null) {
+            progreso.iniciar(0);
+            return;
+        }
+        progreso.iniciar(numeroLotes(min, max));
+        for (long desde = min; desde <= max; desde += tamanoLote) {
+            long d = desde, h = Math.min(desde + tamanoLote - 1, max);
+            // Los totales, el borrado, la devolucion de asientos y los eventos del lote van en la misma
+            // transaccion: el outbox y la cancelacion se escriben antes del commit, junto con el borrado
+            Integer reservas = transactionTemplate.execute(s -> {
+                Object[] t = reservaRepository.totalesVueloRango(vueloId, d, h).get(0);
+                List<String> codigos = reservaRepository.asientosVueloRango(vueloId, d, h);
+                reservaRepository.eliminarPorVuelosRango(ids, d, h);
+                int filas = ((Number) t[0]).intValue();
+                int asientos = ((Number) t[1]).intValue();
+                if (asientos > 0) {
+                    vueloRepository.liberarAsientos(vueloId, asientos);
+                    mapaAsientosService.liberar(vueloId, codigos);
+                    eventPublisher.publishEvent(new AsientosCambiadosEvent(vueloId, asientos));
+                }
+                if (filas > 0) {
+                    eventPublisher.publishEvent(new ReservaCambiadaEvent(ReservaCambiadaEvent.Tipo.CANCELADA, vuelo,
+                            filas, asientos, ((Number) t[2]).doubleValue()));
+                }
+                return filas;
+            });
+            progreso.loteCompletado(reservas);
+        }
+    }
+
+    public void eliminarVuelos(List<Long> vueloIds, ProgresoOperacion progreso) {
+        List<List<Long>> grupos = particionar(vueloIds, tamanoLote);
+        progreso.iniciar(grupos.size());
+        for (List<Long> grupo : grupos) {
+            // Reservas, lista de espera, mapas y vuelos del grupo se borran juntos o no se borra nada
+            Long filas = transactionTemplate.execute(s -> {
+                long reservas = eliminarReservasDeVuelos(grupo);
+                listaEsperaRepository.eliminarPorVuelos(grupo);
+                mapaAsientosService.eliminar(grupo);
+                return reservas + vueloRepository.eliminarPorIds(grupo);
+            });
+            progreso.loteCompletado(filas);
+        }
+        eventPublisher.publishEvent(VueloCambiadoEvent.catalogoCompleto());
+    }
+
+    public void reajustarPrecioRuta(String origen, String destino, double factor, ProgresoOperacion progreso) {
+        Long min = vueloRepository.minIdRuta(origen, destino);
+        Long max = vueloRepository.maxIdRuta(origen, destino);
+        if (min == null) {
+            progreso.iniciar(0);
+            return;
+        }
+        progreso.iniciar(numeroLotes(min, max));
+        for (long desde = min; desde <= max; desde += tamanoLote) {
+            long d = desde, h = Math.min(desde + tamanoLote - 1, max);
+            Integer filas = transactionTemplate.execute(s -> vueloRepository.reajustarPrecioRutaRango(origen, destino, factor, d, h));
+            progreso.loteCompletado(filas);
+        }
+        eventPublisher.publishEvent(VueloCambiadoEvent.catalogoCompleto());
+    }
+
+    /**
+     * Borra por lotes las reservas de los vuelos indicados y publica su cancelacion. Dentro de una
+     * transaccion abierta (borrado de vuelos) todos los lotes van en ella; si no, uno por lote.
+     */
+    public long eliminarReservasDeVuelos(Collection<Long> vueloIds) {
+        Long min = reservaRepository.minIdPorVuelos(vueloIds);
+        Long max = reservaRepository.maxIdPorVuelos(vueloIds);
+        if (min == null) {
+            return 0;
+        }
+        long total = 0;
+        for (long desde = min; desde <= max; desde += tamanoLote) {
+            long d = desde, h = Math.min(desde + tamanoLote - 1, max);
+            total += transactionTemplate.execute(s -> {
+                List<Object[]> totales = reservaRepository.totalesDeVuelosRango(vueloIds, d, h);
+                int borradas = reservaRepository.eliminarPorVuelosRango(vueloIds, d, h);
+                // Los vuelos se van a borrar: no hay asientos que devolver
+                publicarCancelaciones(totales, null);
+                return borradas;
+            });
+        }
+        return total;
+    }
+
+    public ProgresoOperacion lanzar(String tipo, Consumer<ProgresoOperacion> trabajo) {
+        ProgresoOperacion progreso = new ProgresoOperacion(UUID.randomUUID().toString(), tipo);
+        registrar(progreso);
+        operacionesExecutor.execute(() -> {
+            try {
+                trabajo.accept(progreso);
+                progreso.completar();
+                logger.info("Operacion {} ({}) completada: {} filas en {} lotes",
+                        progreso.getId(), tipo, progreso.getFilasAfectadas(), progreso.getLotesProcesados());
+            } catch (RuntimeException e) {
+                progreso.fallar(e.getMessage());
+                logger.error("Operacion {} ({}) fallida", progreso.getId(), tipo, e);
+            }
+        });
+        return progreso;
+    }
+
+    // ---------- Internos ----------
+
+    private void registrar(ProgresoOperacion progreso) {
+        if (operaciones.size() >= MAX_OPERACIONES_REGISTRADAS) {
+            operaciones.values().removeIf(ProgresoOperacion::isTerminada);
+        }
+        operaciones.put(progreso.getId(), progreso);
+    }
+
+    /**
+     * Publica una cancelacion por vuelo a partir de sus totales [vueloId, reservas, asientos, importe];
+     * el outbox y la analitica la registran antes del commit. Con codigos, ademas devuelve los asientos al
+     * vuelo y a su mapa y avisa del cambio de disponibilidad.
+     */
+    private void publicarCancelaciones(List<Object[]> totales, Map<Long, List<String>> codigos) {
+        if (totales.isEmpty()) {
+            return;
+        }
+        List<Long> ids = totales.stream().map(t -> (Long) t[0]).toList();
+        Map<Long, Vuelo> vuelos = new HashMap<>();
+        vueloRepository.findAllById(ids).forEach(v -> vuelos.put(v.getId(), v));
+        for (Object[] t : totales) {
+            Long vueloId = (Long) t[0];
+            int reservas = ((Number) t[1]).intValue();
+            int asientos = ((Number) t[2]).intValue();
+            if (codigos != null && asientos > 0) {
+                vueloRepository.liberarAsientos(vueloId, asientos);
+                mapaAsientosService.liberar(vueloId, codigos.getOrDefault(vueloId, List.of()));
+                eventPublisher.publishEvent(new AsientosCambiadosEvent(vueloId, asientos));
+            }
+            eventPublisher.publishEvent(new ReservaCambiadaEvent(ReservaCambiadaEvent.Tipo.CANCELADA,
+                    vuelos.get(vueloId), reservas, asientos, ((Number) t[3]).doubleValue()));
+        }
+    }
+
+    private long numeroLotes(long min, long max) {
+        return (max - min) / tamanoLote + 1;
+    }
+
+    private static <T> List<List<T>> particionar(List<T> lista, int tamano) {
+        List<List<T>> grupos = new ArrayList<>();
+        for (int i = 0; i < lista.size(); i += tamano) {
+            grupos.add(new ArrayList<>(lista.subList(i, Math.min(i + tamano, lista.size()))));
+        }
+        return grupos;
+    }
+}
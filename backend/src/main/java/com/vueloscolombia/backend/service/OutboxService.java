@@ -0,0 +1,259 @@
+package com.vueloscolombia.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vueloscolombia.backend.dto.EstadoOutboxDTO;
+import com.vueloscolombia.backend.evento.ConsumidorOutbox;
+import com.vueloscolombia.backend.evento.ReservaCambiadaEvent;
+import com.vueloscolombia.backend.evento.VueloCambiadoEvent;
+import com.vueloscolombia.backend.model.EventoOutbox;
+import com.vueloscolombia.backend.repository.EventoOutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Outbox transaccional: los eventos de reservas y vuelos se escriben en evento_outbox dentro de
+ * la misma transaccion que los produce (fase BEFORE_COMMIT), y un relevo en segundo plano los
+ * entrega por lotes a los {@link ConsumidorOutbox} registrados. La peticion de reserva no espera
+ * a ningun efecto secundario.
+ *
+ * Entrega al menos una vez y en orden por vuelo: si un evento falla se reintenta con espera
+ * exponencial, y mientras tanto los siguientes del mismo vuelo esperan. Con varios nodos cada
+ * relevo reclama su lote con {@code FOR UPDATE SKIP LOCKED} y un plazo (reclamado_hasta); un
+ * evento solo se reclama si todos los pendientes anteriores de su vuelo entran en el mismo lote.
+ */
+@Service
+public class OutboxService {
+
+    public static final String PENDIENTE = "PENDIENTE";
+    public static final String PROCESADO = "PROCESADO";
+    public static final String DESCARTADO = "DESCARTADO";
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxService.class);
+
+    @Autowired
+    private EventoOutboxRepository eventoOutboxRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired(required = false)
+    private List<ConsumidorOutbox> consumidores = List.of();
+
+    @Value("${app.outbox.tamano-lote:200}")
+    private int tamanoLote;
+
+    @Value("${app.outbox.max-intentos:10}")
+    private int maxIntentos;
+
+    @Value("${app.outbox.retencion-horas:24}")
+    private int retencionHoras;
+
+    @Value("${app.outbox.espera-base-ms:1000}")
+    private long esperaBaseMs;
+
+    @Value("${app.outbox.espera-max-ms:300000}")
+    private long esperaMaxMs;
+
+    @Value("${app.outbox.reclamo-ms:60000}")
+    private long reclamoMs;
+
+    // Identifica los reclamos de este proceso
+    private final String nodo = UUID.randomUUID().toString();
+
+    private final AtomicLong despachados = new AtomicLong();
+    private final AtomicLong fallos = new AtomicLong();
+    private volatile long retrasoUltimoMs;
+    private volatile Instant ultimaEjecucion;
+
+    // ---------- Escritura, dentro de la transaccion del productor ----------
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onReservaCambiada(ReservaCambiadaEvent evento) {
+        registrar("RESERVA_" + evento.getTipo(), evento.getVueloId(), evento);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onVueloCambiado(VueloCambiadoEvent evento) {
+        if (evento.isRemoto()) {
+            return; // el nodo que hizo el cambio ya lo escribio
+        }
+        String tipo = evento.isCatalogoCompleto() ? "CATALOGO_CAMBIADO"
+                : evento.isEliminado() ? "VUELO_ELIMINADO" : "VUELO_GUARDADO";
+        registrar(tipo, evento.getVueloId(), evento);
+    }
+
+    private void registrar(String tipo, Long vueloId, Object contenido) {
+        EventoOutbox e = new EventoOutbox();
+        e.setTipo(tipo);
+        e.setVueloId(vueloId);
+        e.setEstado(PENDIENTE);
+        e.setIntentos(0);
+        e.setCreado(LocalDateTime.now());
+        try {
+            e.setPayload(objectMapper.writeValueAsString(contenido));
+        } catch (JsonProcessingException ex) {
+            throw new RuntimeException("No se pudo serializar el evento " + tipo, ex);
+        }
+        eventoOutboxRepository.save(e);
+    }
+
+    // ---------- Relevo ----------
+
+    @Scheduled(fixedDelayString = "${app.outbox.intervalo-ms:500}")
+    public void despachar() {
+        ultimaEjecucion = Instant.now();
+        List<EventoOutbox> lote;
+        boolean avanzo;
+        do {
+            lote = reclamar();
+            // Si todo el lote quedo bloqueado por fallos se espera al siguiente ciclo en vez de girar
+            avanzo = !lote.isEmpty() && despacharLote(lote);
+        } while (avanzo && lote.size() == tamanoLote);
+    }
+
+    /**
+     * Reclama para este nodo el siguiente lote entregable. De cada vuelo se toman sus pendientes en
+     * orden hasta el primero que no es candidato (en espera de reintento, reclamado o bloqueado por
+     * otro nodo): los posteriores no se pueden entregar antes que el.
+     */
+    private List<EventoOutbox> reclamar() {
+        LocalDateTime ahora = LocalDateTime.now();
+        return transactionTemplate.execute(s -> {
+            List<EventoOutbox> candidatos = eventoOutboxRepository.candidatos(PENDIENTE, ahora, tamanoLote);
+            if (candidatos.isEmpty()) {
+                return List.of();
+            }
+            Set<Long> propios = new HashSet<>(), claves = new HashSet<>();
+            for (EventoOutbox e : candidatos) {
+                propios.add(e.getId());
+                claves.add(clave(e.getVueloId()));
+            }
+            Long hasta = candidatos.get(candidatos.size() - 1).getId();
+            Set<Long> cortados = new HashSet<>(), entregables = new HashSet<>();
+            for (Object[] p : eventoOutboxRepository.pendientesHasta(PENDIENTE, claves, hasta)) {
+                Long id = (Long) p[0], clave = clave((Long) p[1]);
+                if (!propios.contains(id)) {
+                    cortados.add(clave);
+                } else if (!cortados.contains(clave)) {
+                    entregables.add(id);
+                }
+            }
+            List<EventoOutbox> lote = candidatos.stream().filter(e -> entregables.contains(e.getId())).toList();
+            if (!lote.isEmpty()) {
+                eventoOutboxRepository.reclamar(entregables, nodo, ahora.plus(Duration.ofMillis(reclamoMs)));
+            }
+            return lote;
+        });
+    }
+
+    /** Entrega un lote; devuelve true si al menos un evento salio de PENDIENTE. */
+    private boolean despacharLote(List<EventoOutbox> lote) {
+        // Vuelos con un evento fallido en este lote: sus eventos posteriores no se entregan aun
+        Set<Long> bloqueados = new HashSet<>();
+        List<Long> entregados = new ArrayList<>(), sinIntentar = new ArrayList<>();
+        int descartadosEnLote = 0;
+        for (EventoOutbox e : lote) {
+            Long clave = clave(e.getVueloId());
+            if (bloqueados.contains(clave)) {
+                sinIntentar.add(e.getId());
+                continue;
+            }
+            try {
+                for (ConsumidorOutbox c : consumidores) {
+                    if (c.acepta(e.getTipo())) {
+                        c.procesar(e);
+                    }
+                }
+                entregados.add(e.getId());
+                retrasoUltimoMs = Duration.between(e.getCreado(), LocalDateTime.now()).toMillis();
+            } catch (Exception ex) {
+                bloqueados.add(clave);
+                fallos.incrementAndGet();
+                if (registrarFallo(e, ex)) {
+                    descartadosEnLote++;
+                }
+            }
+        }
+        if (!entregados.isEmpty()) {
+            transactionTemplate.execute(s -> eventoOutboxRepository.marcar(entregados, PROCESADO, LocalDateTime.now()));
+            despachados.addAndGet(entregados.size());
+        }
+        // Se sueltan ya: quedan detras del fallido, que los sigue frenando mientras espera su reintento
+        if (!sinIntentar.isEmpty()) {
+            transactionTemplate.execute(s -> eventoOutboxRepository.liberar(sinIntentar));
+        }
+        return !entregados.isEmpty() || descartadosEnLote > 0;
+    }
+
+    private boolean registrarFallo(EventoOutbox e, Exception ex) {
+        int intentos = e.getIntentos() + 1;
+        e.setIntentos(intentos);
+        String mensaje = ex.getClass().getSimpleName() + ": " + ex.getMessage();
+        e.setError(mensaje.length() > 500 ? mensaje.substring(0, 500) : mensaje);
+        e.setReclamadoPor(null);
+        e.setReclamadoHasta(null);
+        if (intentos >= maxIntentos) {
+            e.setEstado(DESCARTADO);
+            e.setProcesado(LocalDateTime.now());
+            logger.error("Evento outbox {} ({}) descartado tras {} intentos", e.getId(), e.getTipo(), intentos, ex);
+        } else {
+            long espera = esperaReintento(intentos);
+            e.setSiguienteIntento(LocalDateTime.now().plus(Duration.ofMillis(espera)));
+            logger.warn("Evento outbox {} ({}) fallo, intento {}, reintento en {} ms: {}",
+                    e.getId(), e.getTipo(), intentos, espera, mensaje);
+        }
+        transactionTemplate.executeWithoutResult(s -> eventoOutboxRepository.save(e));
+        return DESCARTADO.equals(e.getEstado());
+    }
+
+    // base, 2*base, 4*base... hasta el maximo
+    private long esperaReintento(int intentos) {
+        long espera = esperaBaseMs;
+        for (int i = 1; i < intentos && espera < esperaMaxMs; i++) {
+            espera *= 2;
+        }
+        return Math.min(espera, esperaMaxMs);
+    }
+
+    private static Long clave(Long vueloId) {
+        return vueloId != null ? vueloId : 0L;
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.purga-ms:3600000}")
+    public void purgar() {
+        LocalDateTime limite = LocalDateTime.now().minusHours(retencionHoras);
+        Integer filas = transactionTemplate.execute(s -> eventoOutboxRepository.purgar(PROCESADO, limite));
+        if (filas != null && filas > 0) {
+            logger.info("Outbox: {} eventos procesados purgados", filas);
+        }
+    }
+
+    public EstadoOutboxDTO estado() {
+        LocalDateTime masAntiguo = eventoOutboxRepository.masAntiguo(PENDIENTE);
+        long retraso = masAntiguo == null ? 0 : Duration.between(masAntiguo, LocalDateTime.now()).toMillis();
+        return new EstadoOutboxDTO(eventoOutboxRepository.countByEstado(PENDIENTE),
+                eventoOutboxRepository.countByEstado(DESCARTADO),
+                despachados.get(), fallos.get(), retraso, retrasoUltimoMs, ultimaEjecucion);
+    }
+}
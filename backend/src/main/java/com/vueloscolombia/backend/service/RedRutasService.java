@@ -0,0 +1,328 @@
+package com.vueloscolombia.backend.service;
+
+import com.vueloscolombia.backend.dto.ItinerarioDTO;
+import com.vueloscolombia.backend.dto.TramoVuelo;
+import com.vueloscolombia.backend.evento.AsientosCambiadosEvent;
+import com.vueloscolombia.backend.evento.VueloCambiadoEvent;
+import com.vueloscolombia.backend.model.Vuelo;
+import com.vueloscolombia.backend.repository.VueloRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Grafo expandido en el tiempo con todos los vuelos en memoria: por cada aeropuerto, sus salidas
+ * ordenadas por hora. Permite armar itinerarios de hasta dos escalas respetando el tiempo minimo
+ * de conexion y los asientos disponibles, sin auto-joins en SQL. El precio de cada itinerario suma
+ * la tarifa de venta de sus tramos con la ocupacion que tienen en memoria.
+ */
+@Service
+public class RedRutasService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedRutasService.class);
+    private static final Comparator<TramoVuelo> POR_SALIDA =
+            Comparator.comparingLong(TramoVuelo::getSalida).thenComparing(TramoVuelo::getId);
+
+    @Autowired
+    private VueloRepository vueloRepository;
+
+    @Autowired
+    private TarifaService tarifaService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    @Qualifier("indicesExecutor")
+    private TaskExecutor indicesExecutor;
+
+    @Value("${app.itinerarios.conexion-minima-min:45}")
+    private long conexionMinima;
+
+    @Value("${app.itinerarios.conexion-maxima-min:720}")
+    private long conexionMaxima;
+
+    /** Indices de la red; una recarga arma una nueva aparte y la publica de una vez. */
+    private static final class Red {
+        final Map<Long, TramoVuelo> tramos = new ConcurrentHashMap<>();
+        // Arreglos copy-on-write: las busquedas leen sin bloqueo, las escrituras reemplazan el arreglo del aeropuerto
+        final Map<String, TramoVuelo[]> salidasPorOrigen = new ConcurrentHashMap<>();
+    }
+
+    private volatile Red red = new Red();
+
+    private final CambiosDuranteRecarga cambios = new CambiosDuranteRecarga();
+    private final Object recargando = new Object();
+    private final AtomicBoolean recargaPendiente = new AtomicBoolean();
+
+    /**
+     * Lee todos los vuelos y arma una red nueva sin tomar el monitor; los eventos siguen aplicandose a
+     * la actual y anotan sus vuelos, que se releen de la base antes de reemplazarla.
+     */
+    public void recargar() {
+        synchronized (recargando) {
+            long inicio = System.nanoTime();
+            cambios.iniciarLectura();
+            try {
+                // Sin readOnly: la recarga completa sigue a un cambio masivo y debe leer de la primaria, no de una replica atrasada
+                Red nueva = construir(transactionTemplate.execute(s -> vueloRepository.findAll()));
+                synchronized (this) {
+                    List<Long> ids = new ArrayList<>(cambios.terminarLectura());
+                    if (!ids.isEmpty()) {
+                        List<Vuelo> actuales = transactionTemplate.execute(s -> vueloRepository.findAllById(ids));
+                        ids.forEach(id -> quitar(nueva, id));
+                        actuales.forEach(v -> poner(nueva, v));
+                    }
+                    cambios.indicePublicado();
+                    this.red = nueva;
+                }
+                logger.info("Red de rutas cargada: {} tramos en {} aeropuertos ({} ms)", nueva.tramos.size(),
+                        nueva.salidasPorOrigen.size(), (System.nanoTime() - inicio) / 1_000_000);
+            } finally {
+                cambios.terminarLectura();
+            }
+        }
+    }
+
+    /** Reemplaza la red completa con vuelos ya leidos; lo usa el arranque desde la instantanea. */
+    public void cargar(Iterable<Vuelo> vuelos) {
+        Red nueva = construir(vuelos);
+        synchronized (this) {
+            this.red = nueva;
+        }
+    }
+
+    private static Red construir(Iterable<Vuelo> vuelos) {
+        Red nueva = new Red();
+        Map<String, List<TramoVuelo>> agrupados = new HashMap<>();
+        for (Vuelo v : vuelos) {
+            TramoVuelo t = TramoVuelo.desde(v);
+            if (t == null) continue;
+            nueva.tramos.put(t.getId(), t);
+            agrupados.computeIfAbsent(t.getOrigen(), k -> new ArrayList<>()).add(t);
+        }
+        agrupados.forEach((origen, lista) -> {
+            TramoVuelo[] arr = lista.toArray(new TramoVuelo[0]);
+            Arrays.sort(arr, POR_SALIDA);
+            nueva.salidasPorOrigen.put(origen, arr);
+        });
+        return nueva;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVueloCambiado(VueloCambiadoEvent evento) {
+        if (evento.isCatalogoCompleto()) {
+            // Fuera del hilo del evento, y una sola recarga encolada por muchos cambios masivos seguidos
+            if (recargaPendiente.compareAndSet(false, true)) {
+                indicesExecutor.execute(() -> {
+                    recargaPendiente.set(false);
+                    recargar();
+                });
+            }
+        } else if (evento.isEliminado()) {
+            quitar(evento.getVueloId());
+        } else {
+            actualizar(evento.getVuelo());
+        }
+    }
+
+    @EventListener
+    public void onAsientosPublicados(AsientosCambiadosEvent evento) {
+        cambios.publicado(evento.getVueloId());
+    }
+
+    // Con el monitor: un ajuste no puede caer en la red anterior justo cuando se reemplaza
+    @Order(CambiosDuranteRecarga.ORDEN_APLICAR)
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onAsientosCambiados(AsientosCambiadosEvent evento) {
+        cambios.anotar(evento.getVueloId());
+        if (cambios.dudoso(evento.getVueloId())) {
+            // La recarga pudo ver ya este cambio: se toma el vuelo tal como quedo en vez de sumar el delta
+            vueloRepository.findById(evento.getVueloId()).ifPresent(v -> poner(red, v));
+            return;
+        }
+        TramoVuelo t = red.tramos.get(evento.getVueloId());
+        if (t != null) {
+            t.ajustarDisponibles(evento.getDelta());
+        }
+    }
+
+    public synchronized void actualizar(Vuelo v) {
+        cambios.anotar(v.getId());
+        poner(red, v);
+    }
+
+    public synchronized void quitar(Long vueloId) {
+        cambios.anotar(vueloId);
+        quitar(red, vueloId);
+    }
+
+    private static void poner(Red r, Vuelo v) {
+        quitar(r, v.getId());
+        TramoVuelo t = TramoVuelo.desde(v);
+        if (t == null) return;
+        r.tramos.put(t.getId(), t);
+        r.salidasPorOrigen.compute(t.getOrigen(), (k, arr) -> {
+            TramoVuelo[] base = arr == null ? new TramoVuelo[0] : arr;
+            int pos = Arrays.binarySearch(base, t, POR_SALIDA);
+            int i = pos < 0 ? -pos - 1 : pos;
+            TramoVuelo[] nuevo = new TramoVuelo[base.length + 1];
+            System.arraycopy(base, 0, nuevo, 0, i);
+            nuevo[i] = t;
+            System.arraycopy(base, i, nuevo, i + 1, base.length - i);
+            return nuevo;
+        });
+    }
+
+    private static void quitar(Red r, Long vueloId) {
+        TramoVuelo anterior = r.tramos.remove(vueloId);
+        if (anterior == null) return;
+        r.salidasPorOrigen.computeIfPresent(anterior.getOrigen(), (k, arr) -> {
+            TramoVuelo[] nuevo = Arrays.stream(arr).filter(t -> !t.getId().equals(vueloId)).toArray(TramoVuelo[]::new);
+            return nuevo.length == 0 ? null : nuevo;
+        });
+    }
+
+    public int totalTramos() {
+        return red.tramos.size();
+    }
+
+    public List<ItinerarioDTO> buscar(String origen, String destino, String fecha, int pasajeros,
+                                      int maxEscalas, String orden, int limite) {
+        LocalDate dia;
+        try {
+            dia = LocalDate.parse(fecha);
+        } catch (DateTimeParseException e) {
+            throw new RuntimeException("Fecha invalida: " + fecha);
+        }
+        if (origen.equals(destino)) {
+            throw new RuntimeException("El origen y el destino deben ser distintos");
+        }
+        Busqueda b = new Busqueda(destino, Math.max(1, pasajeros), Math.max(0, Math.min(2, maxEscalas)),
+                "duracion".equalsIgnoreCase(orden), Math.max(1, Math.min(50, limite)));
+
+        Map<String, TramoVuelo[]> salidasPorOrigen = red.salidasPorOrigen;
+        TramoVuelo[] salidas = salidasPorOrigen.get(origen);
+        if (salidas == null) return List.of();
+        long desde = dia.toEpochDay() * 1440;
+        long hasta = desde + 1440;
+        TramoVuelo[] camino = new TramoVuelo[3];
+        double[] tarifas = new double[3];
+        for (int i = primeraSalidaDesde(salidas, desde); i < salidas.length && salidas[i].getSalida() < hasta; i++) {
+            TramoVuelo t = salidas[i];
+            if (t.getDisponibles() < b.pasajeros) continue;
+            camino[0] = t;
+            tarifas[0] = tarifa(t);
+            extender(b, salidasPorOrigen, camino, tarifas, 1, tarifas[0]);
+        }
+        return b.resultados();
+    }
+
+    private double tarifa(TramoVuelo t) {
+        return tarifaService.tarifa(t.getPrecio(), t.getCapacidad(), t.getDisponibles(), t.getDiaSalida());
+    }
+
+    private void extender(Busqueda b, Map<String, TramoVuelo[]> salidasPorOrigen, TramoVuelo[] camino,
+                          double[] tarifas, int n, double precio) {
+        TramoVuelo ultimo = camino[n - 1];
+        long duracion = ultimo.getLlegada() - camino[0].getSalida();
+        if (ultimo.getDestino().equals(b.destino)) {
+            b.agregar(camino, tarifas, n, precio, duracion);
+            return;
+        }
+        if (n > b.maxEscalas || b.descartable(precio, duracion)) return;
+
+        TramoVuelo[] salidas = salidasPorOrigen.get(ultimo.getDestino());
+        if (salidas == null) return;
+        long limite = ultimo.getLlegada() + conexionMaxima;
+        for (int i = primeraSalidaDesde(salidas, ultimo.getLlegada() + conexionMinima);
+             i < salidas.length && salidas[i].getSalida() <= limite; i++) {
+            TramoVuelo sig = salidas[i];
+            if (sig.getDisponibles() < b.pasajeros || visitado(camino, n, sig.getDestino())) continue;
+            camino[n] = sig;
+            tarifas[n] = tarifa(sig);
+            extender(b, salidasPorOrigen, camino, tarifas, n + 1, precio + tarifas[n]);
+        }
+    }
+
+    private static boolean visitado(TramoVuelo[] camino, int n, String aeropuerto) {
+        if (camino[0].getOrigen().equals(aeropuerto)) return true;
+        for (int i = 0; i < n - 1; i++) {
+            if (camino[i].getDestino().equals(aeropuerto)) return true;
+        }
+        return false;
+    }
+
+    private static int primeraSalidaDesde(TramoVuelo[] salidas, long minuto) {
+        int lo = 0, hi = salidas.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (salidas[mid].getSalida() < minuto) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    /** Estado de una busqueda: conserva solo los mejores resultados en un heap acotado. */
+    private static class Busqueda {
+        final String destino;
+        final int pasajeros;
+        final int maxEscalas;
+        final boolean porDuracion;
+        final int limite;
+        final Comparator<ItinerarioDTO> orden;
+        final PriorityQueue<ItinerarioDTO> peores;
+
+        Busqueda(String destino, int pasajeros, int maxEscalas, boolean porDuracion, int limite) {
+            this.destino = destino;
+            this.pasajeros = pasajeros;
+            this.maxEscalas = maxEscalas;
+            this.porDuracion = porDuracion;
+            this.limite = limite;
+            Comparator<ItinerarioDTO> precio = Comparator.comparingDouble(ItinerarioDTO::getPrecioTotal);
+            Comparator<ItinerarioDTO> duracion = Comparator.comparingLong(ItinerarioDTO::getDuracionMinutos);
+            this.orden = porDuracion ? duracion.thenComparing(precio) : precio.thenComparing(duracion);
+            this.peores = new PriorityQueue<>(limite + 1, orden.reversed());
+        }
+
+        // Agregar tramos solo sube el precio y la duracion: si ya es peor que el ultimo conservado, se poda
+        boolean descartable(double precio, long duracion) {
+            if (peores.size() < limite) return false;
+            ItinerarioDTO peor = peores.peek();
+            return porDuracion ? duracion >= peor.getDuracionMinutos() : precio >= peor.getPrecioTotal();
+        }
+
+        void agregar(TramoVuelo[] camino, double[] tarifas, int n, double precio, long duracion) {
+            peores.offer(new ItinerarioDTO(List.of(Arrays.copyOf(camino, n)),
+                    Arrays.stream(tarifas, 0, n).boxed().toList(), precio, duracion));
+            if (peores.size() > limite) {
+                peores.poll();
+            }
+        }
+
+        List<ItinerarioDTO> resultados() {
+            List<ItinerarioDTO> lista = new ArrayList<>(peores);
+            lista.sort(orden);
+            return lista;
+        }
+    }
+}
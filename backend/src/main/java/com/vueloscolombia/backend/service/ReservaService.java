@@ -3,9 +3,20 @@ package com.vueloscolombia.backend.service;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import com.vueloscolombia.backend.repository.*;
 import com.vueloscolombia.backend.model.*;
+import com.vueloscolombia.backend.dto.ProgresoOperacion;
+import com.vueloscolombia.backend.dto.ReservaDTO;
+import com.vueloscolombia.backend.evento.AsientosCambiadosEvent;
+import com.vueloscolombia.backend.evento.ReservaCambiadaEvent;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class ReservaService {
@@ -16,41 +27,156 @@ public class ReservaService {
     private VueloRepository vueloRepository;
     @Autowired
     private UsuarioRepository usuarioRepository;
+    @Autowired
+    private OperacionMasivaService operacionMasivaService;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private MapaAsientosService mapaAsientosService;
+    @Autowired
+    private ReservaHistoricaRepository reservaHistoricaRepository;
+    @Autowired
+    private TarifaService tarifaService;
+    @Autowired
+    private CotizacionService cotizacionService;
 
+    @Transactional
     public Reserva crearReserva(Long vueloId, String username, int cantidad) {
+        return crearReserva(vueloId, username, cantidad, null, null);
+    }
+
+    @Transactional
+    public Reserva crearReserva(Long vueloId, String username, int cantidad, List<String> asientos) {
+        return crearReserva(vueloId, username, cantidad, asientos, null);
+    }
+
+    /**
+     * Con {@code asientos} nulo o vacio se asignan automaticamente, juntos si es posible. Con
+     * {@code cotizacion} se cobra el precio cotizado; sin ella, la tarifa del momento de la reserva.
+     */
+    @Transactional
+    public Reserva crearReserva(Long vueloId, String username, int cantidad, List<String> asientos, String cotizacion) {
+        if (cantidad <= 0) {
+            throw new RuntimeException("La cantidad debe ser mayor a cero");
+        }
+        Double cotizado = cotizacion == null || cotizacion.isBlank() ? null
+                : cotizacionService.precioCotizado(cotizacion, vueloId, username, cantidad);
         Usuario usuario = usuarioRepository.findByUsername(username).orElseThrow();
-        Vuelo vuelo = vueloRepository.findById(vueloId).orElseThrow();
 
-        if (vuelo.getDisponibles() < cantidad) {
+        // Descuento condicional en la base de datos, sin leer-modificar-escribir
+        if (vueloRepository.reservarAsientos(vueloId, cantidad) == 0) {
+            if (!vueloRepository.existsById(vueloId)) {
+                throw new RuntimeException("Vuelo no encontrado");
+            }
             throw new RuntimeException("No hay suficientes asientos");
         }
-        vuelo.setDisponibles(vuelo.getDisponibles() - cantidad);
-        vueloRepository.save(vuelo);
+        Vuelo vuelo = vueloRepository.findById(vueloId).orElseThrow();
+        eventPublisher.publishEvent(new AsientosCambiadosEvent(vueloId, -cantidad));
 
         Reserva r = new Reserva();
         r.setUsuario(usuario);
         r.setVuelo(vuelo);
         r.setCantidad(cantidad);
         r.setEstado("CONFIRMADA");
-        return reservaRepository.save(r);
+        r.setPrecioUnitario(cotizado != null ? cotizado : tarifaAntesDe(vuelo, cantidad));
+        r.setAsientos(String.join(",", mapaAsientosService.asignar(vuelo, cantidad, asientos)));
+        Reserva guardada = reservaRepository.save(r);
+        eventPublisher.publishEvent(ReservaCambiadaEvent.creada(guardada));
+        return guardada;
     }
 
+    /**
+     * Reserva varios vuelos (ida y regreso, multidestino) en una sola transaccion: o quedan todas
+     * las reservas o ninguna. Los descuentos se aplican en orden de id de vuelo para que dos lotes
+     * concurrentes bloqueen las filas en el mismo orden y no se produzcan interbloqueos.
+     */
+    @Transactional
+    public List<Reserva> crearReservas(List<ReservaDTO> solicitudes, String username) {
+        if (solicitudes == null || solicitudes.isEmpty()) {
+            throw new RuntimeException("Debe indicar al menos un vuelo");
+        }
+        // Agrupa por vuelo y ordena por id
+        Map<Long, Integer> porVuelo = new TreeMap<>();
+        Map<ReservaDTO, Double> cotizados = new IdentityHashMap<>();
+        for (ReservaDTO s : solicitudes) {
+            if (s.getVueloId() == null || s.getCantidad() <= 0) {
+                throw new RuntimeException("Cada vuelo debe tener id y una cantidad mayor a cero");
+            }
+            porVuelo.merge(s.getVueloId(), s.getCantidad(), Integer::sum);
+            if (s.getCotizacion() != null && !s.getCotizacion().isBlank()) {
+                cotizados.put(s, cotizacionService.precioCotizado(s.getCotizacion(), s.getVueloId(), username, s.getCantidad()));
+            }
+        }
+        Usuario usuario = usuarioRepository.findByUsername(username).orElseThrow();
+
+        for (Map.Entry<Long, Integer> e : porVuelo.entrySet()) {
+            if (vueloRepository.reservarAsientos(e.getKey(), e.getValue()) == 0) {
+                // La excepcion revierte los descuentos ya aplicados en esta transaccion
+                if (!vueloRepository.existsById(e.getKey())) {
+                    throw new RuntimeException("Vuelo no encontrado: " + e.getKey());
+                }
+                throw new RuntimeException("No hay suficientes asientos en el vuelo " + e.getKey());
+            }
+        }
+        Map<Long, Vuelo> vuelos = vueloRepository.findAllById(porVuelo.keySet()).stream()
+                .collect(Collectors.toMap(Vuelo::getId, Function.identity()));
+
+        List<Reserva> reservas = new ArrayList<>();
+        for (ReservaDTO s : solicitudes) {
+            Vuelo vuelo = vuelos.get(s.getVueloId());
+            Reserva r = new Reserva();
+            r.setUsuario(usuario);
+            r.setVuelo(vuelo);
+            r.setCantidad(s.getCantidad());
+            r.setEstado("CONFIRMADA");
+            Double cotizado = cotizados.get(s);
+            r.setPrecioUnitario(cotizado != null ? cotizado : tarifaAntesDe(vuelo, porVuelo.get(s.getVueloId())));
+            r.setAsientos(String.join(",", mapaAsientosService.asignar(vuelo, s.getCantidad(), null)));
+            reservas.add(r);
+        }
+        List<Reserva> guardadas = reservaRepository.saveAll(reservas);
+
+        porVuelo.forEach((vueloId, cantidad) -> eventPublisher.publishEvent(new AsientosCambiadosEvent(vueloId, -cantidad)));
+        guardadas.forEach(r -> eventPublisher.publishEvent(ReservaCambiadaEvent.creada(r)));
+        return guardadas;
+    }
+
+    // El vuelo ya tiene descontados los asientos de esta reserva: se tarifa con la ocupacion previa
+    private double tarifaAntesDe(Vuelo vuelo, int reservados) {
+        return tarifaService.tarifa(vuelo.getPrecio(), vuelo.getCapacidad(), vuelo.getDisponibles() + reservados, vuelo.getFecha());
+    }
+
+    @Transactional(readOnly = true)
     public List<Reserva> reservasPorUsuario(Long usuarioId) {
         return reservaRepository.findByUsuarioId(usuarioId);
     }
 
     public List<Reserva> reservasPorUsername(String username) {
+        return reservasPorUsername(username, false);
+    }
+
+    /** Con {@code historial} agrega al final las reservas de vuelos ya archivados. */
+    @Transactional(readOnly = true)
+    public List<Reserva> reservasPorUsername(String username, boolean historial) {
         Usuario usuario = usuarioRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("Usuario no encontrado: " + username));
-        return reservaRepository.findByUsuarioId(usuario.getId());
+        List<Reserva> reservas = reservaRepository.findByUsuarioId(usuario.getId());
+        if (historial) {
+            reservas = new ArrayList<>(reservas);
+            for (ReservaHistorica h : reservaHistoricaRepository.findByUsuarioId(usuario.getId())) {
+                reservas.add(h.aReserva(usuario));
+            }
+        }
+        return reservas;
     }
 
+    @Transactional(readOnly = true)
     public List<Reserva> reservasPorVuelo(Long vueloId) {
         return reservaRepository.findByVueloId(vueloId);
     }
 
-    public void eliminarTodasLasReservas() {
-        reservaRepository.deleteAll();
+    public ProgresoOperacion eliminarTodasLasReservas() {
+        return operacionMasivaService.purgarReservasAsync();
     }
 
     @Transactional
@@ -61,10 +187,15 @@ public class ReservaService {
             throw new RuntimeException("No autorizado para eliminar esta reserva");
         }
 
-        Vuelo vuelo = reserva.getVuelo();
-        vuelo.setDisponibles(vuelo.getDisponibles() + reserva.getCantidad());
-        vueloRepository.save(vuelo);
-
+        Long vueloId = reserva.getVuelo().getId();
+        vueloRepository.liberarAsientos(vueloId, reserva.getCantidad());
+        if (reserva.getAsientos() != null) {
+            mapaAsientosService.liberar(vueloId, List.of(reserva.getAsientos()));
+        }
         reservaRepository.deleteById(reservaId);
+
+        // La lista de espera se promueve en segundo plano despues del commit
+        eventPublisher.publishEvent(new AsientosCambiadosEvent(vueloId, reserva.getCantidad()));
+        eventPublisher.publishEvent(ReservaCambiadaEvent.cancelada(reserva));
     }
 }
@@ -0,0 +1,175 @@
+package com.vueloscolombia.backend.service;
+
+import com.vueloscolombia.backend.model.Vuelo;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tarifa de venta a partir del precio base del vuelo, su ocupacion y los dias que faltan para la salida.
+ * Cada eje se reparte en cubetas configurables ({@code umbral:factor}); la tarifa es el precio base por
+ * los dos factores, redondeada. Todo se calcula en memoria con los datos que ya trae el vuelo, y el
+ * resultado se memoriza por (precio base, cubeta de ocupacion, cubeta de anticipacion).
+ */
+@Service
+public class TarifaService {
+
+    @Value("${app.tarifas.habilitada:true}")
+    private boolean habilitada;
+
+    // % de ocupacion desde el que aplica cada factor
+    @Value("${app.tarifas.ocupacion:0:0.90,50:1.00,70:1.15,85:1.35,95:1.60}")
+    private String ocupacion;
+
+    // Dias hasta la salida desde los que aplica cada factor
+    @Value("${app.tarifas.anticipacion:0:1.40,3:1.25,7:1.10,21:1.00,60:0.90}")
+    private String anticipacion;
+
+    @Value("${app.tarifas.redondeo:100}")
+    private double redondeo;
+
+    @Value("${app.tarifas.zona:America/Bogota}")
+    private ZoneId zona;
+
+    private static final int MAX_MEMORIZADAS = 50_000;
+
+    private Cubetas porOcupacion;
+    private Cubetas porAnticipacion;
+    private final Map<Clave, Double> memorizadas = new ConcurrentHashMap<>();
+
+    /** Umbrales ascendentes con su factor; la cubeta es la del mayor umbral que no supera el valor. */
+    private static final class Cubetas {
+        final int[] umbrales;
+        final double[] factores;
+
+        Cubetas(String definicion, String nombre) {
+            String[] partes = definicion.split(",");
+            umbrales = new int[partes.length];
+            factores = new double[partes.length];
+            try {
+                for (int i = 0; i < partes.length; i++) {
+                    String[] p = partes[i].trim().split(":");
+                    umbrales[i] = Integer.parseInt(p[0].trim());
+                    factores[i] = Double.parseDouble(p[1].trim());
+                    if (factores[i] <= 0 || (i > 0 && umbrales[i] <= umbrales[i - 1])) {
+                        throw new IllegalArgumentException();
+                    }
+                }
+            } catch (RuntimeException e) {
+                throw new RuntimeException("Cubetas de " + nombre + " invalidas: '" + definicion
+                        + "' (use umbral:factor ascendentes, separados por coma)");
+            }
+        }
+
+        int cubeta(long valor) {
+            int i = Arrays.binarySearch(umbrales, (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, valor)));
+            return i >= 0 ? i : Math.max(0, -i - 2);
+        }
+    }
+
+    private static final class Clave {
+        final double precio;
+        final int ocupacion;
+        final int anticipacion;
+
+        Clave(double precio, int ocupacion, int anticipacion) {
+            this.precio = precio;
+            this.ocupacion = ocupacion;
+            this.anticipacion = anticipacion;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Clave c && c.precio == precio && c.ocupacion == ocupacion && c.anticipacion == anticipacion;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(precio, ocupacion, anticipacion);
+        }
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        porOcupacion = new Cubetas(ocupacion, "ocupacion");
+        porAnticipacion = new Cubetas(anticipacion, "anticipacion");
+    }
+
+    /** Tarifa por asiento; {@code disponibles} es lo que queda antes de la venta que se cotiza. */
+    public double tarifa(double precioBase, Integer capacidad, int disponibles, String fecha) {
+        if (!habilitada) {
+            return precioBase;
+        }
+        return tarifa(precioBase, cubetaOcupacion(capacidad, disponibles), cubetaAnticipacion(fecha));
+    }
+
+    /** Igual, con el dia de salida ya convertido (dias desde la epoca), para recorridos sobre muchos tramos. */
+    public double tarifa(double precioBase, Integer capacidad, int disponibles, long diaSalida) {
+        if (!habilitada) {
+            return precioBase;
+        }
+        return tarifa(precioBase, cubetaOcupacion(capacidad, disponibles), cubetaAnticipacion(diaSalida));
+    }
+
+    private double tarifa(double precioBase, int cubetaOcupacion, int cubetaAnticipacion) {
+        Clave clave = new Clave(precioBase, cubetaOcupacion, cubetaAnticipacion);
+        Double memorizada = memorizadas.get(clave);
+        if (memorizada != null) {
+            return memorizada;
+        }
+        double factor = (clave.ocupacion < 0 ? 1 : porOcupacion.factores[clave.ocupacion])
+                * (clave.anticipacion < 0 ? 1 : porAnticipacion.factores[clave.anticipacion]);
+        double tarifa = redondeo > 0 ? Math.round(precioBase * factor / redondeo) * redondeo : precioBase * factor;
+        if (memorizadas.size() >= MAX_MEMORIZADAS) {
+            memorizadas.clear();
+        }
+        memorizadas.put(clave, tarifa);
+        return tarifa;
+    }
+
+    public double tarifa(Vuelo v) {
+        return tarifa(v.getPrecio(), v.getCapacidad(), v.getDisponibles(), v.getFecha());
+    }
+
+    /** Deja la tarifa actual en el vuelo (campo transitorio) para mostrarla junto al precio base. */
+    public Vuelo aplicar(Vuelo v) {
+        v.setTarifa(tarifa(v));
+        return v;
+    }
+
+    public void aplicar(Collection<Vuelo> vuelos) {
+        for (Vuelo v : vuelos) {
+            aplicar(v);
+        }
+    }
+
+    /** -1 si no se conoce la capacidad: la ocupacion no mueve la tarifa. */
+    public int cubetaOcupacion(Integer capacidad, int disponibles) {
+        if (capacidad == null || capacidad <= 0) {
+            return -1;
+        }
+        long vendidos = Math.max(0, capacidad - disponibles);
+        return porOcupacion.cubeta(vendidos * 100 / capacidad);
+    }
+
+    /** -1 si la fecha no es valida: la anticipacion no mueve la tarifa. */
+    public int cubetaAnticipacion(String fecha) {
+        try {
+            return cubetaAnticipacion(LocalDate.parse(fecha).toEpochDay());
+        } catch (RuntimeException e) {
+            return -1;
+        }
+    }
+
+    public int cubetaAnticipacion(long diaSalida) {
+        return porAnticipacion.cubeta(Math.max(0, diaSalida - LocalDate.now(zona).toEpochDay()));
+    }
+}
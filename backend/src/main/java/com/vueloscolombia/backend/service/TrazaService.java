@@ -0,0 +1,70 @@
+package com.vueloscolombia.backend.service;
+
+import com.vueloscolombia.backend.dto.TrazaDTO;
+import com.vueloscolombia.backend.traza.Traza;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Las peticiones muestreadas mas lentas (sobre el umbral de lentitud), en un monticulo acotado por
+ * duracion: al llenarse, una traza nueva solo entra si es mas lenta que la mas rapida guardada, que
+ * sale. La consulta las devuelve de la mas lenta a la mas rapida.
+ */
+@Service
+public class TrazaService {
+
+    private final int capacidad;
+    private final PriorityQueue<Traza> lentas;
+
+    @Value("${app.traza.umbral-lento-ms:0}")
+    private double umbralLentoMs;
+
+    public TrazaService(@Value("${app.traza.capacidad:200}") int capacidad) {
+        this.capacidad = capacidad;
+        this.lentas = new PriorityQueue<>(capacidad, Comparator.comparingDouble(Traza::getTotalMs));
+    }
+
+    public void registrar(Traza traza) {
+        if (traza.getTotalMs() < umbralLentoMs) {
+            return;
+        }
+        synchronized (lentas) {
+            if (lentas.size() < capacidad) {
+                lentas.add(traza);
+            } else if (traza.getTotalMs() > lentas.peek().getTotalMs()) {
+                lentas.poll();
+                lentas.add(traza);
+            }
+        }
+    }
+
+    public List<TrazaDTO> masLentas(int limite) {
+        List<Traza> trazas;
+        synchronized (lentas) {
+            trazas = new ArrayList<>(lentas);
+        }
+        trazas.sort(Comparator.comparingDouble(Traza::getTotalMs).reversed());
+        List<TrazaDTO> lista = new ArrayList<>();
+        for (Traza t : trazas.subList(0, Math.min(Math.max(limite, 0), trazas.size()))) {
+            Map<String, Double> fases = new LinkedHashMap<>();
+            Map<String, Integer> sentencias = new LinkedHashMap<>();
+            for (Traza.Fase f : Traza.Fase.values()) {
+                String nombre = f.name().toLowerCase(Locale.ROOT);
+                fases.put(nombre, t.getMs(f));
+                if (t.getSentencias(f) > 0) {
+                    sentencias.put(nombre, t.getSentencias(f));
+                }
+            }
+            lista.add(new TrazaDTO(t.getFecha(), t.getMetodo(), t.getRuta(), t.getEstado(), t.getTotalMs(), fases, sentencias));
+        }
+        return lista;
+    }
+}
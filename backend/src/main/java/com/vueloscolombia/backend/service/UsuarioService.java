@@ -1,10 +1,18 @@
 package com.vueloscolombia.backend.service;
 
+import com.vueloscolombia.backend.dto.PaginaDTO;
 import com.vueloscolombia.backend.dto.UsuarioDTO;
+import com.vueloscolombia.backend.dto.UsuarioResumenDTO;
+import com.vueloscolombia.backend.evento.UsuarioCambiadoEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import com.vueloscolombia.backend.repository.UsuarioRepository;
 import com.vueloscolombia.backend.model.Usuario;
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
@@ -13,7 +21,73 @@ public class UsuarioService {
     @Autowired
     private UsuarioRepository usuarioRepository;
 
-    public List<Usuario> listar() { return usuarioRepository.findAll(); }
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private static final int TAMANO_MAXIMO = 200;
+
+    /**
+     * Directorio paginado por llave: {@code despues} es el cursor devuelto por la pagina anterior
+     * (ultimo id, o ultimo username cuando se ordena por username). Los filtros son excluyentes:
+     * documento exacto, prefijo de nombre/apellido o prefijo de username.
+     */
+    @Transactional(readOnly = true)
+    public PaginaDTO<UsuarioResumenDTO> listar(String documento, String nombre, String username,
+                                               String orden, String despues, int tamano) {
+        if (tamano < 1 || tamano > TAMANO_MAXIMO) {
+            throw new RuntimeException("El tamano de pagina debe estar entre 1 y " + TAMANO_MAXIMO);
+        }
+        // Se pide una fila de mas para saber si existe pagina siguiente sin contar la tabla
+        Pageable limite = PageRequest.of(0, tamano + 1);
+        boolean porUsername;
+        List<UsuarioResumenDTO> filas;
+        if (vacio(documento) && vacio(nombre) && vacio(username)) {
+            porUsername = "username".equalsIgnoreCase(orden);
+            filas = porUsername
+                    ? usuarioRepository.directorioPorUsername(despues == null ? "" : despues, limite)
+                    : usuarioRepository.directorioPorId(cursorId(despues), limite);
+        } else if (!vacio(documento)) {
+            porUsername = false;
+            filas = usuarioRepository.directorioPorDocumento(documento.trim(), cursorId(despues), limite);
+        } else if (!vacio(nombre)) {
+            porUsername = false;
+            filas = porPrefijoNombre(prefijo(nombre), cursorId(despues), limite);
+        } else {
+            porUsername = true;
+            filas = usuarioRepository.directorioPorPrefijoUsername(prefijo(username), despues == null ? "" : despues, limite);
+        }
+
+        String siguiente = null;
+        if (filas.size() > tamano) {
+            filas = filas.subList(0, tamano);
+            UsuarioResumenDTO ultimo = filas.get(tamano - 1);
+            siguiente = porUsername ? ultimo.getUsername() : String.valueOf(ultimo.getId());
+        }
+        return new PaginaDTO<>(filas, siguiente);
+    }
+
+    // Un OR entre las dos columnas no usa ningun indice; se consulta cada una y se mezclan por id sin repetir
+    private List<UsuarioResumenDTO> porPrefijoNombre(String prefijo, Long despues, Pageable limite) {
+        List<UsuarioResumenDTO> apellidos = usuarioRepository.directorioPorPrefijoApellido(prefijo, despues, limite);
+        List<UsuarioResumenDTO> nombres = usuarioRepository.directorioPorPrefijoPrimerNombre(prefijo, despues, limite);
+        List<UsuarioResumenDTO> filas = new ArrayList<>(limite.getPageSize());
+        int i = 0, j = 0;
+        while (filas.size() < limite.getPageSize() && (i < apellidos.size() || j < nombres.size())) {
+            UsuarioResumenDTO a = i < apellidos.size() ? apellidos.get(i) : null;
+            UsuarioResumenDTO n = j < nombres.size() ? nombres.get(j) : null;
+            if (n == null || (a != null && a.getId() < n.getId())) {
+                filas.add(a);
+                i++;
+            } else {
+                if (a != null && a.getId().equals(n.getId())) {
+                    i++;
+                }
+                filas.add(n);
+                j++;
+            }
+        }
+        return filas;
+    }
 
     public Usuario obtenerPorUsername(String username) {
         return usuarioRepository.findByUsername(username)
@@ -34,6 +108,30 @@ public class UsuarioService {
         existingUser.setFechaNacimiento(usuarioDTO.getFechaNacimiento());
         existingUser.setUsername(usuarioDTO.getUsername());
 
-        return usuarioRepository.save(existingUser);
+        Usuario guardado = usuarioRepository.save(existingUser);
+        // Si cambio el username, las copias bajo el nombre anterior tambien quedan obsoletas
+        eventPublisher.publishEvent(new UsuarioCambiadoEvent(username, false));
+        if (!username.equals(guardado.getUsername())) {
+            eventPublisher.publishEvent(new UsuarioCambiadoEvent(guardado.getUsername(), false));
+        }
+        return guardado;
+    }
+
+    private static boolean vacio(String valor) {
+        return valor == null || valor.isBlank();
+    }
+
+    private static Long cursorId(String despues) {
+        if (vacio(despues)) return 0L;
+        try {
+            return Long.parseLong(despues);
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Cursor de pagina invalido: " + despues);
+        }
+    }
+
+    // Prefijo para LIKE 'abc%': se escapan los comodines para que el indice se use como rango
+    private static String prefijo(String valor) {
+        return valor.trim().replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
     }
 }
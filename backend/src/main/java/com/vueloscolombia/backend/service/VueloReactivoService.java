@@ -0,0 +1,61 @@
+package com.vueloscolombia.backend.service;
+
+import com.vueloscolombia.backend.model.Vuelo;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+/**
+ * Lecturas del catalogo por R2DBC: ni el hilo de la peticion ni una conexion JDBC quedan tomados
+ * mientras llegan las filas, y el driver solo trae mas cuando el cliente consume (contrapresion).
+ * Devuelve los mismos {@link Vuelo} que la ruta bloqueante, con su tarifa, sin pasar por JPA.
+ */
+@Service
+public class VueloReactivoService {
+
+    private static final String SQL_VUELOS = "SELECT id, disponibles, capacidad, origen, destino, precio, " +
+            "hora_salida, hora_llegada, fecha, aerolinea FROM vuelo";
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private TarifaService tarifaService;
+
+    @Value("${app.reactivo.filas-por-pedido:256}")
+    private int filasPorPedido;
+
+    public Flux<Vuelo> listar() {
+        return databaseClient.sql(SQL_VUELOS + " ORDER BY id")
+                .map(fila -> tarifaService.aplicar(vuelo(fila)))
+                .all()
+                .limitRate(filasPorPedido);
+    }
+
+    public Flux<Vuelo> buscar(String origen, String destino) {
+        return databaseClient.sql(SQL_VUELOS + " WHERE origen = :origen AND destino = :destino ORDER BY id")
+                .bind("origen", origen)
+                .bind("destino", destino)
+                .map(fila -> tarifaService.aplicar(vuelo(fila)))
+                .all()
+                .limitRate(filasPorPedido);
+    }
+
+    private static Vuelo vuelo(Readable fila) {
+        Vuelo v = new Vuelo();
+        v.setId(fila.get("id", Long.class));
+        v.setDisponibles(fila.get("disponibles", Integer.class));
+        v.setCapacidad(fila.get("capacidad", Integer.class));
+        v.setOrigen(fila.get("origen", String.class));
+        v.setDestino(fila.get("destino", String.class));
+        v.setPrecio(fila.get("precio", Double.class));
+        v.setHoraSalida(fila.get("hora_salida", String.class));
+        v.setHoraLlegada(fila.get("hora_llegada", String.class));
+        v.setFecha(fila.get("fecha", String.class));
+        v.setAerolinea(fila.get("aerolinea", String.class));
+        return v;
+    }
+}
@@ -2,6 +2,11 @@ package com.vueloscolombia.backend.service;
 
 import org.springframework.stereotype.Service;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.annotation.Transactional;
+import com.vueloscolombia.backend.evento.AsientosCambiadosEvent;
+import com.vueloscolombia.backend.evento.VueloCambiadoEvent;
+import com.vueloscolombia.backend.repository.ListaEsperaRepository;
 import com.vueloscolombia.backend.repository.VueloRepository;
 import com.vueloscolombia.backend.model.Vuelo;
 import java.util.List;
@@ -19,12 +24,50 @@ public class VueloService {
     @Autowired
     private VueloRepository vueloRepository;
 
-    public List<Vuelo> listar() { return vueloRepository.findAll(); }
+    @Autowired
+    private ListaEsperaRepository listaEsperaRepository;
+
+    @Autowired
+    private OperacionMasivaService operacionMasivaService;
 
-    public Vuelo guardar(Vuelo v) { return vueloRepository.save(v); }
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MapaAsientosService mapaAsientosService;
+
+    @Autowired
+    private TarifaService tarifaService;
+
+    @Transactional(readOnly = true)
+    public List<Vuelo> listar() {
+        List<Vuelo> vuelos = vueloRepository.findAll();
+        tarifaService.aplicar(vuelos);
+        return vuelos;
+    }
 
+    @Transactional
+    public Vuelo guardar(Vuelo v) {
+        if (v.getCapacidad() == null) {
+            v.setCapacidad(v.getDisponibles());
+        }
+        Vuelo guardado = vueloRepository.save(v);
+        eventPublisher.publishEvent(VueloCambiadoEvent.guardado(guardado));
+        return guardado;
+    }
+
+    @Transactional
     public Vuelo actualizar(Long id, Vuelo v) {
         Vuelo exist = vueloRepository.findById(id).orElseThrow();
+        // Los asientos cambian solo con la capacidad: los disponibles del formulario pueden estar atrasados
+        // respecto a las reservas hechas mientras se editaba, y restarlos devolveria asientos ya vendidos
+        int delta = 0;
+        if (v.getCapacidad() != null && !v.getCapacidad().equals(exist.getCapacidad())) {
+            if (exist.getCapacidad() == null) {
+                throw new RuntimeException("El vuelo no tiene capacidad registrada; no se puede cambiar su cupo");
+            }
+            delta = v.getCapacidad() - exist.getCapacidad();
+        }
         exist.setOrigen(v.getOrigen());
         exist.setDestino(v.getDestino());
         exist.setFecha(v.getFecha());
@@ -32,16 +75,42 @@ public class VueloService {
         exist.setHoraLlegada(v.getHoraLlegada());
         exist.setAerolinea(v.getAerolinea());
         exist.setPrecio(v.getPrecio());
-        exist.setDisponibles(v.getDisponibles());
-        return vueloRepository.save(exist);
+        vueloRepository.save(exist);
+
+        // Capacidad y disponibles se mueven juntos por diferencia, sin pisar reservas concurrentes
+        if (delta != 0) {
+            if (vueloRepository.ajustarAsientos(id, delta) == 0) {
+                throw new RuntimeException("No se pueden retirar mas asientos de los disponibles");
+            }
+            eventPublisher.publishEvent(new AsientosCambiadosEvent(id, delta));
+        }
+        Vuelo actualizado = vueloRepository.findById(id).orElseThrow();
+        if (delta != 0 && actualizado.getCapacidad() != null) {
+            mapaAsientosService.redimensionar(id, actualizado.getCapacidad());
+        }
+        eventPublisher.publishEvent(VueloCambiadoEvent.guardado(actualizado));
+        return actualizado;
     }
 
-    public void eliminar(Long id) { vueloRepository.deleteById(id); }
+    @Transactional
+    public void eliminar(Long id) {
+        // Primero lo que apunta al vuelo (reservas y lista de espera), para no violar las llaves foraneas;
+        // todo en la misma transaccion que el borrado del vuelo
+        operacionMasivaService.eliminarReservasDeVuelos(List.of(id));
+        listaEsperaRepository.eliminarPorVuelos(List.of(id));
+        mapaAsientosService.eliminar(List.of(id));
+        vueloRepository.deleteById(id);
+        eventPublisher.publishEvent(VueloCambiadoEvent.eliminado(id));
+    }
 
+    @Transactional(readOnly = true)
     public List<Vuelo> buscar(String origen, String destino) {
-        return vueloRepository.findByOrigenAndDestino(origen, destino);
+        List<Vuelo> vuelos = vueloRepository.findByOrigenAndDestino(origen, destino);
+        tarifaService.aplicar(vuelos);
+        return vuelos;
     }
 
+    @Transactional(readOnly = true)
     public byte[] generarReporteVuelosPDF() throws IOException {
         List<Vuelo> vuelos = vueloRepository.findAll();
         
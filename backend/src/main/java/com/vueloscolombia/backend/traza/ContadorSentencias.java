@@ -0,0 +1,20 @@
+package com.vueloscolombia.backend.traza;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Cuenta las sentencias SQL de la peticion trazada por fase; asi se ven, por ejemplo, las cargas
+ * perezosas que dispara Jackson al serializar. Se registra con
+ * {@code spring.jpa.properties.hibernate.session_factory.statement_inspector}.
+ */
+public class ContadorSentencias implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        Traza traza = Traza.actual();
+        if (traza != null) {
+            traza.sentencia();
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,131 @@
+package com.vueloscolombia.backend.traza;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Locale;
+
+/**
+ * Tiempos de una peticion muestreada, repartidos por fase. Cada fase acumula su tiempo exclusivo:
+ * un servicio que llama a un repositorio no cuenta el tiempo del repositorio. Lo que pasa antes del
+ * controlador (cadena de filtros, incluido {@code JwtFilter}) es FILTRO y lo que pasa despues
+ * (Jackson y cargas perezosas al serializar) es SERIALIZACION. Solo la usa el hilo de la peticion.
+ */
+public class Traza {
+
+    public enum Fase { FILTRO, CONTROLADOR, SERVICIO, REPOSITORIO, SERIALIZACION }
+
+    private static final ThreadLocal<Traza> ACTUAL = new ThreadLocal<>();
+
+    public static Traza actual() {
+        return ACTUAL.get();
+    }
+
+    static void iniciar(Traza traza) {
+        ACTUAL.set(traza);
+    }
+
+    static void terminar() {
+        ACTUAL.remove();
+    }
+
+    public static final class Marco {
+        private final Fase fase;
+        private final long inicio;
+        private long hijos;
+
+        private Marco(Fase fase, long inicio) {
+            this.fase = fase;
+            this.inicio = inicio;
+        }
+    }
+
+    private final Instant fecha = Instant.now();
+    private final long inicio = System.nanoTime();
+    private final String metodo;
+    private final String ruta;
+    private final long[] exclusivo = new long[Fase.values().length];
+    private final int[] sentencias = new int[Fase.values().length];
+    // Tiempo de servicios y repositorios llamados fuera del controlador (p. ej. desde JwtFilter)
+    private final long[] fueraDelControlador = new long[Fase.values().length];
+    private final ArrayDeque<Marco> pila = new ArrayDeque<>();
+    private long inicioControlador = -1;
+    private long finControlador = -1;
+    private long total;
+    private int estado;
+
+    public Traza(String metodo, String ruta) {
+        this.metodo = metodo;
+        this.ruta = ruta;
+    }
+
+    public Marco entrar(Fase fase) {
+        long ahora = System.nanoTime();
+        if (pila.isEmpty() && fase == Fase.CONTROLADOR && inicioControlador < 0) {
+            inicioControlador = ahora;
+        }
+        Marco m = new Marco(fase, ahora);
+        pila.push(m);
+        return m;
+    }
+
+    public void salir(Marco m) {
+        long ahora = System.nanoTime();
+        pila.remove(m);
+        long duracion = ahora - m.inicio;
+        exclusivo[m.fase.ordinal()] += duracion - m.hijos;
+        Marco padre = pila.peek();
+        if (padre != null) {
+            padre.hijos += duracion;
+        } else if (m.fase == Fase.CONTROLADOR) {
+            finControlador = ahora;
+        } else {
+            fueraDelControlador[faseAmbiente().ordinal()] += duracion;
+        }
+    }
+
+    /** Una sentencia SQL preparada en la fase actual. */
+    public void sentencia() {
+        Marco m = pila.peek();
+        sentencias[(m != null ? m.fase : faseAmbiente()).ordinal()]++;
+    }
+
+    void cerrar(int estado) {
+        long fin = System.nanoTime();
+        this.estado = estado;
+        this.total = fin - inicio;
+        long finFiltro = inicioControlador >= 0 ? inicioControlador : fin;
+        exclusivo[Fase.FILTRO.ordinal()] = finFiltro - inicio - fueraDelControlador[Fase.FILTRO.ordinal()];
+        if (finControlador >= 0) {
+            exclusivo[Fase.SERIALIZACION.ordinal()] = fin - finControlador - fueraDelControlador[Fase.SERIALIZACION.ordinal()];
+        }
+    }
+
+    /** Valor de la cabecera {@code Server-Timing}. */
+    public String serverTiming() {
+        StringBuilder sb = new StringBuilder();
+        for (Fase f : Fase.values()) {
+            sb.append(f.name().toLowerCase(Locale.ROOT)).append(";dur=").append(ms(exclusivo[f.ordinal()]));
+            if (sentencias[f.ordinal()] > 0) {
+                sb.append(";desc=\"").append(sentencias[f.ordinal()]).append(" sql\"");
+            }
+            sb.append(", ");
+        }
+        return sb.append("total;dur=").append(ms(total)).toString();
+    }
+
+    private Fase faseAmbiente() {
+        return inicioControlador < 0 ? Fase.FILTRO : Fase.SERIALIZACION;
+    }
+
+    private static String ms(long nanos) {
+        return String.format(Locale.ROOT, "%.2f", nanos / 1e6);
+    }
+
+    public Instant getFecha() { return fecha; }
+    public String getMetodo() { return metodo; }
+    public String getRuta() { return ruta; }
+    public int getEstado() { return estado; }
+    public double getTotalMs() { return total / 1e6; }
+    public double getMs(Fase fase) { return exclusivo[fase.ordinal()] / 1e6; }
+    public int getSentencias(Fase fase) { return sentencias[fase.ordinal()]; }
+}
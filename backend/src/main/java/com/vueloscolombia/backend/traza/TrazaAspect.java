@@ -0,0 +1,41 @@
+package com.vueloscolombia.backend.traza;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/** Mide controladores, servicios y repositorios; sin traza activa solo cuesta leer un ThreadLocal. */
+@Aspect
+@Component
+public class TrazaAspect {
+
+    @Around("within(com.vueloscolombia.backend..*) && @within(org.springframework.web.bind.annotation.RestController)")
+    public Object controlador(ProceedingJoinPoint pjp) throws Throwable {
+        return medir(pjp, Traza.Fase.CONTROLADOR);
+    }
+
+    @Around("within(com.vueloscolombia.backend..*) && @within(org.springframework.stereotype.Service)")
+    public Object servicio(ProceedingJoinPoint pjp) throws Throwable {
+        return medir(pjp, Traza.Fase.SERVICIO);
+    }
+
+    // Los repositorios de Spring Data son proxies JDK: se reconocen por la interfaz, no por el paquete
+    @Around("this(org.springframework.data.repository.Repository)")
+    public Object repositorio(ProceedingJoinPoint pjp) throws Throwable {
+        return medir(pjp, Traza.Fase.REPOSITORIO);
+    }
+
+    private static Object medir(ProceedingJoinPoint pjp, Traza.Fase fase) throws Throwable {
+        Traza traza = Traza.actual();
+        if (traza == null) {
+            return pjp.proceed();
+        }
+        Traza.Marco marco = traza.entrar(fase);
+        try {
+            return pjp.proceed();
+        } finally {
+            traza.salir(marco);
+        }
+    }
+}
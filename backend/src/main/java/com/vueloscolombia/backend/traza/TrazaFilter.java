@@ -0,0 +1,104 @@
+package com.vueloscolombia.backend.traza;
+
+import com.vueloscolombia.backend.security.JwtUtil;
+import com.vueloscolombia.backend.service.TrazaService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * Primer filtro de la cadena: decide si la peticion se muestrea ({@code app.traza.muestreo}, o
+ * siempre con la cabecera {@code X-Traza} si la envia un administrador). Las muestreadas retienen el cuerpo hasta el final para
+ * poder enviar {@code Server-Timing} con la serializacion ya medida; las demas pasan sin costo.
+ * Tambien fija el identificador de correlacion de toda peticion ({@code X-Correlation-Id}, o uno nuevo)
+ * en el MDC, de donde lo toma cada linea de log, y lo devuelve en la respuesta.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TrazaFilter extends OncePerRequestFilter {
+
+    public static final String CABECERA_CORRELACION = "X-Correlation-Id";
+    public static final String MDC_CORRELACION = "correlacion";
+    // Lo que llega del cliente termina en el log: solo se acepta si es corto y sin caracteres raros
+    private static final Pattern CORRELACION_VALIDA = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    @Autowired
+    private TrazaService trazaService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Value("${app.traza.muestreo:0.01}")
+    private double muestreo;
+
+    // Respuestas en streaming o asincronas que no conviene retener en memoria
+    @Value("${app.traza.excluir:/api/admin/exportaciones,/api/vuelos/flujo}")
+    private List<String> excluir;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String correlacion = request.getHeader(CABECERA_CORRELACION);
+        if (correlacion == null || !CORRELACION_VALIDA.matcher(correlacion).matches()) {
+            correlacion = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        }
+        MDC.put(MDC_CORRELACION, correlacion);
+        response.setHeader(CABECERA_CORRELACION, correlacion);
+        try {
+            filtrar(request, response, chain);
+        } finally {
+            MDC.remove(MDC_CORRELACION);
+        }
+    }
+
+    private void filtrar(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!muestrear(request)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        Traza traza = new Traza(request.getMethod(), request.getRequestURI());
+        ContentCachingResponseWrapper envoltura = new ContentCachingResponseWrapper(response);
+        Traza.iniciar(traza);
+        try {
+            chain.doFilter(request, envoltura);
+        } finally {
+            Traza.terminar();
+            traza.cerrar(envoltura.getStatus());
+            if (!response.isCommitted()) {
+                envoltura.setHeader("Server-Timing", traza.serverTiming());
+            }
+            envoltura.copyBodyToResponse();
+            trazaService.registrar(traza);
+        }
+    }
+
+    private boolean muestrear(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        for (String prefijo : excluir) {
+            if (uri.startsWith(prefijo)) return false;
+        }
+        return (request.getHeader("X-Traza") != null && esAdministrador(request))
+                || ThreadLocalRandom.current().nextDouble() < muestreo;
+    }
+
+    // Este filtro corre antes que el de seguridad: el rol se toma del token; para cualquier otro la cabecera no cuenta
+    private boolean esAdministrador(HttpServletRequest request) {
+        String header = request.getHeader("Authorization");
+        return header != null && header.startsWith("Bearer ") && jwtUtil.tieneRol(header.substring(7), "ROLE_ADMIN");
+    }
+}
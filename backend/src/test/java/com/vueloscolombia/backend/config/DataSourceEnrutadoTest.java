@@ -0,0 +1,123 @@
+package com.vueloscolombia.backend.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DataSourceEnrutadoTest {
+
+    private ReplicaSimulada replica1;
+    private ReplicaSimulada replica2;
+    private DataSourceEnrutado enrutado;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate lectura;
+    private TransactionTemplate escritura;
+
+    @BeforeEach
+    void preparar() {
+        replica1 = new ReplicaSimulada(h2("replica1"));
+        replica2 = new ReplicaSimulada(h2("replica2"));
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-0", replica1);
+        replicas.put("replica-1", replica2);
+        enrutado = new DataSourceEnrutado(h2("primaria"), replicas, 200);
+
+        DataSource ds = new LazyConnectionDataSourceProxy(enrutado);
+        DataSourceTransactionManager tm = new DataSourceTransactionManager(ds);
+        jdbc = new JdbcTemplate(ds);
+        escritura = new TransactionTemplate(tm);
+        lectura = new TransactionTemplate(tm);
+        lectura.setReadOnly(true);
+    }
+
+    @AfterEach
+    void limpiar() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void escriturasVanALaPrimaria() {
+        assertEquals("PRIMARIA", base(escritura));
+    }
+
+    @Test
+    void lecturasRotanEntreReplicas() {
+        Set<String> usadas = new HashSet<>();
+        for (int i = 0; i < 4; i++) {
+            usadas.add(base(lectura));
+        }
+        assertEquals(Set.of("REPLICA1", "REPLICA2"), usadas);
+    }
+
+    @Test
+    void replicaCaidaSaleDelTurno() {
+        replica1.caida = true;
+        enrutado.verificarReplicas();
+        for (int i = 0; i < 4; i++) {
+            assertEquals("REPLICA2", base(lectura));
+        }
+
+        replica2.caida = true;
+        enrutado.verificarReplicas();
+        assertEquals("PRIMARIA", base(lectura));
+
+        replica1.caida = false;
+        enrutado.verificarReplicas();
+        assertEquals("REPLICA1", base(lectura));
+    }
+
+    @Test
+    void usuarioQueEscribeLeeDeLaPrimariaDuranteLaVentana() throws InterruptedException {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("pepito@gmail.com", null, List.of()));
+        assertEquals("PRIMARIA", base(escritura));
+        assertEquals("PRIMARIA", base(lectura));
+
+        Thread.sleep(250);
+        assertEquals(Set.of("REPLICA1", "REPLICA2"), Set.of(base(lectura), base(lectura)));
+    }
+
+    private String base(TransactionTemplate tx) {
+        return tx.execute(s -> jdbc.queryForObject("SELECT DATABASE()", String.class));
+    }
+
+    private static DataSource h2(String nombre) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + nombre + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+
+    /** Replica que se puede "apagar" para probar la verificacion de salud. */
+    private static class ReplicaSimulada extends DelegatingDataSource {
+        volatile boolean caida;
+
+        ReplicaSimulada(DataSource destino) {
+            super(destino);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (caida) {
+                throw new SQLException("Replica caida");
+            }
+            return super.getConnection();
+        }
+    }
+}
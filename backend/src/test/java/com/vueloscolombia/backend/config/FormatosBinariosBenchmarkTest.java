@@ -0,0 +1,90 @@
+package com.vueloscolombia.backend.config;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.vueloscolombia.backend.model.Vuelo;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compara tamano y tiempos de codificacion/decodificacion de una respuesta de 10.000 vuelos en JSON,
+ * CBOR y Smile. Registra la tabla en el log de la prueba; solo falla si un formato binario no
+ * reduce el tamano o si el viaje de ida y vuelta pierde datos.
+ */
+@Tag("benchmark")
+class FormatosBinariosBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(FormatosBinariosBenchmarkTest.class);
+    private static final int VUELOS = 10_000;
+    private static final int CALENTAMIENTO = 5;
+    private static final int MEDICIONES = 10;
+    private static final TypeReference<List<Vuelo>> LISTA_VUELOS = new TypeReference<>() {};
+
+    @Test
+    void comparaJsonCborYSmile() throws Exception {
+        List<Vuelo> vuelos = vuelos();
+        Resultado json = medir("JSON", new Jackson2ObjectMapperBuilder().build(), vuelos);
+        Resultado cbor = medir("CBOR", new Jackson2ObjectMapperBuilder().factory(new CBORFactory()).build(), vuelos);
+        Resultado smile = medir("Smile", new Jackson2ObjectMapperBuilder().factory(new SmileFactory()).build(), vuelos);
+
+        logger.info(String.format("%-6s %12s %8s %14s %14s", "Formato", "Bytes", "vs JSON", "Codificar ms", "Decodificar ms"));
+        for (Resultado r : List.of(json, cbor, smile)) {
+            logger.info(String.format("%-6s %12d %7.0f%% %14.2f %14.2f", r.formato, r.bytes,
+                    100.0 * r.bytes / json.bytes, r.codificarMs, r.decodificarMs));
+        }
+        assertTrue(cbor.bytes < json.bytes);
+        assertTrue(smile.bytes < json.bytes);
+    }
+
+    private static Resultado medir(String formato, ObjectMapper mapper, List<Vuelo> vuelos) throws Exception {
+        byte[] datos = null;
+        List<Vuelo> leidos = null;
+        for (int i = 0; i < CALENTAMIENTO; i++) {
+            datos = mapper.writeValueAsBytes(vuelos);
+            leidos = mapper.readValue(datos, LISTA_VUELOS);
+        }
+        long codificar = 0, decodificar = 0;
+        for (int i = 0; i < MEDICIONES; i++) {
+            long t0 = System.nanoTime();
+            datos = mapper.writeValueAsBytes(vuelos);
+            long t1 = System.nanoTime();
+            leidos = mapper.readValue(datos, LISTA_VUELOS);
+            long t2 = System.nanoTime();
+            codificar += t1 - t0;
+            decodificar += t2 - t1;
+        }
+        assertEquals(vuelos.size(), leidos.size());
+        Vuelo ultimo = leidos.get(leidos.size() - 1);
+        assertEquals(vuelos.get(vuelos.size() - 1).getId(), ultimo.getId());
+        assertEquals(vuelos.get(vuelos.size() - 1).getHoraSalida(), ultimo.getHoraSalida());
+        return new Resultado(formato, datos.length, codificar / 1e6 / MEDICIONES, decodificar / 1e6 / MEDICIONES);
+    }
+
+    private static List<Vuelo> vuelos() {
+        String[] ciudades = {"BOG", "MED", "CLO", "CTG", "BAQ", "SMR", "BGA", "PEI"};
+        String[] aerolineas = {"Avianca", "LATAM", "Wingo", "Clic"};
+        List<Vuelo> vuelos = new ArrayList<>(VUELOS);
+        for (int i = 0; i < VUELOS; i++) {
+            Vuelo v = new Vuelo(ciudades[i % 8], ciudades[(i + 3) % 8], 150000 + (i % 40) * 5000,
+                    String.format("%02d:%02d", i % 24, (i * 7) % 60), String.format("%02d:%02d", (i + 1) % 24, (i * 7) % 60),
+                    i % 180, String.format("2026-%02d-%02d", i % 12 + 1, i % 28 + 1), aerolineas[i % 4]);
+            v.setId((long) i + 1);
+            v.setCapacidad(180);
+            vuelos.add(v);
+        }
+        return vuelos;
+    }
+
+    private record Resultado(String formato, int bytes, double codificarMs, double decodificarMs) {}
+}
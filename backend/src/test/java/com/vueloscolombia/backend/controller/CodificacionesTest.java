@@ -0,0 +1,37 @@
+package com.vueloscolombia.backend.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Negociacion de gzip para el catalogo y las exportaciones segun los pesos de Accept-Encoding. */
+class CodificacionesTest {
+
+    @Test
+    void gzipSegunAcceptEncoding() {
+        assertTrue(Codificaciones.aceptaGzip(List.of("gzip", "deflate", "br")));
+        assertTrue(Codificaciones.aceptaGzip(List.of("br;q=1.0", "gzip;q=0.8")));
+        assertTrue(Codificaciones.aceptaGzip(List.of("x-gzip")));
+        assertTrue(Codificaciones.aceptaGzip(List.of("*")));
+        assertFalse(Codificaciones.aceptaGzip(List.of()));
+        assertFalse(Codificaciones.aceptaGzip(List.of("gzip;q=0")));
+        assertFalse(Codificaciones.aceptaGzip(List.of("GZIP; q=0.000")));
+        assertFalse(Codificaciones.aceptaGzip(List.of("identity", "br")));
+        assertFalse(Codificaciones.aceptaGzip(List.of("*", "gzip;q=0")));
+        assertFalse(Codificaciones.aceptaGzip(List.of("*;q=0")));
+    }
+
+    @Test
+    void gzipDesdeLaCabeceraCompleta() {
+        HttpHeaders cabeceras = new HttpHeaders();
+        assertFalse(Codificaciones.aceptaGzip(cabeceras));
+        cabeceras.set(HttpHeaders.ACCEPT_ENCODING, "br, gzip;q=0");
+        assertFalse(Codificaciones.aceptaGzip(cabeceras));
+        cabeceras.set(HttpHeaders.ACCEPT_ENCODING, "deflate, gzip;q=0.5");
+        assertTrue(Codificaciones.aceptaGzip(cabeceras));
+    }
+}
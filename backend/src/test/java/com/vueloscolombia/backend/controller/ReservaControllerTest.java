@@ -0,0 +1,153 @@
+package com.vueloscolombia.backend.controller;
+
+import com.vueloscolombia.backend.model.Vuelo;
+import com.vueloscolombia.backend.repository.ReservaRepository;
+import com.vueloscolombia.backend.repository.VueloRepository;
+import com.vueloscolombia.backend.security.CustomUserDetails;
+import com.vueloscolombia.backend.security.CustomUserDetailsService;
+import com.vueloscolombia.backend.security.JwtUtil;
+import com.vueloscolombia.backend.service.MapaAsientosService;
+import com.vueloscolombia.backend.service.VueloService;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Ida y vuelta: una sola peticion a {@code /api/reservas/lote} con los dos tramos contra dos peticiones
+ * de un tramo. Cuenta las sentencias SQL de cada camino con la traza de la peticion (cabecera
+ * {@code X-Traza} de un administrador, {@code Server-Timing}) y registra los tiempos. Ademas, el lote
+ * es todo o nada: si falla un tramo, el otro no queda reservado.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReservaControllerTest {
+
+    private static final String CLIENTE = "pepito@gmail.com";
+    private static final Logger logger = LoggerFactory.getLogger(ReservaControllerTest.class);
+    private static final Pattern SENTENCIAS = Pattern.compile("desc=\"(\\d+) sql\"");
+    private static final Pattern TOTAL = Pattern.compile("total;dur=([\\d.]+)");
+    private static final int REPETICIONES = 20;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private VueloService vueloService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private CustomUserDetailsService customUserDetailsService;
+
+    @Autowired
+    private VueloRepository vueloRepository;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private MapaAsientosService mapaAsientosService;
+
+    @Test
+    void idaYVueltaEnUnaPeticionUsaMenosSentencias() throws Exception {
+        Vuelo ida = vueloService.guardar(new Vuelo("BOG", "RIV", 150000, "08:00", "09:00", 200, "2027-11-01", "Avianca"));
+        Vuelo vuelta = vueloService.guardar(new Vuelo("RIV", "BOG", 150000, "18:00", "19:00", 200, "2027-11-05", "Avianca"));
+        String token = jwtUtil.generateToken((CustomUserDetails)
+                customUserDetailsService.loadUserByUsername("admin@vueloscolombia.com"));
+        String lote = "[{\"vueloId\":" + ida.getId() + ",\"cantidad\":1},{\"vueloId\":" + vuelta.getId() + ",\"cantidad\":1}]";
+
+        double[] msLote = new double[REPETICIONES], msSeparadas = new double[REPETICIONES];
+        int sentenciasLote = 0, sentenciasSeparadas = 0;
+        for (int i = 0; i < REPETICIONES; i++) {
+            Medida l = medir(post("/api/reservas/lote").contentType(MediaType.APPLICATION_JSON).content(lote), token);
+            Medida a = medir(post("/api/reservas/" + ida.getId()).param("cantidad", "1"), token);
+            Medida b = medir(post("/api/reservas/" + vuelta.getId()).param("cantidad", "1"), token);
+            msLote[i] = l.ms;
+            msSeparadas[i] = a.ms + b.ms;
+            sentenciasLote = l.sentencias;
+            sentenciasSeparadas = a.sentencias + b.sentencias;
+        }
+        logger.info("Ida y vuelta: lote {} sql, mediana {} ms; dos reservas {} sql, mediana {} ms",
+                sentenciasLote, mediana(msLote), sentenciasSeparadas, mediana(msSeparadas));
+        assertTrue(sentenciasLote < sentenciasSeparadas,
+                "El lote deberia ahorrar sentencias: " + sentenciasLote + " vs " + sentenciasSeparadas);
+    }
+
+    @Test
+    void siUnTramoNoTieneCupoElLoteNoReservaNinguno() throws Exception {
+        Vuelo ida = vueloService.guardar(new Vuelo("BOG", "RLT", 150000, "08:00", "09:00", 10, "2027-11-10", "Avianca"));
+        Vuelo vuelta = vueloService.guardar(new Vuelo("RLT", "BOG", 150000, "18:00", "19:00", 1, "2027-11-15", "Avianca"));
+        // La ida tiene id menor: su descuento se aplica antes de que falle el de la vuelta
+        assertLoteRevertido(ida, vuelta, 2, "No hay suficientes asientos en el vuelo " + vuelta.getId());
+    }
+
+    @Test
+    void siFallaElMapaDeAsientosDelSegundoTramoSeRevierteElPrimero() throws Exception {
+        Vuelo ida = vueloService.guardar(new Vuelo("BOG", "RLM", 150000, "08:00", "09:00", 10, "2027-11-10", "Avianca"));
+        // Mas sillas de las que admite el mapa: el cupo se descuenta, pero el mapa se crea despues de asignar la ida
+        Vuelo vuelta = vueloService.guardar(new Vuelo("RLM", "BOG", 150000, "18:00", "19:00", 3000, "2027-11-15", "Avianca"));
+        assertLoteRevertido(ida, vuelta, 1, "El mapa de asientos admite hasta 2048 sillas");
+    }
+
+    private void assertLoteRevertido(Vuelo ida, Vuelo vuelta, int cantidadVuelta, String error) {
+        String token = jwtUtil.generateToken((CustomUserDetails) customUserDetailsService.loadUserByUsername(CLIENTE));
+        String lote = "[{\"vueloId\":" + ida.getId() + ",\"cantidad\":2},{\"vueloId\":" + vuelta.getId()
+                + ",\"cantidad\":" + cantidadVuelta + "}]";
+
+        Exception e = assertThrows(Exception.class, () -> mockMvc.perform(post("/api/reservas/lote")
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON).content(lote)));
+        assertEquals(error, e.getCause().getMessage());
+
+        assertEquals(10, vueloRepository.findById(ida.getId()).orElseThrow().getDisponibles());
+        assertEquals(vuelta.getDisponibles(), vueloRepository.findById(vuelta.getId()).orElseThrow().getDisponibles());
+        assertTrue(reservaRepository.findByVueloId(ida.getId()).isEmpty());
+        assertTrue(reservaRepository.findByVueloId(vuelta.getId()).isEmpty());
+        assertEquals(List.of(), mapaAsientosService.consultar(ida.getId()).getOcupados());
+    }
+
+    private record Medida(int sentencias, double ms) {}
+
+    private Medida medir(MockHttpServletRequestBuilder peticion, String token) throws Exception {
+        MockHttpServletResponse r = mockMvc.perform(peticion
+                        .header("Authorization", "Bearer " + token)
+                        .header("X-Traza", "1"))
+                .andReturn().getResponse();
+        assertEquals(200, r.getStatus());
+        String tiempos = r.getHeader("Server-Timing");
+        int sentencias = 0;
+        Matcher m = SENTENCIAS.matcher(tiempos);
+        while (m.find()) {
+            sentencias += Integer.parseInt(m.group(1));
+        }
+        Matcher total = TOTAL.matcher(tiempos);
+        assertTrue(total.find());
+        return new Medida(sentencias, Double.parseDouble(total.group(1)));
+    }
+
+    private static double mediana(double[] valores) {
+        double[] copia = valores.clone();
+        Arrays.sort(copia);
+        return copia[copia.length / 2];
+    }
+}
@@ -0,0 +1,82 @@
+package com.vueloscolombia.backend.evento;
+
+import com.vueloscolombia.backend.BackendApplication;
+import com.vueloscolombia.backend.model.Vuelo;
+import com.vueloscolombia.backend.service.CatalogoCacheService;
+import com.vueloscolombia.backend.service.DisponibilidadService;
+import com.vueloscolombia.backend.service.VueloService;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Dos nodos (dos contextos de Spring) en la misma JVM sobre la misma base H2: lo que se escribe en
+ * uno debe verse en los indices y caches del otro, con el bus en memoria y con el de base de datos.
+ */
+class InvalidacionMultinodoTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"local", "base-datos"})
+    void losCambiosDeUnNodoLleganAlOtro(String bus) {
+        String base = "multinodo_" + bus.replace('-', '_');
+        try (ConfigurableApplicationContext a = nodo("a", bus, base);
+             ConfigurableApplicationContext b = nodo("b", bus, base)) {
+            VueloService vuelosA = a.getBean(VueloService.class);
+            DisponibilidadService disponibilidadB = b.getBean(DisponibilidadService.class);
+            CatalogoCacheService catalogoB = b.getBean(CatalogoCacheService.class);
+            catalogoB.catalogo(); // la cache de B queda construida antes del cambio
+
+            Vuelo v = new Vuelo();
+            v.setOrigen("BOG");
+            v.setDestino("PEI");
+            v.setFecha("2026-12-01");
+            v.setHoraSalida("08:00");
+            v.setHoraLlegada("09:00");
+            v.setAerolinea("Avianca");
+            v.setPrecio(250000);
+            v.setDisponibles(40);
+            Long id = vuelosA.guardar(v).getId();
+
+            esperar(() -> disponibilidadB.disponibles(id) == 40, "B no vio el vuelo nuevo");
+            esperar(() -> new String(catalogoB.catalogo().getJson(), StandardCharsets.UTF_8).contains("\"PEI\""),
+                    "La cache del catalogo de B sigue sin el vuelo nuevo");
+
+            v.setCapacidad(25);
+            vuelosA.actualizar(id, v);
+            esperar(() -> disponibilidadB.disponibles(id) == 25, "B no vio el ajuste de asientos");
+
+            vuelosA.eliminar(id);
+            esperar(() -> disponibilidadB.disponibles(id) == -1, "B no vio la eliminacion");
+        }
+    }
+
+    private static ConfigurableApplicationContext nodo(String nombre, String bus, String base) {
+        return new SpringApplicationBuilder(BackendApplication.class)
+                .profiles("test")
+                .run("--spring.datasource.url=jdbc:h2:mem:" + base + ";MODE=MySQL;DB_CLOSE_DELAY=-1",
+                        "--server.port=0",
+                        "--spring.jmx.enabled=false",
+                        "--app.invalidacion.bus=" + bus,
+                        "--app.invalidacion.nodo=" + nombre,
+                        "--app.invalidacion.intervalo-ms=50");
+    }
+
+    private static void esperar(BooleanSupplier condicion, String mensaje) {
+        long limite = System.currentTimeMillis() + 10_000;
+        while (!condicion.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < limite, mensaje);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.vueloscolombia.backend.security;
+
+import com.vueloscolombia.backend.model.Vuelo;
+import com.vueloscolombia.backend.repository.VueloRepository;
+import com.vueloscolombia.backend.service.ReservaService;
+import com.vueloscolombia.backend.service.VueloService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/** Borrar un vuelo arrastra sus reservas: solo un administrador puede hacerlo. */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SecurityConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private VueloService vueloService;
+
+    @Autowired
+    private VueloRepository vueloRepository;
+
+    @Autowired
+    private ReservaService reservaService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private CustomUserDetailsService customUserDetailsService;
+
+    @Test
+    void soloUnAdministradorBorraVuelos() throws Exception {
+        Vuelo vuelo = vueloService.guardar(new Vuelo("BOG", "SEG", 100000, "08:00", "09:00", 10, "2027-09-01", "Avianca"));
+        reservaService.crearReserva(vuelo.getId(), "pepito@gmail.com", 1, null, null);
+
+        mockMvc.perform(delete("/api/vuelos/" + vuelo.getId())).andExpect(status().is4xxClientError());
+        mockMvc.perform(delete("/api/vuelos/" + vuelo.getId())
+                        .header("Authorization", "Bearer " + token("pepito@gmail.com")))
+                .andExpect(status().isForbidden());
+        assertTrue(vueloRepository.existsById(vuelo.getId()));
+
+        mockMvc.perform(delete("/api/vuelos/" + vuelo.getId())
+                        .header("Authorization", "Bearer " + token("admin@vueloscolombia.com")))
+                .andExpect(status().isOk());
+        assertFalse(vueloRepository.existsById(vuelo.getId()));
+    }
+
+    private String token(String username) {
+        return jwtUtil.generateToken((CustomUserDetails) customUserDetailsService.loadUserByUsername(username));
+    }
+}
@@ -0,0 +1,103 @@
+package com.vueloscolombia.backend.service;
+
+import com.vueloscolombia.backend.dto.IndicadoresDTO;
+import com.vueloscolombia.backend.dto.ProgresoOperacion;
+import com.vueloscolombia.backend.model.Reserva;
+import com.vueloscolombia.backend.model.Vuelo;
+import com.vueloscolombia.backend.repository.ReservaRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Agregados de analitica sobre la base H2 de las pruebas: reservas, cancelaciones y reconstruccion,
+ * incluida una reconstruccion concurrente con reservas nuevas y un reinicio (agregados vacios).
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AnaliticaServiceTest {
+
+    private static final String CLIENTE = "pepito@gmail.com";
+
+    @Autowired
+    private AnaliticaService analiticaService;
+
+    @Autowired
+    private ReservaService reservaService;
+
+    @Autowired
+    private VueloService vueloService;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Test
+    void totalesTrasReservarCancelarYReconstruir() {
+        Vuelo vuelo = vueloService.guardar(new Vuelo("BOG", "ANA", 200000, "08:00", "09:00", 10, "2027-04-01", "Avianca"));
+        Reserva dos = reservaService.crearReserva(vuelo.getId(), CLIENTE, 2, null, null);
+        Reserva una = reservaService.crearReserva(vuelo.getId(), CLIENTE, 1, null, null);
+        reservaService.eliminarReserva(una.getId(), CLIENTE);
+
+        IndicadoresDTO i = analiticaService.porVuelo(vuelo.getId());
+        assertEquals(1, i.getReservas());
+        assertEquals(2, i.getAsientosVendidos());
+        assertEquals(1, i.getCancelaciones());
+        assertEquals(1, i.getAsientosCancelados());
+        assertEquals(2 * dos.getPrecioUnitario(), i.getIngresos(), 0.001);
+        assertEquals(0.2, i.getOcupacion(), 0.001);
+
+        analiticaService.reconstruir(new ProgresoOperacion("prueba", "RECONSTRUIR_ANALITICA"));
+        assertIguales(i, analiticaService.porVuelo(vuelo.getId()));
+
+        // Reinicio: los agregados en memoria se pierden; las cancelaciones salen de la tabla
+        ReflectionTestUtils.setField(analiticaService, "actual", new AnaliticaService.Agregados());
+        analiticaService.cargarCancelaciones();
+        analiticaService.reconstruir(new ProgresoOperacion("prueba", "RECONSTRUIR_ANALITICA"));
+        assertIguales(i, analiticaService.porVuelo(vuelo.getId()));
+    }
+
+    @Test
+    void reservasDuranteLaReconstruccionNoSePierden() throws Exception {
+        Vuelo vuelo = vueloService.guardar(new Vuelo("BOG", "ANR", 150000, "08:00", "09:00", 500, "2027-04-02", "Avianca"));
+        AtomicBoolean reservando = new AtomicBoolean(true);
+        CompletableFuture<Void> reconstrucciones = CompletableFuture.runAsync(() -> {
+            while (reservando.get()) {
+                analiticaService.reconstruir(new ProgresoOperacion("prueba", "RECONSTRUIR_ANALITICA"));
+            }
+        });
+        try {
+            for (int k = 0; k < 60; k++) {
+                Reserva r = reservaService.crearReserva(vuelo.getId(), CLIENTE, 1, null, null);
+                if (k % 3 == 0) {
+                    reservaService.eliminarReserva(r.getId(), CLIENTE);
+                }
+            }
+        } finally {
+            reservando.set(false);
+            reconstrucciones.get();
+        }
+
+        List<Reserva> vigentes = reservaRepository.findByVueloId(vuelo.getId());
+        IndicadoresDTO i = analiticaService.porVuelo(vuelo.getId());
+        assertEquals(vigentes.size(), i.getReservas());
+        assertEquals(vigentes.stream().mapToDouble(Reserva::getPrecioUnitario).sum(), i.getIngresos(), 0.001);
+        assertEquals(20, i.getCancelaciones());
+    }
+
+    private static void assertIguales(IndicadoresDTO esperado, IndicadoresDTO real) {
+        assertEquals(esperado.getReservas(), real.getReservas());
+        assertEquals(esperado.getAsientosVendidos(), real.getAsientosVendidos());
+        assertEquals(esperado.getCancelaciones(), real.getCancelaciones());
+        assertEquals(esperado.getAsientosCancelados(), real.getAsientosCancelados());
+        assertEquals(esperado.getIngresos(), real.getIngresos(), 0.001);
+        assertEquals(esperado.getOcupacion(), real.getOcupacion(), 0.001);
+    }
+}
@@ -0,0 +1,78 @@
+package com.vueloscolombia.backend.service;
+
+import com.vueloscolombia.backend.dto.ProgresoOperacion;
+import com.vueloscolombia.backend.model.Reserva;
+import com.vueloscolombia.backend.model.ReservaHistorica;
+import com.vueloscolombia.backend.model.Vuelo;
+import com.vueloscolombia.backend.repository.ReservaHistoricaRepository;
+import com.vueloscolombia.backend.repository.ReservaRepository;
+import com.vueloscolombia.backend.repository.VueloHistoricoRepository;
+import com.vueloscolombia.backend.repository.VueloRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Archivo de un vuelo pasado con reservas: las filas pasan al historico, salen de las tablas vigentes
+ * y el viaje sigue apareciendo en el historial del usuario.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ArchivoServiceTest {
+
+    private static final String CLIENTE = "pepito@gmail.com";
+
+    @Autowired
+    private ArchivoService archivoService;
+
+    @Autowired
+    private VueloService vueloService;
+
+    @Autowired
+    private ReservaService reservaService;
+
+    @Autowired
+    private VueloRepository vueloRepository;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private VueloHistoricoRepository vueloHistoricoRepository;
+
+    @Autowired
+    private ReservaHistoricaRepository reservaHistoricaRepository;
+
+    @Test
+    void archivarMueveElVueloYSusReservasAlHistorico() {
+        Vuelo vuelo = vueloService.guardar(new Vuelo("AR1", "AR2", 180000, "08:00", "09:00", 10, "2000-01-01", "Avianca"));
+        Reserva reserva = reservaService.crearReserva(vuelo.getId(), CLIENTE, 2, null, null);
+
+        // Horizonte justo despues del vuelo: la base es compartida y los vuelos del DataLoader tambien ya pasaron
+        int dias = (int) ChronoUnit.DAYS.between(LocalDate.of(2000, 1, 2), LocalDate.now());
+        archivoService.archivar(dias, new ProgresoOperacion("prueba", "ARCHIVAR_VUELOS"));
+
+        assertFalse(vueloRepository.existsById(vuelo.getId()));
+        assertFalse(reservaRepository.existsById(reserva.getId()));
+        assertTrue(vueloHistoricoRepository.existsById(vuelo.getId()));
+        ReservaHistorica historica = reservaHistoricaRepository.findById(reserva.getId()).orElseThrow();
+        assertEquals(2, historica.getCantidad());
+        assertEquals(reserva.getAsientos(), historica.getAsientos());
+
+        assertTrue(reservaService.reservasPorUsername(CLIENTE).stream().noneMatch(r -> r.getId().equals(reserva.getId())));
+        List<Reserva> historial = reservaService.reservasPorUsername(CLIENTE, true);
+        Reserva archivada = historial.stream().filter(r -> r.getId().equals(reserva.getId())).findFirst().orElseThrow();
+        assertEquals(vuelo.getId(), archivada.getVuelo().getId());
+        assertEquals("AR1", archivada.getVuelo().getOrigen());
+        assertEquals(reserva.getPrecioUnitario(), archivada.getPrecioUnitario());
+    }
+}
@@ -0,0 +1,153 @@
+package com.vueloscolombia.backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vueloscolombia.backend.evento.VueloCambiadoEvent;
+import com.vueloscolombia.backend.model.Vuelo;
+import com.vueloscolombia.backend.repository.VueloRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Compara la busqueda flexible ({@code GET /api/vuelos/buscar/flexible}, una peticion) con lo que hacia
+ * el frontend: una peticion {@code GET /api/vuelos/buscar?origen&destino} por cada dia de la ventana, que
+ * trae toda la ruta y se filtra por fecha y cupo en el cliente. Registra las latencias; solo falla si
+ * los resultados difieren.
+ */
+@Tag("benchmark")
+// Se comparan estrategias de consulta: con tarifa fija el minimo del dia es el precio base en ambos caminos
+@SpringBootTest(properties = "app.tarifas.habilitada=false")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BusquedaFlexibleLatenciaTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(BusquedaFlexibleLatenciaTest.class);
+    private static final String[] CIUDADES = {"BOG", "MED", "CLO", "CTG", "BAQ", "SMR"};
+    // Lejos de las fechas del DataLoader y de otras pruebas: la base en memoria es compartida
+    private static final LocalDate INICIO = LocalDate.of(2029, 11, 1);
+    private static final int DIAS_CATALOGO = 60;
+    private static final int VUELOS_POR_DIA = 6;
+    private static final int VENTANA = 3;
+    private static final int REPETICIONES = 50;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private VueloRepository vueloRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Test
+    void unaPeticionFlexibleFrenteAUnaPeticionPorDia() throws Exception {
+        sembrar();
+        String fecha = INICIO.plusDays(25).toString();
+
+        // Calentamiento de ambos caminos
+        for (int i = 0; i < 10; i++) {
+            flexible(fecha);
+            porDia(fecha);
+        }
+
+        long t0 = System.nanoTime();
+        List<Double> minimosFlexible = null;
+        for (int i = 0; i < REPETICIONES; i++) {
+            minimosFlexible = flexible(fecha);
+        }
+        long t1 = System.nanoTime();
+        List<Double> minimosPorDia = null;
+        for (int i = 0; i < REPETICIONES; i++) {
+            minimosPorDia = porDia(fecha);
+        }
+        long t2 = System.nanoTime();
+
+        logger.info("Ventana +-{} dias, {} vuelos en catalogo", VENTANA, vueloRepository.count());
+        logger.info(String.format("  Busqueda flexible (1 peticion):     %.3f ms", (t1 - t0) / 1e6 / REPETICIONES));
+        logger.info(String.format("  Una peticion por dia (%d peticiones): %.3f ms", 2 * VENTANA + 1, (t2 - t1) / 1e6 / REPETICIONES));
+
+        assertEquals(minimosPorDia, minimosFlexible);
+    }
+
+    private List<Double> flexible(String fecha) throws Exception {
+        JsonNode respuesta = pedir(get("/api/vuelos/buscar/flexible")
+                .param("origen", "BOG").param("destino", "MED").param("fecha", fecha)
+                .param("dias", String.valueOf(VENTANA)).param("pasajeros", "1"));
+        List<Double> minimos = new ArrayList<>();
+        for (JsonNode dia : respuesta.get("dias")) {
+            minimos.add(dia.get("precioMinimo").isNull() ? null : dia.get("precioMinimo").asDouble());
+        }
+        return minimos;
+    }
+
+    // Como el frontend antes de la busqueda flexible: la ruta completa por cada dia, filtrada en el cliente
+    private List<Double> porDia(String fecha) throws Exception {
+        LocalDate centro = LocalDate.parse(fecha);
+        List<Double> minimos = new ArrayList<>();
+        for (int d = -VENTANA; d <= VENTANA; d++) {
+            String dia = centro.plusDays(d).toString();
+            Double minimo = null;
+            for (JsonNode v : pedir(get("/api/vuelos/buscar").param("origen", "BOG").param("destino", "MED"))) {
+                if (dia.equals(v.get("fecha").asText()) && v.get("disponibles").asInt() >= 1) {
+                    double precio = v.get("precio").asDouble();
+                    minimo = minimo == null ? precio : Math.min(minimo, precio);
+                }
+            }
+            minimos.add(minimo);
+        }
+        return minimos;
+    }
+
+    private JsonNode pedir(RequestBuilder peticion) throws Exception {
+        byte[] cuerpo = mockMvc.perform(peticion).andReturn().getResponse().getContentAsByteArray();
+        return objectMapper.readTree(cuerpo);
+    }
+
+    private void sembrar() throws Exception {
+        List<Vuelo> vuelos = new ArrayList<>();
+        int n = 0;
+        for (String origen : CIUDADES) {
+            for (String destino : CIUDADES) {
+                if (origen.equals(destino)) continue;
+                for (int dia = 0; dia < DIAS_CATALOGO; dia++) {
+                    for (int k = 0; k < VUELOS_POR_DIA; k++, n++) {
+                        vuelos.add(new Vuelo(origen, destino, 150000 + (n * 7919 % 40) * 5000,
+                                String.format("%02d:00", 5 + k * 3), String.format("%02d:00", 6 + k * 3),
+                                n % 9, INICIO.plusDays(dia).toString(), "Avianca"));
+                    }
+                }
+            }
+        }
+        vueloRepository.saveAll(vuelos);
+        // La siembra va directo al repositorio: la cache de respuestas se entera por el aviso de cambio masivo
+        eventPublisher.publishEvent(VueloCambiadoEvent.catalogoCompleto());
+        int esperados = vueloRepository.findByOrigenAndDestino("BOG", "MED").size();
+        long limite = System.currentTimeMillis() + 10_000;
+        while (pedir(get("/api/vuelos/buscar").param("origen", "BOG").param("destino", "MED")
+                .accept(MediaType.APPLICATION_JSON)).size() != esperados) {
+            assertTrue(System.currentTimeMillis() < limite, "La cache no se actualizo tras la siembra");
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.vueloscolombia.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vueloscolombia.backend.evento.VueloCambiadoEvent;
+import com.vueloscolombia.backend.model.Vuelo;
+import com.vueloscolombia.backend.repository.VueloRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.PoolMetrics;
+import io.r2dbc.spi.ConnectionFactory;
+import org.apache.tomcat.util.threads.ThreadPoolExecutor;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Misma rafaga de busquedas HTTP, con la misma concurrencia del cliente, contra el servidor embebido:
+ * {@code /api/vuelos/buscar} en JSON (sale de la cache de respuestas), la misma ruta en CBOR (pasa por
+ * JPA y una conexion JDBC en cada peticion) y {@code /api/vuelos/flujo/buscar} en JSON (R2DBC). Por cada
+ * una registra el maximo de hilos de Tomcat ocupados, de conexiones JDBC y R2DBC en uso, y el tiempo.
+ * Con H2 el driver R2DBC ejecuta la consulta en el hilo que se suscribe, que aqui es el de Tomcat, asi
+ * que los hilos ocupados de la ruta reactiva no representan a r2dbc-mysql. Solo falla si los resultados
+ * difieren.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class BusquedaReactivaBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(BusquedaReactivaBenchmarkTest.class);
+    private static final String[] CIUDADES = {"BOG", "MED", "CLO", "CTG", "BAQ"};
+    private static final int VUELOS_POR_RUTA = 100;
+    private static final int CONCURRENCIA = 200;
+    private static final int BUSQUEDAS = 2000;
+
+    @LocalServerPort
+    private int puerto;
+
+    @Autowired
+    private ServletWebServerApplicationContext contexto;
+
+    @Autowired
+    private VueloRepository vueloRepository;
+
+    @Autowired
+    @Qualifier("dataSourcePrimaria")
+    private HikariDataSource dataSourcePrimaria;
+
+    @Autowired
+    private ConnectionFactory connectionFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CatalogoCacheService catalogoCacheService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Test
+    void hilosYConexionesConMuchasBusquedasConcurrentes() throws Exception {
+        sembrar();
+        ThreadPoolExecutor tomcat = (ThreadPoolExecutor) ((TomcatWebServer) contexto.getWebServer())
+                .getTomcat().getConnector().getProtocolHandler().getExecutor();
+        HikariPoolMXBean hikari = dataSourcePrimaria.getHikariPoolMXBean();
+        PoolMetrics r2dbc = ((ConnectionPool) connectionFactory).getMetrics().orElseThrow();
+
+        ExecutorService hilosCliente = Executors.newFixedThreadPool(CONCURRENCIA);
+        HttpClient cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(hilosCliente).build();
+        try {
+            String bloqueante = "/api/vuelos/buscar", reactiva = "/api/vuelos/flujo/buscar";
+            // Calentamiento de los tres caminos
+            for (int i = 0; i < 3; i++) {
+                rafaga(cliente, bloqueante, "application/json", CONCURRENCIA, -1);
+                rafaga(cliente, bloqueante, "application/cbor", CONCURRENCIA, -1);
+                rafaga(cliente, reactiva, "application/json", CONCURRENCIA, -1);
+            }
+            int esperados = vueloRepository.findByOrigenAndDestino("BOG", "MED").size();
+            esperarCache(esperados);
+
+            List<Medicion> mediciones = List.of(
+                    medir("cache json", tomcat, hikari, r2dbc,
+                            () -> rafaga(cliente, bloqueante, "application/json", BUSQUEDAS, esperados)),
+                    medir("jdbc cbor", tomcat, hikari, r2dbc,
+                            () -> rafaga(cliente, bloqueante, "application/cbor", BUSQUEDAS, -1)),
+                    medir("r2dbc json", tomcat, hikari, r2dbc,
+                            () -> rafaga(cliente, reactiva, "application/json", BUSQUEDAS, esperados)));
+
+            logger.info("{} busquedas HTTP, {} concurrentes, {} vuelos por resultado", BUSQUEDAS, CONCURRENCIA, esperados);
+            logger.info(String.format("%-12s %14s %10s %10s %10s", "camino", "hilos tomcat", "jdbc max", "r2dbc max", "ms"));
+            for (Medicion m : mediciones) {
+                logger.info(String.format("%-12s %14d %10d %10d %10d", m.camino, m.hilosTomcat, m.jdbc, m.r2dbc, m.ms));
+            }
+            assertTrue(mediciones.get(2).r2dbc <= r2dbc.getMaxAllocatedSize());
+        } finally {
+            hilosCliente.shutdown();
+        }
+    }
+
+    // Envia las busquedas con a lo sumo CONCURRENCIA en vuelo; con esperados >= 0 comprueba el tamano del arreglo
+    private void rafaga(HttpClient cliente, String camino, String acepta, int busquedas, int esperados) throws Exception {
+        Semaphore enVuelo = new Semaphore(CONCURRENCIA);
+        List<CompletableFuture<Void>> respuestas = new ArrayList<>(busquedas);
+        for (int i = 0; i < busquedas; i++) {
+            String[] r = ruta(i);
+            HttpRequest peticion = HttpRequest.newBuilder(URI.create(
+                            "http://localhost:" + puerto + camino + "?origen=" + r[0] + "&destino=" + r[1]))
+                    .header("Accept", acepta)
+                    .GET()
+                    .build();
+            enVuelo.acquire();
+            respuestas.add(cliente.sendAsync(peticion, HttpResponse.BodyHandlers.ofByteArray())
+                    .whenComplete((x, e) -> enVuelo.release())
+                    .thenAccept(respuesta -> {
+                        assertEquals(200, respuesta.statusCode());
+                        if (esperados >= 0) {
+                            try {
+                                assertEquals(esperados, objectMapper.readTree(respuesta.body()).size());
+                            } catch (Exception e) {
+                                throw new RuntimeException(e);
+                            }
+                        }
+                    }));
+        }
+        CompletableFuture.allOf(respuestas.toArray(CompletableFuture[]::new)).get();
+    }
+
+    // La siembra va directo al repositorio: la cache de respuestas se entera por el aviso de cambio masivo
+    private void esperarCache(int esperados) throws Exception {
+        long limite = System.currentTimeMillis() + 10_000;
+        for (int i = 0; i < CIUDADES.length; i++) {
+            String[] r = ruta(i);
+            while (objectMapper.readTree(catalogoCacheService.busqueda(r[0], r[1]).getJson()).size() != esperados) {
+                assertTrue(System.currentTimeMillis() < limite, "La cache no se actualizo tras la siembra");
+                Thread.sleep(20);
+            }
+        }
+    }
+
+    private static final class Medicion {
+        String camino;
+        int hilosTomcat;
+        int jdbc;
+        int r2dbc;
+        long ms;
+    }
+
+    private interface Carga {
+        void ejecutar() throws Exception;
+    }
+
+    // Muestrea cada milisegundo los hilos de Tomcat ocupados y las conexiones en uso de ambos pools
+    private static Medicion medir(String camino, ThreadPoolExecutor tomcat, HikariPoolMXBean hikari,
+                                  PoolMetrics r2dbc, Carga carga) throws Exception {
+        AtomicBoolean corriendo = new AtomicBoolean(true);
+        AtomicInteger maxTomcat = new AtomicInteger(), maxJdbc = new AtomicInteger(), maxR2dbc = new AtomicInteger();
+        List<IntSupplier> fuentes = List.of(tomcat::getActiveCount, hikari::getActiveConnections, r2dbc::acquiredSize);
+        List<AtomicInteger> maximos = List.of(maxTomcat, maxJdbc, maxR2dbc);
+        Thread muestreo = new Thread(() -> {
+            while (corriendo.get()) {
+                for (int k = 0; k < fuentes.size(); k++) {
+                    maximos.get(k).accumulateAndGet(fuentes.get(k).getAsInt(), Math::max);
+                }
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        muestreo.start();
+        long inicio = System.nanoTime();
+        try {
+            carga.ejecutar();
+        } finally {
+            corriendo.set(false);
+            muestreo.join();
+        }
+        Medicion m = new Medicion();
+        m.camino = camino;
+        m.ms = (System.nanoTime() - inicio) / 1_000_000;
+        m.hilosTomcat = maxTomcat.get();
+        m.jdbc = maxJdbc.get();
+        m.r2dbc = maxR2dbc.get();
+        return m;
+    }
+
+    private static String[] ruta(int i) {
+        int o = i % CIUDADES.length;
+        return new String[] {CIUDADES[o], CIUDADES[(o + 1) % CIUDADES.length]};
+    }
+
+    private void sembrar() {
+        // Lo que ya traen el DataLoader y otras pruebas (la base en memoria es compartida) se completa
+        // hasta el mismo numero por ruta
+        int[] existentes = new int[CIUDADES.length];
+        int porRuta = VUELOS_POR_RUTA;
+        for (int o = 0; o < CIUDADES.length; o++) {
+            existentes[o] = vueloRepository.findByOrigenAndDestino(CIUDADES[o], CIUDADES[(o + 1) % CIUDADES.length]).size();
+            porRuta = Math.max(porRuta, existentes[o]);
+        }
+        List<Vuelo> vuelos = new ArrayList<>();
+        for (int o = 0; o < CIUDADES.length; o++) {
+            String origen = CIUDADES[o], destino = CIUDADES[(o + 1) % CIUDADES.length];
+            for (int k = existentes[o]; k < porRuta; k++) {
+                vuelos.add(new Vuelo(origen, destino, 200000 + k * 1000, "06:00", "07:00", 150,
+                        "2026-12-" + String.format("%02d", k % 28 + 1), "Avianca"));
+            }
+        }
+        vueloRepository.saveAll(vuelos);
+        eventPublisher.publishEvent(VueloCambiadoEvent.catalogoCompleto());
+    }
+}
@@ -0,0 +1,77 @@
+package com.vueloscolombia.backend.service;
+
+import com.vueloscolombia.backend.dto.TarifaDiaDTO;
+import com.vueloscolombia.backend.model.Vuelo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Mientras el calendario se recarga, las consultas siguen viendo el anterior completo, y los cambios
+ * que llegan durante la lectura no se pierden ni se cuentan dos veces.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CalendarioTarifasServiceTest {
+
+    @Autowired
+    private CalendarioTarifasService calendarioTarifasService;
+
+    @Autowired
+    private VueloService vueloService;
+
+    @Autowired
+    private ReservaService reservaService;
+
+    @Test
+    void laRecargaNoDejaVerUnCalendarioVacio() throws Exception {
+        vueloService.guardar(new Vuelo("BOG", "CAL", 150000, "08:00", "09:00", 20, "2027-09-10", "Avianca"));
+        calendarioTarifasService.recargar();
+        AtomicBoolean consultando = new AtomicBoolean(true);
+        CompletableFuture<Void> recargas = CompletableFuture.runAsync(() -> {
+            while (consultando.get()) {
+                calendarioTarifasService.recargar();
+            }
+        });
+        try {
+            for (int k = 0; k < 500; k++) {
+                TarifaDiaDTO dia = calendarioTarifasService.calendario("BOG", "CAL", "2027-09", 1).get(9);
+                assertNotNull(dia.getPrecioMinimo(), "Se vio un calendario a medio recargar");
+            }
+        } finally {
+            consultando.set(false);
+            recargas.get();
+        }
+    }
+
+    @Test
+    void laRecargaNoCuentaDosVecesLasReservasHechasMientrasLee() throws Exception {
+        // 31 asientos y 30 reservas: si un delta se aplicara dos veces el vuelo quedaria agotado
+        Vuelo vuelo = vueloService.guardar(new Vuelo("CR1", "CR2", 150000, "08:00", "09:00", 31, "2027-09-12", "Avianca"));
+        AtomicBoolean reservando = new AtomicBoolean(true);
+        CompletableFuture<Void> recargas = CompletableFuture.runAsync(() -> {
+            while (reservando.get()) {
+                calendarioTarifasService.recargar();
+            }
+        });
+        try {
+            for (int k = 0; k < 30; k++) {
+                reservaService.crearReserva(vuelo.getId(), "pepito@gmail.com", 1, null, null);
+            }
+        } finally {
+            reservando.set(false);
+            recargas.get();
+        }
+        Double incremental = calendarioTarifasService.calendario("CR1", "CR2", "2027-09", 1).get(11).getPrecioMinimo();
+        assertNotNull(incremental, "El vuelo aparece agotado con un asiento libre");
+        calendarioTarifasService.recargar();
+        assertEquals(calendarioTarifasService.calendario("CR1", "CR2", "2027-09", 1).get(11).getPrecioMinimo(), incremental);
+    }
+}
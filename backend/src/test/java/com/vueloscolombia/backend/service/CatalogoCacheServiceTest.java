@@ -0,0 +1,95 @@
+package com.vueloscolombia.backend.service;
+
+import com.vueloscolombia.backend.evento.VueloCambiadoEvent;
+import com.vueloscolombia.backend.model.Vuelo;
+import com.vueloscolombia.backend.repository.VueloRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Una reserva solo invalida la busqueda de la ruta de su vuelo; las demas rutas siguen sirviendo los
+ * mismos bytes sin reconstruirse. Los vuelos que desaparecen en un cambio masivo salen del indice de rutas.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CatalogoCacheServiceTest {
+
+    private static final String CLIENTE = "pepito@gmail.com";
+
+    @Autowired
+    private CatalogoCacheService catalogoCacheService;
+
+    @Autowired
+    private ReservaService reservaService;
+
+    @Autowired
+    private VueloService vueloService;
+
+    @Autowired
+    private VueloRepository vueloRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Test
+    void unaReservaSoloReconstruyeSuRuta() throws InterruptedException {
+        Vuelo reservado = vueloService.guardar(new Vuelo("BOG", "CCA", 100000, "08:00", "09:00", 10, "2027-07-01", "Avianca"));
+        vueloService.guardar(new Vuelo("BOG", "CCB", 100000, "08:00", "09:00", 10, "2027-07-01", "Avianca"));
+        CatalogoCacheService.Respuesta a = estable("BOG", "CCA");
+        CatalogoCacheService.Respuesta b = estable("BOG", "CCB");
+
+        reservaService.crearReserva(reservado.getId(), CLIENTE, 3, null, null);
+
+        long limite = System.currentTimeMillis() + 10_000;
+        while (catalogoCacheService.busqueda("BOG", "CCA").getEtag().equals(a.getEtag())) {
+            assertTrue(System.currentTimeMillis() < limite, "La ruta reservada no se reconstruyo");
+            Thread.sleep(20);
+        }
+        assertSame(b, catalogoCacheService.busqueda("BOG", "CCB"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void laReconstruccionCompletaOlvidaLosVuelosBorrados() throws InterruptedException {
+        Vuelo borrado = vueloService.guardar(new Vuelo("BOG", "CCD", 100000, "08:00", "09:00", 10, "2027-07-01", "Avianca"));
+        Vuelo vigente = vueloService.guardar(new Vuelo("BOG", "CCD", 100000, "12:00", "13:00", 10, "2027-07-01", "Avianca"));
+        Map<Long, String> rutaPorVuelo = (Map<Long, String>) ReflectionTestUtils.getField(catalogoCacheService, "rutaPorVuelo");
+        assertTrue(rutaPorVuelo.containsKey(borrado.getId()));
+
+        // Como un archivo o una purga: se borra sin evento propio y se avisa un cambio del catalogo completo
+        vueloRepository.deleteById(borrado.getId());
+        eventPublisher.publishEvent(VueloCambiadoEvent.catalogoCompleto());
+
+        long limite = System.currentTimeMillis() + 20_000;
+        while (rutaPorVuelo.containsKey(borrado.getId())) {
+            assertTrue(System.currentTimeMillis() < limite, "La ruta del vuelo borrado sigue en el indice");
+            Thread.sleep(50);
+        }
+        assertTrue(rutaPorVuelo.containsKey(vigente.getId()));
+    }
+
+    // El contexto es compartido: se espera a que no quede ninguna reconstruccion pendiente de la ruta
+    private CatalogoCacheService.Respuesta estable(String origen, String destino) throws InterruptedException {
+        CatalogoCacheService.Respuesta r = catalogoCacheService.busqueda(origen, destino);
+        long limite = System.currentTimeMillis() + 10_000, quieta = System.currentTimeMillis();
+        while (System.currentTimeMillis() - quieta < 1_000) {
+            assertTrue(System.currentTimeMillis() < limite, "La cache no se estabilizo");
+            Thread.sleep(50);
+            CatalogoCacheService.Respuesta actual = catalogoCacheService.busqueda(origen, destino);
+            if (actual != r) {
+                r = actual;
+                quieta = System.currentTimeMillis();
+            }
+        }
+        return r;
+    }
+}
@@ -0,0 +1,54 @@
+package com.vueloscolombia.backend.service;
+
+import com.vueloscolombia.backend.dto.CotizacionDTO;
+import com.vueloscolombia.backend.model.Reserva;
+import com.vueloscolombia.backend.model.Vuelo;
+import com.vueloscolombia.backend.repository.VueloRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Una cotizacion paga una sola reserva: reusar el token se rechaza sin descontar asientos, y si la
+ * reserva falla el token sigue sirviendo.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CotizacionServiceTest {
+
+    private static final String CLIENTE = "pepito@gmail.com";
+
+    @Autowired
+    private CotizacionService cotizacionService;
+
+    @Autowired
+    private ReservaService reservaService;
+
+    @Autowired
+    private VueloService vueloService;
+
+    @Autowired
+    private VueloRepository vueloRepository;
+
+    @Test
+    void elTokenNoSePuedeReusar() {
+        Vuelo vuelo = vueloService.guardar(new Vuelo("BOG", "COT", 180000, "08:00", "09:00", 10, "2027-05-01", "Avianca"));
+        CotizacionDTO cotizacion = cotizacionService.cotizar(vuelo.getId(), CLIENTE, 2);
+
+        // Pide mas asientos de los cotizados: falla y el token no queda usado
+        assertThrows(RuntimeException.class,
+                () -> reservaService.crearReserva(vuelo.getId(), CLIENTE, 3, null, cotizacion.getToken()));
+
+        Reserva r = reservaService.crearReserva(vuelo.getId(), CLIENTE, 2, null, cotizacion.getToken());
+        assertEquals(cotizacion.getPrecioUnitario(), r.getPrecioUnitario());
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> reservaService.crearReserva(vuelo.getId(), CLIENTE, 2, null, cotizacion.getToken()));
+        assertEquals("La cotizacion ya se uso en otra reserva; vuelva a cotizar", e.getMessage());
+        assertEquals(8, vueloRepository.findById(vuelo.getId()).orElseThrow().getDisponibles());
+    }
+}
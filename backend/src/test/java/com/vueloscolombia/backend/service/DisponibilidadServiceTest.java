@@ -0,0 +1,74 @@
+package com.vueloscolombia.backend.service;
+
+import com.vueloscolombia.backend.evento.AsientosCambiadosEvent;
+import com.vueloscolombia.backend.model.Vuelo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * El indice de disponibilidad es una vista aproximada: no rechaza reservas aunque este atrasado, y
+ * mientras se recarga las lecturas siguen viendo el indice anterior completo.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class DisponibilidadServiceTest {
+
+    private static final String CLIENTE = "pepito@gmail.com";
+
+    @Autowired
+    private DisponibilidadService disponibilidadService;
+
+    @Autowired
+    private ReservaService reservaService;
+
+    @Autowired
+    private VueloService vueloService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Test
+    void unIndiceAtrasadoNoRechazaReservas() {
+        Vuelo vuelo = vueloService.guardar(new Vuelo("BOG", "DIS", 120000, "08:00", "09:00", 5, "2027-06-01", "Avianca"));
+        // Como si otro nodo hubiera vendido todo y luego cancelado sin que el aviso llegara todavia
+        eventPublisher.publishEvent(new AsientosCambiadosEvent(vuelo.getId(), -5));
+        assertEquals(0, disponibilidadService.disponibles(vuelo.getId()));
+
+        reservaService.crearReserva(vuelo.getId(), CLIENTE, 1, null, null);
+
+        disponibilidadService.recargar();
+        assertEquals(4, disponibilidadService.disponibles(vuelo.getId()));
+    }
+
+    @Test
+    void laRecargaNoDejaVerUnIndiceAMedioLlenar() throws Exception {
+        Vuelo vuelo = vueloService.guardar(new Vuelo("BOG", "DIR", 120000, "08:00", "09:00", 100, "2027-06-02", "Avianca"));
+        AtomicBoolean reservando = new AtomicBoolean(true);
+        CompletableFuture<Void> recargas = CompletableFuture.runAsync(() -> {
+            while (reservando.get()) {
+                disponibilidadService.recargar();
+            }
+        });
+        try {
+            for (int k = 0; k < 40; k++) {
+                reservaService.crearReserva(vuelo.getId(), CLIENTE, 1, null, null);
+                // Nunca "vuelo desconocido" por leer un indice a medio llenar
+                assertTrue(disponibilidadService.disponibles(vuelo.getId()) >= 0);
+            }
+        } finally {
+            reservando.set(false);
+            recargas.get();
+        }
+        disponibilidadService.recargar();
+        assertEquals(60, disponibilidadService.disponibles(vuelo.getId()));
+    }
+}
@@ -0,0 +1,82 @@
+package com.vueloscolombia.backend.service;
+
+import com.vueloscolombia.backend.model.Vuelo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/** Formato binario de la instantanea: ida y vuelta completa y rechazo de un archivo alterado. */
+class InstantaneaServiceTest {
+
+    @TempDir
+    Path carpeta;
+
+    @Test
+    void idaYVueltaConservaVuelosRutasYHuella() throws Exception {
+        InstantaneaService.Instantanea i = instantanea();
+        Path ruta = carpeta.resolve("sub/instantanea.bin");
+
+        InstantaneaService.escribir(i, ruta);
+        InstantaneaService.Instantanea leida = InstantaneaService.leer(ruta);
+
+        assertArrayEquals(i.huella, leida.huella);
+        assertEquals(i.creada, leida.creada);
+        assertEquals(i.vuelos.size(), leida.vuelos.size());
+        for (int k = 0; k < i.vuelos.size(); k++) {
+            Vuelo a = i.vuelos.get(k), b = leida.vuelos.get(k);
+            assertEquals(a.getId(), b.getId());
+            assertEquals(a.getOrigen(), b.getOrigen());
+            assertEquals(a.getDestino(), b.getDestino());
+            assertEquals(a.getFecha(), b.getFecha());
+            assertEquals(a.getHoraSalida(), b.getHoraSalida());
+            assertEquals(a.getHoraLlegada(), b.getHoraLlegada());
+            assertEquals(a.getAerolinea(), b.getAerolinea());
+            assertEquals(a.getPrecio(), b.getPrecio());
+            assertEquals(a.getDisponibles(), b.getDisponibles());
+            assertEquals(a.getCapacidad(), b.getCapacidad());
+        }
+        assertEquals(i.rutas.size(), leida.rutas.size());
+        for (int k = 0; k < i.rutas.size(); k++) {
+            assertArrayEquals(i.rutas.get(k), leida.rutas.get(k));
+        }
+    }
+
+    @Test
+    void unArchivoAlteradoSeIgnora() throws Exception {
+        Path ruta = carpeta.resolve("instantanea.bin");
+        InstantaneaService.escribir(instantanea(), ruta);
+        byte[] bytes = Files.readAllBytes(ruta);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(ruta, bytes);
+
+        assertNull(InstantaneaService.leer(ruta));
+        assertNull(InstantaneaService.leer(carpeta.resolve("no-existe.bin")));
+    }
+
+    private static InstantaneaService.Instantanea instantanea() {
+        InstantaneaService.Instantanea i = new InstantaneaService.Instantanea();
+        i.huella = new long[] {3, 1, 7, 120, 450_000_000L, 42};
+        i.creada = 1_760_000_000_000L;
+        i.vuelos = new ArrayList<>();
+        Vuelo v = new Vuelo("BOG", "MED", 350000.5, "07:00", "08:00", 12, "2027-11-25", "Avianca");
+        v.setId(1L);
+        i.vuelos.add(v);
+        Vuelo sinCapacidad = new Vuelo("MED", "BOG", 280000, "18:45", "19:45", 5, "2027-11-25", "Aerolínea Ñandú");
+        sinCapacidad.setId(2L);
+        sinCapacidad.setCapacidad(null);
+        i.vuelos.add(sinCapacidad);
+        Vuelo sinHoras = new Vuelo("BOG", "CTG", 199000, null, null, 0, "2027-11-26", "Wingo");
+        sinHoras.setId(Long.MAX_VALUE);
+        i.vuelos.add(sinHoras);
+        i.rutas = List.of(new String[] {"BOG", "MED"}, new String[] {"BOG", "SMR"});
+        return i;
+    }
+}
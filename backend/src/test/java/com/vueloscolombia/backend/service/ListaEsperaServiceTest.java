@@ -0,0 +1,119 @@
+package com.vueloscolombia.backend.service;
+
+import com.vueloscolombia.backend.dto.ProgresoOperacion;
+import com.vueloscolombia.backend.model.ListaEspera;
+import com.vueloscolombia.backend.model.Reserva;
+import com.vueloscolombia.backend.model.Vuelo;
+import com.vueloscolombia.backend.repository.ListaEsperaRepository;
+import com.vueloscolombia.backend.repository.ReservaRepository;
+import com.vueloscolombia.backend.repository.VueloRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Lista de espera sobre la base H2 de las pruebas: promocion al cancelar y borrado de vuelos que
+ * todavia tienen solicitudes en espera (la llave foranea de lista_espera no debe impedirlo).
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ListaEsperaServiceTest {
+
+    private static final String CLIENTE = "pepito@gmail.com";
+    private static final String OTRO = "admin@vueloscolombia.com";
+
+    @Autowired
+    private ListaEsperaService listaEsperaService;
+
+    @Autowired
+    private ReservaService reservaService;
+
+    @Autowired
+    private VueloService vueloService;
+
+    @Autowired
+    private OperacionMasivaService operacionMasivaService;
+
+    @Autowired
+    private TarifaService tarifaService;
+
+    @Autowired
+    private VueloRepository vueloRepository;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private ListaEsperaRepository listaEsperaRepository;
+
+    @Test
+    void laCancelacionPromueveAlPrimeroConLaTarifaDelMomento() throws InterruptedException {
+        Vuelo vuelo = vueloLleno("LEP", 2);
+        Reserva ocupante = reservaRepository.findByVueloId(vuelo.getId()).get(0);
+        ListaEspera solicitud = listaEsperaService.inscribir(vuelo.getId(), OTRO, 1);
+
+        reservaService.eliminarReserva(ocupante.getId(), CLIENTE);
+
+        ListaEspera promovida = esperarEstado(solicitud.getId(), ListaEsperaService.PROMOVIDA);
+        Reserva reserva = reservaRepository.findById(promovida.getReservaId()).orElseThrow();
+        assertEquals(1, reserva.getCantidad());
+        // Tras la cancelacion el vuelo estaba vacio: se cobra la tarifa de esa ocupacion, no el precio base
+        assertEquals(tarifaService.tarifa(vuelo.getPrecio(), 2, 2, vuelo.getFecha()), reserva.getPrecioUnitario());
+        assertEquals(1, vueloRepository.findById(vuelo.getId()).orElseThrow().getDisponibles());
+    }
+
+    @Test
+    void eliminarUnVueloConReservasYListaEspera() {
+        Vuelo vuelo = vueloLleno("LEE", 1);
+        listaEsperaService.inscribir(vuelo.getId(), OTRO, 1);
+
+        vueloService.eliminar(vuelo.getId());
+
+        assertFalse(vueloRepository.existsById(vuelo.getId()));
+        assertTrue(reservaRepository.findByVueloId(vuelo.getId()).isEmpty());
+        assertEquals(0, listaEsperaRepository.countByVueloIdAndEstado(vuelo.getId(), ListaEsperaService.EN_ESPERA));
+    }
+
+    @Test
+    void eliminarVuelosEnLoteConReservasYListaEspera() {
+        Vuelo a = vueloLleno("LEA", 1);
+        Vuelo b = vueloLleno("LEB", 2);
+        listaEsperaService.inscribir(a.getId(), OTRO, 1);
+        listaEsperaService.inscribir(b.getId(), OTRO, 2);
+
+        ProgresoOperacion progreso = new ProgresoOperacion("prueba", "ELIMINAR_VUELOS");
+        operacionMasivaService.eliminarVuelos(List.of(a.getId(), b.getId()), progreso);
+
+        assertFalse(vueloRepository.existsById(a.getId()));
+        assertFalse(vueloRepository.existsById(b.getId()));
+        assertTrue(reservaRepository.findByVueloId(b.getId()).isEmpty());
+        assertEquals(0, listaEsperaRepository.countByVueloIdAndEstado(b.getId(), ListaEsperaService.EN_ESPERA));
+    }
+
+    // Vuelo con todos sus asientos reservados por el cliente, en una sola reserva
+    private Vuelo vueloLleno(String destino, int capacidad) {
+        Vuelo v = new Vuelo("BOG", destino, 300000, "08:00", "09:00", capacidad, "2027-03-15", "Avianca");
+        Vuelo guardado = vueloService.guardar(v);
+        reservaService.crearReserva(guardado.getId(), CLIENTE, capacidad, null, null);
+        return guardado;
+    }
+
+    private ListaEspera esperarEstado(Long id, String estado) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 10_000;
+        while (true) {
+            ListaEspera e = listaEsperaRepository.findById(id).orElseThrow();
+            if (estado.equals(e.getEstado())) {
+                return e;
+            }
+            assertTrue(System.currentTimeMillis() < limite, "La solicitud no paso a " + estado);
+            Thread.sleep(20);
+        }
+    }
+}
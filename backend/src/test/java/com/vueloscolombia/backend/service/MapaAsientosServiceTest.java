@@ -0,0 +1,132 @@
+package com.vueloscolombia.backend.service;
+
+import com.vueloscolombia.backend.model.Reserva;
+import com.vueloscolombia.backend.model.Vuelo;
+import com.vueloscolombia.backend.repository.ReservaRepository;
+import com.vueloscolombia.backend.repository.UsuarioRepository;
+import com.vueloscolombia.backend.repository.VueloRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Eleccion de asientos (misma fila, contiguos entre filas, primeros libres), seleccion explicita,
+ * liberacion, y reservas anteriores al mapa, que reciben asientos del fondo al crearlo.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class MapaAsientosServiceTest {
+
+    private static final String CLIENTE = "pepito@gmail.com";
+
+    @Autowired
+    private MapaAsientosService mapaAsientosService;
+
+    @Autowired
+    private VueloService vueloService;
+
+    @Autowired
+    private ReservaService reservaService;
+
+    @Autowired
+    private VueloRepository vueloRepository;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void eligeUnBloqueEnUnaMismaFila() {
+        // Fila 1: 1A-1C y 1E ocupados; el primer bloque de 3 esta en la fila 2
+        BitSet ocupados = ocupados(0, 1, 2, 4);
+        assertArrayEquals(new int[]{6, 7, 8}, MapaAsientosService.elegir(ocupados, 12, 6, 3));
+        // Caben 2 en la fila 1 aunque 1D quede suelto
+        assertArrayEquals(new int[]{3, 4}, MapaAsientosService.elegir(ocupados(0, 1, 2, 5), 12, 6, 2));
+    }
+
+    @Test
+    void sinFilaLibreTomaContiguosEntreFilas() {
+        // Quedan 1D-1F y 2A-2C: ninguna fila tiene 4 juntos, pero 1D-2A si lo son
+        BitSet ocupados = ocupados(0, 1, 2, 9, 10, 11);
+        assertArrayEquals(new int[]{3, 4, 5, 6}, MapaAsientosService.elegir(ocupados, 12, 6, 4));
+    }
+
+    @Test
+    void sinBloqueTomaLosPrimerosLibres() {
+        BitSet ocupados = ocupados(1, 3, 5, 7, 9, 11);
+        assertArrayEquals(new int[]{0, 2, 4}, MapaAsientosService.elegir(ocupados, 12, 6, 3));
+        assertThrows(RuntimeException.class, () -> MapaAsientosService.elegir(ocupados, 12, 6, 7));
+    }
+
+    @Test
+    void laSeleccionExplicitaNoPisaAsientosOcupados() {
+        Vuelo vuelo = vueloService.guardar(new Vuelo("MA1", "MA2", 150000, "08:00", "09:00", 12, "2027-08-01", "Avianca"));
+
+        assertEquals(List.of("1A", "1B"), mapaAsientosService.asignar(vuelo, 2, List.of("1a", " 1B")));
+        RuntimeException ocupado = assertThrows(RuntimeException.class,
+                () -> mapaAsientosService.asignar(vuelo, 1, List.of("1B")));
+        assertEquals("El asiento 1B no esta disponible", ocupado.getMessage());
+        assertThrows(RuntimeException.class, () -> mapaAsientosService.asignar(vuelo, 2, List.of("2A", "2a")));
+        assertThrows(RuntimeException.class, () -> mapaAsientosService.asignar(vuelo, 2, List.of("2A")));
+        assertThrows(RuntimeException.class, () -> mapaAsientosService.asignar(vuelo, 1, List.of("3A")));
+
+        // Sin seleccion sigue desde el primer bloque libre de la fila
+        assertEquals(List.of("1C", "1D"), mapaAsientosService.asignar(vuelo, 2, null));
+        assertEquals(List.of("1A", "1B", "1C", "1D"), mapaAsientosService.consultar(vuelo.getId()).getOcupados());
+    }
+
+    @Test
+    void liberarDevuelveLosAsientosAlMapa() {
+        Vuelo vuelo = vueloService.guardar(new Vuelo("MB1", "MB2", 150000, "08:00", "09:00", 12, "2027-08-01", "Avianca"));
+        mapaAsientosService.asignar(vuelo, 3, null);
+        mapaAsientosService.asignar(vuelo, 2, null);
+
+        mapaAsientosService.liberar(vuelo.getId(), List.of("1A,1B,1C"));
+
+        assertEquals(List.of("1D", "1E"), mapaAsientosService.consultar(vuelo.getId()).getOcupados());
+        assertEquals(List.of("1A", "1B", "1C"), mapaAsientosService.asignar(vuelo, 3, null));
+    }
+
+    @Test
+    void cancelarUnaReservaAnteriorAlMapaLiberaSusAsientos() {
+        Vuelo vuelo = vueloService.guardar(new Vuelo("MC1", "MC2", 150000, "08:00", "09:00", 12, "2027-08-01", "Avianca"));
+        // Reserva de antes del mapa de asientos: descuenta el cupo pero no tiene codigos
+        Reserva previa = transactionTemplate.execute(s -> {
+            vueloRepository.reservarAsientos(vuelo.getId(), 2);
+            Reserva r = new Reserva();
+            r.setUsuario(usuarioRepository.findByUsername(CLIENTE).orElseThrow());
+            r.setVuelo(vuelo);
+            r.setCantidad(2);
+            r.setEstado("CONFIRMADA");
+            return reservaRepository.save(r);
+        });
+
+        reservaService.crearReserva(vuelo.getId(), CLIENTE, 1, null, null);
+        assertEquals("2E,2F", reservaRepository.findById(previa.getId()).orElseThrow().getAsientos());
+        assertEquals(List.of("1A", "2E", "2F"), mapaAsientosService.consultar(vuelo.getId()).getOcupados());
+
+        reservaService.eliminarReserva(previa.getId(), CLIENTE);
+
+        assertEquals(List.of("1A"), mapaAsientosService.consultar(vuelo.getId()).getOcupados());
+    }
+
+    private static BitSet ocupados(int... indices) {
+        BitSet b = new BitSet();
+        for (int i : indices) b.set(i);
+        return b;
+    }
+}
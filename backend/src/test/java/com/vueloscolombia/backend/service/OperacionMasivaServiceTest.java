@@ -0,0 +1,79 @@
+package com.vueloscolombia.backend.service;
+
+import com.vueloscolombia.backend.dto.IndicadoresDTO;
+import com.vueloscolombia.backend.dto.ProgresoOperacion;
+import com.vueloscolombia.backend.model.Vuelo;
+import com.vueloscolombia.backend.repository.VueloRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Operaciones masivas que borran reservas: los asientos vuelven a los vuelos y los indices en memoria
+ * (disponibilidad, mapa de asientos, analitica) quedan al dia sin esperar una recarga.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class OperacionMasivaServiceTest {
+
+    private static final String CLIENTE = "pepito@gmail.com";
+
+    @Autowired
+    private OperacionMasivaService operacionMasivaService;
+
+    @Autowired
+    private ReservaService reservaService;
+
+    @Autowired
+    private VueloService vueloService;
+
+    @Autowired
+    private VueloRepository vueloRepository;
+
+    @Autowired
+    private DisponibilidadService disponibilidadService;
+
+    @Autowired
+    private MapaAsientosService mapaAsientosService;
+
+    @Autowired
+    private AnaliticaService analiticaService;
+
+    @Test
+    void purgarDevuelveLosAsientosYPublicaLasCancelaciones() {
+        Vuelo vuelo = vueloService.guardar(new Vuelo("BOG", "OMP", 100000, "08:00", "09:00", 12, "2027-10-01", "Avianca"));
+        reservaService.crearReserva(vuelo.getId(), CLIENTE, 3, null, null);
+        reservaService.crearReserva(vuelo.getId(), CLIENTE, 2, null, null);
+        assertEquals(7, disponibilidadService.disponibles(vuelo.getId()));
+
+        operacionMasivaService.purgarReservas();
+
+        assertEquals(12, vueloRepository.findById(vuelo.getId()).orElseThrow().getDisponibles());
+        assertEquals(12, disponibilidadService.disponibles(vuelo.getId()));
+        assertEquals(12, mapaAsientosService.consultar(vuelo.getId()).getLibres());
+        IndicadoresDTO i = analiticaService.porVuelo(vuelo.getId());
+        assertEquals(0, i.getReservas());
+        assertEquals(2, i.getCancelaciones());
+        assertEquals(5, i.getAsientosCancelados());
+    }
+
+    @Test
+    void eliminarVuelosCancelaSusReservasEnLaAnalitica() {
+        Vuelo vuelo = vueloService.guardar(new Vuelo("BOG", "OME", 100000, "08:00", "09:00", 12, "2027-10-02", "Avianca"));
+        reservaService.crearReserva(vuelo.getId(), CLIENTE, 4, null, null);
+
+        operacionMasivaService.eliminarVuelos(List.of(vuelo.getId()), new ProgresoOperacion("prueba", "ELIMINAR_VUELOS"));
+
+        assertTrue(vueloRepository.findById(vuelo.getId()).isEmpty());
+        IndicadoresDTO i = analiticaService.porVuelo(vuelo.getId());
+        assertEquals(0, i.getReservas());
+        assertEquals(0, i.getAsientosVendidos());
+        assertEquals(1, i.getCancelaciones());
+    }
+}
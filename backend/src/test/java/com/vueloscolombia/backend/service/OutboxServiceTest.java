@@ -0,0 +1,173 @@
+package com.vueloscolombia.backend.service;
+
+import com.vueloscolombia.backend.dto.ProgresoOperacion;
+import com.vueloscolombia.backend.evento.ConsumidorOutbox;
+import com.vueloscolombia.backend.evento.ReservaCambiadaEvent;
+import com.vueloscolombia.backend.model.EventoOutbox;
+import com.vueloscolombia.backend.model.Vuelo;
+import com.vueloscolombia.backend.repository.CancelacionReservaRepository;
+import com.vueloscolombia.backend.repository.EventoOutboxRepository;
+import com.vueloscolombia.backend.repository.ReservaRepository;
+import com.vueloscolombia.backend.repository.VueloRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Outbox: el evento se confirma o se pierde junto con el cambio que lo produjo, y un evento que falla
+ * espera su reintento sin dejar pasar a los siguientes de su vuelo.
+ */
+@SpringBootTest(properties = "app.outbox.espera-base-ms=60000")
+@ActiveProfiles("test")
+class OutboxServiceTest {
+
+    private static final String CLIENTE = "pepito@gmail.com";
+
+    // Vuelo cuyo commit falla justo antes de confirmar / cuyos eventos no se pueden entregar
+    private static final AtomicLong FALLA_COMMIT = new AtomicLong(-1);
+    private static final AtomicLong FALLA_ENTREGA = new AtomicLong(-1);
+
+    @TestConfiguration
+    static class Fallos {
+
+        @Bean
+        FallaAntesDeConfirmar fallaAntesDeConfirmar() {
+            return new FallaAntesDeConfirmar();
+        }
+
+        @Bean
+        ConsumidorQueFalla consumidorQueFalla() {
+            return new ConsumidorQueFalla();
+        }
+    }
+
+    static class FallaAntesDeConfirmar {
+
+        @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+        public void onReservaCambiada(ReservaCambiadaEvent e) {
+            if (e.getVueloId() == FALLA_COMMIT.get()) {
+                throw new IllegalStateException("Fallo simulado antes del commit");
+            }
+        }
+    }
+
+    static class ConsumidorQueFalla implements ConsumidorOutbox {
+
+        @Override
+        public String getNombre() { return "prueba"; }
+
+        @Override
+        public void procesar(EventoOutbox evento) {
+            if (evento.getVueloId() != null && evento.getVueloId() == FALLA_ENTREGA.get()) {
+                throw new IllegalStateException("Entrega simulada fallida");
+            }
+        }
+    }
+
+    @Autowired
+    private OperacionMasivaService operacionMasivaService;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private ReservaService reservaService;
+
+    @Autowired
+    private VueloService vueloService;
+
+    @Autowired
+    private VueloRepository vueloRepository;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private EventoOutboxRepository eventoOutboxRepository;
+
+    @Autowired
+    private CancelacionReservaRepository cancelacionReservaRepository;
+
+    @Test
+    void laCancelacionMasivaYSuEventoSeConfirmanJuntos() {
+        Vuelo vuelo = vueloService.guardar(new Vuelo("BOG", "OUA", 100000, "08:00", "09:00", 10, "2027-08-01", "Avianca"));
+        reservaService.crearReserva(vuelo.getId(), CLIENTE, 2, null, null);
+        reservaService.crearReserva(vuelo.getId(), CLIENTE, 1, null, null);
+
+        FALLA_COMMIT.set(vuelo.getId());
+        try {
+            assertThrows(RuntimeException.class, () -> operacionMasivaService.cancelarReservasVuelo(vuelo.getId(),
+                    new ProgresoOperacion("prueba", "CANCELAR_RESERVAS_VUELO")));
+        } finally {
+            FALLA_COMMIT.set(-1);
+        }
+        // Nada del lote quedo confirmado: ni el borrado, ni los asientos, ni el outbox, ni la cancelacion
+        assertEquals(2, reservaRepository.findByVueloId(vuelo.getId()).size());
+        assertEquals(7, vueloRepository.findById(vuelo.getId()).orElseThrow().getDisponibles());
+        assertEquals(0, cancelaciones(vuelo.getId()));
+        assertEquals(0, eventos(vuelo.getId(), "RESERVA_CANCELADA").size());
+
+        operacionMasivaService.cancelarReservasVuelo(vuelo.getId(), new ProgresoOperacion("prueba", "CANCELAR_RESERVAS_VUELO"));
+        assertTrue(reservaRepository.findByVueloId(vuelo.getId()).isEmpty());
+        assertEquals(10, vueloRepository.findById(vuelo.getId()).orElseThrow().getDisponibles());
+        assertEquals(1, cancelaciones(vuelo.getId()));
+        assertEquals(1, eventos(vuelo.getId(), "RESERVA_CANCELADA").size());
+    }
+
+    @Test
+    void unEventoFallidoEsperaSuReintentoYFrenaASuVuelo() throws InterruptedException {
+        // Se guarda sin evento para marcar el vuelo como fallido antes de que el relevo vea el primero
+        Vuelo vuelo = vueloRepository.save(new Vuelo("BOG", "OUB", 100000, "08:00", "09:00", 10, "2027-08-02", "Avianca"));
+        FALLA_ENTREGA.set(vuelo.getId());
+        try {
+            vueloService.actualizar(vuelo.getId(), vuelo);
+            reservaService.crearReserva(vuelo.getId(), CLIENTE, 1, null, null);
+
+            // Los relevos programados de otros contextos comparten la base y pueden tener el lote reclamado
+            long limite = System.currentTimeMillis() + 10_000;
+            EventoOutbox primero = eventos(vuelo.getId(), "VUELO_GUARDADO").get(0);
+            while (primero.getIntentos() == 0) {
+                assertTrue(System.currentTimeMillis() < limite, "El relevo no intento el evento");
+                outboxService.despachar();
+                Thread.sleep(20);
+                primero = eventos(vuelo.getId(), "VUELO_GUARDADO").get(0);
+            }
+            assertEquals(1, primero.getIntentos());
+            assertTrue(primero.getSiguienteIntento().isAfter(LocalDateTime.now().plusSeconds(30)));
+            assertNull(primero.getReclamadoPor());
+
+            // Un segundo ciclo no lo reintenta todavia, y la reserva posterior del mismo vuelo sigue esperando
+            outboxService.despachar();
+            assertEquals(1, eventos(vuelo.getId(), "VUELO_GUARDADO").get(0).getIntentos());
+            EventoOutbox reserva = eventos(vuelo.getId(), "RESERVA_CREADA").get(0);
+            assertEquals(OutboxService.PENDIENTE, reserva.getEstado());
+            assertEquals(0, reserva.getIntentos());
+        } finally {
+            FALLA_ENTREGA.set(-1);
+        }
+    }
+
+    private List<EventoOutbox> eventos(Long vueloId, String tipo) {
+        return eventoOutboxRepository.findAll().stream()
+                .filter(e -> vueloId.equals(e.getVueloId()) && tipo.equals(e.getTipo()))
+                .toList();
+    }
+
+    private long cancelaciones(Long vueloId) {
+        return cancelacionReservaRepository.findAll().stream().filter(c -> vueloId.equals(c.getVueloId())).count();
+    }
+}
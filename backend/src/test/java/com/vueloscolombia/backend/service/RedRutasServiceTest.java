@@ -0,0 +1,128 @@
+package com.vueloscolombia.backend.service;
+
+import com.vueloscolombia.backend.dto.ItinerarioDTO;
+import com.vueloscolombia.backend.dto.TramoVuelo;
+import com.vueloscolombia.backend.model.Vuelo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Itinerarios sobre el grafo en memoria: ventana de conexion minima y maxima, llegadas despues de
+ * medianoche, filtro por asientos y limite de escalas. Cada prueba usa aeropuertos propios porque el
+ * contexto es compartido.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class RedRutasServiceTest {
+
+    private static final String CLIENTE = "pepito@gmail.com";
+
+    @Autowired
+    private RedRutasService redRutasService;
+
+    @Autowired
+    private VueloService vueloService;
+
+    @Autowired
+    private ReservaService reservaService;
+
+    @Test
+    void soloConexionesDentroDeLaVentana() {
+        Vuelo llegada = vuelo("RA1", "RA2", "2027-03-10", "08:00", "10:00", 50);
+        vuelo("RA2", "RA3", "2027-03-10", "10:30", "11:30", 50); // 30 min: menos que la conexion minima
+        Vuelo justa = vuelo("RA2", "RA3", "2027-03-10", "10:45", "11:45", 50);
+        Vuelo larga = vuelo("RA2", "RA3", "2027-03-10", "22:00", "23:00", 50); // 12 h exactas: el maximo
+        vuelo("RA2", "RA3", "2027-03-10", "22:01", "23:01", 50);
+
+        List<ItinerarioDTO> r = redRutasService.buscar("RA1", "RA3", "2027-03-10", 1, 2, "precio", 10);
+
+        assertEquals(2, r.size());
+        for (ItinerarioDTO i : r) {
+            assertEquals(llegada.getId(), i.getTramos().get(0).getId());
+        }
+        assertEquals(List.of(justa.getId(), larga.getId()),
+                r.stream().map(i -> i.getTramos().get(1).getId()).sorted().toList());
+    }
+
+    @Test
+    void unaLlegadaDespuesDeMedianocheConectaAlDiaSiguiente() {
+        Vuelo nocturno = vuelo("RB1", "RB2", "2027-03-10", "22:30", "00:30", 50);
+        vuelo("RB2", "RB3", "2027-03-11", "00:15", "01:15", 50); // sale antes de que llegue el nocturno
+        Vuelo madrugada = vuelo("RB2", "RB3", "2027-03-11", "01:30", "02:30", 50);
+
+        List<ItinerarioDTO> r = redRutasService.buscar("RB1", "RB3", "2027-03-10", 1, 1, "precio", 10);
+
+        assertEquals(1, r.size());
+        assertEquals(List.of(nocturno.getId(), madrugada.getId()), ids(r.get(0)));
+        assertEquals(240, r.get(0).getDuracionMinutos());
+        // La busqueda es por dia de salida: el 11 no sale nada de RB1
+        assertTrue(redRutasService.buscar("RB1", "RB3", "2027-03-11", 1, 1, "precio", 10).isEmpty());
+    }
+
+    @Test
+    void descartaTramosSinAsientosParaLosPasajeros() {
+        vuelo("RC1", "RC2", "2027-03-10", "08:00", "09:00", 2);
+        Vuelo conCupo = vuelo("RC1", "RC2", "2027-03-10", "12:00", "13:00", 5);
+        Vuelo segundo = vuelo("RC2", "RC3", "2027-03-10", "15:00", "16:00", 3);
+        vuelo("RC2", "RC3", "2027-03-10", "18:00", "19:00", 2);
+
+        List<ItinerarioDTO> r = redRutasService.buscar("RC1", "RC3", "2027-03-10", 3, 1, "precio", 10);
+        assertEquals(1, r.size());
+        assertEquals(List.of(conCupo.getId(), segundo.getId()), ids(r.get(0)));
+
+        // Una reserva en el segundo tramo lo deja sin cupo para tres
+        reservaService.crearReserva(segundo.getId(), CLIENTE, 1, null, null);
+        assertTrue(redRutasService.buscar("RC1", "RC3", "2027-03-10", 3, 1, "precio", 10).isEmpty());
+    }
+
+    @Test
+    void aLoSumoDosEscalas() {
+        vuelo("RD1", "RD2", "2027-03-10", "06:00", "07:00", 50);
+        vuelo("RD2", "RD3", "2027-03-10", "08:00", "09:00", 50);
+        vuelo("RD3", "RD4", "2027-03-10", "10:00", "11:00", 50);
+        vuelo("RD4", "RD5", "2027-03-10", "12:00", "13:00", 50);
+
+        assertEquals(3, redRutasService.buscar("RD1", "RD4", "2027-03-10", 1, 2, "precio", 10).get(0).getTramos().size());
+        assertTrue(redRutasService.buscar("RD1", "RD4", "2027-03-10", 1, 1, "precio", 10).isEmpty());
+        // Cuatro tramos son tres escalas: ni pidiendo mas se pasa de dos
+        assertTrue(redRutasService.buscar("RD1", "RD5", "2027-03-10", 1, 5, "precio", 10).isEmpty());
+    }
+
+    @Test
+    void laRecargaNoPierdeCambiosHechosMientrasLee() throws Exception {
+        Vuelo vuelo = vuelo("RE1", "RE2", "2027-03-10", "08:00", "09:00", 100);
+        AtomicBoolean reservando = new AtomicBoolean(true);
+        CompletableFuture<Void> recargas = CompletableFuture.runAsync(() -> {
+            while (reservando.get()) {
+                redRutasService.recargar();
+            }
+        });
+        try {
+            for (int k = 0; k < 30; k++) {
+                reservaService.crearReserva(vuelo.getId(), CLIENTE, 1, null, null);
+            }
+        } finally {
+            reservando.set(false);
+            recargas.get();
+        }
+        List<ItinerarioDTO> r = redRutasService.buscar("RE1", "RE2", "2027-03-10", 1, 0, "precio", 10);
+        assertEquals(70, r.get(0).getTramos().get(0).getDisponibles());
+    }
+
+    private Vuelo vuelo(String origen, String destino, String fecha, String salida, String llegada, int disponibles) {
+        return vueloService.guardar(new Vuelo(origen, destino, 100000, salida, llegada, disponibles, fecha, "Avianca"));
+    }
+
+    private static List<Long> ids(ItinerarioDTO i) {
+        return i.getTramos().stream().map(TramoVuelo::getId).toList();
+    }
+}
@@ -0,0 +1,60 @@
+package com.vueloscolombia.backend.service;
+
+import com.vueloscolombia.backend.dto.PaginaDTO;
+import com.vueloscolombia.backend.dto.UsuarioResumenDTO;
+import com.vueloscolombia.backend.model.Usuario;
+import com.vueloscolombia.backend.repository.UsuarioRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/** Busqueda del directorio por prefijo de nombre o apellido, paginada por id sin repetir usuarios. */
+@SpringBootTest
+@ActiveProfiles("test")
+class UsuarioServiceTest {
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Test
+    void prefijoDeNombreOApellidoPaginaPorId() {
+        List<Long> esperados = new ArrayList<>();
+        esperados.add(usuario("dir1@prueba.com", "Zacarias", "Quintanilla").getId());
+        usuario("dir2@prueba.com", "Pedro", "Perez");
+        esperados.add(usuario("dir3@prueba.com", "Quiteria", "Gomez").getId());
+        // Coincide por las dos columnas: sale una sola vez
+        esperados.add(usuario("dir4@prueba.com", "Quintin", "Quinones").getId());
+        esperados.add(usuario("dir5@prueba.com", "Ana", "Quiroga").getId());
+
+        // H2 compara con LIKE distinguiendo mayusculas, a diferencia de la intercalacion de MySQL
+        List<Long> vistos = new ArrayList<>();
+        String despues = null;
+        do {
+            PaginaDTO<UsuarioResumenDTO> pagina = usuarioService.listar(null, "Qui", null, null, despues, 2);
+            pagina.getItems().forEach(u -> vistos.add(u.getId()));
+            despues = pagina.getSiguiente();
+        } while (despues != null);
+
+        assertEquals(esperados, vistos);
+        assertNull(usuarioService.listar(null, "Quix", null, null, null, 2).getSiguiente());
+    }
+
+    private Usuario usuario(String username, String nombre, String apellido) {
+        Usuario u = new Usuario();
+        u.setUsername(username);
+        u.setPassword("x");
+        u.setPrimerNombre(nombre);
+        u.setPrimerApellido(apellido);
+        return usuarioRepository.save(u);
+    }
+}
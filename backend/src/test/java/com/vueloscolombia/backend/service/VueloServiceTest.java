@@ -0,0 +1,52 @@
+package com.vueloscolombia.backend.service;
+
+import com.vueloscolombia.backend.model.Vuelo;
+import com.vueloscolombia.backend.repository.VueloRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Editar un vuelo con un formulario cargado antes de unas reservas no devuelve esos asientos: el cupo
+ * solo cambia con la capacidad, y por diferencia.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class VueloServiceTest {
+
+    private static final String CLIENTE = "pepito@gmail.com";
+
+    @Autowired
+    private VueloService vueloService;
+
+    @Autowired
+    private VueloRepository vueloRepository;
+
+    @Autowired
+    private ReservaService reservaService;
+
+    @Test
+    void unFormularioAtrasadoNoDevuelveAsientosVendidos() {
+        Vuelo vuelo = vueloService.guardar(new Vuelo("BOG", "VSA", 100000, "08:00", "09:00", 10, "2027-10-01", "Avianca"));
+        // El formulario del administrador se cargo con 10 disponibles
+        Vuelo formulario = new Vuelo("BOG", "VSA", 120000, "08:00", "09:00", 10, "2027-10-01", "Avianca");
+
+        reservaService.crearReserva(vuelo.getId(), CLIENTE, 3, null, null);
+
+        vueloService.actualizar(vuelo.getId(), formulario);
+        Vuelo editado = vueloRepository.findById(vuelo.getId()).orElseThrow();
+        assertEquals(7, editado.getDisponibles());
+        assertEquals(10, editado.getCapacidad());
+        assertEquals(120000, editado.getPrecio());
+
+        // Ampliar la capacidad suma la diferencia a lo que queda
+        formulario.setCapacidad(15);
+        vueloService.actualizar(vuelo.getId(), formulario);
+        editado = vueloRepository.findById(vuelo.getId()).orElseThrow();
+        assertEquals(12, editado.getDisponibles());
+        assertEquals(15, editado.getCapacidad());
+    }
+}
@@ -5,7 +5,7 @@ import FormInput from "../../components/FormInput";
 import FormSelect from "../../components/FormSelect";
 import { useForm } from "../../hooks/useForm";
 import { createFlight, updateFlight } from "../../utils/api";
-import { flightSchema } from "../../utils/validationSchemas";
+import { flightSchema, flightEditSchema } from "../../utils/validationSchemas";
 import { AIRLINES } from "../../data/airlines";
 
 const CIUDADES = [
@@ -32,6 +32,8 @@ export default function FlightEdit() {
             disponibles: Number(formData.disponibles) 
         };
         if (vuelo) {
+            // El servidor ajusta los asientos por la diferencia de capacidad, no por los disponibles del formulario
+            flightData.capacidad = formData.capacidad ? Number(formData.capacidad) : null;
             await updateFlight(vuelo.id, flightData);
         } else {
             await createFlight(flightData);
@@ -63,7 +65,7 @@ export default function FlightEdit() {
       disponibles: "",
       aerolinea: ""
     },
-    flightSchema,
+    vuelo ? flightEditSchema : flightSchema,
     onSubmit
   );
 
@@ -167,7 +169,7 @@ export default function FlightEdit() {
           />
         </div>
 
-        {/* Cuarta fila: Aerolínea y Asientos disponibles */}
+        {/* Cuarta fila: Aerolínea y asientos (capacidad total al editar) */}
         <div className="form-row">
           <FormSelect
             label="Aerolínea"
@@ -183,21 +185,38 @@ export default function FlightEdit() {
             hint="Aerolínea que opera el vuelo"
           />
 
-          <FormInput
-            label="Asientos Disponibles"
-            id="disponibles"
-            name="disponibles"
-            type="number"
-            value={form.disponibles}
-            onChange={handleChange}
-            required
-            error={submitted ? fieldErrors.disponibles : undefined}
-            submitted={submitted}
-            min="0"
-            max="300"
-            placeholder="150"
-            hint="Número total de asientos disponibles"
-          />
+          {vuelo ? (
+            <FormInput
+              label="Capacidad Total"
+              id="capacidad"
+              name="capacidad"
+              type="number"
+              value={form.capacidad ?? ""}
+              onChange={handleChange}
+              error={submitted ? fieldErrors.capacidad : undefined}
+              submitted={submitted}
+              min="1"
+              max="300"
+              placeholder="150"
+              hint={`Asientos totales del vuelo; hoy quedan ${vuelo.disponibles} disponibles`}
+            />
+          ) : (
+            <FormInput
+              label="Asientos Disponibles"
+              id="disponibles"
+              name="disponibles"
+              type="number"
+              value={form.disponibles}
+              onChange={handleChange}
+              required
+              error={submitted ? fieldErrors.disponibles : undefined}
+              submitted={submitted}
+              min="0"
+              max="300"
+              placeholder="150"
+              hint="Número total de asientos disponibles"
+            />
+          )}
         </div>
 
         {/* Muestra error general del formulario si existe */}
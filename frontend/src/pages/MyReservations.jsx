@@ -1,6 +1,6 @@
 // src/pages/MyReservations.jsx
 import React, { useEffect, useState } from 'react';
-import { getMyReservations, deleteReservation } from '../utils/api';
+import { getMyReservations, deleteReservation, downloadTicketPDF } from '../utils/api';
 import { getCityName } from '../data/cities';
 import Button from '../components/Button';
 import './MyReservations.css';
@@ -41,6 +41,23 @@ export default function MyReservations() {
     }
   };
 
+  const handleDownloadTicket = async (id) => {
+    try {
+      const pdfBlob = await downloadTicketPDF(id);
+      const url = window.URL.createObjectURL(new Blob([pdfBlob]));
+      const link = document.createElement('a');
+      link.href = url;
+      link.setAttribute('download', `boleto_${id}.pdf`);
+      document.body.appendChild(link);
+      link.click();
+      link.parentNode.removeChild(link);
+      window.URL.revokeObjectURL(url);
+    } catch (err) {
+      alert('No se pudo descargar el boleto.');
+      console.error(err);
+    }
+  };
+
   if (loading) {
     return <div className="page">Cargando reservas...</div>;
   }
@@ -78,6 +95,7 @@ export default function MyReservations() {
                     <h4>Reserva</h4>
                     <p><strong>Confirmación:</strong> {reserva.id}</p>
                     <p><strong>Pasajeros:</strong> {reserva.cantidad}</p>
+                    {reserva.asientos && <p><strong>Asientos:</strong> {reserva.asientos.split(',').join(', ')}</p>}
                     <p><strong>Estado:</strong> 
                       <span className={`reservation-status ${reserva.estado.toLowerCase()}`}>
                         {reserva.estado}
@@ -86,6 +104,9 @@ export default function MyReservations() {
                   </div>
                 </div>
                 <div className="reservation-card__actions">
+                  <Button onClick={() => handleDownloadTicket(reserva.id)}>
+                    Descargar Boleto
+                  </Button>
                   <Button 
                     onClick={() => handleCancel(reserva.id)}
                     variant="danger"
@@ -4,7 +4,7 @@ import { useLocation, useNavigate } from "react-router-dom";
 import { useAuth } from "../context/AuthContext";
 import Button from "../components/Button";
 import { formatCurrency } from "../utils/format";
-import { createReservation } from "../utils/api";
+import { createReservation, getQuote } from "../utils/api";
 import { getCityName } from "../data/cities";
 import "./ReservationConfirm.css";
 
@@ -23,6 +23,8 @@ export default function ReservationConfirm() {
   // Estados para carga y errores
   const [loading, setLoading] = useState(false);
   const [error, setError] = useState(null);
+  // Precio fijado por el servidor para este vuelo y cantidad; se envia al reservar
+  const [cotizacion, setCotizacion] = useState(null);
   
   // Transforma el objeto 'user' del contexto a la estructura que espera la UI
   const createPasajeroFromUser = (u) => {
@@ -52,6 +54,17 @@ export default function ReservationConfirm() {
     }
   }, []);
 
+  useEffect(() => {
+    if (!vuelo) return;
+    getQuote(vuelo.id, pasajeros)
+      .then(setCotizacion)
+      .catch((err) => {
+        // Sin cotizacion se reserva a la tarifa del momento
+        setCotizacion(null);
+        console.error(err);
+      });
+  }, [vuelo?.id, pasajeros]);
+
   // Manejo de estado de error cuando no hay informacion del vuelo
   if (!vuelo) {
     return (
@@ -90,7 +103,7 @@ export default function ReservationConfirm() {
     setLoading(true);
     setError(null);
     try {
-      const reserva = await createReservation(vuelo.id, pasajeros);
+      const reserva = await createReservation(vuelo.id, pasajeros, cotizacion?.token);
       navigate("/reserva-exitosa", { 
         state: { vuelo, pasajero, cantidad: pasajeros, reserva } 
       });
@@ -102,7 +115,8 @@ export default function ReservationConfirm() {
     }
   };
 
-  const total = vuelo.precio * pasajeros;
+  const precioUnitario = cotizacion?.precioUnitario ?? vuelo.tarifa ?? vuelo.precio;
+  const total = precioUnitario * pasajeros;
 
   return (
     <main className="page">
@@ -131,7 +145,7 @@ export default function ReservationConfirm() {
                         <p><strong>Salida:</strong> {vuelo.horaSalida}</p>
                         <p><strong>Llegada:</strong> {vuelo.horaLlegada}</p>
                         <p><strong>Aerolínea:</strong> {vuelo.aerolinea || 'N/A'}</p>
-                        <p><strong>Precio por pasajero:</strong> {formatCurrency(vuelo.precio)}</p>
+                        <p><strong>Precio por pasajero:</strong> {formatCurrency(precioUnitario)}</p>
                       </div>
                     </section>
                   </div>
@@ -53,7 +53,7 @@ export default function ReservationSuccess() {
     );
   }
 
-  const total = vuelo.precio * cantidad;
+  const total = (reserva.precioUnitario ?? vuelo.tarifa ?? vuelo.precio) * cantidad;
 
   return (
     <main className="page">
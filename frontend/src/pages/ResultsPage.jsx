@@ -110,7 +110,7 @@ export default function ResultsPage() {
                 </div>
 
                 <div className="flight-card__action">
-                  <p className="price">{formatCurrency(v.precio)}</p>
+                  <p className="price">{formatCurrency(v.tarifa ?? v.precio)}</p>
                   <span className="seats">{v.disponibles} asientos</span>
                   <Button onClick={() => reservar(v)} variant="primary">
                     Reservar
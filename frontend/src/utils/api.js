@@ -34,13 +34,20 @@ export const getUserProfile = async () => {
   return response.data;
 };
 
-export const getMyReservations = async () => {
-  const response = await api.get('/api/reservas/me');
+export const getMyReservations = async (historial = false) => {
+  const response = await api.get('/api/reservas/me', { params: { historial } });
   return response.data;
 };
 
-export const createReservation = async (vueloId, cantidad) => {
-  const response = await api.post(`/api/reservas/${vueloId}?cantidad=${cantidad}`);
+// Con cotizacion se cobra el precio cotizado (ver getQuote)
+export const createReservation = async (vueloId, cantidad, cotizacion) => {
+  const response = await api.post(`/api/reservas/${vueloId}`, null, { params: { cantidad, cotizacion } });
+  return response.data;
+};
+
+// Fija la tarifa actual del vuelo por unos minutos; devuelve { token, precioUnitario, total, expira }
+export const getQuote = async (vueloId, cantidad) => {
+  const response = await api.post(`/api/reservas/cotizacion/${vueloId}`, null, { params: { cantidad } });
   return response.data;
 };
 
@@ -83,8 +90,17 @@ export const downloadPassengersPDF = async (flightId) => {
   return response.data;
 };
 
-export const getUsers = async () => {
-    const response = await api.get('/api/usuarios');
+export const downloadTicketPDF = async (reservationId) => {
+  const response = await api.get(`/api/reservas/${reservationId}/boleto`, {
+    responseType: 'blob',
+  });
+  return response.data;
+};
+
+// Directorio paginado: params { documento, nombre, username, orden, despues, tamano }; devuelve
+// { items, siguiente }, con siguiente como cursor (despues) de la pagina que sigue, o null al final
+export const getUsers = async (params = {}) => {
+    const response = await api.get('/api/usuarios', { params });
     return response.data;
 };
 
@@ -331,6 +331,14 @@ export const flightSchema = {
   disponibles: (value) => !value || value < 0 ? "Los asientos no pueden ser negativos" : null
 };
 
+// Al editar se cambia la capacidad total; los disponibles los mueven las reservas.
+// Vacia (vuelos antiguos sin capacidad registrada) deja los asientos como estan
+const { disponibles: _disponibles, ...camposVuelo } = flightSchema;
+export const flightEditSchema = {
+  ...camposVuelo,
+  capacidad: (value) => value != null && value !== "" && value <= 0 ? "La capacidad debe ser mayor a 0" : null
+};
+
 // Configuración de campos para formulario de login
 export const LOGIN_FIELDS = [
   {
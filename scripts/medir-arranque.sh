@@ -0,0 +1,52 @@
+#!/usr/bin/env bash
+# Construye las imagenes JVM y nativa del backend y compara tiempo de arranque y memoria residente.
+#
+#   scripts/medir-arranque.sh backend.env            # construye y mide las dos
+#   SIN_BUILD=1 scripts/medir-arranque.sh backend.env
+#
+# backend.env es un --env-file de docker con DB_HOST, DB_PORT, DB_NAME, DB_USER, DB_PASS (y lo que haga
+# falta); conviene una base de pruebas. Con DATOS_INICIALES=false se mide sin el DataLoader.
+set -euo pipefail
+
+ENV_FILE=${1:?Uso: $0 archivo.env}
+RAIZ=$(cd "$(dirname "$0")/.." && pwd)
+ESPERA=${ESPERA:-180}
+declare -A IMAGEN=([jvm]=vuelos-jvm [nativo]=vuelos-nativo)
+
+if [ -z "${SIN_BUILD:-}" ]; then
+  for target in jvm nativo; do
+    echo "Construyendo ${IMAGEN[$target]} (--target $target)..."
+    docker build -q --target "$target" -t "${IMAGEN[$target]}" "$RAIZ" >/dev/null
+  done
+fi
+
+medir() {
+  local target=$1 imagen=${IMAGEN[$1]} id inicio arranque pid rss tamano
+  id=$(docker run -d --rm --env-file "$ENV_FILE" -e PORT=8080 "$imagen")
+  trap "docker rm -f $id >/dev/null 2>&1 || true" RETURN
+  inicio=$(date +%s)
+  # Spring escribe "Started BackendApplication in X seconds" tanto en JSON como en texto
+  until arranque=$(docker logs "$id" 2>&1 | grep -o 'Started BackendApplication in [0-9.]* seconds' | grep -o '[0-9.]*' | head -1) \
+        && [ -n "$arranque" ]; do
+    if [ $(( $(date +%s) - inicio )) -gt "$ESPERA" ] || [ -z "$(docker ps -q -f id="$id")" ]; then
+      echo "$target: no arranco; ultimas lineas del log:" >&2
+      docker logs --tail 20 "$id" >&2 || true
+      return 1
+    fi
+    sleep 0.2
+  done
+  sleep 2 # que terminen las tareas de arranque en segundo plano antes de medir memoria
+  pid=$(docker inspect -f '{{.State.Pid}}' "$id")
+  if [ -r "/proc/$pid/status" ]; then
+    rss="$(awk '/VmRSS/ {printf "%.0f MB", $2 / 1024}' "/proc/$pid/status")"
+  else
+    # Docker Desktop u otro host sin acceso al proceso: memoria del contenedor
+    rss="$(docker stats --no-stream --format '{{.MemUsage}}' "$id" | cut -d/ -f1) (cgroup)"
+  fi
+  tamano=$(docker image inspect -f '{{.Size}}' "$imagen" | awk '{printf "%.0f MB", $1 / 1048576}')
+  printf '%-8s %-14s %12s %16s %12s\n' "$target" "$imagen" "${arranque} s" "$rss" "$tamano"
+}
+
+printf '%-8s %-14s %12s %16s %12s\n' "target" "imagen" "arranque" "memoria (RSS)" "imagen"
+medir jvm
+medir nativo